@@ -1,18 +1,50 @@
 package com.example.backend;
 
+import com.example.backend.busca.BuscaBeneficios;
+import com.example.backend.config.AdmissaoConexoes;
 import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.ImportacaoResultadoDTO;
+import com.example.backend.dto.ResultadoBuscaDTO;
+import com.example.backend.dto.ResumoBeneficiosDTO;
 import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.dto.VersaoColecaoDTO;
+import com.example.backend.exception.ChaveIdempotenciaReservadaException;
+import com.example.backend.service.BeneficioCsv;
+import com.example.backend.service.BeneficioFatiaService;
+import com.example.backend.service.BeneficioImportacaoService;
 import com.example.backend.service.BeneficioService;
+import com.example.backend.service.IdempotenciaService;
+import com.example.backend.service.TransferenciaService;
+import com.example.backend.stream.BeneficioStream;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/beneficios")
@@ -20,37 +52,197 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class BeneficioController {
 
+    static final String MEDIA_TYPE_NDJSON = "application/x-ndjson";
+
+    static final String HEADER_NEXT_AFTER = "X-Next-After";
+
+    private static final int LIMITE_PADRAO = 100;
+
+    private static final int LIMITE_PADRAO_BUSCA = 20;
+
     @Autowired
     private BeneficioService service;
 
+    @Autowired
+    private BeneficioFatiaService fatiaService;
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private BeneficioImportacaoService importacaoService;
+
+    @Autowired
+    private BeneficioStream stream;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AdmissaoConexoes admissao;
+
     @GetMapping
-    @Operation(summary = "Listar todos os benefícios")
-    public ResponseEntity<List<BeneficioDTO>> findAll() {
-        List<BeneficioDTO> beneficios = service.findAll();
-        return ResponseEntity.ok(beneficios);
+    @Operation(summary = "Listar todos os benefícios",
+            description = "Sem parâmetros retorna a lista completa, com ETag (If-None-Match responde 304). "
+                    + "Com after/limit retorna uma página por keyset "
+                    + "e o cabeçalho " + HEADER_NEXT_AFTER + " com o cursor da próxima página.")
+    public ResponseEntity<List<BeneficioDTO>> findAll(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (after == null && limit == null) {
+            return colecao(false, request, service::findAll);
+        }
+        int tamanho = limit != null ? limit : LIMITE_PADRAO;
+        return page(service.findPage(after, tamanho), tamanho);
+    }
+
+    @GetMapping(produces = MEDIA_TYPE_NDJSON)
+    @Operation(summary = "Listar todos os benefícios em streaming (NDJSON)")
+    public ResponseEntity<StreamingResponseBody> streamAll() {
+        return stream(false);
     }
 
     @GetMapping("/ativos")
     @Operation(summary = "Listar benefícios ativos")
-    public ResponseEntity<List<BeneficioDTO>> findAllAtivos() {
-        List<BeneficioDTO> beneficios = service.findAllAtivos();
-        return ResponseEntity.ok(beneficios);
+    public ResponseEntity<List<BeneficioDTO>> findAllAtivos(
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
+        if (after == null && limit == null) {
+            return colecao(true, request, service::findAllAtivos);
+        }
+        int tamanho = limit != null ? limit : LIMITE_PADRAO;
+        return page(service.findAtivosPage(after, tamanho), tamanho);
+    }
+
+    @GetMapping(value = "/ativos", produces = MEDIA_TYPE_NDJSON)
+    @Operation(summary = "Listar benefícios ativos em streaming (NDJSON)")
+    public ResponseEntity<StreamingResponseBody> streamAtivos() {
+        return stream(true);
+    }
+
+    @PostMapping(value = "/import", consumes = BeneficioCsv.MEDIA_TYPE)
+    @Operation(summary = "Importar benefícios em lote (CSV)",
+            description = "Cabeçalho com as colunas nome e valor (descricao e ativo opcionais); outras colunas são "
+                    + "ignoradas. O arquivo é lido em streaming e gravado em batches. Com atomico=true (padrão) "
+                    + "qualquer linha inválida rejeita a importação; com atomico=false as linhas inválidas são "
+                    + "ignoradas e reportadas.")
+    public ResponseEntity<ImportacaoResultadoDTO> importarCsv(
+            InputStream corpo,
+            @RequestParam(defaultValue = "true") boolean atomico) {
+        return ResponseEntity.ok(importacaoService.importarCsv(corpo, atomico));
+    }
+
+    @PostMapping(value = "/import", consumes = MEDIA_TYPE_NDJSON)
+    @Operation(summary = "Importar benefícios em lote (NDJSON)", description = "Um benefício JSON por linha.")
+    public ResponseEntity<ImportacaoResultadoDTO> importarNdjson(
+            InputStream corpo,
+            @RequestParam(defaultValue = "true") boolean atomico) {
+        return ResponseEntity.ok(importacaoService.importarNdjson(corpo, atomico));
+    }
+
+    @GetMapping(value = "/export", produces = BeneficioCsv.MEDIA_TYPE)
+    @Operation(summary = "Exportar todos os benefícios (CSV)", description = "Mesmo formato aceito pela importação.")
+    public ResponseEntity<StreamingResponseBody> exportarCsv() {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(BeneficioCsv.CABECALHO);
+            writer.write('\n');
+            service.forEach(false, dto -> {
+                try {
+                    BeneficioCsv.escrever(writer, dto);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(BeneficioCsv.MEDIA_TYPE + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=beneficios.csv")
+                .body(body);
+    }
+
+    @GetMapping(value = "/export", produces = MEDIA_TYPE_NDJSON)
+    @Operation(summary = "Exportar todos os benefícios (NDJSON)")
+    public ResponseEntity<StreamingResponseBody> exportarNdjson() {
+        return stream(false);
+    }
+
+    @GetMapping("/stats")
+    @Operation(summary = "Totais dos benefícios",
+            description = "Quantidade e saldo, no geral e por status, servidos de um resumo em memória atualizado "
+                    + "a cada commit e conferido periodicamente com o banco.")
+    public ResponseEntity<ResumoBeneficiosDTO> stats() {
+        return ResponseEntity.ok(service.findResumo());
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Buscar benefícios por nome e descrição",
+            description = "Cada termo de q casa como palavra inteira ou prefixo, sem diferenciar maiúsculas "
+                    + "nem acentos; todos os termos devem estar presentes. Resultados em ordem de relevância "
+                    + "(nome antes de descrição, palavra inteira antes de prefixo), paginados por offset/limit "
+                    + "até a posição " + BuscaBeneficios.MAX_POSICAO + ". Em buscas amplas a contagem é "
+                    + "interrompida e o total vem com totalExato=false.")
+    public ResponseEntity<ResultadoBuscaDTO> search(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "" + LIMITE_PADRAO_BUSCA) int limit) {
+        return ResponseEntity.ok(service.search(q, offset, limit));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Acompanhar alterações de benefícios (SSE)",
+            description = "Emite eventos 'delta' (tipo, id, valor, version) após cada alteração confirmada. "
+                    + "Um evento 'ressincronizar' indica que deltas foram descartados e a lista deve ser recarregada.")
+    public SseEmitter stream() {
+        return stream.assinar();
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Buscar benefício por ID")
-    public ResponseEntity<BeneficioDTO> findById(@PathVariable Long id) {
+    @Operation(summary = "Buscar benefício por ID",
+            description = "Responde com ETag derivado da versão; If-None-Match com a versão atual responde 304.")
+    public ResponseEntity<BeneficioDTO> findById(@PathVariable Long id, WebRequest request) {
+        // Só requisições condicionais consultam a versão no banco; as demais são servidas
+        // pelo cache sem ocupar conexão do pool.
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<Long> versao = service.findVersion(id);
+            if (versao.isPresent() && request.checkNotModified(etag(versao.get()))) {
+                return null;
+            }
+        }
         BeneficioDTO beneficio = service.findById(id);
-        return ResponseEntity.ok(beneficio);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!beneficio.isFatiado()) {
+            response.eTag(etag(beneficio.getVersion()));
+        }
+        return response.body(beneficio);
     }
 
     @PostMapping
-    @Operation(summary = "Criar novo benefício")
-    public ResponseEntity<BeneficioDTO> create(@Valid @RequestBody BeneficioDTO dto) {
-        BeneficioDTO created = service.create(dto);
+    @Operation(summary = "Criar novo benefício",
+            description = "Com o cabeçalho " + IdempotenciaService.HEADER + ", repetições da mesma requisição "
+                    + "retornam o benefício criado na primeira execução.")
+    public ResponseEntity<BeneficioDTO> create(
+            @RequestHeader(name = IdempotenciaService.HEADER, required = false) String chave,
+            @Valid @RequestBody BeneficioDTO dto) {
+        IdempotenciaService.Requisicao requisicao = idempotenciaService.requisicao(chave, "CRIAR_BENEFICIO", dto);
+        BeneficioDTO created = executar(requisicao, BeneficioDTO.class, () -> service.create(dto, requisicao));
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    @PostMapping("/batch")
+    @Operation(summary = "Criar benefícios em lote",
+            description = "Cria até " + BeneficioService.MAX_ITENS_LOTE + " benefícios em uma única transação, "
+                    + "com INSERTs em batch. Qualquer item inválido rejeita o lote.")
+    public ResponseEntity<List<BeneficioDTO>> createBatch(@RequestBody List<BeneficioDTO> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.createAll(dtos));
+    }
+
     @PutMapping("/{id}")
     @Operation(summary = "Atualizar benefício")
     public ResponseEntity<BeneficioDTO> update(@PathVariable Long id, @Valid @RequestBody BeneficioDTO dto) {
@@ -65,10 +257,132 @@ public class BeneficioController {
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/{id}/fatias")
+    @Operation(summary = "Habilitar saldo fatiado",
+            description = "Divide o saldo em N fatias para que transferências envolvendo um benefício muito "
+                    + "disputado bloqueiem apenas uma fatia, e não a linha inteira.")
+    public ResponseEntity<BeneficioDTO> habilitarFatias(@PathVariable Long id, @RequestParam int quantidade) {
+        return ResponseEntity.ok(fatiaService.habilitar(id, quantidade));
+    }
+
+    @DeleteMapping("/{id}/fatias")
+    @Operation(summary = "Desabilitar saldo fatiado", description = "Consolida as fatias de volta no saldo do benefício.")
+    public ResponseEntity<BeneficioDTO> desabilitarFatias(@PathVariable Long id) {
+        return ResponseEntity.ok(fatiaService.desabilitar(id));
+    }
+
     @PostMapping("/transfer")
-    @Operation(summary = "Transferir valor entre benefícios")
-    public ResponseEntity<Map<String, String>> transfer(@Valid @RequestBody TransferenciaDTO transferenciaDTO) {
-        service.transfer(transferenciaDTO);
+    @Operation(summary = "Transferir valor entre benefícios",
+            description = "Com o cabeçalho " + IdempotenciaService.HEADER + ", repetições da mesma requisição "
+                    + "não movimentam o saldo novamente. Com o pool de conexões saturado, responde 503 "
+                    + "com Retry-After.")
+    public ResponseEntity<Map<String, String>> transfer(
+            @RequestHeader(name = IdempotenciaService.HEADER, required = false) String chave,
+            @Valid @RequestBody TransferenciaDTO transferenciaDTO) {
+        admissao.admitir();
+        IdempotenciaService.Requisicao requisicao = idempotenciaService.requisicao(chave, "TRANSFERIR", transferenciaDTO);
+        executar(requisicao, Void.class, () -> {
+            transferenciaService.transfer(transferenciaDTO, requisicao);
+            return null;
+        });
         return ResponseEntity.ok(Map.of("message", "Transferência realizada com sucesso"));
     }
+
+    @PostMapping("/transfer/batch")
+    @Operation(summary = "Transferir valores em lote",
+            description = "Executa até " + BeneficioService.MAX_ITENS_LOTE + " transferências em uma única transação. "
+                    + "Com atomico=true (padrão) qualquer item inválido rejeita o lote; com atomico=false "
+                    + "os itens inválidos são ignorados e os demais aplicados.")
+    public ResponseEntity<List<TransferenciaResultadoDTO>> transferBatch(
+            @RequestBody List<TransferenciaDTO> transferencias,
+            @RequestParam(defaultValue = "true") boolean atomico) {
+        admissao.admitir();
+        List<TransferenciaResultadoDTO> resultados = service.transferBatch(transferencias, atomico);
+        return ResponseEntity.ok(resultados);
+    }
+
+    /**
+     * Executa a operação ou, se a requisição já foi atendida, devolve a resposta gravada.
+     * Uma repetição concorrente falha na reserva da chave e passa a ler a resposta da
+     * execução que venceu; se ela ainda não tem resposta (transferência pelo motor em
+     * andamento, ou cuja resposta não foi gravada), a repetição responde 409.
+     */
+    private <T> T executar(IdempotenciaService.Requisicao requisicao, Class<T> tipo, Supplier<T> operacao) {
+        if (requisicao == null) {
+            return operacao.get();
+        }
+        Optional<String> anterior = idempotenciaService.buscarResposta(requisicao);
+        if (anterior.isEmpty()) {
+            try {
+                return operacao.get();
+            } catch (ChaveIdempotenciaReservadaException e) {
+                anterior = idempotenciaService.buscarResposta(requisicao);
+                if (anterior.isEmpty()) {
+                    throw new IllegalStateException(
+                            IdempotenciaService.HEADER + " já reservada por uma requisição sem resposta", e);
+                }
+            }
+        }
+        try {
+            return objectMapper.readValue(anterior.get(), tipo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * GET condicional de uma listagem completa. O 304 é decidido pelo resumo de versões,
+     * sem ler as linhas. O ETag enviado com o corpo é calculado sobre a própria lista
+     * devolvida (que pode vir do cache), para nunca associar uma lista antiga a um ETag novo.
+     */
+    private ResponseEntity<List<BeneficioDTO>> colecao(boolean somenteAtivos, WebRequest request,
+                                                       Supplier<List<BeneficioDTO>> carregar) {
+        Optional<VersaoColecaoDTO> versao = service.findVersaoColecao(somenteAtivos);
+        if (versao.isPresent() && request.checkNotModified(etag(versao.get()))) {
+            return null;
+        }
+        List<BeneficioDTO> beneficios = carregar.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (versao.isPresent()) {
+            response.eTag(etag(VersaoColecaoDTO.of(beneficios)));
+        }
+        return response.body(beneficios);
+    }
+
+    private static String etag(Long versao) {
+        return "\"v" + versao + "\"";
+    }
+
+    private static String etag(VersaoColecaoDTO versao) {
+        return "\"c" + versao.getQuantidade() + "-" + versao.getSomaPonderada() + "-" + versao.getMaiorId() + "\"";
+    }
+
+    private ResponseEntity<List<BeneficioDTO>> page(List<BeneficioDTO> beneficios, int limit) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (beneficios.size() == limit) {
+            response.header(HEADER_NEXT_AFTER, String.valueOf(beneficios.get(beneficios.size() - 1).getId()));
+        }
+        return response.body(beneficios);
+    }
+
+    private ResponseEntity<StreamingResponseBody> stream(boolean somenteAtivos) {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Cada linha é um JSON completo; o separador é escrito explicitamente
+                generator.setRootValueSeparator(null);
+                service.forEach(somenteAtivos, dto -> {
+                    try {
+                        writer.writeValue(generator, dto);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(MEDIA_TYPE_NDJSON))
+                .body(body);
+    }
 }
@@ -0,0 +1,47 @@
+package com.example.backend;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.repository.BeneficioReativoRepository;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Leituras reativas para clientes de polling. As listagens são emitidas item a item
+ * (NDJSON ou SSE) conforme o cliente consome, sem montar a lista na aplicação. Com o H2
+ * embarcado a consulta em si bloqueia a thread que a executa. Escritas continuam em
+ * {@link BeneficioController}.
+ */
+@RestController
+@RequestMapping("/api/v1/reativo/beneficios")
+@Tag(name = "Benefícios (reativo)", description = "Leitura reativa de benefícios via R2DBC")
+@CrossOrigin(origins = "*")
+public class BeneficioReativoController {
+
+    @Autowired
+    private BeneficioReativoRepository repository;
+
+    @GetMapping(produces = {BeneficioController.MEDIA_TYPE_NDJSON, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Listar todos os benefícios em streaming reativo")
+    public Flux<BeneficioDTO> findAll() {
+        return repository.findAll(false);
+    }
+
+    @GetMapping(value = "/ativos", produces = {BeneficioController.MEDIA_TYPE_NDJSON, MediaType.TEXT_EVENT_STREAM_VALUE})
+    @Operation(summary = "Listar benefícios ativos em streaming reativo")
+    public Flux<BeneficioDTO> findAllAtivos() {
+        return repository.findAll(true);
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Buscar benefício por ID")
+    public Mono<BeneficioDTO> findById(@PathVariable Long id) {
+        return repository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new EntityNotFoundException("Benefício não encontrado: " + id)));
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.backend.busca;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.event.BeneficiosImportadosEvent;
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Busca textual por nome e descrição sobre um {@link IndiceBusca} em memória, construído
+ * na subida da aplicação a partir do banco e mantido pelos {@link BeneficioAlteradoEvent}
+ * após o commit. Importações em lote não publicam os benefícios importados: o índice é
+ * reconstruído em segundo plano, e o anterior continua atendendo as consultas até a troca.
+ *
+ * <p>Durante uma construção os eventos são aplicados aos dois índices. A construção só
+ * inclui benefícios ainda ausentes do novo índice e não removidos desde o seu início, de
+ * modo que uma linha lida antes de um commit não sobrescreve o estado mais recente.
+ */
+@Component
+public class BuscaBeneficios {
+
+    /** Última posição alcançável pela paginação ({@code offset + limit}). */
+    public static final int MAX_POSICAO = 1000;
+
+    private final BeneficioJdbcRepository jdbcRepository;
+
+    private final ExecutorService reconstrucao = Executors.newSingleThreadExecutor(tarefa -> {
+        Thread thread = new Thread(tarefa, "busca-reconstrucao");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean reconstrucaoAgendada = new AtomicBoolean();
+
+    /** Uma construção por vez: a da subida pode coincidir com a de uma importação. */
+    private final Lock construcao = new ReentrantLock();
+
+    /** {@code null} até a primeira construção. */
+    private volatile IndiceBusca atual;
+
+    /** Índice em construção; guardado por {@code this}. */
+    private IndiceBusca emConstrucao;
+
+    /** Removidos desde o início da construção; guardado por {@code this}. */
+    private Set<Long> removidosNaConstrucao;
+
+    public BuscaBeneficios(BeneficioJdbcRepository jdbcRepository, MeterRegistry meterRegistry) {
+        this.jdbcRepository = jdbcRepository;
+        Gauge.builder("beneficio.busca.indexados", this, busca -> {
+                    IndiceBusca indice = busca.atual;
+                    return indice != null ? indice.tamanho() : 0;
+                })
+                .description("Benefícios no índice de busca")
+                .register(meterRegistry);
+    }
+
+    /**
+     * IDs da página de resultados, do mais relevante para o menos relevante, e o total
+     * encontrado.
+     *
+     * @throws CapacidadeEsgotadaException se o índice ainda não foi construído
+     */
+    public ResultadoBusca buscar(String consulta, int offset, int limite) {
+        if (consulta == null || IndiceBusca.normalizar(consulta).length == 0) {
+            throw new IllegalArgumentException("A busca deve conter ao menos um termo");
+        }
+        if (offset < 0 || limite < 1 || offset + limite > MAX_POSICAO) {
+            throw new IllegalArgumentException(
+                    "offset deve ser maior ou igual a 0 e limit maior que 0, com offset + limit até " + MAX_POSICAO);
+        }
+        IndiceBusca indice = atual;
+        if (indice == null) {
+            throw new CapacidadeEsgotadaException("Índice de busca em construção. Tente novamente.");
+        }
+        return indice.buscar(consulta, offset, limite);
+    }
+
+    /**
+     * Constrói um índice novo a partir do banco e o coloca no lugar do atual. Executada na
+     * subida e, em segundo plano, após importações.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        construcao.lock();
+        try {
+            IndiceBusca novo = new IndiceBusca();
+            synchronized (this) {
+                emConstrucao = novo;
+                removidosNaConstrucao = new HashSet<>();
+            }
+            try {
+                jdbcRepository.forEach(false, this::incluirNaConstrucao);
+                synchronized (this) {
+                    atual = novo;
+                }
+            } finally {
+                synchronized (this) {
+                    emConstrucao = null;
+                    removidosNaConstrucao = null;
+                }
+            }
+        } finally {
+            construcao.unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void onBeneficioAlterado(BeneficioAlteradoEvent event) {
+        aplicar(atual, event);
+        if (emConstrucao != null) {
+            aplicar(emConstrucao, event);
+            if (event.getTipo() == BeneficioAlteradoEvent.Tipo.REMOVIDO) {
+                removidosNaConstrucao.add(event.getId());
+            }
+        }
+    }
+
+    /** Agenda uma reconstrução; importações durante uma reconstrução agendam mais uma. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBeneficiosImportados(BeneficiosImportadosEvent event) {
+        if (reconstrucaoAgendada.compareAndSet(false, true)) {
+            reconstrucao.execute(() -> {
+                reconstrucaoAgendada.set(false);
+                construir();
+            });
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        reconstrucao.shutdownNow();
+    }
+
+    private synchronized void incluirNaConstrucao(BeneficioDTO beneficio) {
+        if (!emConstrucao.contem(beneficio.getId()) && !removidosNaConstrucao.contains(beneficio.getId())) {
+            emConstrucao.indexar(beneficio.getId(), beneficio.getNome(), beneficio.getDescricao());
+        }
+    }
+
+    private static void aplicar(IndiceBusca indice, BeneficioAlteradoEvent event) {
+        if (indice == null) {
+            return;
+        }
+        if (event.getTipo() == BeneficioAlteradoEvent.Tipo.REMOVIDO) {
+            indice.remover(event.getId());
+        } else {
+            BeneficioDTO beneficio = event.getBeneficio();
+            indice.indexar(beneficio.getId(), beneficio.getNome(), beneficio.getDescricao());
+        }
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.backend.busca;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de prefixos sobre nome e descrição dos benefícios. Os textos são
+ * normalizados (minúsculas, sem acentos) e quebrados em termos; um dicionário ordenado
+ * associa cada termo aos documentos em que aparece, separados por campo. Um termo da
+ * consulta casa com todos os termos do dicionário que começam por ele (um intervalo do
+ * mapa ordenado).
+ *
+ * <p>Cada benefício indexado é um documento numerado sequencialmente. Como um documento
+ * novo sempre recebe o maior número, as listas de ocorrências crescem apenas no fim e
+ * permanecem ordenadas. Alterar um benefício cria um documento novo e marca o anterior
+ * como removido; remoções não mexem nas listas, que são compactadas quando os documentos
+ * removidos passam dos vivos.
+ *
+ * <p>As escritas devem ser serializadas por quem usa o índice; leituras concorrentes entre
+ * si e com as escritas são protegidas pelo lock de leitura e escrita.
+ */
+final class IndiceBusca {
+
+    static final int PESO_NOME_EXATO = 8;
+    static final int PESO_NOME_PREFIXO = 4;
+    static final int PESO_DESCRICAO_EXATO = 2;
+    static final int PESO_DESCRICAO_PREFIXO = 1;
+
+    /** Faixas de peso do termo mais seletivo, na ordem em que são percorridas. */
+    private static final int[] PESOS_FAIXAS = {
+            PESO_NOME_EXATO, PESO_NOME_PREFIXO, PESO_DESCRICAO_EXATO, PESO_DESCRICAO_PREFIXO};
+
+    /** Resultados contados além das posições classificadas; acima disso o total é um mínimo. */
+    static final int LIMITE_CONTAGEM = 1000;
+
+    /** Termos considerados por consulta; os excedentes são ignorados. */
+    static final int MAX_TERMOS_CONSULTA = 8;
+
+    private static final String[] SEM_TERMOS = new String[0];
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /** Removidos tolerados antes da compactação, em qualquer tamanho de índice. */
+    private static final int REMOVIDOS_MINIMO_COMPACTACAO = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Termo> termos = new TreeMap<>();
+
+    private final Map<Long, Integer> documentoPorId = new HashMap<>();
+
+    private long[] ids = new long[1024];
+
+    /** Termos de cada campo por documento; {@code null} se o documento foi removido. */
+    private String[][] termosNome = new String[1024][];
+
+    private String[][] termosDescricao = new String[1024][];
+
+    private int documentos;
+
+    private int removidos;
+
+    /**
+     * Indexa ou reindexa o benefício. Sem mudança nos termos (ex.: alteração apenas de
+     * saldo) o índice não é alterado.
+     *
+     * @return {@code true} se o índice mudou
+     */
+    boolean indexar(long id, String nome, String descricao) {
+        String[] nomeNormalizado = normalizar(nome);
+        String[] descricaoNormalizada = normalizar(descricao);
+        Integer anterior = documentoPorId.get(id);
+        if (anterior != null && Arrays.equals(termosNome[anterior], nomeNormalizado)
+                && Arrays.equals(termosDescricao[anterior], descricaoNormalizada)) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (anterior != null) {
+                descartar(anterior);
+            }
+            incluir(id, nomeNormalizado, descricaoNormalizada);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    /** Remove o benefício do índice, se presente. */
+    void remover(long id) {
+        Integer documento = documentoPorId.get(id);
+        if (documento == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            documentoPorId.remove(id);
+            descartar(documento);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    boolean contem(long id) {
+        lock.readLock().lock();
+        try {
+            return documentoPorId.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Benefícios indexados. */
+    int tamanho() {
+        lock.readLock().lock();
+        try {
+            return documentoPorId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Benefícios que contêm todos os termos da consulta (como termo inteiro ou prefixo, no
+     * nome ou na descrição), do mais relevante para o menos relevante. A relevância soma,
+     * por termo da consulta, o maior peso entre os casamentos: termo inteiro no nome,
+     * prefixo no nome, termo inteiro na descrição, prefixo na descrição. Empates ficam na
+     * ordem do índice: a do ID na construção, com os benefícios incluídos ou alterados
+     * depois ao final.
+     *
+     * <p>A consulta parte do termo mais seletivo (menos ocorrências no dicionário) e
+     * percorre seus documentos em faixas de peso decrescente, conferindo os demais termos
+     * nos termos de cada documento. Nenhum documento de uma faixa seguinte pode superar o
+     * pior classificado quando a pontuação máxima da faixa não passa da dele; a partir daí
+     * os documentos só são contados, até {@link #LIMITE_CONTAGEM}, e o total deixa de ser
+     * exato. Consultas amplas terminam assim após poucas centenas de documentos.
+     */
+    ResultadoBusca buscar(String consulta, int offset, int limite) {
+        String[] termosConsulta = termosConsulta(consulta);
+        if (termosConsulta.length == 0) {
+            return ResultadoBusca.VAZIO;
+        }
+        lock.readLock().lock();
+        try {
+            String pivo = null;
+            long menorEstimativa = Long.MAX_VALUE;
+            for (String termo : termosConsulta) {
+                long estimativa = 0;
+                for (Termo candidato : comPrefixo(termo).values()) {
+                    estimativa += candidato.nome.tamanho + candidato.descricao.tamanho;
+                }
+                if (estimativa == 0) {
+                    return ResultadoBusca.VAZIO;
+                }
+                if (estimativa < menorEstimativa) {
+                    menorEstimativa = estimativa;
+                    pivo = termo;
+                }
+            }
+
+            Termo exato = termos.get(pivo);
+            NavigableMap<String, Termo> intervalo = comPrefixo(pivo);
+            int bonusMaximo = PESO_NOME_EXATO * (termosConsulta.length - 1);
+            int posicoes = offset + limite;
+            // Topo do heap: o pior entre os melhores já encontrados ({pontuação, documento})
+            PriorityQueue<int[]> melhores = new PriorityQueue<>(posicoes + 1, (a, b) -> a[0] != b[0]
+                    ? Integer.compare(a[0], b[0])
+                    : Integer.compare(b[1], a[1]));
+            boolean classificando = true;
+            boolean totalExato = true;
+            long total = 0;
+            percurso:
+            for (int faixa = 0; faixa < PESOS_FAIXAS.length; faixa++) {
+                int peso = PESOS_FAIXAS[faixa];
+                int maximo = peso + bonusMaximo;
+                Ocorrencias ocorrencias = faixa(faixa, exato, intervalo);
+                for (int i = 0; i < ocorrencias.tamanho; i++) {
+                    int documento = ocorrencias.documentos[i];
+                    if (classificando && melhores.size() == posicoes) {
+                        // Pesos das faixas decrescem e documentos da faixa crescem: uma vez
+                        // de fora, nenhum documento seguinte entra
+                        int[] pior = melhores.peek();
+                        classificando = maximo > pior[0] || (maximo == pior[0] && documento < pior[1]);
+                    }
+                    if (!classificando && total >= LIMITE_CONTAGEM) {
+                        totalExato = false;
+                        break percurso;
+                    }
+                    // Removido, ou pertence a uma faixa anterior pelo outro campo (a primeira
+                    // faixa tem o maior peso possível)
+                    if (termosNome[documento] == null || (faixa > 0 && pesoTermo(documento, pivo) != peso)) {
+                        continue;
+                    }
+                    if (!classificando) {
+                        // Só a contagem: basta saber se os demais termos casam
+                        if (casa(documento, termosConsulta, pivo)) {
+                            total++;
+                        }
+                        continue;
+                    }
+                    int pontuacao = pontuacao(documento, termosConsulta, pivo, peso);
+                    if (pontuacao == 0) {
+                        continue;
+                    }
+                    total++;
+                    melhores.add(new int[] {pontuacao, documento});
+                    if (melhores.size() > posicoes) {
+                        melhores.poll();
+                    }
+                }
+            }
+
+            // A página são as últimas posições mantidas: as primeiras a sair do heap
+            int quantidade = Math.max(0, melhores.size() - offset);
+            long[] pagina = new long[quantidade];
+            for (int i = quantidade - 1; i >= 0; i--) {
+                pagina[i] = ids[melhores.poll()[1]];
+            }
+            return new ResultadoBusca(total, totalExato, pagina);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Termos distintos do texto, normalizados, na ordem em que aparecem. */
+    static String[] normalizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return SEM_TERMOS;
+        }
+        String semAcentos = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        Set<String> distintos = new LinkedHashSet<>();
+        for (String termo : SEPARADORES.split(semAcentos.toLowerCase(Locale.ROOT))) {
+            if (!termo.isEmpty()) {
+                distintos.add(termo);
+            }
+        }
+        return distintos.toArray(SEM_TERMOS);
+    }
+
+    private static String[] termosConsulta(String consulta) {
+        String[] termos = normalizar(consulta);
+        return termos.length > MAX_TERMOS_CONSULTA ? Arrays.copyOf(termos, MAX_TERMOS_CONSULTA) : termos;
+    }
+
+    private NavigableMap<String, Termo> comPrefixo(String prefixo) {
+        return termos.subMap(prefixo, true, prefixo + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Documentos da faixa, em ordem: ocorrências do próprio termo (faixas de termo inteiro)
+     * ou união das ocorrências dos demais termos do intervalo (faixas de prefixo).
+     */
+    private Ocorrencias faixa(int faixa, Termo exato, NavigableMap<String, Termo> intervalo) {
+        boolean nome = faixa < 2;
+        if (faixa % 2 == 0) {
+            return exato == null ? Ocorrencias.NENHUMA : nome ? exato.nome : exato.descricao;
+        }
+        List<Ocorrencias> listas = new ArrayList<>();
+        long estimativa = 0;
+        for (Termo termo : intervalo.values()) {
+            Ocorrencias ocorrencias = nome ? termo.nome : termo.descricao;
+            if (termo != exato && ocorrencias.tamanho > 0) {
+                listas.add(ocorrencias);
+                estimativa += ocorrencias.tamanho;
+            }
+        }
+        if (listas.isEmpty()) {
+            return Ocorrencias.NENHUMA;
+        }
+        if (listas.size() == 1) {
+            return listas.get(0);
+        }
+        // Para intervalos amplos a união é feita em um bitmap dos documentos, evitando
+        // ordenar milhões de ocorrências
+        if (estimativa > documentos / 8) {
+            BitSet uniao = new BitSet(documentos);
+            for (Ocorrencias ocorrencias : listas) {
+                ocorrencias.marcar(uniao);
+            }
+            int[] unidos = uniao.stream().toArray();
+            return new Ocorrencias(unidos, unidos.length);
+        }
+        int[] unidos = new int[(int) estimativa];
+        int quantidade = 0;
+        for (Ocorrencias ocorrencias : listas) {
+            quantidade = ocorrencias.copiar(unidos, quantidade);
+        }
+        Arrays.sort(unidos, 0, quantidade);
+        int distintos = 0;
+        for (int i = 0; i < quantidade; i++) {
+            if (distintos == 0 || unidos[distintos - 1] != unidos[i]) {
+                unidos[distintos++] = unidos[i];
+            }
+        }
+        return new Ocorrencias(unidos, distintos);
+    }
+
+    /** Maior peso do termo no documento; 0 se não casa. */
+    private int pesoTermo(int documento, String termo) {
+        return Math.max(
+                peso(termosNome[documento], termo, PESO_NOME_EXATO, PESO_NOME_PREFIXO),
+                peso(termosDescricao[documento], termo, PESO_DESCRICAO_EXATO, PESO_DESCRICAO_PREFIXO));
+    }
+
+    /**
+     * Soma dos pesos por termo da consulta; 0 se algum termo não casa com o documento. O
+     * peso do pivô já é conhecido pela faixa.
+     */
+    private int pontuacao(int documento, String[] termosConsulta, String pivo, int pesoPivo) {
+        int soma = pesoPivo;
+        for (String termo : termosConsulta) {
+            if (termo.equals(pivo)) {
+                continue;
+            }
+            int peso = pesoTermo(documento, termo);
+            if (peso == 0) {
+                return 0;
+            }
+            soma += peso;
+        }
+        return soma;
+    }
+
+    /** Se todos os termos, além do pivô, aparecem no documento como termo ou prefixo. */
+    private boolean casa(int documento, String[] termosConsulta, String pivo) {
+        for (String termo : termosConsulta) {
+            if (!termo.equals(pivo) && !comecaCom(termosNome[documento], termo)
+                    && !comecaCom(termosDescricao[documento], termo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean comecaCom(String[] termosDocumento, String termo) {
+        for (String termoDocumento : termosDocumento) {
+            if (termoDocumento.startsWith(termo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int peso(String[] termosDocumento, String termo, int exato, int prefixo) {
+        int peso = 0;
+        for (String termoDocumento : termosDocumento) {
+            if (termoDocumento.equals(termo)) {
+                return exato;
+            }
+            if (termoDocumento.startsWith(termo)) {
+                peso = prefixo;
+            }
+        }
+        return peso;
+    }
+
+    private void incluir(long id, String[] nome, String[] descricao) {
+        if (documentos == ids.length) {
+            int capacidade = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacidade);
+            termosNome = Arrays.copyOf(termosNome, capacidade);
+            termosDescricao = Arrays.copyOf(termosDescricao, capacidade);
+        }
+        int documento = documentos++;
+        ids[documento] = id;
+        termosNome[documento] = registrar(nome, documento, true);
+        termosDescricao[documento] = registrar(descricao, documento, false);
+        documentoPorId.put(id, documento);
+    }
+
+    /**
+     * Registra as ocorrências e devolve os termos trocados pelas instâncias do dicionário,
+     * para que documentos com o mesmo termo compartilhem a mesma String.
+     */
+    private String[] registrar(String[] termosCampo, int documento, boolean nome) {
+        for (int i = 0; i < termosCampo.length; i++) {
+            Termo termo = termos.computeIfAbsent(termosCampo[i], Termo::new);
+            (nome ? termo.nome : termo.descricao).adicionar(documento);
+            termosCampo[i] = termo.texto;
+        }
+        return termosCampo;
+    }
+
+    private void descartar(int documento) {
+        termosNome[documento] = null;
+        termosDescricao[documento] = null;
+        removidos++;
+    }
+
+    private void compactarSeNecessario() {
+        if (removidos >= REMOVIDOS_MINIMO_COMPACTACAO && removidos > documentos - removidos) {
+            compactar();
+        }
+    }
+
+    /**
+     * Renumera os documentos vivos preservando a ordem, de modo que as listas de
+     * ocorrências continuam ordenadas, e descarta os termos sem ocorrências.
+     */
+    private void compactar() {
+        int[] novoNumero = new int[documentos];
+        int vivos = 0;
+        for (int documento = 0; documento < documentos; documento++) {
+            if (termosNome[documento] == null) {
+                novoNumero[documento] = -1;
+                continue;
+            }
+            novoNumero[documento] = vivos;
+            ids[vivos] = ids[documento];
+            termosNome[vivos] = termosNome[documento];
+            termosDescricao[vivos] = termosDescricao[documento];
+            documentoPorId.put(ids[vivos], vivos);
+            vivos++;
+        }
+        Arrays.fill(termosNome, vivos, documentos, null);
+        Arrays.fill(termosDescricao, vivos, documentos, null);
+        documentos = vivos;
+        removidos = 0;
+        List<String> vazios = new ArrayList<>();
+        for (Termo termo : termos.values()) {
+            termo.nome.renumerar(novoNumero);
+            termo.descricao.renumerar(novoNumero);
+            if (termo.nome.tamanho == 0 && termo.descricao.tamanho == 0) {
+                vazios.add(termo.texto);
+            }
+        }
+        vazios.forEach(termos::remove);
+    }
+
+    private static final class Termo {
+
+        private final String texto;
+
+        private final Ocorrencias nome = new Ocorrencias();
+
+        private final Ocorrencias descricao = new Ocorrencias();
+
+        private Termo(String texto) {
+            this.texto = texto;
+        }
+    }
+
+    /** Documentos em ordem crescente, com crescimento apenas no fim. */
+    private static final class Ocorrencias {
+
+        private static final int[] VAZIO = new int[0];
+
+        /** Lista vazia compartilhada; nunca recebe documentos. */
+        private static final Ocorrencias NENHUMA = new Ocorrencias();
+
+        private int[] documentos = VAZIO;
+
+        private int tamanho;
+
+        private Ocorrencias() {
+        }
+
+        private Ocorrencias(int[] documentos, int tamanho) {
+            this.documentos = documentos;
+            this.tamanho = tamanho;
+        }
+
+        private void adicionar(int documento) {
+            if (tamanho == documentos.length) {
+                documentos = Arrays.copyOf(documentos, Math.max(2, tamanho * 2));
+            }
+            documentos[tamanho++] = documento;
+        }
+
+        private int copiar(int[] destino, int posicao) {
+            System.arraycopy(documentos, 0, destino, posicao, tamanho);
+            return posicao + tamanho;
+        }
+
+        private void marcar(BitSet destino) {
+            for (int i = 0; i < tamanho; i++) {
+                destino.set(documentos[i]);
+            }
+        }
+
+        private void renumerar(int[] novoNumero) {
+            int vivos = 0;
+            for (int i = 0; i < tamanho; i++) {
+                int documento = novoNumero[documentos[i]];
+                if (documento >= 0) {
+                    documentos[vivos++] = documento;
+                }
+            }
+            tamanho = vivos;
+            documentos = vivos == 0 ? VAZIO : Arrays.copyOf(documentos, vivos);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.backend.busca;
+
+/**
+ * Página de IDs em ordem de relevância e total de benefícios encontrados. Em consultas
+ * amplas a contagem para em {@link IndiceBusca#LIMITE_CONTAGEM} e o total é um mínimo.
+ */
+public final class ResultadoBusca {
+
+    static final ResultadoBusca VAZIO = new ResultadoBusca(0, true, new long[0]);
+
+    private final long total;
+
+    private final boolean totalExato;
+
+    private final long[] ids;
+
+    ResultadoBusca(long total, boolean totalExato, long[] ids) {
+        this.total = total;
+        this.totalExato = totalExato;
+        this.ids = ids;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public boolean isTotalExato() {
+        return totalExato;
+    }
+
+    public long[] getIds() {
+        return ids;
+    }
+}
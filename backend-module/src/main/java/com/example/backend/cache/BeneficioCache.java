@@ -0,0 +1,135 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.event.BeneficiosImportadosEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Cache read-through, limitado por tamanho e TTL, para benefícios por ID e para a
+ * lista de ativos.
+ *
+ * <p>O cache só é alimentado com dados confirmados: as alterações chegam por
+ * {@link BeneficioAlteradoEvent} após o commit. Entradas por ID são substituídas apenas
+ * por versões iguais ou mais novas ({@code @Version}), de modo que uma leitura lenta,
+ * iniciada antes de um commit, nunca sobrescreve o valor mais recente. Alterações sem
+ * versão (saldo de benefício fatiado) não podem ser ordenadas e apenas invalidam a
+ * entrada. Remoções deixam uma marca que impede a reinserção do benefício removido.
+ *
+ * <p>A consulta ao banco acontece fora do lock do mapa. Os eventos chegam após o commit, com
+ * a conexão da transação ainda retida; se a carga ocupasse o lock enquanto espera por uma
+ * conexão do pool, um evento do mesmo bucket esperaria por ela e, com o pool esgotado,
+ * leituras e escritas ficariam presas até o {@code connection-timeout}.
+ */
+@Component
+public class BeneficioCache {
+
+    /** Marca de benefício removido; a versão máxima impede que leituras antigas a substituam. */
+    private static final BeneficioDTO REMOVIDO = new BeneficioDTO(null, null, null, null, false, Long.MAX_VALUE);
+
+    private static final String CHAVE_ATIVOS = "ativos";
+
+    private final Cache<Long, BeneficioDTO> porId;
+
+    private final Cache<String, List<BeneficioDTO>> ativos;
+
+    /** Incrementada a cada invalidação da lista de ativos; descarta cargas iniciadas antes dela. */
+    private final AtomicLong geracaoAtivos = new AtomicLong();
+
+    /** Incrementada a cada invalidação sem versão; descarta cargas por ID iniciadas antes dela. */
+    private final AtomicLong geracaoPorId = new AtomicLong();
+
+    public BeneficioCache(@Value("${beneficio.cache.tamanho-maximo:10000}") long tamanhoMaximo,
+                          @Value("${beneficio.cache.ttl:30s}") Duration ttl,
+                          MeterRegistry meterRegistry) {
+        this.porId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ativos = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, porId, "beneficios");
+        CaffeineCacheMetrics.monitor(meterRegistry, ativos, "beneficios-ativos");
+    }
+
+    /**
+     * Retorna o benefício do cache ou o carrega com {@code loader}. Leituras simultâneas do
+     * mesmo ID ausente consultam o banco cada uma; o valor inserido é o de versão mais nova.
+     *
+     * @throws EntityNotFoundException se o benefício foi removido ou não existe
+     */
+    public BeneficioDTO get(Long id, Function<Long, Optional<BeneficioDTO>> loader) {
+        BeneficioDTO beneficio = porId.getIfPresent(id);
+        if (beneficio == null) {
+            long geracao = geracaoPorId.get();
+            BeneficioDTO carregado = loader.apply(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Benefício não encontrado: " + id));
+            BeneficioDTO cacheado = porId.asMap().compute(id, (chave, atual) -> atual != null
+                    ? maisRecente(atual, carregado)
+                    : geracaoPorId.get() == geracao ? carregado : null);
+            beneficio = cacheado != null ? cacheado : carregado;
+        }
+        if (beneficio == REMOVIDO) {
+            throw new EntityNotFoundException("Benefício não encontrado: " + id);
+        }
+        return beneficio;
+    }
+
+    public List<BeneficioDTO> getAtivos(Supplier<List<BeneficioDTO>> loader) {
+        List<BeneficioDTO> cacheados = ativos.getIfPresent(CHAVE_ATIVOS);
+        if (cacheados != null) {
+            return cacheados;
+        }
+        long geracao = geracaoAtivos.get();
+        List<BeneficioDTO> carregados = List.copyOf(loader.get());
+        ativos.asMap().compute(CHAVE_ATIVOS, (chave, atual) -> geracaoAtivos.get() == geracao ? carregados : atual);
+        return carregados;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBeneficioAlterado(BeneficioAlteradoEvent event) {
+        if (event.getTipo() == BeneficioAlteradoEvent.Tipo.REMOVIDO) {
+            porId.put(event.getId(), REMOVIDO);
+        } else if (event.getBeneficio().getVersion() == null) {
+            geracaoPorId.incrementAndGet();
+            porId.invalidate(event.getId());
+        } else {
+            porId.asMap().merge(event.getId(), event.getBeneficio(), BeneficioCache::maisRecente);
+        }
+        invalidateAtivos();
+    }
+
+    /** Benefícios novos não estão no cache por ID; apenas a lista de ativos muda. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBeneficiosImportados(BeneficiosImportadosEvent event) {
+        invalidateAtivos();
+    }
+
+    private void invalidateAtivos() {
+        geracaoAtivos.incrementAndGet();
+        ativos.invalidate(CHAVE_ATIVOS);
+    }
+
+    private static BeneficioDTO maisRecente(BeneficioDTO atual, BeneficioDTO novo) {
+        return novo.getVersion() >= atual.getVersion() ? novo : atual;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.config;
+
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Controle de admissão das escritas pelo estado do pool de conexões. Com o pool saturado,
+ * cada nova transferência só entraria na fila do Hikari e, com centenas de threads
+ * esperando, todas estourariam o {@code connection-timeout} juntas. Em vez disso, a
+ * requisição é recusada na entrada (503 com {@code Retry-After}) quando a fila já tem
+ * {@code beneficio.admissao.max-aguardando} threads.
+ *
+ * <p>A fila é a medida da espera: com {@code n} threads aguardando e um pool de {@code p}
+ * conexões, a próxima espera cerca de {@code n / p} transações. O padrão (uma fila do
+ * tamanho do pool) limita a espera a aproximadamente uma transação; a espera efetiva
+ * continua limitada pelo {@code connection-timeout}.
+ */
+@Component
+public class AdmissaoConexoes {
+
+    private final HikariDataSource dataSource;
+
+    private final boolean habilitada;
+
+    private final int maxAguardando;
+
+    private final BeneficioMetricas metricas;
+
+    public AdmissaoConexoes(
+            DataSource dataSource,
+            @Value("${beneficio.admissao.habilitada:true}") boolean habilitada,
+            @Value("${beneficio.admissao.max-aguardando:${spring.datasource.hikari.maximum-pool-size:10}}") int maxAguardando,
+            BeneficioMetricas metricas) throws SQLException {
+        this.dataSource = dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        this.habilitada = habilitada;
+        this.maxAguardando = maxAguardando;
+        this.metricas = metricas;
+    }
+
+    /** Recusa a operação se a fila por conexões já atingiu o limite. */
+    public void admitir() {
+        if (!habilitada || dataSource == null) {
+            return;
+        }
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool != null && pool.getThreadsAwaitingConnection() >= maxAguardando) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_POOL_SATURADO);
+            throw new CapacidadeEsgotadaException("Pool de conexões saturado. Tente novamente.");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backend.config;
+
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita a quantidade de operações transacionais simultâneas dos serviços ao tamanho do
+ * pool de conexões. Com virtual threads, o número de requisições em andamento deixa de
+ * ser limitado pelas threads do Tomcat; sem este limite, centenas de transferências
+ * disputariam as conexões do Hikari até o timeout de 30s.
+ *
+ * <p>Envolve a retentativa e a transação (ordem mais externa): a vaga é obtida antes de
+ * abrir a transação e mantida entre as retentativas. Chamadas aninhadas na mesma thread
+ * reutilizam a vaga. Leituras servidas pelo cache não passam por aqui.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "beneficio.bulkhead.habilitado", havingValue = "true")
+public class BulkheadBancoAspect {
+
+    private static final ThreadLocal<Boolean> DENTRO = new ThreadLocal<>();
+
+    private final Semaphore permissoes;
+
+    private final Duration esperaMaxima;
+
+    public BulkheadBancoAspect(
+            @Value("${beneficio.bulkhead.permissoes:${spring.datasource.hikari.maximum-pool-size:10}}") int permissoes,
+            @Value("${beneficio.bulkhead.espera-maxima:2s}") Duration esperaMaxima,
+            MeterRegistry meterRegistry) {
+        this.permissoes = new Semaphore(permissoes, true);
+        this.esperaMaxima = esperaMaxima;
+        Gauge.builder("beneficio.bulkhead.disponiveis", this.permissoes, Semaphore::availablePermits)
+                .description("Vagas livres para operações no banco")
+                .register(meterRegistry);
+    }
+
+    @Around("execution(public * com.example.backend.service..*(..)) "
+            + "&& @annotation(org.springframework.transaction.annotation.Transactional)")
+    public Object limitar(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (DENTRO.get() != null) {
+            return joinPoint.proceed();
+        }
+        try {
+            if (!permissoes.tryAcquire(esperaMaxima.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new CapacidadeEsgotadaException("Capacidade do banco esgotada. Tente novamente.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CapacidadeEsgotadaException("Espera por capacidade do banco interrompida");
+        }
+        DENTRO.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            DENTRO.remove();
+            permissoes.release();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.backend.config;
+
+import io.r2dbc.h2.H2ConnectionConfiguration;
+import io.r2dbc.h2.H2ConnectionFactory;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * Acesso R2DBC usado apenas pela API de leitura reativa, sobre o mesmo banco H2 do JPA.
+ *
+ * <p>O r2dbc-h2 não fala com o banco pela rede: ele envolve o H2 embarcado, e cada consulta
+ * executa de forma síncrona na thread que assina o resultado. O que este acesso oferece é a
+ * API de {@code Publisher} (emissão conforme a demanda) e um pool próprio, separado do Hikari;
+ * não oferece E/S não bloqueante.
+ *
+ * <p>O pool não é exposto como {@code ConnectionFactory}: um bean desse tipo desativaria o
+ * DataSource JDBC auto-configurado, do qual dependem JPA, Hikari e as escritas. Pelo mesmo
+ * motivo o {@code R2dbcAutoConfiguration} está excluído em {@code BackendApplication}.
+ */
+@Configuration
+public class R2dbcConfig {
+
+    private static final String PREFIXO_JDBC_H2 = "jdbc:h2:";
+
+    private final ConnectionPool pool;
+
+    public R2dbcConfig(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username:sa}") String usuario,
+            @Value("${spring.datasource.password:}") String senha,
+            @Value("${beneficio.reativo.pool.tamanho-maximo:10}") int tamanhoMaximo) {
+        if (!url.startsWith(PREFIXO_JDBC_H2)) {
+            throw new IllegalStateException("A leitura reativa suporta apenas H2: " + url);
+        }
+        H2ConnectionFactory conexoes = new H2ConnectionFactory(H2ConnectionConfiguration.builder()
+                .url(url.substring(PREFIXO_JDBC_H2.length()))
+                .username(usuario)
+                .password(senha)
+                .build());
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration.builder(conexoes)
+                .name("beneficio-r2dbc")
+                .initialSize(1)
+                .maxSize(tamanhoMaximo)
+                .build());
+    }
+
+    @Bean
+    public DatabaseClient databaseClientReativo() {
+        return DatabaseClient.create(pool);
+    }
+
+    @PreDestroy
+    public void fechar() {
+        pool.dispose();
+    }
+}
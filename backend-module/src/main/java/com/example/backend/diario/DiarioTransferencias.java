@@ -0,0 +1,457 @@
+package com.example.backend.diario;
+
+import com.example.backend.event.TransferenciasAceitasEvent;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.TransferenciaJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Diário binário append-only das transferências aceitas pelo ledger
+ * ({@code beneficio.diario.habilitado=true}), para auditoria, reconstrução de saldos em um
+ * instante e replicação (ver {@link LeitorDiario}).
+ *
+ * <p>Os registros ({@link RegistroTransferencia}) são escritos em segmentos de tamanho fixo
+ * mapeados em memória; ao encher, o segmento é sincronizado e o próximo é criado com o nome
+ * da sua primeira sequência. Group commit: quem registra só copia o registro para o
+ * mapeamento; uma thread dedicada aguarda {@code janela} após o primeiro registro pendente,
+ * executa um único {@code fsync} ({@link MappedByteBuffer#force(int, int)}) do trecho
+ * gravado desde o anterior e confirma todos os registros dele. Janela zero sincroniza assim
+ * que há pendentes, agrupando só o que chega durante o {@code fsync} anterior.
+ *
+ * <p>A transferência é registrada antes do commit, na thread da requisição, que aguarda o
+ * {@code fsync}: nenhuma transferência confirmada no banco falta no diário, e uma falha de
+ * gravação desfaz a transação e faz a requisição falhar. Se a transação for desfeita após o
+ * registro, um registro {@link RegistroTransferencia.Tipo#ESTORNO ESTORNO} com o mesmo ID de
+ * TRANSFERENCIA o anula. O encerramento limpo grava um registro
+ * {@link RegistroTransferencia.Tipo#FECHAMENTO FECHAMENTO}; sem ele, uma queda pode ter
+ * deixado registros de transações desfeitas sem estorno, e na subida os registros desde o
+ * último fechamento são conferidos com TRANSFERENCIA ({@link #reconciliar()}) e os ausentes
+ * são estornados. Após uma falha de gravação, o diário recusa novos registros.
+ *
+ * <p>A ordem do diário é a dos registros, que pode diferir da ordem de commit entre
+ * transferências simultâneas; por benefício, a ordem é dada pelas versões gravadas.
+ *
+ * <p>O motor de transferências usa uma instância própria, fora do contexto e em outro
+ * diretório, como diário de escrita antecipada: registra cada movimento antes de tê-lo no
+ * ledger (sem ID de TRANSFERENCIA) e descarta os segmentos já gravados no banco
+ * ({@link #descartarAte}). Ao gravá-los
+ * no ledger, ele publica {@link TransferenciasAceitasEvent}, e os movimentos entram também
+ * nesta instância, que guarda o histórico completo.
+ */
+@Component
+@ConditionalOnProperty(name = "beneficio.diario.habilitado", havingValue = "true")
+public class DiarioTransferencias implements Closeable {
+
+    private final Path diretorio;
+
+    private final long tamanhoSegmento;
+
+    private final long janelaNanos;
+
+    private final BeneficioMetricas metricas;
+
+    /** Ausente fora da aplicação: sem conferência com o banco na subida. */
+    private final TransferenciaJdbcRepository transferenciaJdbcRepository;
+
+    private final Thread sincronizacao;
+
+    /** Eventos registrados cuja transação ainda não terminou. */
+    private final Set<TransferenciasAceitasEvent> emAndamento = ConcurrentHashMap.newKeySet();
+
+    /** Guardados por {@code this}. */
+    private final CRC32 crc = new CRC32();
+
+    private SegmentoDiario segmento;
+
+    private int posicao;
+
+    private int sincronizadoAte;
+
+    private long ultimaSequencia;
+
+    private List<Confirmacao> aguardando = new ArrayList<>();
+
+    private int registrosAguardando;
+
+    private boolean aberto = true;
+
+    private IOException falha;
+
+    /** Última sequência gravada antes desta abertura. */
+    private long sequenciaRecuperada;
+
+    /** Se os registros até {@link #sequenciaRecuperada} já estão conferidos com o banco. */
+    private boolean reconciliado;
+
+    public DiarioTransferencias(Path diretorio, DataSize tamanhoSegmento, Duration janela,
+                                BeneficioMetricas metricas) throws IOException {
+        this(diretorio, tamanhoSegmento, janela, metricas, null, 0);
+    }
+
+    /**
+     * Diário sem conferência com o banco cujas sequências, se ele está vazio, começam após
+     * {@code sequenciaInicial}.
+     */
+    public DiarioTransferencias(Path diretorio, DataSize tamanhoSegmento, Duration janela,
+                                BeneficioMetricas metricas, long sequenciaInicial) throws IOException {
+        this(diretorio, tamanhoSegmento, janela, metricas, null, sequenciaInicial);
+    }
+
+    @Autowired
+    public DiarioTransferencias(@Value("${beneficio.diario.diretorio:data/diario-transferencias}") Path diretorio,
+                                @Value("${beneficio.diario.tamanho-segmento:64MB}") DataSize tamanhoSegmento,
+                                @Value("${beneficio.diario.janela-sincronizacao:0ms}") Duration janela,
+                                BeneficioMetricas metricas,
+                                TransferenciaJdbcRepository transferenciaJdbcRepository) throws IOException {
+        this(diretorio, tamanhoSegmento, janela, metricas, transferenciaJdbcRepository, 0);
+    }
+
+    private DiarioTransferencias(Path diretorio, DataSize tamanhoSegmento, Duration janela,
+                                 BeneficioMetricas metricas, TransferenciaJdbcRepository transferenciaJdbcRepository,
+                                 long sequenciaInicial) throws IOException {
+        if (tamanhoSegmento.toBytes() < RegistroTransferencia.TAMANHO || tamanhoSegmento.toBytes() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Tamanho de segmento do diário inválido: " + tamanhoSegmento);
+        }
+        this.diretorio = diretorio.toAbsolutePath();
+        this.tamanhoSegmento = tamanhoSegmento.toBytes() / RegistroTransferencia.TAMANHO * RegistroTransferencia.TAMANHO;
+        this.janelaNanos = janela.toNanos();
+        this.metricas = metricas;
+        this.transferenciaJdbcRepository = transferenciaJdbcRepository;
+        recuperar(sequenciaInicial);
+        this.sincronizacao = new Thread(this::sincronizar, "diario-transferencias");
+        this.sincronizacao.setDaemon(true);
+        this.sincronizacao.start();
+    }
+
+    /**
+     * Registra a transferência antes do commit e aguarda o {@code fsync}; se o diário não
+     * pode registrá-la, a exceção desfaz a transação.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTransferenciasAceitas(TransferenciasAceitasEvent event) {
+        CompletableFuture<Long> confirmacao = registrar(event.getItens());
+        // Registros gravados podem chegar ao disco mesmo se o fsync falhar
+        emAndamento.add(event);
+        try {
+            confirmacao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onTransferenciasConfirmadas(TransferenciasAceitasEvent event) {
+        emAndamento.remove(event);
+    }
+
+    /**
+     * Estorna os registros de uma transação desfeita após registrá-los. Se o estorno não
+     * puder ser gravado, o diário já está em falha e não será fechado de forma limpa: a
+     * próxima subida estorna pela conferência com o banco.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onTransferenciasDesfeitas(TransferenciasAceitasEvent event) {
+        if (emAndamento.remove(event)) {
+            registrar(RegistroTransferencia.Tipo.ESTORNO, event.getItens());
+        }
+    }
+
+    /**
+     * Confere os registros gravados antes desta abertura, desde o último fechamento limpo,
+     * com TRANSFERENCIA e estorna os que não estão lá (transações desfeitas por uma queda
+     * após o registro). Sem efeito após um fechamento limpo. Os registros conferidos ficam
+     * em memória até o fim da conferência.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconciliar() throws IOException {
+        long limite;
+        synchronized (this) {
+            if (reconciliado || transferenciaJdbcRepository == null) {
+                return;
+            }
+            limite = sequenciaRecuperada;
+        }
+        Map<Long, TransferenciasAceitasEvent.Item> registrados = new LinkedHashMap<>();
+        LeitorDiario.reproduzir(diretorio, 0, registro -> {
+            if (registro.getSequencia() > limite) {
+                return;
+            }
+            switch (registro.getTipo()) {
+                case FECHAMENTO -> registrados.clear();
+                case ESTORNO -> registrados.remove(registro.getTransferenciaId());
+                case TRANSFERENCIA -> {
+                    if (registro.getTransferenciaId() != RegistroTransferencia.SEM_TRANSFERENCIA) {
+                        registrados.put(registro.getTransferenciaId(), new TransferenciasAceitasEvent.Item(
+                                registro.getTransferenciaId(), registro.getOrigemId(), registro.getDestinoId(),
+                                registro.getCentavos(), null, null));
+                    }
+                }
+            }
+        });
+        registrados.keySet().removeAll(transferenciaJdbcRepository.findIdsExistentes(registrados.keySet()));
+        if (!registrados.isEmpty()) {
+            try {
+                registrar(RegistroTransferencia.Tipo.ESTORNO, List.copyOf(registrados.values())).join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof UncheckedIOException causa ? causa : e;
+            }
+        }
+        synchronized (this) {
+            reconciliado = true;
+        }
+    }
+
+    /**
+     * Grava os movimentos com sequências consecutivas. A confirmação é concluída com a
+     * última sequência após o {@code fsync} que os inclui, ou com
+     * {@link UncheckedIOException} se a gravação falhar.
+     */
+    public CompletableFuture<Long> registrar(List<TransferenciasAceitasEvent.Item> itens) {
+        return registrar(RegistroTransferencia.Tipo.TRANSFERENCIA, itens);
+    }
+
+    private synchronized CompletableFuture<Long> registrar(RegistroTransferencia.Tipo tipo,
+                                                           List<TransferenciasAceitasEvent.Item> itens) {
+        Confirmacao confirmacao = new Confirmacao();
+        if (!aberto || falha != null) {
+            confirmacao.completeExceptionally(indisponivel());
+            return confirmacao;
+        }
+        long instante = System.currentTimeMillis();
+        try {
+            for (TransferenciasAceitasEvent.Item item : itens) {
+                if (posicao == tamanhoSegmentoAtual()) {
+                    rolar();
+                }
+                new RegistroTransferencia(ultimaSequencia + 1, instante, tipo, item.getTransferenciaId(),
+                        item.getOrigemId(), item.getDestinoId(), item.getCentavos(),
+                        versao(item.getVersaoOrigem()), versao(item.getVersaoDestino()))
+                        .escrever(segmento.getBuffer(), posicao, crc);
+                posicao += RegistroTransferencia.TAMANHO;
+                ultimaSequencia++;
+            }
+        } catch (IOException | UncheckedIOException e) {
+            falha = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+            confirmacao.completeExceptionally(indisponivel());
+            return confirmacao;
+        }
+        confirmacao.sequencia = ultimaSequencia;
+        aguardando.add(confirmacao);
+        registrosAguardando += itens.size();
+        if (aguardando.size() == 1) {
+            notifyAll();
+        }
+        return confirmacao;
+    }
+
+    /**
+     * Apaga os segmentos cujos registros têm todos sequência até {@code sequencia}. O último
+     * segmento, onde o diário grava, nunca é apagado. Usado pelo diário do motor, cujos
+     * registros já gravados no ledger não são mais necessários.
+     *
+     * @return quantidade de segmentos apagados
+     */
+    public int descartarAte(long sequencia) throws IOException {
+        List<Path> segmentos = SegmentoDiario.listar(diretorio);
+        int apagados = 0;
+        while (apagados + 1 < segmentos.size()
+                && SegmentoDiario.primeiraSequencia(segmentos.get(apagados + 1)) - 1 <= sequencia) {
+            Files.delete(segmentos.get(apagados));
+            apagados++;
+        }
+        return apagados;
+    }
+
+    public synchronized long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+    /**
+     * Confirma os registros pendentes e encerra a thread de sincronização. Grava o
+     * fechamento se os registros estão conferidos e nenhuma transação registrada está em
+     * andamento.
+     */
+    @Override
+    @PreDestroy
+    public void close() {
+        synchronized (this) {
+            if (!aberto) {
+                return;
+            }
+            if (reconciliado && emAndamento.isEmpty()) {
+                registrar(RegistroTransferencia.Tipo.FECHAMENTO, List.of(new TransferenciasAceitasEvent.Item(
+                        RegistroTransferencia.SEM_TRANSFERENCIA, 0, 0, 0, null, null)));
+            }
+            aberto = false;
+            notifyAll();
+        }
+        try {
+            sincronizacao.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Continua o último segmento após o último registro válido. O restante dele é zerado:
+     * trechos gravados e não sincronizados antes de uma queda podem ter chegado ao disco
+     * fora de ordem e não devem reaparecer após os próximos registros.
+     */
+    private void recuperar(long sequenciaInicial) throws IOException {
+        Files.createDirectories(diretorio);
+        List<Path> segmentos = SegmentoDiario.listar(diretorio);
+        if (segmentos.isEmpty()) {
+            segmento = SegmentoDiario.abrir(SegmentoDiario.arquivo(diretorio, sequenciaInicial + 1), tamanhoSegmento);
+            ultimaSequencia = sequenciaInicial;
+            reconciliado = true;
+            return;
+        }
+        segmento = SegmentoDiario.abrir(segmentos.get(segmentos.size() - 1), tamanhoSegmento);
+        int registros = segmento.contarRegistros();
+        posicao = registros * RegistroTransferencia.TAMANHO;
+        sincronizadoAte = posicao;
+        ultimaSequencia = segmento.getPrimeiraSequencia() + registros - 1;
+        sequenciaRecuperada = ultimaSequencia;
+        // Segmento vazio só existe no início do diário ou logo após rolar um segmento cheio,
+        // e então o último registro do anterior decide
+        RegistroTransferencia ultimo = registros > 0
+                ? segmento.registro(registros - 1, crc)
+                : ultimoRegistro(segmentos);
+        reconciliado = ultimo == null || ultimo.getTipo() == RegistroTransferencia.Tipo.FECHAMENTO;
+
+        MappedByteBuffer buffer = segmento.getBuffer();
+        for (int i = posicao; i < buffer.capacity(); i++) {
+            if (buffer.get(i) != 0) {
+                buffer.put(i, (byte) 0);
+            }
+        }
+        buffer.force();
+    }
+
+    private RegistroTransferencia ultimoRegistro(List<Path> segmentos) throws IOException {
+        if (segmentos.size() < 2) {
+            return null;
+        }
+        SegmentoDiario anterior = SegmentoDiario.ler(segmentos.get(segmentos.size() - 2));
+        int registros = anterior.contarRegistros();
+        return registros > 0 ? anterior.registro(registros - 1, crc) : null;
+    }
+
+    /** Sincroniza o segmento cheio por inteiro e passa para um novo. */
+    private void rolar() throws IOException {
+        segmento.getBuffer().force();
+        segmento = SegmentoDiario.abrir(SegmentoDiario.arquivo(diretorio, ultimaSequencia + 1), tamanhoSegmento);
+        posicao = 0;
+        sincronizadoAte = 0;
+    }
+
+    private int tamanhoSegmentoAtual() {
+        return segmento.capacidade() * RegistroTransferencia.TAMANHO;
+    }
+
+    private void sincronizar() {
+        while (true) {
+            synchronized (this) {
+                while (aguardando.isEmpty() && aberto) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (aguardando.isEmpty()) {
+                    return;
+                }
+            }
+            if (janelaNanos > 0) {
+                LockSupport.parkNanos(janelaNanos);
+            }
+
+            List<Confirmacao> lote;
+            int registros;
+            MappedByteBuffer buffer;
+            int inicio;
+            int fim;
+            synchronized (this) {
+                lote = aguardando;
+                aguardando = new ArrayList<>();
+                registros = registrosAguardando;
+                registrosAguardando = 0;
+                // Registros de um segmento já fechado foram sincronizados ao rolar
+                buffer = segmento.getBuffer();
+                inicio = sincronizadoAte;
+                fim = posicao;
+                sincronizadoAte = fim;
+            }
+            long antes = System.nanoTime();
+            try {
+                if (fim > inicio) {
+                    forcar(buffer, inicio, fim - inicio);
+                }
+                metricas.sincronizacaoDiario(registros, System.nanoTime() - antes);
+                for (Confirmacao confirmacao : lote) {
+                    confirmacao.complete(confirmacao.sequencia);
+                }
+            } catch (UncheckedIOException e) {
+                UncheckedIOException erro;
+                synchronized (this) {
+                    falha = e.getCause();
+                    erro = indisponivel();
+                }
+                for (Confirmacao confirmacao : lote) {
+                    confirmacao.completeExceptionally(erro);
+                }
+            }
+        }
+    }
+
+    /** {@code fsync} do trecho gravado; separado para os testes simularem falhas do disco. */
+    void forcar(MappedByteBuffer buffer, int inicio, int tamanho) {
+        buffer.force(inicio, tamanho);
+    }
+
+    private UncheckedIOException indisponivel() {
+        return new UncheckedIOException("Diário de transferências indisponível",
+                falha != null ? falha : new IOException("Diário fechado"));
+    }
+
+    private static long versao(Long versao) {
+        return versao != null ? versao : RegistroTransferencia.SEM_VERSAO;
+    }
+
+    private static final class Confirmacao extends CompletableFuture<Long> {
+
+        private long sequencia;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.backend.diario;
+
+import com.example.ejb.Centavos;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Leitura e reprodução do diário de transferências, sem depender da aplicação nem do
+ * banco. Pode ser executado sobre os segmentos de uma instância em funcionamento: lê apenas
+ * registros completos, em sequência.
+ *
+ * <pre>
+ * java -cp backend-module/target/classes com.example.backend.diario.LeitorDiario listar &lt;diretório&gt; [a partir da sequência]
+ * java -cp backend-module/target/classes com.example.backend.diario.LeitorDiario variacoes &lt;diretório&gt; [até o instante ISO-8601]
+ * </pre>
+ *
+ * {@code listar} imprime um registro por linha (CSV), de qualquer tipo; {@code variacoes}
+ * imprime a variação líquida de saldo de cada benefício, sem as transferências estornadas.
+ * Somada a um snapshot dos saldos tirado na sequência inicial, ela reconstrói os saldos no
+ * instante informado. Uma réplica de leitura mantém a última sequência aplicada e continua a
+ * partir dela com {@link #reproduzir}; um estorno chega depois da transferência que anula e
+ * repete origem, destino e valor dela, para ser aplicado ao contrário.
+ */
+public final class LeitorDiario {
+
+    private LeitorDiario() {
+    }
+
+    /**
+     * Entrega a {@code consumidor}, em ordem, os registros com sequência maior que
+     * {@code aPartirDe}. Para no primeiro registro incompleto ou fora de sequência. Um diário
+     * que não começa na sequência 1 (o do motor) é lido a partir do primeiro segmento.
+     *
+     * @return a última sequência entregue; sem nenhuma, {@code aPartirDe} ou, se maior, a
+     *         anterior ao primeiro segmento
+     */
+    public static long reproduzir(Path diretorio, long aPartirDe, Consumer<RegistroTransferencia> consumidor)
+            throws IOException {
+        List<Path> segmentos = SegmentoDiario.listar(diretorio);
+        CRC32 crc = new CRC32();
+        long ultima = aPartirDe;
+        for (int i = 0; i < segmentos.size(); i++) {
+            // Segmentos inteiramente anteriores a aPartirDe não são abertos
+            if (i + 1 < segmentos.size() && SegmentoDiario.primeiraSequencia(segmentos.get(i + 1)) <= aPartirDe + 1) {
+                continue;
+            }
+            SegmentoDiario segmento = SegmentoDiario.ler(segmentos.get(i));
+            if (i == 0 && segmento.getPrimeiraSequencia() > ultima + 1) {
+                ultima = segmento.getPrimeiraSequencia() - 1;
+            }
+            if (segmento.getPrimeiraSequencia() > ultima + 1) {
+                break;
+            }
+            int indice = (int) Math.max(0, ultima + 1 - segmento.getPrimeiraSequencia());
+            RegistroTransferencia registro;
+            while ((registro = segmento.registro(indice, crc)) != null) {
+                consumidor.accept(registro);
+                ultima = registro.getSequencia();
+                indice++;
+            }
+            if (indice < segmento.capacidade()) {
+                break;
+            }
+        }
+        return ultima;
+    }
+
+    /**
+     * Variação líquida de saldo, em centavos, de cada benefício movimentado por
+     * transferências com instante até {@code ate}, inclusive, e sem estorno no diário.
+     */
+    public static Map<Long, Long> variacoes(Path diretorio, Instant ate) throws IOException {
+        Set<Long> estornadas = new HashSet<>();
+        reproduzir(diretorio, 0, registro -> {
+            if (registro.getTipo() == RegistroTransferencia.Tipo.ESTORNO) {
+                estornadas.add(registro.getTransferenciaId());
+            }
+        });
+        Map<Long, Long> variacoes = new TreeMap<>();
+        long limite = ate.toEpochMilli();
+        reproduzir(diretorio, 0, registro -> {
+            // Sem parar no primeiro posterior: o instante não é estritamente crescente
+            if (registro.getTipo() == RegistroTransferencia.Tipo.TRANSFERENCIA && registro.getInstante() <= limite
+                    && !estornadas.contains(registro.getTransferenciaId())) {
+                variacoes.merge(registro.getOrigemId(), -registro.getCentavos(), Long::sum);
+                variacoes.merge(registro.getDestinoId(), registro.getCentavos(), Long::sum);
+            }
+        });
+        return variacoes;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("listar") || args[0].equals("variacoes"))) {
+            System.err.println("Uso: LeitorDiario listar <diretório> [a partir da sequência]");
+            System.err.println("     LeitorDiario variacoes <diretório> [até o instante ISO-8601]");
+            System.exit(2);
+        }
+        Path diretorio = Path.of(args[1]);
+        PrintStream saida = System.out;
+        if (args[0].equals("listar")) {
+            saida.println("sequencia,instante,tipo,transferencia,origem,destino,valor,versao_origem,versao_destino");
+            reproduzir(diretorio, args.length > 2 ? Long.parseLong(args[2]) : 0, registro -> saida.println(
+                    registro.getSequencia() + "," + Instant.ofEpochMilli(registro.getInstante()) + ","
+                            + registro.getTipo() + "," + registro.getTransferenciaId() + ","
+                            + registro.getOrigemId() + "," + registro.getDestinoId() + ","
+                            + Centavos.formatar(registro.getCentavos()) + ","
+                            + registro.getVersaoOrigem() + "," + registro.getVersaoDestino()));
+        } else {
+            saida.println("beneficio,variacao");
+            Instant ate = args.length > 2 ? Instant.parse(args[2]) : Instant.ofEpochMilli(Long.MAX_VALUE);
+            variacoes(diretorio, ate).forEach((id, variacao) -> saida.println(id + "," + Centavos.formatar(variacao)));
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.backend.diario;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Registro do diário binário de transferências, de largura fixa ({@link #TAMANHO} bytes,
+ * big-endian): sequência e instante (ms desde a época) como {@code long}, código do
+ * {@link Tipo} como {@code int}, e ID da transferência (TRANSFERENCIA.ID), origem, destino,
+ * valor em centavos, versão da origem e versão do destino como {@code long}, seguidos do
+ * CRC32 dos 68 bytes anteriores. Versões desconhecidas são gravadas como
+ * {@link #SEM_VERSAO}; movimentos ainda sem linha no ledger, como {@link #SEM_TRANSFERENCIA}.
+ */
+public final class RegistroTransferencia {
+
+    public static final int TAMANHO = 72;
+
+    public static final long SEM_VERSAO = -1;
+
+    public static final long SEM_TRANSFERENCIA = 0;
+
+    private static final int TAMANHO_DADOS = 68;
+
+    /** Tipo do registro. */
+    public enum Tipo {
+
+        /** Transferência gravada no ledger. */
+        TRANSFERENCIA(1),
+
+        /**
+         * Anula a transferência de mesmo ID, cuja transação foi desfeita após o registro.
+         * Repete origem, destino e valor dela.
+         */
+        ESTORNO(2),
+
+        /** Encerramento limpo: todos os registros anteriores estão reconciliados com o banco. */
+        FECHAMENTO(3);
+
+        private final int codigo;
+
+        Tipo(int codigo) {
+            this.codigo = codigo;
+        }
+
+        static Tipo deCodigo(int codigo) {
+            for (Tipo tipo : values()) {
+                if (tipo.codigo == codigo) {
+                    return tipo;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final long sequencia;
+
+    private final long instante;
+
+    private final Tipo tipo;
+
+    private final long transferenciaId;
+
+    private final long origemId;
+
+    private final long destinoId;
+
+    private final long centavos;
+
+    private final long versaoOrigem;
+
+    private final long versaoDestino;
+
+    public RegistroTransferencia(long sequencia, long instante, Tipo tipo, long transferenciaId, long origemId,
+                                 long destinoId, long centavos, long versaoOrigem, long versaoDestino) {
+        this.sequencia = sequencia;
+        this.instante = instante;
+        this.tipo = tipo;
+        this.transferenciaId = transferenciaId;
+        this.origemId = origemId;
+        this.destinoId = destinoId;
+        this.centavos = centavos;
+        this.versaoOrigem = versaoOrigem;
+        this.versaoDestino = versaoDestino;
+    }
+
+    /** Grava o registro em {@code posicao}, sem alterar a posição do buffer. */
+    void escrever(ByteBuffer buffer, int posicao, CRC32 crc) {
+        buffer.putLong(posicao, sequencia)
+                .putLong(posicao + 8, instante)
+                .putInt(posicao + 16, tipo.codigo)
+                .putLong(posicao + 20, transferenciaId)
+                .putLong(posicao + 28, origemId)
+                .putLong(posicao + 36, destinoId)
+                .putLong(posicao + 44, centavos)
+                .putLong(posicao + 52, versaoOrigem)
+                .putLong(posicao + 60, versaoDestino);
+        crc.reset();
+        crc.update(buffer.slice(posicao, TAMANHO_DADOS));
+        buffer.putInt(posicao + TAMANHO_DADOS, (int) crc.getValue());
+    }
+
+    /**
+     * Lê o registro em {@code posicao}, sem alterar a posição do buffer; {@code null} se o
+     * CRC não confere (registro incompleto, corrompido ou área ainda não gravada).
+     */
+    static RegistroTransferencia ler(ByteBuffer buffer, int posicao, CRC32 crc) {
+        crc.reset();
+        crc.update(buffer.slice(posicao, TAMANHO_DADOS));
+        if (buffer.getInt(posicao + TAMANHO_DADOS) != (int) crc.getValue()) {
+            return null;
+        }
+        Tipo tipo = Tipo.deCodigo(buffer.getInt(posicao + 16));
+        if (tipo == null) {
+            return null;
+        }
+        return new RegistroTransferencia(buffer.getLong(posicao), buffer.getLong(posicao + 8), tipo,
+                buffer.getLong(posicao + 20), buffer.getLong(posicao + 28), buffer.getLong(posicao + 36),
+                buffer.getLong(posicao + 44), buffer.getLong(posicao + 52), buffer.getLong(posicao + 60));
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public long getInstante() {
+        return instante;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public long getTransferenciaId() {
+        return transferenciaId;
+    }
+
+    public long getOrigemId() {
+        return origemId;
+    }
+
+    public long getDestinoId() {
+        return destinoId;
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public long getVersaoOrigem() {
+        return versaoOrigem;
+    }
+
+    public long getVersaoDestino() {
+        return versaoDestino;
+    }
+}
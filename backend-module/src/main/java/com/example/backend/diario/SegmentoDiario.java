@@ -0,0 +1,130 @@
+package com.example.backend.diario;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Segmento do diário: arquivo {@code transferencias-<primeira sequência>.diario} de tamanho
+ * fixo, mapeado em memória por inteiro. A área não gravada fica zerada, e a leitura para no
+ * primeiro registro inválido ou fora de sequência.
+ */
+final class SegmentoDiario {
+
+    private static final String PREFIXO = "transferencias-";
+
+    private static final String SUFIXO = ".diario";
+
+    private final Path arquivo;
+
+    private final long primeiraSequencia;
+
+    private final MappedByteBuffer buffer;
+
+    private SegmentoDiario(Path arquivo, long primeiraSequencia, MappedByteBuffer buffer) {
+        this.arquivo = arquivo;
+        this.primeiraSequencia = primeiraSequencia;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Abre o segmento para escrita, criando o arquivo com {@code tamanho} bytes se não existe.
+     * Um segmento existente mantém o tamanho com que foi criado.
+     */
+    static SegmentoDiario abrir(Path arquivo, long tamanho) throws IOException {
+        boolean novo = !Files.exists(arquivo);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long mapeado = novo || canal.size() == 0 ? tamanho : canal.size();
+            SegmentoDiario segmento = new SegmentoDiario(arquivo, primeiraSequencia(arquivo),
+                    canal.map(FileChannel.MapMode.READ_WRITE, 0, mapeado));
+            if (novo) {
+                // O arquivo novo só sobrevive a uma queda com a entrada no diretório sincronizada
+                canal.force(true);
+                try (FileChannel diretorio = FileChannel.open(arquivo.getParent(), StandardOpenOption.READ)) {
+                    diretorio.force(true);
+                }
+            }
+            return segmento;
+        }
+    }
+
+    /** Mapeia o segmento apenas para leitura. */
+    static SegmentoDiario ler(Path arquivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            return new SegmentoDiario(arquivo, primeiraSequencia(arquivo),
+                    canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /** Segmentos do diretório em ordem de sequência; vazio se o diretório não existe. */
+    static List<Path> listar(Path diretorio) throws IOException {
+        if (!Files.isDirectory(diretorio)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(SegmentoDiario::isSegmento).sorted().collect(Collectors.toList());
+        }
+    }
+
+    static Path arquivo(Path diretorio, long primeiraSequencia) {
+        return diretorio.resolve(String.format("%s%020d%s", PREFIXO, primeiraSequencia, SUFIXO));
+    }
+
+    static long primeiraSequencia(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length()));
+    }
+
+    /**
+     * Registro de índice {@code indice}, ou {@code null} se ele é inválido, não tem a
+     * sequência esperada para a posição ou está além do fim do segmento.
+     */
+    RegistroTransferencia registro(int indice, CRC32 crc) {
+        if (indice >= capacidade()) {
+            return null;
+        }
+        RegistroTransferencia registro = RegistroTransferencia.ler(buffer, indice * RegistroTransferencia.TAMANHO, crc);
+        return registro != null && registro.getSequencia() == primeiraSequencia + indice ? registro : null;
+    }
+
+    /** Quantidade de registros válidos e em sequência a partir do início do segmento. */
+    int contarRegistros() {
+        CRC32 crc = new CRC32();
+        int registros = 0;
+        while (registro(registros, crc) != null) {
+            registros++;
+        }
+        return registros;
+    }
+
+    /** Registros que cabem no segmento. */
+    int capacidade() {
+        return buffer.capacity() / RegistroTransferencia.TAMANHO;
+    }
+
+    Path getArquivo() {
+        return arquivo;
+    }
+
+    long getPrimeiraSequencia() {
+        return primeiraSequencia;
+    }
+
+    MappedByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    private static boolean isSegmento(Path arquivo) {
+        String nome = arquivo.getFileName().toString();
+        return nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO)
+                && nome.length() == PREFIXO.length() + 20 + SUFIXO.length();
+    }
+}
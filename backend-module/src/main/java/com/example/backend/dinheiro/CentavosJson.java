@@ -0,0 +1,64 @@
+package com.example.backend.dinheiro;
+
+import com.example.ejb.Centavos;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Serialização JSON de atributos em centavos como número decimal ({@code 150.25}), o mesmo
+ * formato de um {@link java.math.BigDecimal}. A leitura percorre os caracteres do token
+ * sem criar o {@code BigDecimal}; só números com expoente ({@code 1.5e2}) passam por ele.
+ */
+public final class CentavosJson {
+
+    private CentavosJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Long> {
+
+        public Serializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long centavos, JsonGenerator gerador, SerializerProvider provider) throws IOException {
+            gerador.writeNumber(Centavos.formatar(centavos));
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Long> {
+
+        public Deserializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public Long deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT
+                    && token != JsonToken.VALUE_STRING) {
+                return (Long) contexto.handleUnexpectedToken(Long.class, parser);
+            }
+            try {
+                return Centavos.ler(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            } catch (NumberFormatException e) {
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    try {
+                        return Centavos.de(parser.getDecimalValue());
+                    } catch (IllegalArgumentException excecao) {
+                        return (Long) contexto.handleWeirdNumberValue(Long.class, parser.getDecimalValue(),
+                                excecao.getMessage());
+                    }
+                }
+                return (Long) contexto.handleWeirdStringValue(Long.class, parser.getText(), e.getMessage());
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -19,12 +21,17 @@ public class BeneficioDTO {
     
     @NotNull(message = "Valor é obrigatório")
     @DecimalMin(value = "0.0", inclusive = false, message = "Valor deve ser maior que zero")
+    @Digits(integer = 13, fraction = 2, message = "Valor deve ter no máximo 13 dígitos inteiros e 2 decimais")
     private BigDecimal valor;
     
     private Boolean ativo;
     
     private Long version;
 
+    /** Saldo em fatias: a versão não acompanha o saldo e não serve de ETag. Não é serializado. */
+    @JsonIgnore
+    private boolean fatiado;
+
     public BeneficioDTO() {
     }
 
@@ -37,6 +44,12 @@ public class BeneficioDTO {
         this.version = version;
     }
 
+    public BeneficioDTO(Long id, String nome, String descricao, BigDecimal valor, Boolean ativo, Long version,
+                        boolean fatiado) {
+        this(id, nome, descricao, valor, ativo, version);
+        this.fatiado = fatiado;
+    }
+
     // Getters e Setters
     public Long getId() {
         return id;
@@ -85,5 +98,12 @@ public class BeneficioDTO {
     public void setVersion(Long version) {
         this.version = version;
     }
-}
 
+    public boolean isFatiado() {
+        return fatiado;
+    }
+
+    public void setFatiado(boolean fatiado) {
+        this.fatiado = fatiado;
+    }
+}
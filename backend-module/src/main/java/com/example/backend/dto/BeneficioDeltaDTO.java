@@ -0,0 +1,61 @@
+package com.example.backend.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Alteração de um benefício enviada pelo stream SSE: apenas o necessário para o cliente
+ * atualizar a linha que já possui. Criações trazem só o ID; o cliente busca o benefício.
+ */
+public class BeneficioDeltaDTO {
+
+    private String tipo;
+
+    private Long id;
+
+    private BigDecimal valor;
+
+    private Long version;
+
+    public BeneficioDeltaDTO() {
+    }
+
+    public BeneficioDeltaDTO(String tipo, Long id, BigDecimal valor, Long version) {
+        this.tipo = tipo;
+        this.id = id;
+        this.valor = valor;
+        this.version = version;
+    }
+
+    // Getters e Setters
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ImportacaoResultadoDTO {
+
+    private long importados;
+
+    private long rejeitados;
+
+    private List<String> erros = new ArrayList<>();
+
+    public ImportacaoResultadoDTO() {
+    }
+
+    public ImportacaoResultadoDTO(long importados, long rejeitados, List<String> erros) {
+        this.importados = importados;
+        this.rejeitados = rejeitados;
+        this.erros = erros;
+    }
+
+    // Getters e Setters
+    public long getImportados() {
+        return importados;
+    }
+
+    public void setImportados(long importados) {
+        this.importados = importados;
+    }
+
+    public long getRejeitados() {
+        return rejeitados;
+    }
+
+    public void setRejeitados(long rejeitados) {
+        this.rejeitados = rejeitados;
+    }
+
+    /** Mensagens das primeiras linhas rejeitadas (limitadas), com o número da linha. */
+    public List<String> getErros() {
+        return erros;
+    }
+
+    public void setErros(List<String> erros) {
+        this.erros = erros;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Página da busca textual, em ordem de relevância, e o total de benefícios encontrados.
+ * Com {@code totalExato=false} a contagem foi interrompida e o total é um mínimo.
+ */
+public class ResultadoBuscaDTO {
+
+    private long total;
+
+    private boolean totalExato;
+
+    private List<BeneficioDTO> itens = new ArrayList<>();
+
+    public ResultadoBuscaDTO() {
+    }
+
+    public ResultadoBuscaDTO(long total, boolean totalExato, List<BeneficioDTO> itens) {
+        this.total = total;
+        this.totalExato = totalExato;
+        this.itens = itens;
+    }
+
+    // Getters e Setters
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public boolean isTotalExato() {
+        return totalExato;
+    }
+
+    public void setTotalExato(boolean totalExato) {
+        this.totalExato = totalExato;
+    }
+
+    public List<BeneficioDTO> getItens() {
+        return itens;
+    }
+
+    public void setItens(List<BeneficioDTO> itens) {
+        this.itens = itens;
+    }
+}
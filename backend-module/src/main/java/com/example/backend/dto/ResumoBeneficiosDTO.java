@@ -0,0 +1,104 @@
+package com.example.backend.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Totais dos benefícios: quantidade e saldo, no geral e por status (ativo/inativo).
+ * {@code reconciliadoEm} é o instante da última conferência com o banco.
+ */
+public class ResumoBeneficiosDTO {
+
+    private long quantidade;
+
+    private BigDecimal saldoTotal;
+
+    private long quantidadeAtivos;
+
+    private BigDecimal saldoAtivos;
+
+    private long quantidadeInativos;
+
+    private BigDecimal saldoInativos;
+
+    private Instant reconciliadoEm;
+
+    public ResumoBeneficiosDTO() {
+    }
+
+    public ResumoBeneficiosDTO(long quantidadeAtivos, BigDecimal saldoAtivos,
+                               long quantidadeInativos, BigDecimal saldoInativos, Instant reconciliadoEm) {
+        this.quantidade = quantidadeAtivos + quantidadeInativos;
+        this.saldoTotal = saldoAtivos.add(saldoInativos);
+        this.quantidadeAtivos = quantidadeAtivos;
+        this.saldoAtivos = saldoAtivos;
+        this.quantidadeInativos = quantidadeInativos;
+        this.saldoInativos = saldoInativos;
+        this.reconciliadoEm = reconciliadoEm;
+    }
+
+    /** Mesmos totais e mesmas quantidades, ignorando a escala dos saldos e o instante. */
+    public boolean mesmosTotais(ResumoBeneficiosDTO outro) {
+        return quantidadeAtivos == outro.quantidadeAtivos
+                && quantidadeInativos == outro.quantidadeInativos
+                && saldoAtivos.compareTo(outro.saldoAtivos) == 0
+                && saldoInativos.compareTo(outro.saldoInativos) == 0;
+    }
+
+    // Getters e Setters
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public BigDecimal getSaldoTotal() {
+        return saldoTotal;
+    }
+
+    public void setSaldoTotal(BigDecimal saldoTotal) {
+        this.saldoTotal = saldoTotal;
+    }
+
+    public long getQuantidadeAtivos() {
+        return quantidadeAtivos;
+    }
+
+    public void setQuantidadeAtivos(long quantidadeAtivos) {
+        this.quantidadeAtivos = quantidadeAtivos;
+    }
+
+    public BigDecimal getSaldoAtivos() {
+        return saldoAtivos;
+    }
+
+    public void setSaldoAtivos(BigDecimal saldoAtivos) {
+        this.saldoAtivos = saldoAtivos;
+    }
+
+    public long getQuantidadeInativos() {
+        return quantidadeInativos;
+    }
+
+    public void setQuantidadeInativos(long quantidadeInativos) {
+        this.quantidadeInativos = quantidadeInativos;
+    }
+
+    public BigDecimal getSaldoInativos() {
+        return saldoInativos;
+    }
+
+    public void setSaldoInativos(BigDecimal saldoInativos) {
+        this.saldoInativos = saldoInativos;
+    }
+
+    public Instant getReconciliadoEm() {
+        return reconciliadoEm;
+    }
+
+    public void setReconciliadoEm(Instant reconciliadoEm) {
+        this.reconciliadoEm = reconciliadoEm;
+    }
+}
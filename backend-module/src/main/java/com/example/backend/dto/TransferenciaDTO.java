@@ -1,7 +1,13 @@
 package com.example.backend.dto;
 
-import jakarta.validation.constraints.DecimalMin;
+import com.example.backend.dinheiro.CentavosJson;
+import com.example.ejb.Centavos;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import java.math.BigDecimal;
 
 public class TransferenciaDTO {
@@ -12,9 +18,16 @@ public class TransferenciaDTO {
     @NotNull(message = "ID do benefício de destino é obrigatório")
     private Long toId;
     
+    /**
+     * Valor em centavos. No JSON continua um decimal ({@code "amount": 150.25}), lido e
+     * escrito sem passar por {@link BigDecimal} (ver {@link CentavosJson}).
+     */
     @NotNull(message = "Valor é obrigatório")
-    @DecimalMin(value = "0.0", inclusive = false, message = "Valor deve ser maior que zero")
-    private BigDecimal amount;
+    @Positive(message = "Valor deve ser maior que zero")
+    @JsonProperty("amount")
+    @JsonSerialize(using = CentavosJson.Serializer.class)
+    @JsonDeserialize(using = CentavosJson.Deserializer.class)
+    private Long amount;
 
     public TransferenciaDTO() {
     }
@@ -22,7 +35,7 @@ public class TransferenciaDTO {
     public TransferenciaDTO(Long fromId, Long toId, BigDecimal amount) {
         this.fromId = fromId;
         this.toId = toId;
-        this.amount = amount;
+        setAmount(amount);
     }
 
     // Getters e Setters
@@ -42,12 +55,26 @@ public class TransferenciaDTO {
         this.toId = toId;
     }
 
+    @JsonIgnore
     public BigDecimal getAmount() {
-        return amount;
+        return amount != null ? Centavos.paraBigDecimal(amount) : null;
     }
 
+    /**
+     * @throws IllegalArgumentException se o valor tem mais de duas casas decimais
+     */
+    @JsonIgnore
     public void setAmount(BigDecimal amount) {
+        this.amount = amount != null ? Centavos.de(amount) : null;
+    }
+
+    @JsonIgnore
+    public Long getAmountCentavos() {
+        return amount;
+    }
+
+    @JsonIgnore
+    public void setAmountCentavos(Long amount) {
         this.amount = amount;
     }
 }
-
@@ -0,0 +1,79 @@
+package com.example.backend.dto;
+
+import java.math.BigDecimal;
+
+public class TransferenciaResultadoDTO {
+
+    private int indice;
+
+    private Long fromId;
+
+    private Long toId;
+
+    private BigDecimal amount;
+
+    private boolean sucesso;
+
+    private String mensagem;
+
+    public TransferenciaResultadoDTO() {
+    }
+
+    public TransferenciaResultadoDTO(int indice, TransferenciaDTO transferencia, boolean sucesso, String mensagem) {
+        this.indice = indice;
+        this.fromId = transferencia.getFromId();
+        this.toId = transferencia.getToId();
+        this.amount = transferencia.getAmount();
+        this.sucesso = sucesso;
+        this.mensagem = mensagem;
+    }
+
+    // Getters e Setters
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public Long getFromId() {
+        return fromId;
+    }
+
+    public void setFromId(Long fromId) {
+        this.fromId = fromId;
+    }
+
+    public Long getToId() {
+        return toId;
+    }
+
+    public void setToId(Long toId) {
+        this.toId = toId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    public boolean isSucesso() {
+        return sucesso;
+    }
+
+    public void setSucesso(boolean sucesso) {
+        this.sucesso = sucesso;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    public void setMensagem(String mensagem) {
+        this.mensagem = mensagem;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.backend.dto;
+
+import java.util.List;
+
+/**
+ * Resumo de versões de uma coleção de benefícios, usado como ETag da listagem.
+ * Versões só crescem e IDs nunca são reutilizados, então qualquer alteração, inclusão ou
+ * remoção muda ao menos um dos três valores. A soma pondera cada versão pelo ID
+ * ({@code id * (version + 1)}): uma soma simples de versões empata quando um benefício sai
+ * da coleção e outro, de versão compatível, entra no mesmo passo.
+ */
+public class VersaoColecaoDTO {
+
+    private long quantidade;
+
+    private long somaPonderada;
+
+    private long maiorId;
+
+    private long fatiados;
+
+    public VersaoColecaoDTO() {
+    }
+
+    public VersaoColecaoDTO(Long quantidade, Long somaPonderada, Long maiorId, Long fatiados) {
+        this.quantidade = quantidade;
+        this.somaPonderada = somaPonderada;
+        this.maiorId = maiorId;
+        this.fatiados = fatiados != null ? fatiados : 0;
+    }
+
+    /** Mesmo resumo calculado sobre uma lista já carregada. */
+    public static VersaoColecaoDTO of(List<BeneficioDTO> beneficios) {
+        long soma = 0;
+        long maior = 0;
+        for (BeneficioDTO beneficio : beneficios) {
+            soma += beneficio.getId() * ((beneficio.getVersion() != null ? beneficio.getVersion() : 0) + 1);
+            maior = Math.max(maior, beneficio.getId());
+        }
+        return new VersaoColecaoDTO((long) beneficios.size(), soma, maior, 0L);
+    }
+
+    // Getters e Setters
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    public void setQuantidade(long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public long getSomaPonderada() {
+        return somaPonderada;
+    }
+
+    public void setSomaPonderada(long somaPonderada) {
+        this.somaPonderada = somaPonderada;
+    }
+
+    public long getMaiorId() {
+        return maiorId;
+    }
+
+    public void setMaiorId(long maiorId) {
+        this.maiorId = maiorId;
+    }
+
+    /** Benefícios fatiados na coleção; o saldo deles muda sem alterar a versão. */
+    public long getFatiados() {
+        return fatiados;
+    }
+
+    public void setFatiados(long fatiados) {
+        this.fatiados = fatiados;
+    }
+}
@@ -1,14 +1,25 @@
 package com.example.backend.entity;
 
+import com.example.ejb.Centavos;
+import com.example.ejb.CentavosConverter;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "BENEFICIO")
+@Table(name = "BENEFICIO", indexes = @Index(name = "IDX_BENEFICIO_ATIVO_ID", columnList = "ATIVO, ID"))
 public class Beneficio {
 
+    /**
+     * IDs reservados por valor de BENEFICIO_SEQ. Com o otimizador pooled-lo, o valor v
+     * reserva [v, v + ALOCACAO_IDS - 1]; inserções via JDBC (importação em lote) seguem a
+     * mesma regra e não colidem com os IDs distribuídos pelo Hibernate.
+     */
+    public static final int ALOCACAO_IDS = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "beneficio_seq")
+    @SequenceGenerator(name = "beneficio_seq", sequenceName = "BENEFICIO_SEQ", allocationSize = ALOCACAO_IDS)
     private Long id;
 
     @Column(name = "NOME", nullable = false, length = 100)
@@ -17,8 +28,10 @@ public class Beneficio {
     @Column(name = "DESCRICAO", length = 255)
     private String descricao;
 
+    /** Saldo em centavos; a coluna continua {@code DECIMAL(15,2)} (ver {@link CentavosConverter}). */
+    @Convert(converter = CentavosConverter.class)
     @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
-    private BigDecimal valor;
+    private long valor;
 
     @Column(name = "ATIVO")
     private Boolean ativo = true;
@@ -27,13 +40,21 @@ public class Beneficio {
     @Column(name = "VERSION")
     private Long version;
 
+    /**
+     * Quantidade de fatias (sub-saldos) do benefício. Zero indica o modo normal; acima de
+     * zero o saldo fica em BENEFICIO_FATIA e a coluna VALOR permanece zerada.
+     */
+    @ColumnDefault("0")
+    @Column(name = "FATIAS", nullable = false)
+    private Integer fatias = 0;
+
     public Beneficio() {
     }
 
     public Beneficio(String nome, String descricao, BigDecimal valor, Boolean ativo) {
         this.nome = nome;
         this.descricao = descricao;
-        this.valor = valor;
+        setValor(valor);
         this.ativo = ativo;
     }
 
@@ -63,10 +84,21 @@ public class Beneficio {
     }
 
     public BigDecimal getValor() {
-        return valor;
+        return Centavos.paraBigDecimal(valor);
     }
 
+    /**
+     * @throws IllegalArgumentException se o valor tem mais de duas casas decimais
+     */
     public void setValor(BigDecimal valor) {
+        this.valor = Centavos.de(valor);
+    }
+
+    public long getValorCentavos() {
+        return valor;
+    }
+
+    public void setValorCentavos(long valor) {
         this.valor = valor;
     }
 
@@ -85,5 +117,17 @@ public class Beneficio {
     public void setVersion(Long version) {
         this.version = version;
     }
+
+    public Integer getFatias() {
+        return fatias;
+    }
+
+    public void setFatias(Integer fatias) {
+        this.fatias = fatias;
+    }
+
+    public boolean isFatiado() {
+        return fatias != null && fatias > 0;
+    }
 }
 
@@ -0,0 +1,70 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+
+/**
+ * Sub-saldo de um benefício em modo fatiado. O saldo do benefício é a soma de suas
+ * fatias; cada transferência bloqueia apenas uma fatia, e não a linha do benefício.
+ */
+@Entity
+@Table(name = "BENEFICIO_FATIA",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"BENEFICIO_ID", "INDICE"}),
+        indexes = @Index(name = "IDX_FATIA_BENEFICIO", columnList = "BENEFICIO_ID"))
+public class BeneficioFatia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "BENEFICIO_ID", nullable = false)
+    private Long beneficioId;
+
+    @Column(name = "INDICE", nullable = false)
+    private Integer indice;
+
+    @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    public BeneficioFatia() {
+    }
+
+    public BeneficioFatia(Long beneficioId, Integer indice, BigDecimal valor) {
+        this.beneficioId = beneficioId;
+        this.indice = indice;
+        this.valor = valor;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getBeneficioId() {
+        return beneficioId;
+    }
+
+    public void setBeneficioId(Long beneficioId) {
+        this.beneficioId = beneficioId;
+    }
+
+    public Integer getIndice() {
+        return indice;
+    }
+
+    public void setIndice(Integer indice) {
+        this.indice = indice;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Resultado de uma requisição identificada por {@code Idempotency-Key}. Gravado na mesma
+ * transação da operação: uma segunda requisição com a mesma chave aguarda o commit da
+ * primeira na chave primária e falha por duplicidade.
+ */
+@Entity
+@Table(name = "IDEMPOTENCIA", indexes = @Index(name = "IDX_IDEMPOTENCIA_CRIADA_EM", columnList = "CRIADA_EM"))
+public class Idempotencia implements Persistable<String> {
+
+    @Id
+    @Column(name = "CHAVE", length = 255)
+    private String chave;
+
+    @Column(name = "OPERACAO", nullable = false, length = 30)
+    private String operacao;
+
+    /** SHA-256 (hex) do corpo da requisição original. */
+    @Column(name = "HASH_REQUISICAO", nullable = false, length = 64)
+    private String hashRequisicao;
+
+    /** Corpo da resposta em JSON; nulo enquanto a operação não termina. */
+    @Column(name = "RESPOSTA", length = 4000)
+    private String resposta;
+
+    @Column(name = "CRIADA_EM", nullable = false)
+    private Instant criadaEm;
+
+    /** Chave atribuída pela aplicação: sem isso o save faria merge (SELECT + UPDATE) em vez de INSERT. */
+    @Transient
+    private boolean novo = true;
+
+    public Idempotencia() {
+    }
+
+    public Idempotencia(String chave, String operacao, String hashRequisicao) {
+        this.chave = chave;
+        this.operacao = operacao;
+        this.hashRequisicao = hashRequisicao;
+        this.criadaEm = Instant.now();
+    }
+
+    @Override
+    public String getId() {
+        return chave;
+    }
+
+    @Override
+    public boolean isNew() {
+        return novo;
+    }
+
+    @PostLoad
+    @PostPersist
+    void marcarPersistida() {
+        this.novo = false;
+    }
+
+    // Getters e Setters
+    public String getChave() {
+        return chave;
+    }
+
+    public void setChave(String chave) {
+        this.chave = chave;
+    }
+
+    public String getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(String operacao) {
+        this.operacao = operacao;
+    }
+
+    public String getHashRequisicao() {
+        return hashRequisicao;
+    }
+
+    public void setHashRequisicao(String hashRequisicao) {
+        this.hashRequisicao = hashRequisicao;
+    }
+
+    public String getResposta() {
+        return resposta;
+    }
+
+    public void setResposta(String resposta) {
+        this.resposta = resposta;
+    }
+
+    public Instant getCriadaEm() {
+        return criadaEm;
+    }
+
+    public void setCriadaEm(Instant criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+}
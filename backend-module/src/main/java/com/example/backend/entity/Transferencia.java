@@ -0,0 +1,111 @@
+package com.example.backend.entity;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Registro imutável de uma transferência (ledger append-only). Origem, destino, valor e
+ * data nunca são alterados; apenas {@code aplicada} passa a {@code true} quando o
+ * movimento é refletido nos saldos de BENEFICIO.
+ */
+@Entity
+@Table(name = "TRANSFERENCIA", indexes = {
+        @Index(name = "IDX_TRANSFERENCIA_PENDENTE", columnList = "APLICADA, ID"),
+        @Index(name = "IDX_TRANSFERENCIA_ORIGEM", columnList = "ORIGEM_ID, APLICADA"),
+        @Index(name = "IDX_TRANSFERENCIA_DESTINO", columnList = "DESTINO_ID"),
+        @Index(name = "IDX_TRANSFERENCIA_SEQUENCIA_MOTOR", columnList = "SEQUENCIA_MOTOR")
+})
+public class Transferencia {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "ORIGEM_ID", nullable = false, updatable = false)
+    private Long origemId;
+
+    @Column(name = "DESTINO_ID", nullable = false, updatable = false)
+    private Long destinoId;
+
+    @Column(name = "VALOR", nullable = false, updatable = false, precision = 15, scale = 2)
+    private BigDecimal valor;
+
+    @Column(name = "CRIADA_EM", nullable = false, updatable = false)
+    private Instant criadaEm;
+
+    @Column(name = "APLICADA", nullable = false)
+    private Boolean aplicada;
+
+    /** Sequência no diário do motor de transferências; {@code null} fora do motor. */
+    @Column(name = "SEQUENCIA_MOTOR", updatable = false)
+    private Long sequenciaMotor;
+
+    public Transferencia() {
+    }
+
+    public Transferencia(Long origemId, Long destinoId, BigDecimal valor, boolean aplicada) {
+        this.origemId = origemId;
+        this.destinoId = destinoId;
+        this.valor = valor;
+        this.criadaEm = Instant.now();
+        this.aplicada = aplicada;
+    }
+
+    // Getters e Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getOrigemId() {
+        return origemId;
+    }
+
+    public void setOrigemId(Long origemId) {
+        this.origemId = origemId;
+    }
+
+    public Long getDestinoId() {
+        return destinoId;
+    }
+
+    public void setDestinoId(Long destinoId) {
+        this.destinoId = destinoId;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public Instant getCriadaEm() {
+        return criadaEm;
+    }
+
+    public void setCriadaEm(Instant criadaEm) {
+        this.criadaEm = criadaEm;
+    }
+
+    public Boolean getAplicada() {
+        return aplicada;
+    }
+
+    public void setAplicada(Boolean aplicada) {
+        this.aplicada = aplicada;
+    }
+
+    public Long getSequenciaMotor() {
+        return sequenciaMotor;
+    }
+
+    public void setSequenciaMotor(Long sequenciaMotor) {
+        this.sequenciaMotor = sequenciaMotor;
+    }
+}
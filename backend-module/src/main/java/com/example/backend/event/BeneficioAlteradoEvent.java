@@ -0,0 +1,59 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.BeneficioDTO;
+
+/**
+ * Publicado pelo serviço sempre que um benefício é criado, alterado (inclusive por
+ * transferência) ou removido. Os ouvintes devem usar
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)} para só reagir a dados
+ * efetivamente gravados.
+ */
+public class BeneficioAlteradoEvent {
+
+    public enum Tipo {
+        CRIADO,
+        ATUALIZADO,
+        REMOVIDO
+    }
+
+    private final Tipo tipo;
+
+    private final Long id;
+
+    private final BeneficioDTO beneficio;
+
+    public BeneficioAlteradoEvent(Tipo tipo, Long id, BeneficioDTO beneficio) {
+        this.tipo = tipo;
+        this.id = id;
+        this.beneficio = beneficio;
+    }
+
+    public static BeneficioAlteradoEvent criado(BeneficioDTO beneficio) {
+        return new BeneficioAlteradoEvent(Tipo.CRIADO, beneficio.getId(), beneficio);
+    }
+
+    public static BeneficioAlteradoEvent atualizado(BeneficioDTO beneficio) {
+        return new BeneficioAlteradoEvent(Tipo.ATUALIZADO, beneficio.getId(), beneficio);
+    }
+
+    public static BeneficioAlteradoEvent removido(Long id) {
+        return new BeneficioAlteradoEvent(Tipo.REMOVIDO, id, null);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Estado do benefício após a alteração, com a versão já incrementada; {@code null} se
+     * removido. A versão vem {@code null} quando a alteração não passa pela linha do
+     * benefício (saldo de benefício fatiado) e, portanto, não pode ser ordenada.
+     */
+    public BeneficioDTO getBeneficio() {
+        return beneficio;
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.backend.event;
+
+/**
+ * Publicado uma única vez por importação em lote, no lugar de um
+ * {@link BeneficioAlteradoEvent} por linha. Os ouvintes devem tratá-lo como uma
+ * alteração ampla (invalidar listas, pedir ressincronização aos clientes).
+ */
+public class BeneficiosImportadosEvent {
+
+    private final long quantidade;
+
+    public BeneficiosImportadosEvent(long quantidade) {
+        this.quantidade = quantidade;
+    }
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+}
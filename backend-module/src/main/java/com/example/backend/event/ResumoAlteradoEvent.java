@@ -0,0 +1,80 @@
+package com.example.backend.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Variação da quantidade e do saldo de benefícios ativos e inativos causada por uma
+ * transação. Publicado junto das alterações que mudam o resumo (inclusão, remoção,
+ * alteração de saldo ou de status); transferências não o publicam, pois só movem saldo
+ * entre benefícios ativos.
+ */
+public class ResumoAlteradoEvent {
+
+    private final long quantidadeAtivos;
+
+    private final BigDecimal saldoAtivos;
+
+    private final long quantidadeInativos;
+
+    private final BigDecimal saldoInativos;
+
+    private ResumoAlteradoEvent(long quantidadeAtivos, BigDecimal saldoAtivos,
+                                long quantidadeInativos, BigDecimal saldoInativos) {
+        this.quantidadeAtivos = quantidadeAtivos;
+        this.saldoAtivos = saldoAtivos;
+        this.quantidadeInativos = quantidadeInativos;
+        this.saldoInativos = saldoInativos;
+    }
+
+    /** Ponto de partida para acumular variações com {@link #somar}. */
+    public static ResumoAlteradoEvent vazio() {
+        return new ResumoAlteradoEvent(0, BigDecimal.ZERO, 0, BigDecimal.ZERO);
+    }
+
+    public static ResumoAlteradoEvent incluido(Boolean ativo, BigDecimal saldo) {
+        return Boolean.FALSE.equals(ativo)
+                ? new ResumoAlteradoEvent(0, BigDecimal.ZERO, 1, saldo)
+                : new ResumoAlteradoEvent(1, saldo, 0, BigDecimal.ZERO);
+    }
+
+    public static ResumoAlteradoEvent removido(Boolean ativo, BigDecimal saldo) {
+        return Boolean.FALSE.equals(ativo)
+                ? new ResumoAlteradoEvent(0, BigDecimal.ZERO, -1, saldo.negate())
+                : new ResumoAlteradoEvent(-1, saldo.negate(), 0, BigDecimal.ZERO);
+    }
+
+    /** Troca do estado anterior pelo novo; vazio se status e saldo não mudaram. */
+    public static ResumoAlteradoEvent alterado(Boolean ativoAnterior, BigDecimal saldoAnterior,
+                                               Boolean ativo, BigDecimal saldo) {
+        return removido(ativoAnterior, saldoAnterior).somar(incluido(ativo, saldo));
+    }
+
+    public ResumoAlteradoEvent somar(ResumoAlteradoEvent outro) {
+        return new ResumoAlteradoEvent(
+                quantidadeAtivos + outro.quantidadeAtivos,
+                saldoAtivos.add(outro.saldoAtivos),
+                quantidadeInativos + outro.quantidadeInativos,
+                saldoInativos.add(outro.saldoInativos));
+    }
+
+    public boolean isVazio() {
+        return quantidadeAtivos == 0 && quantidadeInativos == 0
+                && saldoAtivos.signum() == 0 && saldoInativos.signum() == 0;
+    }
+
+    public long getQuantidadeAtivos() {
+        return quantidadeAtivos;
+    }
+
+    public BigDecimal getSaldoAtivos() {
+        return saldoAtivos;
+    }
+
+    public long getQuantidadeInativos() {
+        return quantidadeInativos;
+    }
+
+    public BigDecimal getSaldoInativos() {
+        return saldoInativos;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.event;
+
+import java.util.List;
+
+/**
+ * Publicado pelo ledger a cada gravação de movimentos (uma transferência ou um lote), dentro
+ * da transação que os grava, com o ID de cada linha de TRANSFERENCIA. As versões são as dos
+ * benefícios após a transferência, ou {@code null} quando a linha não foi alterada por ela
+ * (fatias, ledger assíncrono).
+ */
+public class TransferenciasAceitasEvent {
+
+    private final List<Item> itens;
+
+    public TransferenciasAceitasEvent(List<Item> itens) {
+        this.itens = itens;
+    }
+
+    public List<Item> getItens() {
+        return itens;
+    }
+
+    public static class Item {
+
+        private final long transferenciaId;
+
+        private final long origemId;
+
+        private final long destinoId;
+
+        private final long centavos;
+
+        private final Long versaoOrigem;
+
+        private final Long versaoDestino;
+
+        public Item(long transferenciaId, long origemId, long destinoId, long centavos,
+                    Long versaoOrigem, Long versaoDestino) {
+            this.transferenciaId = transferenciaId;
+            this.origemId = origemId;
+            this.destinoId = destinoId;
+            this.centavos = centavos;
+            this.versaoOrigem = versaoOrigem;
+            this.versaoDestino = versaoDestino;
+        }
+
+        public long getTransferenciaId() {
+            return transferenciaId;
+        }
+
+        public long getOrigemId() {
+            return origemId;
+        }
+
+        public long getDestinoId() {
+            return destinoId;
+        }
+
+        public long getCentavos() {
+            return centavos;
+        }
+
+        public Long getVersaoOrigem() {
+            return versaoOrigem;
+        }
+
+        public Long getVersaoDestino() {
+            return versaoDestino;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.backend.exception;
+
+/**
+ * Lançada quando um limite de capacidade está esgotado: operações simultâneas no banco
+ * sem vaga liberada dentro da espera máxima, fila do pool de conexões no limite de admissão,
+ * clientes conectados ao stream ou índice de busca ainda em construção. Respondida com 503.
+ */
+public class CapacidadeEsgotadaException extends RuntimeException {
+
+    public CapacidadeEsgotadaException(String message) {
+        super(message);
+    }
+}
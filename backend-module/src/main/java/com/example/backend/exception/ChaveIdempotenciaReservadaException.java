@@ -0,0 +1,13 @@
+package com.example.backend.exception;
+
+/**
+ * Lançada quando a {@code Idempotency-Key} já foi reservada por outra requisição. Distingue
+ * a duplicidade da chave das demais violações de integridade da operação; sem tratamento
+ * específico, é respondida com 409.
+ */
+public class ChaveIdempotenciaReservadaException extends IllegalStateException {
+
+    public ChaveIdempotenciaReservadaException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
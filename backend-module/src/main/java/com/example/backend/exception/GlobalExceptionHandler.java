@@ -1,8 +1,13 @@
 package com.example.backend.exception;
 
 import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -22,6 +27,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(error);
     }
 
+    @ExceptionHandler(TransferenciaLoteException.class)
+    public ResponseEntity<Map<String, Object>> handleTransferenciaLoteException(TransferenciaLoteException e) {
+        Map<String, Object> error = new HashMap<>();
+        error.put("error", "Lote rejeitado");
+        error.put("message", e.getMessage());
+        error.put("resultados", e.getResultados());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public ResponseEntity<Map<String, String>> handleIllegalStateException(IllegalStateException e) {
         Map<String, String> error = new HashMap<>();
@@ -46,6 +60,31 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
     }
 
+    @ExceptionHandler(PessimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handlePessimisticLockingFailureException(PessimisticLockingFailureException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Conflito de concorrência");
+        error.put("message", "Benefício bloqueado por outra operação. Tente novamente.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    }
+
+    @ExceptionHandler(CapacidadeEsgotadaException.class)
+    public ResponseEntity<Map<String, String>> handleCapacidadeEsgotadaException(CapacidadeEsgotadaException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Serviço sobrecarregado");
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
+    /** Sem conexão livre dentro do connection-timeout do pool: sobrecarga, não erro interno. */
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Map<String, String>> handleConexaoIndisponivel(RuntimeException e) {
+        return handleCapacidadeEsgotadaException(
+                new CapacidadeEsgotadaException("Nenhuma conexão disponível com o banco. Tente novamente."));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationExceptions(MethodArgumentNotValidException e) {
         Map<String, Object> errors = new HashMap<>();
@@ -62,6 +101,15 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(errors);
     }
 
+    /** Corpo ilegível, como um valor com mais de duas casas decimais: erro do cliente. */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, String>> handleHttpMessageNotReadableException(HttpMessageNotReadableException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("error", "Erro de validação");
+        error.put("message", e.getMostSpecificCause().getMessage());
+        return ResponseEntity.badRequest().body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGenericException(Exception e) {
         Map<String, String> error = new HashMap<>();
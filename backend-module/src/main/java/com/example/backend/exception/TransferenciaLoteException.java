@@ -0,0 +1,23 @@
+package com.example.backend.exception;
+
+import com.example.backend.dto.TransferenciaResultadoDTO;
+
+import java.util.List;
+
+/**
+ * Lançada quando um lote de transferências em modo tudo-ou-nada é rejeitado.
+ * Carrega o resultado de cada item para que o cliente saiba qual falhou.
+ */
+public class TransferenciaLoteException extends IllegalStateException {
+
+    private final transient List<TransferenciaResultadoDTO> resultados;
+
+    public TransferenciaLoteException(String message, List<TransferenciaResultadoDTO> resultados) {
+        super(message);
+        this.resultados = resultados;
+    }
+
+    public List<TransferenciaResultadoDTO> getResultados() {
+        return resultados;
+    }
+}
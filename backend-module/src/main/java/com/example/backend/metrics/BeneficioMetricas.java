@@ -0,0 +1,169 @@
+package com.example.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Métricas de transferências, locks e conflitos, expostas em /actuator/prometheus.
+ *
+ * <ul>
+ *   <li>{@code beneficio.transferencia}: latência de cada tentativa de transferência
+ *       (sem o commit), com histograma, por {@code resultado}. A latência ponta a ponta,
+ *       incluindo retentativas e commit, está em {@code http.server.requests}.</li>
+ *   <li>{@code beneficio.lock.espera}: duração das consultas de lock pessimista, por
+ *       {@code alvo}: beneficio (transferência), fatia, lote
+ *       (transferência em lote) e ledger (aplicação dos pendentes).</li>
+ *   <li>{@code beneficio.transferencia.rejeicoes}: por {@code motivo}, incluindo
+ *       {@code pool_saturado} (controle de admissão) e {@code motor_saturado} (fila de uma
+ *       partição do motor de transferências cheia).</li>
+ *   <li>{@code beneficio.conflitos.otimistas}: falhas de {@code @Version}, por {@code operacao}.</li>
+ *   <li>{@code beneficio.transferencia.fallback}: transferências otimistas executadas pelo
+ *       caminho pessimista, por {@code motivo}: tentativas esgotadas ou taxa de conflitos
+ *       acima do limite.</li>
+ *   <li>{@code beneficio.motor.pendentes}: movimentos do motor de transferências já
+ *       confirmados no diário e ainda não gravados no banco.</li>
+ *   <li>{@code beneficio.diario.sincronizacao} e {@code beneficio.diario.lote}: duração de
+ *       cada {@code fsync} do diário binário de transferências e quantas transferências ele
+ *       confirmou (group commit); somam o diário do ledger e o do motor.</li>
+ * </ul>
+ *
+ * Os medidores são criados uma única vez por combinação de tags; o custo por chamada é
+ * uma consulta a mapa e a gravação no medidor.
+ */
+@Component
+public class BeneficioMetricas {
+
+    public static final String LOCK_BENEFICIO = "beneficio";
+    public static final String LOCK_FATIA = "fatia";
+    public static final String LOCK_LOTE = "lote";
+    public static final String LOCK_LEDGER = "ledger";
+
+    public static final String REJEICAO_SALDO_INSUFICIENTE = "saldo_insuficiente";
+    public static final String REJEICAO_BENEFICIO_INATIVO = "beneficio_inativo";
+    public static final String REJEICAO_POOL_SATURADO = "pool_saturado";
+    public static final String REJEICAO_MOTOR_SATURADO = "motor_saturado";
+
+    public static final String FALLBACK_TENTATIVAS = "tentativas";
+    public static final String FALLBACK_CONFLITOS = "conflitos";
+
+    private final MeterRegistry registry;
+
+    private final Map<String, Timer> transferencias = new ConcurrentHashMap<>();
+
+    private final Map<String, Timer> esperasLock = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> rejeicoes = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> conflitos = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> fallbacks = new ConcurrentHashMap<>();
+
+    private final Timer sincronizacoesDiario;
+
+    private final DistributionSummary lotesDiario;
+
+    public BeneficioMetricas(MeterRegistry registry) {
+        this.registry = registry;
+        this.sincronizacoesDiario = Timer.builder("beneficio.diario.sincronizacao")
+                .description("Duração de cada fsync do diário de transferências")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.lotesDiario = DistributionSummary.builder("beneficio.diario.lote")
+                .description("Transferências confirmadas por fsync do diário")
+                .register(registry);
+    }
+
+    public Timer.Sample iniciarTransferencia() {
+        return Timer.start(registry);
+    }
+
+    /** Encerra a medição classificando o resultado pela exceção ({@code null} = sucesso). */
+    public void registrarTransferencia(Timer.Sample amostra, Throwable erro) {
+        String resultado = resultado(erro);
+        amostra.stop(transferencias.computeIfAbsent(resultado, r -> Timer.builder("beneficio.transferencia")
+                .description("Latência de cada tentativa de transferência")
+                .tag("resultado", r)
+                .publishPercentileHistogram()
+                .register(registry)));
+    }
+
+    /** Executa a consulta de lock registrando sua duração. */
+    public <T> T medirEsperaLock(String alvo, Supplier<T> consulta) {
+        return esperasLock.computeIfAbsent(alvo, a -> Timer.builder("beneficio.lock.espera")
+                .description("Duração das consultas de lock pessimista")
+                .tag("alvo", a)
+                .publishPercentileHistogram()
+                .register(registry))
+                .record(consulta);
+    }
+
+    public void rejeicao(String motivo) {
+        rejeicoes.computeIfAbsent(motivo, m -> Counter.builder("beneficio.transferencia.rejeicoes")
+                .description("Transferências rejeitadas por regra de negócio ou por sobrecarga")
+                .tag("motivo", m)
+                .register(registry))
+                .increment();
+    }
+
+    public void conflitoOtimista(String operacao) {
+        conflitos.computeIfAbsent(operacao, o -> Counter.builder("beneficio.conflitos.otimistas")
+                .description("Falhas de lock otimista (@Version)")
+                .tag("operacao", o)
+                .register(registry))
+                .increment();
+    }
+
+    public void fallbackPessimista(String motivo) {
+        fallbacks.computeIfAbsent(motivo, m -> Counter.builder("beneficio.transferencia.fallback")
+                .description("Transferências otimistas executadas com lock pessimista")
+                .tag("motivo", m)
+                .register(registry))
+                .increment();
+    }
+
+    public void pendentesMotor(Supplier<Number> pendentes) {
+        Gauge.builder("beneficio.motor.pendentes", pendentes)
+                .description("Movimentos do motor confirmados no diário e ainda não gravados no banco")
+                .register(registry);
+    }
+
+    public void sincronizacaoDiario(int registros, long nanos) {
+        sincronizacoesDiario.record(nanos, TimeUnit.NANOSECONDS);
+        lotesDiario.record(registros);
+    }
+
+    private static String resultado(Throwable erro) {
+        if (erro == null) {
+            return "sucesso";
+        }
+        if (erro instanceof IllegalArgumentException) {
+            return "invalida";
+        }
+        if (erro instanceof EntityNotFoundException) {
+            return "nao_encontrado";
+        }
+        if (erro instanceof PessimisticLockingFailureException) {
+            return "falha_lock";
+        }
+        if (erro instanceof OptimisticLockingFailureException || erro instanceof OptimisticLockException) {
+            return "conflito";
+        }
+        if (erro instanceof IllegalStateException) {
+            return "rejeitada";
+        }
+        return "erro";
+    }
+}
@@ -0,0 +1,487 @@
+package com.example.backend.motor;
+
+import com.example.backend.diario.DiarioTransferencias;
+import com.example.backend.diario.LeitorDiario;
+import com.example.backend.diario.RegistroTransferencia;
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Transferencia;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.event.BeneficiosImportadosEvent;
+import com.example.backend.event.TransferenciasAceitasEvent;
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import com.example.backend.repository.TransferenciaJdbcRepository;
+import com.example.backend.service.TransferenciaLedgerService;
+import com.example.ejb.Centavos;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Motor de transferências em memória ({@code beneficio.transferencia.estrategia=motor}),
+ * para picos de transferências que os locks de linha do banco não comportam.
+ *
+ * <p>Os saldos ficam em memória, divididos em partições pelo ID do benefício. Cada partição
+ * tem uma única thread, a única que altera os saldos das suas contas: não há locks. O
+ * débito corre na partição da origem, que valida as contas e grava o movimento no seu
+ * {@link DiarioTransferencias}, em {@code beneficio.motor.diretorio}; após o {@code fsync}, o
+ * crédito é enfileirado na partição do destino e a transferência é confirmada. O saldo
+ * creditado só pode ser gasto depois de durável.
+ *
+ * <p>Persistência write-behind: os movimentos confirmados são gravados em lote como
+ * pendentes no ledger TRANSFERENCIA, com a sequência do diário, e materializados nos saldos
+ * por {@link TransferenciaLedgerService#aplicarPendentes()}. Cada lote publica
+ * {@link TransferenciasAceitasEvent} na sua transação, como as demais gravações do ledger.
+ * As leituras de saldo refletem os movimentos já aplicados. Na subida, os movimentos do
+ * diário posteriores à maior sequência gravada são levados ao banco, os pendentes são
+ * aplicados e os saldos carregados; só então o motor aceita transferências.
+ *
+ * <p>Com o motor ativo ele é o único escritor dos saldos: os caminhos que alterariam o saldo
+ * de um benefício existente direto no banco (PUT com outro valor, transferência em lote,
+ * habilitar ou desabilitar fatias) respondem 409 com {@link #escritaRecusada}, pois a
+ * memória não veria a alteração. Criação, importação, remoção e status dos benefícios são
+ * acompanhados pelos eventos. Benefícios fatiados não são atendidos.
+ */
+@Component
+@ConditionalOnProperty(name = "beneficio.transferencia.estrategia", havingValue = "motor")
+public class MotorTransferencias {
+
+    /** Movimentos gravados no banco por transação. */
+    static final int TAMANHO_LOTE_PERSISTENCIA = 1000;
+
+    private final TransferenciaJdbcRepository transferenciaJdbcRepository;
+
+    private final BeneficioJdbcRepository beneficioJdbcRepository;
+
+    private final TransferenciaLedgerService ledgerService;
+
+    private final TransactionTemplate transacao;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final BeneficioMetricas metricas;
+
+    private final Path diretorioDiario;
+
+    private final DataSize tamanhoSegmento;
+
+    private final int quantidadeParticoes;
+
+    private final int capacidadeParticao;
+
+    private final Map<Long, Conta> contas = new ConcurrentHashMap<>();
+
+    /**
+     * Movimentos duráveis ainda não gravados no banco, por sequência. As confirmações de
+     * partições diferentes podem chegar fora de ordem: só a parte contígua após
+     * {@link #persistidaAte} é gravada, para que o ledger nunca tenha uma sequência sem todas
+     * as anteriores (a recuperação reaplica apenas as posteriores à maior gravada).
+     */
+    private final ConcurrentSkipListMap<Long, Movimento> duraveis = new ConcurrentSkipListMap<>();
+
+    private final AtomicLong pendentes = new AtomicLong();
+
+    /** Lote cuja gravação falhou, repetido antes dos demais; guardado por {@code this}. */
+    private List<Movimento> lote = List.of();
+
+    /** Sequência até a qual todos os movimentos estão no ledger; guardada por {@code this}. */
+    private long persistidaAte;
+
+    private Particao[] particoes;
+
+    private DiarioTransferencias diario;
+
+    private volatile boolean iniciado;
+
+    public MotorTransferencias(
+            TransferenciaJdbcRepository transferenciaJdbcRepository,
+            BeneficioJdbcRepository beneficioJdbcRepository,
+            TransferenciaLedgerService ledgerService,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            BeneficioMetricas metricas,
+            @Value("${beneficio.motor.diretorio:data/motor-transferencias}") Path diretorioDiario,
+            @Value("${beneficio.motor.tamanho-segmento:64MB}") DataSize tamanhoSegmento,
+            @Value("${beneficio.motor.particoes:4}") int quantidadeParticoes,
+            @Value("${beneficio.motor.capacidade-particao:10000}") int capacidadeParticao) {
+        if (quantidadeParticoes < 1 || capacidadeParticao < 1) {
+            throw new IllegalArgumentException("beneficio.motor.particoes e capacidade-particao devem ser ao menos 1");
+        }
+        this.transferenciaJdbcRepository = transferenciaJdbcRepository;
+        this.beneficioJdbcRepository = beneficioJdbcRepository;
+        this.ledgerService = ledgerService;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.metricas = metricas;
+        this.diretorioDiario = diretorioDiario;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.quantidadeParticoes = quantidadeParticoes;
+        this.capacidadeParticao = capacidadeParticao;
+        metricas.pendentesMotor(pendentes::get);
+    }
+
+    /** Recupera o diário e carrega os saldos; até lá, as transferências respondem 503. */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (iniciado) {
+            return;
+        }
+        try {
+            long persistida = transferenciaJdbcRepository.maxSequenciaMotor();
+            // Um diário novo continua as sequências já gravadas no ledger
+            diario = new DiarioTransferencias(diretorioDiario, tamanhoSegmento, Duration.ZERO, metricas, persistida);
+            if (diario.getUltimaSequencia() < persistida) {
+                throw new IllegalStateException("Diário do motor em " + diretorioDiario
+                        + " termina antes da última sequência gravada no ledger (" + persistida + ")");
+            }
+            List<Movimento> recuperados = new ArrayList<>();
+            LeitorDiario.reproduzir(diretorioDiario, persistida, registro -> {
+                if (registro.getTipo() == RegistroTransferencia.Tipo.TRANSFERENCIA) {
+                    recuperados.add(new Movimento(registro.getSequencia(), registro.getOrigemId(),
+                            registro.getDestinoId(), registro.getCentavos(), registro.getInstante()));
+                }
+            });
+            for (int inicio = 0; inicio < recuperados.size(); inicio += TAMANHO_LOTE_PERSISTENCIA) {
+                gravar(recuperados.subList(inicio, Math.min(inicio + TAMANHO_LOTE_PERSISTENCIA, recuperados.size())));
+            }
+            // As próximas sequências do diário continuam daqui
+            persistidaAte = Math.max(persistida, diario.getUltimaSequencia());
+            diario.descartarAte(persistidaAte);
+            while (ledgerService.aplicarPendentes() > 0) {
+                // Saldos carregados a seguir já incluem todos os movimentos
+            }
+            beneficioJdbcRepository.forEachSaldo(beneficio -> contas.put(beneficio.getId(), new Conta(
+                    beneficio.getValorCentavos(), beneficio.getAtivo(), beneficio.isFatiado())));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao recuperar o diário de transferências", e);
+        }
+        particoes = new Particao[quantidadeParticoes];
+        for (int i = 0; i < particoes.length; i++) {
+            particoes[i] = new Particao(i, capacidadeParticao);
+        }
+        iniciado = true;
+    }
+
+    /**
+     * Transfere e aguarda a gravação durável no diário. As exceções de validação e de saldo
+     * são as de {@code BeneficioService#transfer}; fila da partição cheia ou motor ainda em
+     * recuperação lançam {@link CapacidadeEsgotadaException}.
+     */
+    public void transfer(TransferenciaDTO transferenciaDTO) {
+        Timer.Sample amostra = metricas.iniciarTransferencia();
+        try {
+            executar(transferenciaDTO);
+            metricas.registrarTransferencia(amostra, null);
+        } catch (RuntimeException e) {
+            metricas.registrarTransferencia(amostra, e);
+            throw e;
+        }
+    }
+
+    private void executar(TransferenciaDTO transferenciaDTO) {
+        Long fromId = transferenciaDTO.getFromId();
+        Long toId = transferenciaDTO.getToId();
+        Long centavos = transferenciaDTO.getAmountCentavos();
+        if (fromId == null || toId == null || centavos == null) {
+            throw new IllegalArgumentException("IDs e valor não podem ser nulos");
+        }
+        if (centavos <= 0) {
+            throw new IllegalArgumentException("Valor da transferência deve ser maior que zero");
+        }
+        if (fromId.equals(toId)) {
+            throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
+        }
+        if (!iniciado) {
+            throw new CapacidadeEsgotadaException("Motor de transferências em recuperação. Tente novamente.");
+        }
+        Conta from = contas.get(fromId);
+        if (from == null) {
+            throw new EntityNotFoundException("Benefício de origem não encontrado: " + fromId);
+        }
+        Conta to = contas.get(toId);
+        if (to == null) {
+            throw new EntityNotFoundException("Benefício de destino não encontrado: " + toId);
+        }
+
+        Particao particao = particao(fromId);
+        if (!particao.vagas.tryAcquire()) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_MOTOR_SATURADO);
+            throw new CapacidadeEsgotadaException("Fila do motor de transferências cheia. Tente novamente.");
+        }
+        CompletableFuture<Movimento> confirmacao = new CompletableFuture<>();
+        particao.executor.execute(() -> {
+            try {
+                debitar(fromId, from, toId, to, centavos, confirmacao);
+            } finally {
+                particao.vagas.release();
+            }
+        });
+        try {
+            confirmacao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    /** Executado na partição da origem. */
+    private void debitar(long fromId, Conta from, long toId, Conta to, long centavos,
+                         CompletableFuture<Movimento> confirmacao) {
+        try {
+            validar(from, to, centavos);
+        } catch (RuntimeException e) {
+            confirmacao.completeExceptionally(e);
+            return;
+        }
+        from.saldo -= centavos;
+        long criadoEm = System.currentTimeMillis();
+        diario.registrar(List.of(new TransferenciasAceitasEvent.Item(RegistroTransferencia.SEM_TRANSFERENCIA,
+                fromId, toId, centavos, null, null))).whenComplete((sequencia, erro) -> {
+            if (erro != null) {
+                naParticao(fromId, () -> from.saldo += centavos);
+                confirmacao.completeExceptionally(erro);
+                return;
+            }
+            // Crédito enfileirado antes da confirmação: uma transferência do destino
+            // submetida após a resposta já encontra o saldo creditado
+            naParticao(toId, () -> to.saldo += centavos);
+            Movimento movimento = new Movimento(sequencia, fromId, toId, centavos, criadoEm);
+            duravel(movimento);
+            confirmacao.complete(movimento);
+        });
+    }
+
+    /** Enfileira para o ledger um movimento já durável no diário. */
+    void duravel(Movimento movimento) {
+        duraveis.put(movimento.getSequencia(), movimento);
+        pendentes.incrementAndGet();
+    }
+
+    private void naParticao(long id, Runnable tarefa) {
+        try {
+            particao(id).executor.execute(tarefa);
+        } catch (RejectedExecutionException e) {
+            // Motor parado: os saldos em memória não são mais usados; o movimento está no diário
+        }
+    }
+
+    private void validar(Conta from, Conta to, long centavos) {
+        if (from.fatiado || to.fatiado) {
+            throw new IllegalStateException("Benefício fatiado não é atendido pelo motor de transferências");
+        }
+        if (!from.ativo) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_BENEFICIO_INATIVO);
+            throw new IllegalStateException("Benefício de origem não está ativo");
+        }
+        if (!to.ativo) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_BENEFICIO_INATIVO);
+            throw new IllegalStateException("Benefício de destino não está ativo");
+        }
+        if (from.saldo < centavos) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_SALDO_INSUFICIENTE);
+            throw new IllegalStateException("Saldo insuficiente. Saldo atual: " + Centavos.formatar(from.saldo)
+                    + ", Valor solicitado: " + Centavos.formatar(centavos));
+        }
+    }
+
+    /**
+     * Grava no banco os movimentos duráveis de sequência contígua, em lotes de
+     * {@link #TAMANHO_LOTE_PERSISTENCIA}, e apaga os segmentos do diário que só contêm
+     * movimentos já gravados. Um movimento cuja anterior ainda não foi confirmada espera a
+     * próxima execução.
+     */
+    @Scheduled(fixedDelayString = "${beneficio.motor.intervalo-persistencia:100}")
+    public synchronized void persistir() {
+        long anterior = persistidaAte;
+        while (true) {
+            if (lote.isEmpty()) {
+                List<Movimento> proximo = new ArrayList<>();
+                Map.Entry<Long, Movimento> primeiro;
+                while (proximo.size() < TAMANHO_LOTE_PERSISTENCIA && (primeiro = duraveis.firstEntry()) != null
+                        && primeiro.getKey() == persistidaAte + proximo.size() + 1) {
+                    proximo.add(duraveis.pollFirstEntry().getValue());
+                }
+                lote = proximo;
+            }
+            if (lote.isEmpty()) {
+                break;
+            }
+            gravar(lote);
+            pendentes.addAndGet(-lote.size());
+            persistidaAte = lote.get(lote.size() - 1).getSequencia();
+            lote = List.of();
+        }
+        if (persistidaAte > anterior) {
+            try {
+                diario.descartarAte(persistidaAte);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Falha ao descartar segmentos do diário do motor", e);
+            }
+        }
+    }
+
+    private void gravar(List<Movimento> movimentos) {
+        List<Transferencia> transferencias = new ArrayList<>(movimentos.size());
+        for (Movimento movimento : movimentos) {
+            Transferencia transferencia = new Transferencia(movimento.getOrigemId(), movimento.getDestinoId(),
+                    Centavos.paraBigDecimal(movimento.getCentavos()), false);
+            transferencia.setCriadaEm(Instant.ofEpochMilli(movimento.getCriadoEm()));
+            transferencia.setSequenciaMotor(movimento.getSequencia());
+            transferencias.add(transferencia);
+        }
+        transacao.executeWithoutResult(status -> {
+            List<Long> ids = transferenciaJdbcRepository.insertAll(transferencias);
+            List<TransferenciasAceitasEvent.Item> itens = new ArrayList<>(movimentos.size());
+            for (int i = 0; i < movimentos.size(); i++) {
+                Movimento movimento = movimentos.get(i);
+                itens.add(new TransferenciasAceitasEvent.Item(ids.get(i), movimento.getOrigemId(),
+                        movimento.getDestinoId(), movimento.getCentavos(), null, null));
+            }
+            eventPublisher.publishEvent(new TransferenciasAceitasEvent(itens));
+        });
+    }
+
+    /** Recusa de uma alteração de saldo fora do motor, enquanto ele é o único escritor. */
+    public static IllegalStateException escritaRecusada(String operacao) {
+        return new IllegalStateException(operacao
+                + " indisponível com o motor de transferências ativo: os saldos são alterados apenas por ele");
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBeneficioAlterado(BeneficioAlteradoEvent event) {
+        if (event.getTipo() == BeneficioAlteradoEvent.Tipo.REMOVIDO) {
+            contas.remove(event.getId());
+            return;
+        }
+        BeneficioDTO beneficio = event.getBeneficio();
+        Conta conta = contas.get(event.getId());
+        if (conta == null) {
+            contas.putIfAbsent(event.getId(), new Conta(Centavos.de(beneficio.getValor()),
+                    Boolean.TRUE.equals(beneficio.getAtivo()), beneficio.isFatiado()));
+        } else {
+            conta.ativo = Boolean.TRUE.equals(beneficio.getAtivo());
+            conta.fatiado = beneficio.isFatiado();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBeneficiosImportados(BeneficiosImportadosEvent event) {
+        beneficioJdbcRepository.forEachSaldo(beneficio -> contas.computeIfAbsent(beneficio.getId(), id -> new Conta(
+                beneficio.getValorCentavos(), beneficio.getAtivo(), beneficio.isFatiado())));
+    }
+
+    /** Confirma os movimentos em andamento e grava no banco os que ainda não foram. */
+    @PreDestroy
+    public void encerrar() {
+        if (parar()) {
+            persistir();
+        }
+    }
+
+    /**
+     * Para as partições e fecha o diário, sem gravar os movimentos duráveis no banco: o
+     * estado de uma queda logo após as confirmações.
+     *
+     * @return {@code false} se o motor não estava iniciado
+     */
+    synchronized boolean parar() {
+        if (!iniciado) {
+            return false;
+        }
+        iniciado = false;
+        for (Particao particao : particoes) {
+            particao.executor.shutdown();
+        }
+        try {
+            for (Particao particao : particoes) {
+                particao.executor.awaitTermination(10, TimeUnit.SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        diario.close();
+        return true;
+    }
+
+    /** Saldo em memória, em centavos, lido na partição dona da conta; para testes. */
+    long saldo(Long id) {
+        Conta conta = contas.get(id);
+        return CompletableFuture.supplyAsync(() -> conta.saldo, particao(id).executor).join();
+    }
+
+    private Particao particao(long id) {
+        return particoes[Math.floorMod(Long.hashCode(id) * 0x9E3779B9, particoes.length)];
+    }
+
+    /** Saldo alterado apenas pela thread da partição dona; status e modo lidos por qualquer partição. */
+    private static final class Conta {
+
+        private long saldo;
+
+        private volatile boolean ativo;
+
+        private volatile boolean fatiado;
+
+        private Conta(long saldo, Boolean ativo, boolean fatiado) {
+            this.saldo = saldo;
+            this.ativo = Boolean.TRUE.equals(ativo);
+            this.fatiado = fatiado;
+        }
+    }
+
+    /**
+     * Fila de uma partição, consumida por uma única thread. As novas transferências
+     * disputam {@code vagas}; os créditos, já confirmados, entram sempre.
+     */
+    private static final class Particao {
+
+        private final ExecutorService executor;
+
+        private final Semaphore vagas;
+
+        private Particao(int indice, int capacidade) {
+            this.executor = Executors.newSingleThreadExecutor(tarefa -> {
+                Thread thread = new Thread(tarefa, "motor-particao-" + indice);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.vagas = new Semaphore(capacidade);
+        }
+    }
+}
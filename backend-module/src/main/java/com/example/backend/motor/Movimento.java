@@ -0,0 +1,46 @@
+package com.example.backend.motor;
+
+/**
+ * Transferência aceita pelo motor, como gravada no diário: valor em centavos e instante
+ * em milissegundos desde a época. A sequência é atribuída pelo diário, em ordem de gravação.
+ */
+public final class Movimento {
+
+    private final long sequencia;
+
+    private final long origemId;
+
+    private final long destinoId;
+
+    private final long centavos;
+
+    private final long criadoEm;
+
+    public Movimento(long sequencia, long origemId, long destinoId, long centavos, long criadoEm) {
+        this.sequencia = sequencia;
+        this.origemId = origemId;
+        this.destinoId = destinoId;
+        this.centavos = centavos;
+        this.criadoEm = criadoEm;
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public long getOrigemId() {
+        return origemId;
+    }
+
+    public long getDestinoId() {
+        return destinoId;
+    }
+
+    public long getCentavos() {
+        return centavos;
+    }
+
+    public long getCriadoEm() {
+        return criadoEm;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.BeneficioFatia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BeneficioFatiaRepository extends JpaRepository<BeneficioFatia, Long> {
+
+    /** ID e saldo de uma fatia, lidos sem registrar a entidade no contexto de persistência. */
+    interface SaldoFatia {
+        Long getId();
+
+        BigDecimal getValor();
+    }
+
+    /*
+     * As leituras sem lock usadas para escolher as fatias são projeções: se carregassem
+     * entidades, a consulta com lock seguinte devolveria as mesmas instâncias gerenciadas,
+     * com o saldo lido antes do lock.
+     */
+
+    @Query("SELECT f.id AS id, f.valor AS valor FROM BeneficioFatia f WHERE f.beneficioId = :beneficioId ORDER BY f.indice")
+    List<SaldoFatia> findSaldosByBeneficioId(@Param("beneficioId") Long beneficioId);
+
+    @Query("SELECT f.id FROM BeneficioFatia f WHERE f.beneficioId = :beneficioId AND f.indice = :indice")
+    Optional<Long> findIdByBeneficioIdAndIndice(@Param("beneficioId") Long beneficioId, @Param("indice") Integer indice);
+
+    /** Bloqueia as fatias informadas em uma única consulta, em ordem crescente de ID. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = BeneficioRepository.LOCK_TIMEOUT_MS))
+    @Query("SELECT f FROM BeneficioFatia f WHERE f.id IN :ids ORDER BY f.id")
+    List<BeneficioFatia> findAllByIdWithLock(@Param("ids") Collection<Long> ids);
+
+    /** Bloqueia todas as fatias de um benefício, em ordem crescente de ID. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = BeneficioRepository.LOCK_TIMEOUT_MS))
+    @Query("SELECT f FROM BeneficioFatia f WHERE f.beneficioId = :beneficioId ORDER BY f.id")
+    List<BeneficioFatia> findByBeneficioIdWithLock(@Param("beneficioId") Long beneficioId);
+
+    @Query("SELECT COALESCE(SUM(f.valor), 0) FROM BeneficioFatia f WHERE f.beneficioId = :beneficioId")
+    BigDecimal sumValorByBeneficioId(@Param("beneficioId") Long beneficioId);
+
+    @Modifying
+    @Query("DELETE FROM BeneficioFatia f WHERE f.beneficioId = :beneficioId")
+    int deleteByBeneficioId(@Param("beneficioId") Long beneficioId);
+}
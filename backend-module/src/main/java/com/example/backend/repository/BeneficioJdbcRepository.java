@@ -0,0 +1,239 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.ResumoBeneficiosDTO;
+import com.example.backend.entity.Beneficio;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Operações set-based sobre BENEFICIO via JDBC, sem hidratar entidades no contexto
+ * de persistência. Deve ser usado dentro de uma transação ativa.
+ */
+@Repository
+public class BeneficioJdbcRepository {
+
+    /** Quantidade máxima de IDs por cláusula IN. */
+    static final int TAMANHO_BLOCO_IN = 1000;
+
+    /** Linhas trazidas do banco a cada ida ao cursor durante o streaming. */
+    static final int FETCH_SIZE_STREAMING = 500;
+
+    /**
+     * Benefícios com o saldo efetivo: a soma das fatias para benefícios fatiados, a
+     * coluna VALOR para os demais. Compartilhado com a leitura reativa.
+     */
+    static final String SELECT_SALDOS = "SELECT B.ID, B.NOME, B.DESCRICAO, B.ATIVO, B.VERSION, "
+            + "CASE WHEN B.FATIAS > 0 THEN (SELECT COALESCE(SUM(F.VALOR), 0) FROM BENEFICIO_FATIA F "
+            + "WHERE F.BENEFICIO_ID = B.ID) ELSE B.VALOR END AS VALOR "
+            + "FROM BENEFICIO B";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Template das leituras em streaming, criado uma vez: mesmo DataSource, com fetch size
+     * fixo. Os statements do JdbcTemplate já são forward-only e read-only.
+     */
+    private final JdbcTemplate streaming;
+
+    public BeneficioJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streaming = new JdbcTemplate(jdbcTemplate.getJdbcTemplate().getDataSource());
+        this.streaming.setFetchSize(FETCH_SIZE_STREAMING);
+    }
+
+    /**
+     * Percorre a tabela com um cursor JDBC forward-only, entregando cada linha ao
+     * consumidor assim que é lida. Nenhuma lista é materializada na aplicação; com
+     * {@code LAZY_QUERY_EXECUTION=1} na URL, o H2 embarcado também produz as linhas sob
+     * demanda em vez de montar o resultado inteiro antes da primeira.
+     */
+    public void forEach(boolean somenteAtivos, Consumer<BeneficioDTO> consumidor) {
+        String sql = SELECT_SALDOS + (somenteAtivos ? " WHERE B.ATIVO = TRUE" : "") + " ORDER BY B.ID";
+        streaming.query(sql, (RowCallbackHandler) rs -> consumidor.accept(new BeneficioDTO(
+                rs.getLong("ID"),
+                rs.getString("NOME"),
+                rs.getString("DESCRICAO"),
+                rs.getBigDecimal("VALOR"),
+                rs.getBoolean("ATIVO"),
+                rs.getLong("VERSION"))));
+    }
+
+    /**
+     * Como {@link #forEach}, mas com o estado usado pelo motor de transferências: ID, status,
+     * quantidade de fatias e a coluna VALOR (sem somar as fatias). Nome e descrição ficam nulos.
+     */
+    public void forEachSaldo(Consumer<Beneficio> consumidor) {
+        streaming.query("SELECT ID, VALOR, ATIVO, FATIAS FROM BENEFICIO ORDER BY ID", (RowCallbackHandler) rs -> {
+            Beneficio beneficio = new Beneficio();
+            beneficio.setId(rs.getLong("ID"));
+            beneficio.setValor(rs.getBigDecimal("VALOR"));
+            beneficio.setAtivo(rs.getBoolean("ATIVO"));
+            beneficio.setFatias(rs.getInt("FATIAS"));
+            consumidor.accept(beneficio);
+        });
+    }
+
+    /**
+     * Quantidade e saldo efetivo por status em uma única consulta, para que a transferência
+     * entre um benefício fatiado e um comum, que altera as duas tabelas, seja vista por
+     * inteiro ou não seja vista. Status ausente no banco vem com zeros.
+     */
+    public ResumoBeneficiosDTO resumo() {
+        long[] quantidades = new long[2];
+        BigDecimal[] saldos = {BigDecimal.ZERO, BigDecimal.ZERO};
+        jdbcTemplate.getJdbcTemplate().query(
+                "SELECT S.ATIVO, COUNT(*) AS QUANTIDADE, COALESCE(SUM(S.VALOR), 0) AS SALDO "
+                        + "FROM (" + SELECT_SALDOS + ") S GROUP BY S.ATIVO",
+                (RowCallbackHandler) rs -> {
+                    int status = rs.getBoolean("ATIVO") ? 0 : 1;
+                    quantidades[status] = rs.getLong("QUANTIDADE");
+                    saldos[status] = rs.getBigDecimal("SALDO");
+                });
+        return new ResumoBeneficiosDTO(quantidades[0], saldos[0], quantidades[1], saldos[1], Instant.now());
+    }
+
+    /**
+     * Bloqueia (FOR UPDATE) as linhas informadas em ordem crescente de ID e devolve
+     * o estado atual de cada uma, sem registrá-las no contexto de persistência. Os IDs são bloqueados em blocos
+     * ordenados, preservando a ordem global de aquisição dos locks.
+     */
+    public Map<Long, Beneficio> findAllByIdWithLock(Collection<Long> ids) {
+        return findAllById(ids, " FOR UPDATE");
+    }
+
+    /** Estado atual das linhas informadas, sem lock e sem registrá-las no contexto de persistência. */
+    public Map<Long, Beneficio> findAllById(Collection<Long> ids) {
+        return findAllById(ids, "");
+    }
+
+    private Map<Long, Beneficio> findAllById(Collection<Long> ids, String bloqueio) {
+        List<Long> ordenados = ids.stream().distinct().sorted().toList();
+        Map<Long, Beneficio> beneficios = new LinkedHashMap<>();
+        for (int inicio = 0; inicio < ordenados.size(); inicio += TAMANHO_BLOCO_IN) {
+            List<Long> bloco = ordenados.subList(inicio, Math.min(inicio + TAMANHO_BLOCO_IN, ordenados.size()));
+            jdbcTemplate.query(
+                    "SELECT ID, NOME, DESCRICAO, VALOR, ATIVO, VERSION, FATIAS FROM BENEFICIO WHERE ID IN (:ids) ORDER BY ID"
+                            + bloqueio,
+                    new MapSqlParameterSource("ids", bloco),
+                    rs -> {
+                        Beneficio beneficio = new Beneficio();
+                        beneficio.setId(rs.getLong("ID"));
+                        beneficio.setNome(rs.getString("NOME"));
+                        beneficio.setDescricao(rs.getString("DESCRICAO"));
+                        beneficio.setValor(rs.getBigDecimal("VALOR"));
+                        beneficio.setAtivo(rs.getBoolean("ATIVO"));
+                        beneficio.setVersion(rs.getLong("VERSION"));
+                        beneficio.setFatias(rs.getInt("FATIAS"));
+                        beneficios.put(beneficio.getId(), beneficio);
+                    });
+        }
+        return beneficios;
+    }
+
+    /**
+     * Debita {@code valor} se a linha ainda estiver na versão lida e o saldo cobrir o débito,
+     * incrementando VERSION. Não bloqueia a linha antes da escrita.
+     *
+     * @return {@code false} se a linha mudou desde a leitura ou o saldo não cobre o débito
+     */
+    public boolean debitarSeVersao(Long id, long versao, BigDecimal valor) {
+        return jdbcTemplate.update(
+                "UPDATE BENEFICIO SET VALOR = VALOR - :valor, VERSION = VERSION + 1 "
+                        + "WHERE ID = :id AND VERSION = :versao AND VALOR >= :valor",
+                parametrosCondicionais(id, versao, valor)) == 1;
+    }
+
+    /**
+     * Credita {@code valor} se a linha ainda estiver na versão lida, incrementando VERSION.
+     *
+     * @return {@code false} se a linha mudou desde a leitura
+     */
+    public boolean creditarSeVersao(Long id, long versao, BigDecimal valor) {
+        return jdbcTemplate.update(
+                "UPDATE BENEFICIO SET VALOR = VALOR + :valor, VERSION = VERSION + 1 "
+                        + "WHERE ID = :id AND VERSION = :versao",
+                parametrosCondicionais(id, versao, valor)) == 1;
+    }
+
+    private static MapSqlParameterSource parametrosCondicionais(Long id, long versao, BigDecimal valor) {
+        return new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("versao", versao)
+                .addValue("valor", valor);
+    }
+
+    /**
+     * Grava os novos valores em um único batch JDBC, incrementando VERSION para que
+     * atualizações concorrentes via JPA detectem a alteração.
+     */
+    public void updateValores(Map<Long, BigDecimal> valores) {
+        if (valores.isEmpty()) {
+            return;
+        }
+        List<MapSqlParameterSource> parametros = new ArrayList<>(valores.size());
+        valores.forEach((id, valor) -> parametros.add(new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("valor", valor)));
+        jdbcTemplate.batchUpdate(
+                "UPDATE BENEFICIO SET VALOR = :valor, VERSION = VERSION + 1 WHERE ID = :id",
+                parametros.toArray(new MapSqlParameterSource[0]));
+    }
+
+    /**
+     * Soma cada valor à fatia de índice 0 do respectivo benefício fatiado, em ordem de
+     * ID do benefício.
+     */
+    public void creditarFatias(Map<Long, BigDecimal> creditos) {
+        if (creditos.isEmpty()) {
+            return;
+        }
+        List<MapSqlParameterSource> parametros = new ArrayList<>(creditos.size());
+        creditos.forEach((id, valor) -> parametros.add(new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("valor", valor)));
+        jdbcTemplate.batchUpdate(
+                "UPDATE BENEFICIO_FATIA SET VALOR = VALOR + :valor WHERE BENEFICIO_ID = :id AND INDICE = 0",
+                parametros.toArray(new MapSqlParameterSource[0]));
+    }
+
+    /**
+     * Insere novos benefícios em um único batch JDBC. Os IDs vêm de BENEFICIO_SEQ, em
+     * blocos de {@link Beneficio#ALOCACAO_IDS} por valor de sequência, como faz o
+     * Hibernate: uma ida à sequência a cada bloco, e não uma por linha.
+     */
+    public void insertAll(List<BeneficioDTO> beneficios) {
+        if (beneficios.isEmpty()) {
+            return;
+        }
+        int blocos = (beneficios.size() + Beneficio.ALOCACAO_IDS - 1) / Beneficio.ALOCACAO_IDS;
+        List<Long> inicios = jdbcTemplate.getJdbcTemplate().queryForList(
+                "SELECT NEXT VALUE FOR BENEFICIO_SEQ FROM SYSTEM_RANGE(1, ?)", Long.class, blocos);
+        List<MapSqlParameterSource> parametros = new ArrayList<>(beneficios.size());
+        for (int i = 0; i < beneficios.size(); i++) {
+            BeneficioDTO beneficio = beneficios.get(i);
+            parametros.add(new MapSqlParameterSource()
+                    .addValue("id", inicios.get(i / Beneficio.ALOCACAO_IDS) + i % Beneficio.ALOCACAO_IDS)
+                    .addValue("nome", beneficio.getNome())
+                    .addValue("descricao", beneficio.getDescricao())
+                    .addValue("valor", beneficio.getValor())
+                    .addValue("ativo", beneficio.getAtivo() != null ? beneficio.getAtivo() : Boolean.TRUE));
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO, VERSION, FATIAS) "
+                        + "VALUES (:id, :nome, :descricao, :valor, :ativo, 0, 0)",
+                parametros.toArray(new MapSqlParameterSource[0]));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.BeneficioDTO;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+
+/**
+ * Consultas somente leitura sobre BENEFICIO via R2DBC. As linhas são emitidas conforme a
+ * demanda do assinante, sem lista intermediária na aplicação; a memória do resultado dentro
+ * do H2 depende de {@code LAZY_QUERY_EXECUTION} na URL do banco. As consultas bloqueiam a
+ * thread que assina (ver {@link com.example.backend.config.R2dbcConfig}).
+ */
+@Repository
+public class BeneficioReativoRepository {
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<BeneficioDTO> findAll(boolean somenteAtivos) {
+        String sql = BeneficioJdbcRepository.SELECT_SALDOS
+                + (somenteAtivos ? " WHERE B.ATIVO = TRUE" : "")
+                + " ORDER BY B.ID";
+        return databaseClient.sql(sql)
+                .map(BeneficioReativoRepository::toDTO)
+                .all();
+    }
+
+    public Mono<BeneficioDTO> findById(Long id) {
+        return databaseClient.sql(BeneficioJdbcRepository.SELECT_SALDOS + " WHERE B.ID = :id")
+                .bind("id", id)
+                .map(BeneficioReativoRepository::toDTO)
+                .one();
+    }
+
+    private static BeneficioDTO toDTO(Readable row) {
+        return new BeneficioDTO(
+                row.get("ID", Long.class),
+                row.get("NOME", String.class),
+                row.get("DESCRICAO", String.class),
+                row.get("VALOR", BigDecimal.class),
+                row.get("ATIVO", Boolean.class),
+                row.get("VERSION", Long.class));
+    }
+}
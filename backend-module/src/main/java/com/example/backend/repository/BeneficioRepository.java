@@ -1,22 +1,160 @@
 package com.example.backend.repository;
 
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.VersaoColecaoDTO;
 import com.example.backend.entity.Beneficio;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface BeneficioRepository extends JpaRepository<Beneficio, Long> {
-    
-    List<Beneficio> findByAtivoTrue();
+
+    /** Tempo máximo (ms) de espera por um lock pessimista antes de falhar. */
+    String LOCK_TIMEOUT_MS = "3000";
+
+    /**
+     * Projeção que constrói o DTO diretamente na consulta: nenhuma entidade é
+     * hidratada nem registrada no contexto de persistência (sem snapshot de dirty checking).
+     * As consultas projetadas abrem sua própria transação read-only quando chamadas fora
+     * de uma, para que o serviço só ocupe uma conexão em caso de cache miss.
+     * Para benefícios fatiados o valor é a soma das fatias. O CAST mantém o ramo ELSE como
+     * decimal: na entidade, VALOR é um {@code long} de centavos (ver {@code CentavosConverter}).
+     */
+    String PROJECAO_DTO = "SELECT new com.example.backend.dto.BeneficioDTO("
+            + "b.id, b.nome, b.descricao, "
+            + "CASE WHEN b.fatias > 0 THEN (SELECT COALESCE(SUM(f.valor), 0) FROM BeneficioFatia f WHERE f.beneficioId = b.id) "
+            + "ELSE CAST(b.valor AS BigDecimal) END, "
+            + "b.ativo, b.version, CASE WHEN b.fatias > 0 THEN true ELSE false END) FROM Beneficio b";
+
+    /** Resumo de versões para o ETag das listagens, calculado sem ler as linhas para a aplicação. */
+    String PROJECAO_VERSAO_COLECAO = "SELECT new com.example.backend.dto.VersaoColecaoDTO("
+            + "COUNT(b), COALESCE(SUM(b.id * (b.version + 1)), 0L), COALESCE(MAX(b.id), 0L), "
+            + "SUM(CASE WHEN b.fatias > 0 THEN 1L ELSE 0L END)) FROM Beneficio b";
+
+    /**
+     * Estado de um benefício devolvido pelo próprio UPDATE, lido da tabela delta
+     * {@code FINAL TABLE} do H2: sem consulta adicional e sem entidade hidratada. A sintaxe
+     * {@code SELECT ... FROM FINAL TABLE (UPDATE ...)} é específica do H2 (e do DB2); em outro
+     * banco as consultas que a usam precisam de {@code UPDATE ... RETURNING} ou equivalente.
+     */
+    interface SaldoAtualizado {
+        Long getId();
+
+        String getNome();
+
+        String getDescricao();
+
+        BigDecimal getValor();
+
+        Boolean getAtivo();
+
+        Long getVersion();
+    }
+
+    String SELECT_SALDO_ATUALIZADO = "SELECT ID AS id, NOME AS nome, DESCRICAO AS descricao, VALOR AS valor, "
+            + "ATIVO AS ativo, VERSION AS version FROM FINAL TABLE ";
+
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_DTO + " ORDER BY b.id")
+    List<BeneficioDTO> findAllDTO();
+
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_DTO + " WHERE b.ativo = true ORDER BY b.id")
+    List<BeneficioDTO> findAllAtivosDTO();
+
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_DTO + " WHERE b.id = :id")
+    Optional<BeneficioDTO> findDTOById(@Param("id") Long id);
+
+    /**
+     * Somente a versão do benefício, para responder a GETs condicionais sem carregar a
+     * linha. Devolve -1 para benefício fatiado, cujo saldo muda sem alterar a versão.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT CASE WHEN b.fatias > 0 THEN -1L ELSE b.version END FROM Beneficio b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_VERSAO_COLECAO)
+    VersaoColecaoDTO findVersaoColecao();
+
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_VERSAO_COLECAO + " WHERE b.ativo = true")
+    VersaoColecaoDTO findVersaoColecaoAtivos();
+
+    /** Página por keyset: benefícios com ID maior que {@code after}, em ordem de ID. */
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_DTO + " WHERE b.id > :after ORDER BY b.id")
+    List<BeneficioDTO> findDTOPage(@Param("after") Long after, Limit limit);
+
+    /** Página por keyset restrita aos benefícios ativos. */
+    @Transactional(readOnly = true)
+    @Query(PROJECAO_DTO + " WHERE b.ativo = true AND b.id > :after ORDER BY b.id")
+    List<BeneficioDTO> findAtivosDTOPage(@Param("after") Long after, Limit limit);
     
     @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = LOCK_TIMEOUT_MS))
     @Query("SELECT b FROM Beneficio b WHERE b.id = :id")
     Optional<Beneficio> findByIdWithLock(@Param("id") Long id);
-}
 
+    /**
+     * Bloqueia (PESSIMISTIC_WRITE) todos os benefícios informados em uma única consulta,
+     * sempre em ordem crescente de ID. Como todas as transações adquirem os locks na mesma
+     * ordem, transferências cruzadas (A→B e B→A) não entram em deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = LOCK_TIMEOUT_MS))
+    @Query("SELECT b FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id")
+    List<Beneficio> findAllByIdWithLock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Como {@link #findAllByIdWithLock}, mas ignora benefícios fatiados: a linha de um
+     * benefício fatiado não é bloqueada por transferências, apenas uma de suas fatias.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = LOCK_TIMEOUT_MS))
+    @Query("SELECT b FROM Beneficio b WHERE b.id IN :ids AND b.fatias = 0 ORDER BY b.id")
+    List<Beneficio> findAllNaoFatiadosByIdWithLock(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Débito em um único comando, sem ler a linha antes: as condições do WHERE substituem
+     * a validação em memória e o lock da linha vale até o fim da transação. Nenhuma linha
+     * devolvida significa benefício inexistente, inativo ou fatiado, ou saldo insuficiente.
+     * O contexto de persistência não é atualizado: o chamador não deve ter carregado esses
+     * benefícios na transação.
+     */
+    @Query(nativeQuery = true, value = SELECT_SALDO_ATUALIZADO + "(UPDATE BENEFICIO "
+            + "SET VALOR = VALOR - :valor, VERSION = VERSION + 1 "
+            + "WHERE ID = :id AND ATIVO = TRUE AND FATIAS = 0 AND VALOR >= :valor)")
+    Optional<SaldoAtualizado> debitar(@Param("id") Long id, @Param("valor") BigDecimal valor);
+
+    /** Crédito em um único comando, nas mesmas condições de {@link #debitar} exceto o saldo. */
+    @Query(nativeQuery = true, value = SELECT_SALDO_ATUALIZADO + "(UPDATE BENEFICIO "
+            + "SET VALOR = VALOR + :valor, VERSION = VERSION + 1 "
+            + "WHERE ID = :id AND ATIVO = TRUE AND FATIAS = 0)")
+    Optional<SaldoAtualizado> creditar(@Param("id") Long id, @Param("valor") BigDecimal valor);
+
+    /**
+     * Desfaz o saldo de um {@link #debitar} ou {@link #creditar} já aplicado na transação
+     * corrente ({@code valor} negativo para desfazer um crédito). A versão volta a ser
+     * incrementada, nunca decrementada: versões são monotônicas (ETags e o cache comparam
+     * versões), e outra transação pode já ter visto a do comando original. A linha segue
+     * bloqueada pela transação desde o comando original.
+     */
+    @Modifying
+    @Query(nativeQuery = true, value = "UPDATE BENEFICIO SET VALOR = VALOR + :valor, VERSION = VERSION + 1 WHERE ID = :id")
+    int estornar(@Param("id") Long id, @Param("valor") BigDecimal valor);
+}
@@ -0,0 +1,18 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.Idempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotenciaRepository extends JpaRepository<Idempotencia, String> {
+
+    @Modifying
+    @Query("DELETE FROM Idempotencia i WHERE i.criadaEm < :limite")
+    int deleteByCriadaEmBefore(@Param("limite") Instant limite);
+}
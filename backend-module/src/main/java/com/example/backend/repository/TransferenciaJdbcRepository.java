@@ -0,0 +1,125 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.Transferencia;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Operações em lote sobre o ledger TRANSFERENCIA via JDBC. Deve ser usado dentro de
+ * uma transação ativa.
+ */
+@Repository
+public class TransferenciaJdbcRepository {
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Insere os movimentos em um único batch JDBC.
+     *
+     * @return os IDs gerados, na ordem dos movimentos
+     */
+    public List<Long> insertAll(Collection<Transferencia> transferencias) {
+        if (transferencias.isEmpty()) {
+            return List.of();
+        }
+        MapSqlParameterSource[] parametros = transferencias.stream()
+                .map(t -> new MapSqlParameterSource()
+                        .addValue("origemId", t.getOrigemId())
+                        .addValue("destinoId", t.getDestinoId())
+                        .addValue("valor", t.getValor())
+                        .addValue("criadaEm", Timestamp.from(t.getCriadaEm()))
+                        .addValue("aplicada", t.getAplicada())
+                        .addValue("sequenciaMotor", t.getSequenciaMotor()))
+                .toArray(MapSqlParameterSource[]::new);
+        KeyHolder chaves = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO TRANSFERENCIA (ORIGEM_ID, DESTINO_ID, VALOR, CRIADA_EM, APLICADA, SEQUENCIA_MOTOR) "
+                        + "VALUES (:origemId, :destinoId, :valor, :criadaEm, :aplicada, :sequenciaMotor)",
+                parametros, chaves, new String[]{"ID"});
+        List<Long> ids = new ArrayList<>(parametros.length);
+        for (Map<String, Object> chave : chaves.getKeyList()) {
+            ids.add(((Number) chave.get("ID")).longValue());
+        }
+        return ids;
+    }
+
+    /** Dentre {@code ids}, os que existem no ledger. */
+    public Set<Long> findIdsExistentes(Collection<Long> ids) {
+        Set<Long> existentes = new HashSet<>();
+        List<Long> lista = List.copyOf(ids);
+        for (int inicio = 0; inicio < lista.size(); inicio += BeneficioJdbcRepository.TAMANHO_BLOCO_IN) {
+            List<Long> bloco = lista.subList(inicio, Math.min(inicio + BeneficioJdbcRepository.TAMANHO_BLOCO_IN, lista.size()));
+            existentes.addAll(jdbcTemplate.queryForList(
+                    "SELECT ID FROM TRANSFERENCIA WHERE ID IN (:ids)", new MapSqlParameterSource("ids", bloco), Long.class));
+        }
+        return existentes;
+    }
+
+    /**
+     * Bloqueia e devolve até {@code limite} movimentos pendentes, em ordem de ID. O lock
+     * impede que dois aplicadores processem o mesmo movimento.
+     */
+    public List<Transferencia> findPendentesWithLock(int limite) {
+        return jdbcTemplate.query(
+                "SELECT ID, ORIGEM_ID, DESTINO_ID, VALOR, CRIADA_EM FROM TRANSFERENCIA "
+                        + "WHERE APLICADA = FALSE ORDER BY ID LIMIT :limite FOR UPDATE",
+                new MapSqlParameterSource("limite", limite),
+                (rs, rowNum) -> {
+                    Transferencia transferencia = new Transferencia();
+                    transferencia.setId(rs.getLong("ID"));
+                    transferencia.setOrigemId(rs.getLong("ORIGEM_ID"));
+                    transferencia.setDestinoId(rs.getLong("DESTINO_ID"));
+                    transferencia.setValor(rs.getBigDecimal("VALOR"));
+                    transferencia.setCriadaEm(rs.getTimestamp("CRIADA_EM").toInstant());
+                    transferencia.setAplicada(false);
+                    return transferencia;
+                });
+    }
+
+    /** Maior sequência do motor de transferências já gravada no ledger; 0 se nenhuma. */
+    public long maxSequenciaMotor() {
+        Long sequencia = jdbcTemplate.getJdbcTemplate().queryForObject(
+                "SELECT MAX(SEQUENCIA_MOTOR) FROM TRANSFERENCIA", Long.class);
+        return sequencia != null ? sequencia : 0L;
+    }
+
+    public void marcarAplicadas(List<Long> ids) {
+        for (int inicio = 0; inicio < ids.size(); inicio += BeneficioJdbcRepository.TAMANHO_BLOCO_IN) {
+            List<Long> bloco = ids.subList(inicio, Math.min(inicio + BeneficioJdbcRepository.TAMANHO_BLOCO_IN, ids.size()));
+            jdbcTemplate.update("UPDATE TRANSFERENCIA SET APLICADA = TRUE WHERE ID IN (:ids)",
+                    new MapSqlParameterSource("ids", bloco));
+        }
+    }
+
+    /** Soma dos débitos pendentes por benefício de origem. */
+    public Map<Long, BigDecimal> sumPendentesByOrigemId(Collection<Long> ids) {
+        Map<Long, BigDecimal> pendentes = new HashMap<>();
+        List<Long> lista = List.copyOf(ids);
+        for (int inicio = 0; inicio < lista.size(); inicio += BeneficioJdbcRepository.TAMANHO_BLOCO_IN) {
+            List<Long> bloco = lista.subList(inicio, Math.min(inicio + BeneficioJdbcRepository.TAMANHO_BLOCO_IN, lista.size()));
+            jdbcTemplate.query(
+                    "SELECT ORIGEM_ID, SUM(VALOR) AS PENDENTE FROM TRANSFERENCIA "
+                            + "WHERE APLICADA = FALSE AND ORIGEM_ID IN (:ids) GROUP BY ORIGEM_ID",
+                    new MapSqlParameterSource("ids", bloco),
+                    rs -> {
+                        pendentes.put(rs.getLong("ORIGEM_ID"), rs.getBigDecimal("PENDENTE"));
+                    });
+        }
+        return pendentes;
+    }
+}
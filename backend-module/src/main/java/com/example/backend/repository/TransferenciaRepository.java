@@ -0,0 +1,20 @@
+package com.example.backend.repository;
+
+import com.example.backend.entity.Transferencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+@Repository
+public interface TransferenciaRepository extends JpaRepository<Transferencia, Long> {
+
+    /** Soma dos débitos ainda não aplicados ao saldo do benefício de origem. */
+    @Query("SELECT COALESCE(SUM(t.valor), 0) FROM Transferencia t WHERE t.origemId = :origemId AND t.aplicada = false")
+    BigDecimal sumPendentesByOrigemId(@Param("origemId") Long origemId);
+
+    @Query("SELECT COUNT(t) > 0 FROM Transferencia t WHERE t.aplicada = false AND (t.origemId = :id OR t.destinoId = :id)")
+    boolean existsPendentesByBeneficioId(@Param("id") Long id);
+}
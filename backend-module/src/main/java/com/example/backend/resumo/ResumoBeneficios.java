@@ -0,0 +1,124 @@
+package com.example.backend.resumo;
+
+import com.example.backend.dto.ResumoBeneficiosDTO;
+import com.example.backend.event.ResumoAlteradoEvent;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resumo dos benefícios (quantidade e saldo por status) mantido em memória. A leitura
+ * devolve o último resumo sem consultar o banco; cada transação que muda os totais publica
+ * um {@link ResumoAlteradoEvent}, aplicado após o commit.
+ *
+ * <p>Periodicamente o resumo é conferido com um agregado SQL e substituído por ele. A
+ * substituição só ocorre se nenhuma transação com variação estava entre o commit e a
+ * aplicação durante a consulta: as variações entram em {@code pendentes} antes do commit
+ * e saem ao serem aplicadas. Caso contrário a conferência fica para a próxima execução,
+ * pois a variação poderia ser contada duas vezes ou perdida. A conferência corrige
+ * mudanças que não passam pelos eventos (ex.: pendências do ledger aplicadas depois que
+ * o benefício foi desativado).
+ */
+@Component
+public class ResumoBeneficios {
+
+    static final String CONFERIDO = "conferido";
+    static final String CORRIGIDO = "corrigido";
+    static final String ADIADO = "adiado";
+
+    private final BeneficioJdbcRepository jdbcRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Set<ResumoAlteradoEvent> pendentes = ConcurrentHashMap.newKeySet();
+
+    private final Map<String, Counter> reconciliacoes = new ConcurrentHashMap<>();
+
+    /** {@code null} até a primeira conferência. */
+    private volatile ResumoBeneficiosDTO atual;
+
+    /** Variações aplicadas desde o início; guardado por {@code this}. */
+    private long aplicadas;
+
+    public ResumoBeneficios(BeneficioJdbcRepository jdbcRepository, MeterRegistry meterRegistry) {
+        this.jdbcRepository = jdbcRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ResumoBeneficiosDTO get() {
+        ResumoBeneficiosDTO resumo = atual;
+        if (resumo != null) {
+            return resumo;
+        }
+        reconciliar();
+        resumo = atual;
+        // Conferência adiada antes da primeira carga: responde com o agregado, sem guardá-lo
+        return resumo != null ? resumo : jdbcRepository.resumo();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${beneficio.resumo.intervalo-reconciliacao:30000}",
+            initialDelayString = "${beneficio.resumo.intervalo-reconciliacao:30000}")
+    public void reconciliar() {
+        long inicio;
+        synchronized (this) {
+            if (!pendentes.isEmpty()) {
+                registrar(ADIADO);
+                return;
+            }
+            inicio = aplicadas;
+        }
+        ResumoBeneficiosDTO banco = jdbcRepository.resumo();
+        synchronized (this) {
+            if (!pendentes.isEmpty() || aplicadas != inicio) {
+                registrar(ADIADO);
+                return;
+            }
+            registrar(atual == null || atual.mesmosTotais(banco) ? CONFERIDO : CORRIGIDO);
+            atual = banco;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onResumoAlteradoAntesDoCommit(ResumoAlteradoEvent event) {
+        pendentes.add(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public synchronized void onResumoAlterado(ResumoAlteradoEvent event) {
+        ResumoBeneficiosDTO resumo = atual;
+        if (resumo != null) {
+            atual = new ResumoBeneficiosDTO(
+                    resumo.getQuantidadeAtivos() + event.getQuantidadeAtivos(),
+                    resumo.getSaldoAtivos().add(event.getSaldoAtivos()),
+                    resumo.getQuantidadeInativos() + event.getQuantidadeInativos(),
+                    resumo.getSaldoInativos().add(event.getSaldoInativos()),
+                    resumo.getReconciliadoEm());
+        }
+        aplicadas++;
+        pendentes.remove(event);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_ROLLBACK)
+    public void onResumoDescartado(ResumoAlteradoEvent event) {
+        pendentes.remove(event);
+    }
+
+    private void registrar(String resultado) {
+        reconciliacoes.computeIfAbsent(resultado, r -> Counter.builder("beneficio.resumo.reconciliacoes")
+                .description("Conferências do resumo com o banco, por resultado")
+                .tag("resultado", r)
+                .register(meterRegistry))
+                .increment();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato CSV (RFC 4180) de importação e exportação de benefícios. A primeira linha é o
+ * cabeçalho; as colunas são localizadas pelo nome, e colunas desconhecidas (como o
+ * {@code id} de um arquivo exportado) são ignoradas na importação.
+ */
+public final class BeneficioCsv {
+
+    public static final String MEDIA_TYPE = "text/csv";
+
+    public static final String CABECALHO = "id,nome,descricao,valor,ativo";
+
+    private BeneficioCsv() {
+    }
+
+    public static void escrever(Writer out, BeneficioDTO beneficio) throws IOException {
+        out.write(String.valueOf(beneficio.getId()));
+        out.write(',');
+        out.write(campo(beneficio.getNome()));
+        out.write(',');
+        out.write(campo(beneficio.getDescricao()));
+        out.write(',');
+        out.write(beneficio.getValor().toPlainString());
+        out.write(',');
+        out.write(String.valueOf(Boolean.TRUE.equals(beneficio.getAtivo())));
+        out.write('\n');
+    }
+
+    private static String campo(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0 && valor.indexOf('\r') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Lê um registro por vez, sem carregar o arquivo. Campos entre aspas podem conter
+     * vírgulas, quebras de linha e aspas duplicadas.
+     */
+    static final class Leitor {
+
+        /** Limite de caracteres por registro, para que um arquivo malformado não esgote a memória. */
+        static final int TAMANHO_MAXIMO_REGISTRO = 10_000;
+
+        private final Reader in;
+
+        private long linhaAtual = 1;
+
+        private long linhaRegistro;
+
+        Leitor(Reader in) {
+            this.in = in;
+        }
+
+        /** Linha do arquivo em que começa o último registro lido. */
+        long getLinha() {
+            return linhaRegistro;
+        }
+
+        /**
+         * @return os campos do próximo registro não vazio, ou {@code null} no fim do arquivo
+         * @throws IllegalArgumentException se o registro está malformado; a leitura não pode continuar
+         */
+        List<String> proximo() throws IOException {
+            List<String> campos;
+            do {
+                campos = registro();
+            } while (campos != null && campos.size() == 1 && campos.get(0).isEmpty());
+            return campos;
+        }
+
+        private List<String> registro() throws IOException {
+            int c = in.read();
+            if (c == -1) {
+                return null;
+            }
+            linhaRegistro = linhaAtual;
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            int tamanho = 0;
+            boolean entreAspas = false;
+            while (true) {
+                if (++tamanho > TAMANHO_MAXIMO_REGISTRO) {
+                    throw new IllegalArgumentException("Linha " + linhaRegistro + ": registro excede "
+                            + TAMANHO_MAXIMO_REGISTRO + " caracteres");
+                }
+                if (entreAspas) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Linha " + linhaRegistro + ": aspas não fechadas");
+                    }
+                    if (c == '"') {
+                        int seguinte = in.read();
+                        if (seguinte != '"') {
+                            entreAspas = false;
+                            c = seguinte;
+                            continue;
+                        }
+                        campo.append('"');
+                    } else {
+                        if (c == '\n') {
+                            linhaAtual++;
+                        }
+                        campo.append((char) c);
+                    }
+                } else if (c == '"' && campo.length() == 0) {
+                    entreAspas = true;
+                } else if (c == ',') {
+                    campos.add(campo.toString());
+                    campo.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    linhaAtual++;
+                    campos.add(campo.toString());
+                    return campos;
+                } else if (c != '\r') {
+                    campo.append((char) c);
+                }
+                c = in.read();
+            }
+        }
+    }
+}
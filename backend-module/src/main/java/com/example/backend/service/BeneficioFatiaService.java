@@ -0,0 +1,290 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.BeneficioFatia;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.motor.MotorTransferencias;
+import com.example.backend.repository.BeneficioFatiaRepository;
+import com.example.backend.repository.BeneficioFatiaRepository.SaldoFatia;
+import com.example.backend.repository.BeneficioRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.example.backend.service.BeneficioMapper.toDTO;
+
+/**
+ * Modo de saldo fatiado para benefícios muito disputados (ex.: conta central de repasse).
+ *
+ * <p>O saldo de um benefício fatiado é dividido em N linhas de BENEFICIO_FATIA e a linha
+ * do benefício deixa de ser bloqueada por transferências: cada transferência bloqueia
+ * apenas uma fatia escolhida ao acaso, de modo que até N transferências envolvendo o
+ * mesmo benefício podem ocorrer em paralelo. As leituras somam as fatias.
+ *
+ * <p>Ordem global de locks: linhas de BENEFICIO (por ID) antes das fatias (por ID),
+ * cada grupo adquirido em uma única consulta ordenada.
+ */
+@Service
+public class BeneficioFatiaService {
+
+    public static final int MIN_FATIAS = 2;
+
+    public static final int MAX_FATIAS = 64;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private BeneficioFatiaRepository fatiaRepository;
+
+    @Autowired
+    private TransferenciaLedgerService ledgerService;
+
+    @Autowired
+    private BeneficioMetricas metricas;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /** Presente com {@code estrategia=motor}: único escritor dos saldos. */
+    @Autowired(required = false)
+    private MotorTransferencias motor;
+
+    @Transactional
+    public BeneficioDTO habilitar(Long id, int quantidade) {
+        if (motor != null) {
+            throw MotorTransferencias.escritaRecusada("Saldo fatiado");
+        }
+        if (quantidade < MIN_FATIAS || quantidade > MAX_FATIAS) {
+            throw new IllegalArgumentException(
+                    "A quantidade de fatias deve estar entre " + MIN_FATIAS + " e " + MAX_FATIAS);
+        }
+
+        Beneficio beneficio = repository.findByIdWithLock(id)
+                .orElseThrow(() -> new EntityNotFoundException("Benefício não encontrado: " + id));
+        if (beneficio.isFatiado()) {
+            throw new IllegalStateException("Benefício já está fatiado");
+        }
+        if (ledgerService.existsPendentes(id)) {
+            throw new IllegalStateException("Benefício possui transferências pendentes de aplicação");
+        }
+
+        BigDecimal total = beneficio.getValor();
+        List<BigDecimal> partes = dividir(total, quantidade);
+        List<BeneficioFatia> fatias = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            fatias.add(new BeneficioFatia(id, i, partes.get(i)));
+        }
+        fatiaRepository.saveAll(fatias);
+
+        beneficio.setValor(BigDecimal.ZERO.setScale(2));
+        beneficio.setFatias(quantidade);
+        repository.saveAndFlush(beneficio);
+
+        BeneficioDTO dto = toDTO(beneficio, total);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(dto));
+        return dto;
+    }
+
+    @Transactional
+    public BeneficioDTO desabilitar(Long id) {
+        if (motor != null) {
+            throw MotorTransferencias.escritaRecusada("Saldo fatiado");
+        }
+        Beneficio beneficio = repository.findByIdWithLock(id)
+                .orElseThrow(() -> new EntityNotFoundException("Benefício não encontrado: " + id));
+        if (!beneficio.isFatiado()) {
+            throw new IllegalStateException("Benefício não está fatiado");
+        }
+
+        List<BeneficioFatia> fatias = fatiaRepository.findByBeneficioIdWithLock(id);
+        BigDecimal total = soma(fatias);
+        fatiaRepository.deleteAllInBatch(fatias);
+
+        beneficio.setValor(total);
+        beneficio.setFatias(0);
+        repository.saveAndFlush(beneficio);
+
+        BeneficioDTO dto = toDTO(beneficio, total);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(dto));
+        return dto;
+    }
+
+    /**
+     * Redistribui {@code valor} igualmente entre as fatias do benefício (usado na
+     * atualização do saldo). Deve ser chamado dentro da transação de atualização, com a
+     * linha do benefício já bloqueada.
+     *
+     * @return saldo anterior (soma das fatias bloqueadas)
+     */
+    BigDecimal redistribuir(Beneficio beneficio, BigDecimal valor) {
+        List<BeneficioFatia> fatias = fatiaRepository.findByBeneficioIdWithLock(beneficio.getId());
+        BigDecimal anterior = soma(fatias);
+        List<BigDecimal> partes = dividir(valor, fatias.size());
+        for (int i = 0; i < fatias.size(); i++) {
+            fatias.get(i).setValor(partes.get(i));
+        }
+        return anterior;
+    }
+
+    /**
+     * Transferência em que ao menos um dos lados é fatiado. Os lados não fatiados chegam
+     * já bloqueados pelo chamador ({@code null} quando fatiados).
+     *
+     * <p>No débito, escolhe ao acaso uma fatia com saldo suficiente; se nenhuma fatia
+     * isolada cobre o valor mas a soma cobre, bloqueia todas as fatias da origem e debita
+     * de várias. No crédito, escolhe uma fatia qualquer. Se as fatias mudarem entre a
+     * escolha e o lock, lança {@link CannotAcquireLockException} para retentativa.
+     */
+    void transfer(Long fromId, Long toId, BigDecimal amount, Beneficio fromBloqueado, Beneficio toBloqueado) {
+        Beneficio from = fromBloqueado != null ? fromBloqueado : carregarFatiado(fromId, "origem");
+        Beneficio to = toBloqueado != null ? toBloqueado : carregarFatiado(toId, "destino");
+
+        if (from.getAtivo() == null || !from.getAtivo()) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_BENEFICIO_INATIVO);
+            throw new IllegalStateException("Benefício de origem não está ativo");
+        }
+
+        if (to.getAtivo() == null || !to.getAtivo()) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_BENEFICIO_INATIVO);
+            throw new IllegalStateException("Benefício de destino não está ativo");
+        }
+
+        // Escolha das fatias a bloquear (leitura sem lock)
+        Set<Long> aBloquear = new HashSet<>();
+        boolean consolidar = false;
+        if (from.isFatiado()) {
+            List<SaldoFatia> fatias = fatiaRepository.findSaldosByBeneficioId(fromId);
+            List<SaldoFatia> candidatas = fatias.stream()
+                    .filter(f -> f.getValor().compareTo(amount) >= 0)
+                    .toList();
+            if (!candidatas.isEmpty()) {
+                aBloquear.add(candidatas.get(ThreadLocalRandom.current().nextInt(candidatas.size())).getId());
+            } else {
+                BigDecimal total = fatias.stream().map(SaldoFatia::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
+                if (total.compareTo(amount) < 0) {
+                    throw saldoInsuficiente(total, amount);
+                }
+                fatias.forEach(f -> aBloquear.add(f.getId()));
+                consolidar = true;
+            }
+        } else if (from.getValor().compareTo(amount) < 0) {
+            throw saldoInsuficiente(from.getValor(), amount);
+        }
+
+        Long creditoId = null;
+        if (to.isFatiado()) {
+            int indice = ThreadLocalRandom.current().nextInt(to.getFatias());
+            creditoId = fatiaRepository.findIdByBeneficioIdAndIndice(toId, indice)
+                    .orElseThrow(() -> new CannotAcquireLockException("Fatias alteradas durante a transferência"));
+            aBloquear.add(creditoId);
+        }
+
+        Map<Long, BeneficioFatia> bloqueadas = metricas.medirEsperaLock(BeneficioMetricas.LOCK_FATIA,
+                        () -> fatiaRepository.findAllByIdWithLock(aBloquear)).stream()
+                .collect(Collectors.toMap(BeneficioFatia::getId, Function.identity()));
+        if (bloqueadas.size() != aBloquear.size()) {
+            throw new CannotAcquireLockException("Fatias alteradas durante a transferência");
+        }
+
+        // Débito
+        if (from.isFatiado()) {
+            List<BeneficioFatia> deOrigem = bloqueadas.values().stream()
+                    .filter(f -> f.getBeneficioId().equals(fromId))
+                    .sorted(Comparator.comparing(BeneficioFatia::getValor).reversed())
+                    .toList();
+            BigDecimal restante = amount;
+            for (BeneficioFatia fatia : deOrigem) {
+                BigDecimal debito = fatia.getValor().min(restante);
+                fatia.setValor(fatia.getValor().subtract(debito));
+                restante = restante.subtract(debito);
+                if (restante.signum() == 0) {
+                    break;
+                }
+            }
+            if (restante.signum() > 0) {
+                if (consolidar) {
+                    throw saldoInsuficiente(soma(deOrigem).add(amount).subtract(restante), amount);
+                }
+                throw new CannotAcquireLockException("Saldo da fatia alterado durante a transferência");
+            }
+        } else {
+            from.setValor(from.getValor().subtract(amount));
+        }
+
+        // Crédito
+        if (creditoId != null) {
+            BeneficioFatia fatia = bloqueadas.get(creditoId);
+            fatia.setValor(fatia.getValor().add(amount));
+        } else {
+            to.setValor(to.getValor().add(amount));
+        }
+
+        fatiaRepository.flush();
+        repository.flush();
+
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toEventoDTO(from)));
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toEventoDTO(to)));
+    }
+
+    /**
+     * Estado publicado após a transferência. A linha de um benefício fatiado não muda,
+     * então a versão não ordena as alterações e é omitida; o saldo é a soma das fatias.
+     */
+    private BeneficioDTO toEventoDTO(Beneficio beneficio) {
+        if (!beneficio.isFatiado()) {
+            return toDTO(beneficio, beneficio.getValor());
+        }
+        BeneficioDTO dto = toDTO(beneficio, fatiaRepository.sumValorByBeneficioId(beneficio.getId()));
+        dto.setVersion(null);
+        return dto;
+    }
+
+    private Beneficio carregarFatiado(Long id, String lado) {
+        Beneficio beneficio = repository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Benefício de " + lado + " não encontrado: " + id));
+        if (!beneficio.isFatiado()) {
+            // Deixou de ser fatiado depois do lock das linhas: refaz a transferência
+            throw new CannotAcquireLockException("Modo fatiado alterado durante a transferência");
+        }
+        return beneficio;
+    }
+
+    private IllegalStateException saldoInsuficiente(BigDecimal saldo, BigDecimal amount) {
+        metricas.rejeicao(BeneficioMetricas.REJEICAO_SALDO_INSUFICIENTE);
+        return new IllegalStateException(
+                String.format("Saldo insuficiente. Saldo atual: %s, Valor solicitado: %s", saldo, amount));
+    }
+
+    private static BigDecimal soma(List<BeneficioFatia> fatias) {
+        return fatias.stream().map(BeneficioFatia::getValor).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /** Divide {@code total} em {@code partes} iguais; os centavos restantes vão para a primeira. */
+    static List<BigDecimal> dividir(BigDecimal total, int partes) {
+        BigDecimal base = total.divide(BigDecimal.valueOf(partes), 2, RoundingMode.DOWN);
+        BigDecimal resto = total.subtract(base.multiply(BigDecimal.valueOf(partes)));
+        List<BigDecimal> valores = new ArrayList<>(partes);
+        for (int i = 0; i < partes; i++) {
+            valores.add(i == 0 ? base.add(resto) : base);
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.ImportacaoResultadoDTO;
+import com.example.backend.event.BeneficiosImportadosEvent;
+import com.example.backend.event.ResumoAlteradoEvent;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Importação em lote de benefícios a partir de CSV ou NDJSON. A entrada é lida linha a
+ * linha e gravada em batches JDBC de {@link #TAMANHO_LOTE}, sem entidades nem contexto de
+ * persistência: o consumo de memória independe do tamanho do arquivo.
+ *
+ * <p>Cada importação roda em uma única transação. Com {@code atomico=true} qualquer linha
+ * inválida desfaz a importação inteira; com {@code atomico=false} as linhas inválidas são
+ * ignoradas e reportadas no resultado.
+ */
+@Service
+public class BeneficioImportacaoService {
+
+    /** Linhas por batch JDBC; múltiplo de {@code Beneficio.ALOCACAO_IDS} para não desperdiçar IDs. */
+    static final int TAMANHO_LOTE = 1000;
+
+    /** Quantidade máxima de mensagens de erro devolvidas no resultado. */
+    static final int MAX_ERROS = 100;
+
+    @Autowired
+    private BeneficioJdbcRepository jdbcRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Importa um CSV com cabeçalho contendo ao menos as colunas {@code nome} e
+     * {@code valor}; {@code descricao} e {@code ativo} (padrão true) são opcionais.
+     */
+    @Transactional
+    public ImportacaoResultadoDTO importarCsv(InputStream in, boolean atomico) {
+        BeneficioCsv.Leitor leitor = new BeneficioCsv.Leitor(leitor(in));
+        try {
+            List<String> cabecalho = leitor.proximo();
+            if (cabecalho == null) {
+                throw new IllegalArgumentException("Arquivo CSV vazio");
+            }
+            Map<String, Integer> colunas = new HashMap<>();
+            for (int i = 0; i < cabecalho.size(); i++) {
+                colunas.put(cabecalho.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            if (!colunas.containsKey("nome") || !colunas.containsKey("valor")) {
+                throw new IllegalArgumentException("Cabeçalho CSV deve conter as colunas nome e valor");
+            }
+            return importar(atomico, () -> {
+                List<String> campos = leitor.proximo();
+                if (campos == null) {
+                    return null;
+                }
+                if (campos.size() != cabecalho.size()) {
+                    return Linha.invalida(leitor.getLinha(),
+                            "esperadas " + cabecalho.size() + " colunas, encontradas " + campos.size());
+                }
+                return linhaCsv(leitor.getLinha(), campos, colunas);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Importa um benefício (JSON no formato de {@link BeneficioDTO}) por linha. */
+    @Transactional
+    public ImportacaoResultadoDTO importarNdjson(InputStream in, boolean atomico) {
+        BufferedReader reader = leitor(in);
+        ObjectReader json = objectMapper.readerFor(BeneficioDTO.class);
+        long[] numero = {0};
+        return importar(atomico, () -> {
+            String linha;
+            do {
+                linha = reader.readLine();
+                numero[0]++;
+            } while (linha != null && linha.isBlank());
+            if (linha == null) {
+                return null;
+            }
+            try {
+                return new Linha(numero[0], json.readValue(linha), null);
+            } catch (JsonProcessingException e) {
+                return Linha.invalida(numero[0], "JSON inválido");
+            }
+        });
+    }
+
+    private ImportacaoResultadoDTO importar(boolean atomico, Fonte fonte) {
+        List<BeneficioDTO> lote = new ArrayList<>(TAMANHO_LOTE);
+        List<String> erros = new ArrayList<>();
+        long importados = 0;
+        long rejeitados = 0;
+        ResumoAlteradoEvent variacao = ResumoAlteradoEvent.vazio();
+        Linha linha;
+        while ((linha = proxima(fonte)) != null) {
+            String erro = linha.erro != null ? linha.erro : validar(linha.beneficio);
+            if (erro != null) {
+                String mensagem = "Linha " + linha.numero + ": " + erro;
+                if (atomico) {
+                    throw new IllegalArgumentException(mensagem);
+                }
+                rejeitados++;
+                if (erros.size() < MAX_ERROS) {
+                    erros.add(mensagem);
+                }
+                continue;
+            }
+            lote.add(linha.beneficio);
+            variacao = variacao.somar(ResumoAlteradoEvent.incluido(linha.beneficio.getAtivo(), linha.beneficio.getValor()));
+            if (lote.size() == TAMANHO_LOTE) {
+                jdbcRepository.insertAll(lote);
+                importados += lote.size();
+                lote.clear();
+            }
+        }
+        jdbcRepository.insertAll(lote);
+        importados += lote.size();
+        if (importados > 0) {
+            eventPublisher.publishEvent(new BeneficiosImportadosEvent(importados));
+            eventPublisher.publishEvent(variacao);
+        }
+        return new ImportacaoResultadoDTO(importados, rejeitados, erros);
+    }
+
+    private String validar(BeneficioDTO beneficio) {
+        if (beneficio == null) {
+            return "linha vazia";
+        }
+        var violacoes = validator.validate(beneficio);
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+        return violacoes.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static Linha linhaCsv(long numero, List<String> campos, Map<String, Integer> colunas) {
+        BeneficioDTO beneficio = new BeneficioDTO();
+        beneficio.setNome(coluna(campos, colunas, "nome"));
+        beneficio.setDescricao(coluna(campos, colunas, "descricao"));
+        String valor = coluna(campos, colunas, "valor");
+        if (valor != null) {
+            try {
+                beneficio.setValor(new BigDecimal(valor));
+            } catch (NumberFormatException e) {
+                return Linha.invalida(numero, "valor inválido: " + valor);
+            }
+        }
+        String ativo = coluna(campos, colunas, "ativo");
+        if (ativo == null || ativo.equalsIgnoreCase("true")) {
+            beneficio.setAtivo(true);
+        } else if (ativo.equalsIgnoreCase("false")) {
+            beneficio.setAtivo(false);
+        } else {
+            return Linha.invalida(numero, "ativo inválido: " + ativo);
+        }
+        return new Linha(numero, beneficio, null);
+    }
+
+    /** Valor da coluna sem espaços nas pontas; {@code null} se ausente ou vazio. */
+    private static String coluna(List<String> campos, Map<String, Integer> colunas, String nome) {
+        Integer indice = colunas.get(nome);
+        if (indice == null) {
+            return null;
+        }
+        String valor = campos.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private static BufferedReader leitor(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static Linha proxima(Fonte fonte) {
+        try {
+            return fonte.proxima();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Fonte {
+
+        /** Próxima linha da entrada, ou {@code null} no fim. */
+        Linha proxima() throws IOException;
+    }
+
+    private static final class Linha {
+
+        private final long numero;
+
+        private final BeneficioDTO beneficio;
+
+        private final String erro;
+
+        private Linha(long numero, BeneficioDTO beneficio, String erro) {
+            this.numero = numero;
+            this.beneficio = beneficio;
+            this.erro = erro;
+        }
+
+        private static Linha invalida(long numero, String erro) {
+            return new Linha(numero, null, erro);
+        }
+    }
+}
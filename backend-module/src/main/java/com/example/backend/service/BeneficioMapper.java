@@ -0,0 +1,55 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+
+import java.math.BigDecimal;
+
+/**
+ * Conversões entre {@link Beneficio} e {@link BeneficioDTO} usadas pelos serviços.
+ * Pública para que os benchmarks meçam o mesmo mapeamento da aplicação.
+ */
+public final class BeneficioMapper {
+
+    private BeneficioMapper() {
+    }
+
+    public static BeneficioDTO toDTO(Beneficio beneficio) {
+        return toDTO(beneficio, beneficio.getValor());
+    }
+
+    /** Usa {@code valor} como saldo (ex.: soma das fatias de um benefício fatiado). */
+    public static BeneficioDTO toDTO(Beneficio beneficio, BigDecimal valor) {
+        return new BeneficioDTO(
+                beneficio.getId(),
+                beneficio.getNome(),
+                beneficio.getDescricao(),
+                valor,
+                beneficio.getAtivo(),
+                beneficio.getVersion(),
+                beneficio.isFatiado()
+        );
+    }
+
+    /** Benefício devolvido por um UPDATE condicional; nunca fatiado. */
+    public static BeneficioDTO toDTO(BeneficioRepository.SaldoAtualizado saldo) {
+        return new BeneficioDTO(
+                saldo.getId(),
+                saldo.getNome(),
+                saldo.getDescricao(),
+                saldo.getValor(),
+                saldo.getAtivo(),
+                saldo.getVersion()
+        );
+    }
+
+    public static Beneficio toEntity(BeneficioDTO dto) {
+        Beneficio beneficio = new Beneficio();
+        beneficio.setNome(dto.getNome());
+        beneficio.setDescricao(dto.getDescricao());
+        beneficio.setValor(dto.getValor());
+        beneficio.setAtivo(dto.getAtivo() != null ? dto.getAtivo() : true);
+        return beneficio;
+    }
+}
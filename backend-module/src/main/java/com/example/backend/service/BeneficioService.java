@@ -1,154 +1,742 @@
 package com.example.backend.service;
 
+import com.example.backend.busca.BuscaBeneficios;
+import com.example.backend.busca.ResultadoBusca;
+import com.example.backend.cache.BeneficioCache;
 import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.ResultadoBuscaDTO;
+import com.example.backend.dto.ResumoBeneficiosDTO;
 import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.dto.VersaoColecaoDTO;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.event.BeneficiosImportadosEvent;
+import com.example.backend.event.ResumoAlteradoEvent;
+import com.example.backend.exception.TransferenciaLoteException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.motor.MotorTransferencias;
+import com.example.backend.repository.BeneficioFatiaRepository;
+import com.example.backend.repository.BeneficioJdbcRepository;
 import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.resumo.ResumoBeneficios;
+import com.example.ejb.Centavos;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.example.backend.service.BeneficioMapper.toDTO;
+import static com.example.backend.service.BeneficioMapper.toEntity;
+
 @Service
 public class BeneficioService {
 
+    /** Quantidade máxima de itens aceitos em um lote de transferências. */
+    public static final int MAX_ITENS_LOTE = 10_000;
+
+    /** Quantidade máxima de itens retornados em uma página de listagem. */
+    public static final int MAX_ITENS_PAGINA = 1000;
+
     @Autowired
     private BeneficioRepository repository;
 
+    @Autowired
+    private BeneficioJdbcRepository jdbcRepository;
+
+    @Autowired
+    private BeneficioFatiaRepository fatiaRepository;
+
+    @Autowired
+    private BeneficioFatiaService fatiaService;
+
+    @Autowired
+    private TransferenciaLedgerService ledgerService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private BeneficioCache cache;
+
+    @Autowired
+    private ResumoBeneficios resumo;
+
+    @Autowired
+    private BuscaBeneficios busca;
+
+    @Autowired
+    private BeneficioMetricas metricas;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Validator validator;
+
+    /** Presente com {@code estrategia=motor}: único escritor dos saldos. */
+    @Autowired(required = false)
+    private MotorTransferencias motor;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** INSERTs por batch JDBC do Hibernate; também o intervalo de flush em {@link #createAll}. */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanhoBatch = 50;
+
+    /**
+     * As leituras usam projeções que constroem o DTO na própria consulta, e as transações
+     * read-only colocam a sessão do Hibernate em FlushMode.MANUAL (sem dirty checking).
+     */
+    @Transactional(readOnly = true)
     public List<BeneficioDTO> findAll() {
-        return repository.findAll().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return repository.findAllDTO();
     }
 
+    /**
+     * Servida pelo cache; sem transação própria para não ocupar conexão em cache hit.
+     */
     public List<BeneficioDTO> findAllAtivos() {
-        return repository.findByAtivoTrue().stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return cache.getAtivos(repository::findAllAtivosDTO);
+    }
+
+    /**
+     * Página por keyset: até {@code limit} benefícios com ID maior que {@code after}.
+     * O custo independe da posição da página, ao contrário de OFFSET.
+     */
+    @Transactional(readOnly = true)
+    public List<BeneficioDTO> findPage(Long after, int limit) {
+        validarLimite(limit);
+        return repository.findDTOPage(after != null ? after : 0L, Limit.of(limit));
     }
 
+    @Transactional(readOnly = true)
+    public List<BeneficioDTO> findAtivosPage(Long after, int limit) {
+        validarLimite(limit);
+        return repository.findAtivosDTOPage(after != null ? after : 0L, Limit.of(limit));
+    }
+
+    /**
+     * Entrega cada benefício ao consumidor à medida que é lido do banco, sem
+     * materializar a lista completa.
+     */
+    public void forEach(boolean somenteAtivos, Consumer<BeneficioDTO> consumidor) {
+        jdbcRepository.forEach(somenteAtivos, consumidor);
+    }
+
+    /**
+     * Servida pelo cache; sem transação própria para não ocupar conexão em cache hit.
+     */
     public BeneficioDTO findById(Long id) {
-        Beneficio beneficio = repository.findById(id)
+        return cache.get(id, repository::findDTOById);
+    }
+
+    /**
+     * Versão atual do benefício, sem carregá-lo. Vazio para benefício fatiado, que não
+     * pode ser validado pela versão.
+     */
+    public Optional<Long> findVersion(Long id) {
+        Long versao = repository.findVersionById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Benefício não encontrado: " + id));
-        return toDTO(beneficio);
+        return versao < 0 ? Optional.empty() : Optional.of(versao);
+    }
+
+    /**
+     * Resumo de versões da listagem completa ou dos ativos. Vazio se a coleção contém
+     * benefícios fatiados.
+     */
+    public Optional<VersaoColecaoDTO> findVersaoColecao(boolean somenteAtivos) {
+        VersaoColecaoDTO versao = somenteAtivos ? repository.findVersaoColecaoAtivos() : repository.findVersaoColecao();
+        return versao.getFatiados() > 0 ? Optional.empty() : Optional.of(versao);
+    }
+
+    /** Totais por status, do resumo em memória (sem consultar o banco). */
+    public ResumoBeneficiosDTO findResumo() {
+        return resumo.get();
+    }
+
+    /**
+     * Busca textual por nome e descrição no índice em memória. Os benefícios da página
+     * vêm do cache; os removidos entre a busca e a leitura são omitidos.
+     */
+    public ResultadoBuscaDTO search(String consulta, int offset, int limit) {
+        ResultadoBusca resultado = busca.buscar(consulta, offset, limit);
+        List<BeneficioDTO> itens = new ArrayList<>(resultado.getIds().length);
+        for (long id : resultado.getIds()) {
+            try {
+                itens.add(findById(id));
+            } catch (EntityNotFoundException e) {
+                // Removido após a busca
+            }
+        }
+        return new ResultadoBuscaDTO(resultado.getTotal(), resultado.isTotalExato(), itens);
     }
 
     @Transactional
     public BeneficioDTO create(BeneficioDTO dto) {
+        return create(dto, null);
+    }
+
+    /**
+     * Cria o benefício registrando a chave de idempotência na mesma transação.
+     *
+     * @param idempotencia requisição identificada, ou {@code null} sem {@code Idempotency-Key}
+     */
+    @Transactional
+    public BeneficioDTO create(BeneficioDTO dto, IdempotenciaService.Requisicao idempotencia) {
+        idempotenciaService.reservar(idempotencia);
         Beneficio beneficio = toEntity(dto);
         beneficio = repository.save(beneficio);
-        return toDTO(beneficio);
+        BeneficioDTO criado = toDTO(beneficio);
+        idempotenciaService.concluir(idempotencia, criado);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.criado(criado));
+        eventPublisher.publishEvent(ResumoAlteradoEvent.incluido(beneficio.getAtivo(), beneficio.getValor()));
+        return criado;
+    }
+
+    /**
+     * Cria até {@link #MAX_ITENS_LOTE} benefícios em uma única transação. Com IDs de
+     * sequência o Hibernate agrupa os INSERTs em batches JDBC; o contexto de persistência é
+     * descarregado e esvaziado a cada batch para não crescer com o lote. Qualquer item
+     * inválido rejeita o lote inteiro.
+     */
+    @Transactional
+    public List<BeneficioDTO> createAll(List<BeneficioDTO> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos um benefício");
+        }
+        if (dtos.size() > MAX_ITENS_LOTE) {
+            throw new IllegalArgumentException("O lote deve conter no máximo " + MAX_ITENS_LOTE + " benefícios");
+        }
+        for (int i = 0; i < dtos.size(); i++) {
+            var violacoes = validator.validate(dtos.get(i));
+            if (!violacoes.isEmpty()) {
+                throw new IllegalArgumentException("Item " + i + ": " + violacoes.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+            }
+        }
+        List<BeneficioDTO> criados = new ArrayList<>(dtos.size());
+        ResumoAlteradoEvent variacao = ResumoAlteradoEvent.vazio();
+        for (int inicio = 0; inicio < dtos.size(); inicio += tamanhoBatch) {
+            List<Beneficio> bloco = dtos.subList(inicio, Math.min(inicio + tamanhoBatch, dtos.size())).stream()
+                    .map(BeneficioMapper::toEntity)
+                    .toList();
+            repository.saveAll(bloco);
+            entityManager.flush();
+            entityManager.clear();
+            for (Beneficio beneficio : bloco) {
+                criados.add(toDTO(beneficio));
+                variacao = variacao.somar(ResumoAlteradoEvent.incluido(beneficio.getAtivo(), beneficio.getValor()));
+            }
+        }
+        eventPublisher.publishEvent(new BeneficiosImportadosEvent(criados.size()));
+        eventPublisher.publishEvent(variacao);
+        return criados;
     }
 
     @Transactional
     public BeneficioDTO update(Long id, BeneficioDTO dto) {
-        Beneficio beneficio = repository.findById(id)
+        // Lock da linha antes das fatias (ordem global de locks, ver BeneficioFatiaService)
+        Beneficio beneficio = repository.findByIdWithLock(id)
                 .orElseThrow(() -> new EntityNotFoundException("Benefício não encontrado: " + id));
         
+        Boolean ativoAnterior = beneficio.getAtivo();
+        BigDecimal saldoAnterior = beneficio.getValor();
         beneficio.setNome(dto.getNome());
         beneficio.setDescricao(dto.getDescricao());
-        beneficio.setValor(dto.getValor());
+        if (beneficio.isFatiado()) {
+            saldoAnterior = fatiaService.redistribuir(beneficio, dto.getValor());
+        } else {
+            if (motor != null && dto.getValor().compareTo(beneficio.getValor()) != 0) {
+                throw MotorTransferencias.escritaRecusada("Alteração de saldo");
+            }
+            if (ledgerService.isAssincrono() && dto.getValor().compareTo(beneficio.getValor()) != 0) {
+                // Os débitos pendentes foram aceitos contra o saldo anterior e ainda serão
+                // subtraídos do novo; o lock da linha impede novos registros até o commit
+                BigDecimal pendentes = ledgerService.debitosPendentes(id);
+                if (dto.getValor().compareTo(pendentes) < 0) {
+                    throw new IllegalStateException("Valor inferior aos débitos pendentes de aplicação: " + pendentes);
+                }
+            }
+            beneficio.setValor(dto.getValor());
+        }
         if (dto.getAtivo() != null) {
             beneficio.setAtivo(dto.getAtivo());
         }
         
         try {
-            beneficio = repository.save(beneficio);
+            // Flush imediato: a versão retornada e publicada já reflete a alteração
+            beneficio = repository.saveAndFlush(beneficio);
         } catch (OptimisticLockingFailureException e) {
+            metricas.conflitoOtimista("update");
             throw new OptimisticLockException("Benefício foi modificado por outro usuário. Atualize e tente novamente.");
         }
         
-        return toDTO(beneficio);
+        BeneficioDTO atualizado = toDTO(beneficio);
+        if (beneficio.isFatiado()) {
+            atualizado.setValor(dto.getValor());
+        }
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(atualizado));
+        ResumoAlteradoEvent variacao = ResumoAlteradoEvent.alterado(
+                ativoAnterior, saldoAnterior, beneficio.getAtivo(), dto.getValor());
+        if (!variacao.isVazio()) {
+            eventPublisher.publishEvent(variacao);
+        }
+        return atualizado;
     }
 
     @Transactional
     public void delete(Long id) {
-        if (!repository.existsById(id)) {
-            throw new EntityNotFoundException("Benefício não encontrado: " + id);
+        // Lock: nenhuma transferência pendente pode ser registrada com origem neste
+        // benefício entre a verificação e a remoção
+        Beneficio beneficio = repository.findByIdWithLock(id)
+                .orElseThrow(() -> new EntityNotFoundException("Benefício não encontrado: " + id));
+        if (ledgerService.existsPendentes(id)) {
+            throw new IllegalStateException("Benefício possui transferências pendentes de aplicação");
         }
+        BigDecimal saldo = beneficio.isFatiado() ? fatiaRepository.sumValorByBeneficioId(id) : beneficio.getValor();
+        fatiaRepository.deleteByBeneficioId(id);
         repository.deleteById(id);
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.removido(id));
+        eventPublisher.publishEvent(ResumoAlteradoEvent.removido(beneficio.getAtivo(), saldo));
     }
 
+    /**
+     * Transfere valor entre dois benefícios e registra o movimento no ledger. Falhas na
+     * aquisição dos locks (timeout) são retentadas com backoff, sempre em uma nova
+     * transação. No modo de ledger assíncrono, transferências de origem não fatiada são
+     * apenas registradas e aplicadas depois (ver {@link TransferenciaLedgerService}).
+     */
+    @Retryable(retryFor = PessimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 50, multiplier = 2, random = true))
     @Transactional
     public void transfer(TransferenciaDTO transferenciaDTO) {
+        transfer(transferenciaDTO, null);
+    }
+
+    /**
+     * Transferência com chave de idempotência: a chave é reservada antes de qualquer lock
+     * de benefício, de modo que uma repetição concorrente falha sem disputar os saldos.
+     *
+     * @param idempotencia requisição identificada, ou {@code null} sem {@code Idempotency-Key}
+     */
+    @Retryable(retryFor = PessimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 50, multiplier = 2, random = true))
+    @Transactional
+    public void transfer(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia) {
+        Timer.Sample amostra = metricas.iniciarTransferencia();
+        try {
+            executarTransfer(transferenciaDTO, idempotencia);
+            metricas.registrarTransferencia(amostra, null);
+        } catch (RuntimeException e) {
+            metricas.registrarTransferencia(amostra, e);
+            throw e;
+        }
+    }
+
+    private void executarTransfer(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia) {
         Long fromId = transferenciaDTO.getFromId();
         Long toId = transferenciaDTO.getToId();
-        BigDecimal amount = transferenciaDTO.getAmount();
+        Long centavos = transferenciaDTO.getAmountCentavos();
+
+        validarTransferencia(fromId, toId, centavos);
+        idempotenciaService.reservar(idempotencia);
+        aplicarTransfer(fromId, toId, centavos, idempotencia);
+    }
+
+    /** Caminho pessimista, com a transferência já validada e a chave de idempotência reservada. */
+    private void aplicarTransfer(Long fromId, Long toId, long amount, IdempotenciaService.Requisicao idempotencia) {
+        if (ledgerService.isAssincrono() && registrarPendente(fromId, toId, amount)) {
+            idempotenciaService.concluir(idempotencia, null);
+            return;
+        }
+
+        // Locking pessimista em uma única consulta ordenada por ID, evitando deadlock
+        // entre transferências cruzadas (A→B e B→A). Benefícios fatiados não são
+        // bloqueados aqui: o lock recai sobre uma de suas fatias.
+        Map<Long, Beneficio> bloqueados = metricas.medirEsperaLock(BeneficioMetricas.LOCK_BENEFICIO,
+                        () -> repository.findAllNaoFatiadosByIdWithLock(List.of(fromId, toId))).stream()
+                .collect(Collectors.toMap(Beneficio::getId, Function.identity()));
+        if (bloqueados.values().stream().anyMatch(Beneficio::isFatiado)) {
+            throw new CannotAcquireLockException("Modo fatiado alterado durante a transferência");
+        }
 
-        // Validações iniciais
+        Beneficio from = bloqueados.get(fromId);
+        Beneficio to = bloqueados.get(toId);
+        if (from == null || to == null) {
+            // Ausente do lock: inexistente ou fatiado
+            BigDecimal valor = Centavos.paraBigDecimal(amount);
+            fatiaService.transfer(fromId, toId, valor, from, to);
+            ledgerService.registrar(fromId, toId, valor, true, null, null);
+            idempotenciaService.concluir(idempotencia, null);
+            return;
+        }
+        validarBeneficios(from, to, fromId, toId, amount, 0);
+
+        // Realiza a transferência em centavos, sem BigDecimal intermediário
+        from.setValorCentavos(from.getValorCentavos() - amount);
+        to.setValorCentavos(to.getValorCentavos() + amount);
+
+        // Salva as entidades (o lock garante consistência)
+        try {
+            repository.save(from);
+            repository.save(to);
+            repository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            metricas.conflitoOtimista("transfer");
+            throw new OptimisticLockException("Benefício foi modificado durante a transferência. Tente novamente.");
+        }
+        ledgerService.registrar(fromId, toId, Centavos.paraBigDecimal(amount), true,
+                from.getVersion(), to.getVersion());
+        idempotenciaService.concluir(idempotencia, null);
+
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(from)));
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(to)));
+    }
+
+    /**
+     * Uma tentativa de transferência sem lock pessimista: lê os dois benefícios e grava com
+     * UPDATEs condicionados à versão lida (o débito, também ao saldo), em ordem de ID para
+     * que transferências cruzadas não entrem em deadlock na escrita. Benefícios
+     * inexistentes ou fatiados, e o modo de ledger assíncrono, seguem pelo caminho
+     * pessimista na mesma transação. Sem retentativas: ver {@link TransferenciaService}.
+     *
+     * @throws OptimisticLockingFailureException se um dos benefícios mudou desde a leitura;
+     *                                           a transação é desfeita
+     */
+    @Transactional
+    public void transferOtimista(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia) {
+        Timer.Sample amostra = metricas.iniciarTransferencia();
+        try {
+            executarTransferOtimista(transferenciaDTO, idempotencia);
+            metricas.registrarTransferencia(amostra, null);
+        } catch (RuntimeException e) {
+            metricas.registrarTransferencia(amostra, e);
+            throw e;
+        }
+    }
+
+    private void executarTransferOtimista(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia) {
+        Long fromId = transferenciaDTO.getFromId();
+        Long toId = transferenciaDTO.getToId();
+        Long centavos = transferenciaDTO.getAmountCentavos();
+
+        validarTransferencia(fromId, toId, centavos);
+        idempotenciaService.reservar(idempotencia);
+        long amount = centavos;
+
+        if (ledgerService.isAssincrono()) {
+            aplicarTransfer(fromId, toId, amount, idempotencia);
+            return;
+        }
+        Map<Long, Beneficio> lidos = jdbcRepository.findAllById(List.of(fromId, toId));
+        Beneficio from = lidos.get(fromId);
+        Beneficio to = lidos.get(toId);
+        if (from == null || to == null || from.isFatiado() || to.isFatiado()) {
+            aplicarTransfer(fromId, toId, amount, idempotencia);
+            return;
+        }
+        validarBeneficios(from, to, fromId, toId, amount, 0);
+
+        BigDecimal valor = Centavos.paraBigDecimal(amount);
+        boolean aplicada = fromId < toId
+                ? jdbcRepository.debitarSeVersao(fromId, from.getVersion(), valor)
+                        && jdbcRepository.creditarSeVersao(toId, to.getVersion(), valor)
+                : jdbcRepository.creditarSeVersao(toId, to.getVersion(), valor)
+                        && jdbcRepository.debitarSeVersao(fromId, from.getVersion(), valor);
+        if (!aplicada) {
+            metricas.conflitoOtimista("transfer_otimista");
+            throw new OptimisticLockingFailureException("Benefício foi modificado durante a transferência. Tente novamente.");
+        }
+        from.setValorCentavos(from.getValorCentavos() - amount);
+        from.setVersion(from.getVersion() + 1);
+        to.setValorCentavos(to.getValorCentavos() + amount);
+        to.setVersion(to.getVersion() + 1);
+        ledgerService.registrar(fromId, toId, valor, true, from.getVersion(), to.getVersion());
+        idempotenciaService.concluir(idempotencia, null);
+
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(from)));
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(to)));
+    }
+
+    /**
+     * Transferência sem carregar os benefícios: um UPDATE condicional debita a origem e
+     * outro credita o destino, cada um devolvendo a linha já alterada (ver
+     * {@link BeneficioRepository#debitar}). Os comandos seguem a ordem de ID, como os locks
+     * do caminho pessimista, para que transferências cruzadas não entrem em deadlock.
+     *
+     * <p>Nenhuma linha alterada indica benefício inexistente, inativo ou fatiado, ou saldo
+     * insuficiente. Nesse caso o comando já aplicado é desfeito e a transferência segue pelo
+     * caminho pessimista na mesma transação, que identifica a causa e lança as mesmas
+     * exceções de {@link #transfer} (ou transfere pelas fatias). O modo de ledger
+     * assíncrono também usa o caminho pessimista.
+     */
+    @Retryable(retryFor = PessimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 50, multiplier = 2, random = true))
+    @Transactional
+    public void transferAtomica(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia) {
+        Timer.Sample amostra = metricas.iniciarTransferencia();
+        try {
+            executarTransferAtomica(transferenciaDTO, idempotencia);
+            metricas.registrarTransferencia(amostra, null);
+        } catch (RuntimeException e) {
+            metricas.registrarTransferencia(amostra, e);
+            throw e;
+        }
+    }
+
+    private void executarTransferAtomica(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia) {
+        Long fromId = transferenciaDTO.getFromId();
+        Long toId = transferenciaDTO.getToId();
+        Long centavos = transferenciaDTO.getAmountCentavos();
+
+        validarTransferencia(fromId, toId, centavos);
+        idempotenciaService.reservar(idempotencia);
+        long amount = centavos;
+
+        if (ledgerService.isAssincrono()) {
+            aplicarTransfer(fromId, toId, amount, idempotencia);
+            return;
+        }
+        BigDecimal valor = Centavos.paraBigDecimal(amount);
+        Optional<BeneficioRepository.SaldoAtualizado> from;
+        Optional<BeneficioRepository.SaldoAtualizado> to;
+        if (fromId < toId) {
+            from = repository.debitar(fromId, valor);
+            to = from.isPresent() ? repository.creditar(toId, valor) : Optional.empty();
+        } else {
+            to = repository.creditar(toId, valor);
+            from = to.isPresent() ? repository.debitar(fromId, valor) : Optional.empty();
+        }
+        if (from.isEmpty() || to.isEmpty()) {
+            if (from.isPresent()) {
+                repository.estornar(fromId, valor);
+            } else if (to.isPresent()) {
+                repository.estornar(toId, valor.negate());
+            }
+            aplicarTransfer(fromId, toId, amount, idempotencia);
+            return;
+        }
+        ledgerService.registrar(fromId, toId, valor, true, from.get().getVersion(), to.get().getVersion());
+        idempotenciaService.concluir(idempotencia, null);
+
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(from.get())));
+        eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(to.get())));
+    }
+
+    /**
+     * Transferência pelo motor em memória com chave de idempotência. A confirmação do motor
+     * (movimento durável no diário) não pode ser desfeita com uma transação do banco, então
+     * a chave é reservada e confirmada antes dela e a resposta é gravada depois, em outra
+     * transação. Se o motor recusar a transferência, a reserva é desfeita; se a resposta não
+     * puder ser gravada, a chave continua reservada e as repetições respondem 409 em vez de
+     * transferir de novo.
+     */
+    public void transferMotor(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia,
+                              MotorTransferencias motor) {
+        validarTransferencia(transferenciaDTO.getFromId(), transferenciaDTO.getToId(),
+                transferenciaDTO.getAmountCentavos());
+        idempotenciaService.reservarConfirmada(idempotencia);
+        try {
+            motor.transfer(transferenciaDTO);
+        } catch (RuntimeException e) {
+            try {
+                idempotenciaService.liberar(idempotencia);
+            } catch (RuntimeException liberacao) {
+                e.addSuppressed(liberacao);
+            }
+            throw e;
+        }
+        idempotenciaService.concluirConfirmada(idempotencia, null);
+    }
+
+    /**
+     * Executa um lote de transferências em uma única transação. Todos os benefícios
+     * envolvidos são bloqueados uma única vez, em ordem de ID; os saldos são compensados
+     * em memória e gravados ao final com um batch JDBC (uma atualização por benefício).
+     *
+     * @param atomico se {@code true}, qualquer item inválido rejeita o lote inteiro;
+     *                caso contrário, os itens inválidos são ignorados e os demais aplicados
+     */
+    @Retryable(retryFor = PessimisticLockingFailureException.class, maxAttempts = 3,
+            backoff = @Backoff(delay = 50, multiplier = 2, random = true))
+    @Transactional
+    public List<TransferenciaResultadoDTO> transferBatch(List<TransferenciaDTO> transferencias, boolean atomico) {
+        if (motor != null) {
+            throw MotorTransferencias.escritaRecusada("Transferência em lote");
+        }
+        if (transferencias == null || transferencias.isEmpty()) {
+            throw new IllegalArgumentException("O lote deve conter ao menos uma transferência");
+        }
+
+        if (transferencias.size() > MAX_ITENS_LOTE) {
+            throw new IllegalArgumentException("O lote deve conter no máximo " + MAX_ITENS_LOTE + " transferências");
+        }
+
+        Set<Long> ids = new HashSet<>();
+        for (TransferenciaDTO transferencia : transferencias) {
+            if (transferencia.getFromId() != null) {
+                ids.add(transferencia.getFromId());
+            }
+            if (transferencia.getToId() != null) {
+                ids.add(transferencia.getToId());
+            }
+        }
+        Map<Long, Beneficio> bloqueados = metricas.medirEsperaLock(BeneficioMetricas.LOCK_LOTE,
+                () -> jdbcRepository.findAllByIdWithLock(ids));
+        Map<Long, BigDecimal> pendentes = ledgerService.debitosPendentes(bloqueados.keySet());
+
+        Set<Long> alterados = new HashSet<>();
+        List<TransferenciaDTO> aplicadas = new ArrayList<>(transferencias.size());
+        List<TransferenciaResultadoDTO> resultados = new ArrayList<>(transferencias.size());
+        for (int i = 0; i < transferencias.size(); i++) {
+            TransferenciaDTO transferencia = transferencias.get(i);
+            Long fromId = transferencia.getFromId();
+            Long toId = transferencia.getToId();
+            Long amount = transferencia.getAmountCentavos();
+            try {
+                validarTransferencia(fromId, toId, amount);
+                Beneficio from = bloqueados.get(fromId);
+                Beneficio to = bloqueados.get(toId);
+                if ((from != null && from.isFatiado()) || (to != null && to.isFatiado())) {
+                    throw new IllegalStateException("Benefícios fatiados não são aceitos em transferências em lote");
+                }
+                BigDecimal pendente = pendentes.get(fromId);
+                validarBeneficios(from, to, fromId, toId, amount, pendente != null ? Centavos.de(pendente) : 0);
+
+                from.setValorCentavos(from.getValorCentavos() - amount);
+                to.setValorCentavos(to.getValorCentavos() + amount);
+                alterados.add(fromId);
+                alterados.add(toId);
+                aplicadas.add(transferencia);
+                resultados.add(new TransferenciaResultadoDTO(i, transferencia, true, "Transferência realizada com sucesso"));
+            } catch (IllegalArgumentException | IllegalStateException | EntityNotFoundException e) {
+                resultados.add(new TransferenciaResultadoDTO(i, transferencia, false, e.getMessage()));
+                if (atomico) {
+                    for (TransferenciaResultadoDTO resultado : resultados) {
+                        if (resultado.isSucesso()) {
+                            resultado.setSucesso(false);
+                            resultado.setMensagem("Não aplicada: lote rejeitado pelo item " + i);
+                        }
+                    }
+                    throw new TransferenciaLoteException("Lote rejeitado pelo item " + i + ": " + e.getMessage(), resultados);
+                }
+            }
+        }
+
+        Map<Long, BigDecimal> valores = new HashMap<>();
+        for (Long id : alterados) {
+            valores.put(id, bloqueados.get(id).getValor());
+        }
+        jdbcRepository.updateValores(valores);
+        for (Long id : alterados) {
+            Beneficio beneficio = bloqueados.get(id);
+            beneficio.setVersion(beneficio.getVersion() + 1);
+            eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(beneficio)));
+        }
+        ledgerService.registrarAplicadas(aplicadas, bloqueados);
+        return resultados;
+    }
+
+    /**
+     * Modo de ledger assíncrono: bloqueia apenas a origem, valida o saldo descontando os
+     * débitos pendentes e grava o movimento pendente. Retorna {@code false} quando a
+     * origem é inexistente ou fatiada, casos tratados pelo caminho síncrono.
+     */
+    private boolean registrarPendente(Long fromId, Long toId, long amount) {
+        List<Beneficio> origem = metricas.medirEsperaLock(BeneficioMetricas.LOCK_BENEFICIO,
+                () -> repository.findAllNaoFatiadosByIdWithLock(List.of(fromId)));
+        if (origem.isEmpty()) {
+            return false;
+        }
+        Beneficio from = origem.get(0);
+        Beneficio to = repository.findById(toId).orElse(null);
+        validarBeneficios(from, to, fromId, toId, amount, Centavos.de(ledgerService.debitosPendentes(fromId)));
+        ledgerService.registrar(fromId, toId, Centavos.paraBigDecimal(amount), false, null, null);
+        return true;
+    }
+
+    private void validarLimite(int limit) {
+        if (limit < 1 || limit > MAX_ITENS_PAGINA) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + MAX_ITENS_PAGINA);
+        }
+    }
+
+    private void validarTransferencia(Long fromId, Long toId, Long amount) {
         if (fromId == null || toId == null || amount == null) {
             throw new IllegalArgumentException("IDs e valor não podem ser nulos");
         }
         
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount <= 0) {
             throw new IllegalArgumentException("Valor da transferência deve ser maior que zero");
         }
         
         if (fromId.equals(toId)) {
             throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
         }
+    }
 
-        // Busca com locking pessimista para evitar condições de corrida
-        Beneficio from = repository.findByIdWithLock(fromId)
-                .orElseThrow(() -> new EntityNotFoundException("Benefício de origem não encontrado: " + fromId));
-        
-        Beneficio to = repository.findByIdWithLock(toId)
-                .orElseThrow(() -> new EntityNotFoundException("Benefício de destino não encontrado: " + toId));
+    /**
+     * @param amount           valor da transferência, em centavos
+     * @param debitosPendentes débitos da origem registrados no ledger e ainda não aplicados,
+     *                         em centavos, descontados do saldo disponível
+     */
+    private void validarBeneficios(Beneficio from, Beneficio to, Long fromId, Long toId, long amount,
+                                   long debitosPendentes) {
+        if (from == null) {
+            throw new EntityNotFoundException("Benefício de origem não encontrado: " + fromId);
+        }
+
+        if (to == null) {
+            throw new EntityNotFoundException("Benefício de destino não encontrado: " + toId);
+        }
 
         if (from.getAtivo() == null || !from.getAtivo()) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_BENEFICIO_INATIVO);
             throw new IllegalStateException("Benefício de origem não está ativo");
         }
         
         if (to.getAtivo() == null || !to.getAtivo()) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_BENEFICIO_INATIVO);
             throw new IllegalStateException("Benefício de destino não está ativo");
         }
 
         // Validação de saldo suficiente
-        BigDecimal novoSaldo = from.getValor().subtract(amount);
-        if (novoSaldo.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalStateException(
-                String.format("Saldo insuficiente. Saldo atual: %s, Valor solicitado: %s", 
-                    from.getValor(), amount)
-            );
+        long saldo = from.getValorCentavos() - debitosPendentes;
+        if (saldo < amount) {
+            metricas.rejeicao(BeneficioMetricas.REJEICAO_SALDO_INSUFICIENTE);
+            throw new IllegalStateException("Saldo insuficiente. Saldo atual: " + Centavos.formatar(saldo)
+                    + ", Valor solicitado: " + Centavos.formatar(amount));
         }
-
-        // Realiza a transferência
-        from.setValor(novoSaldo);
-        to.setValor(to.getValor().add(amount));
-
-        // Salva as entidades (o lock garante consistência)
-        try {
-            repository.save(from);
-            repository.save(to);
-        } catch (OptimisticLockingFailureException e) {
-            throw new OptimisticLockException("Benefício foi modificado durante a transferência. Tente novamente.");
-        }
-    }
-
-    private BeneficioDTO toDTO(Beneficio beneficio) {
-        return new BeneficioDTO(
-                beneficio.getId(),
-                beneficio.getNome(),
-                beneficio.getDescricao(),
-                beneficio.getValor(),
-                beneficio.getAtivo(),
-                beneficio.getVersion()
-        );
-    }
-
-    private Beneficio toEntity(BeneficioDTO dto) {
-        Beneficio beneficio = new Beneficio();
-        beneficio.setNome(dto.getNome());
-        beneficio.setDescricao(dto.getDescricao());
-        beneficio.setValor(dto.getValor());
-        beneficio.setAtivo(dto.getAtivo() != null ? dto.getAtivo() : true);
-        return beneficio;
     }
 }
 
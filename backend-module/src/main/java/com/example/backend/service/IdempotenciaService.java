@@ -0,0 +1,236 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Idempotencia;
+import com.example.backend.exception.ChaveIdempotenciaReservadaException;
+import com.example.backend.repository.IdempotenciaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Deduplicação de requisições com {@code Idempotency-Key}.
+ *
+ * <p>A chave é gravada em IDEMPOTENCIA como primeira escrita da transação da operação, e
+ * a resposta ao final dela. Repetições concorrentes aguardam a primeira na chave primária
+ * e falham por duplicidade sem bloquear benefícios; repetições posteriores são servidas
+ * por um índice em memória (limitado por tamanho e TTL, alimentado após o commit) ou,
+ * na falta dele, pela tabela. Apenas operações concluídas com sucesso são registradas:
+ * após um erro, a mesma chave pode ser reutilizada. Operações fora de uma transação do
+ * banco (motor em memória) reservam a chave em uma transação própria antes de executar;
+ * se a resposta não puder ser gravada, a chave fica reservada sem resposta e as
+ * repetições falham em vez de executar de novo.
+ */
+@Service
+public class IdempotenciaService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    public static final int TAMANHO_MAXIMO_CHAVE = 255;
+
+    private final Cache<String, Registro> indice;
+
+    private final Duration ttl;
+
+    @Autowired
+    private IdempotenciaRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public IdempotenciaService(@Value("${beneficio.idempotencia.tamanho-maximo:100000}") long tamanhoMaximo,
+                               @Value("${beneficio.idempotencia.ttl:24h}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.ttl = ttl;
+        this.indice = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indice, "idempotencia");
+    }
+
+    /**
+     * Identifica a requisição pela chave, pela operação e pelo hash do corpo.
+     *
+     * @return {@code null} quando a chave não foi informada
+     */
+    public Requisicao requisicao(String chave, String operacao, Object corpo) {
+        if (chave == null) {
+            return null;
+        }
+        if (chave.isBlank() || chave.length() > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException(
+                    HEADER + " deve ter entre 1 e " + TAMANHO_MAXIMO_CHAVE + " caracteres");
+        }
+        return new Requisicao(chave, operacao, hash(corpo));
+    }
+
+    /**
+     * Resposta (JSON) de uma execução anterior da mesma requisição, se houver. Não
+     * acessa os benefícios nem adquire locks.
+     *
+     * @throws IllegalArgumentException se a chave já foi usada com outra operação ou corpo
+     */
+    public Optional<String> buscarResposta(Requisicao requisicao) {
+        Registro registro = indice.getIfPresent(requisicao.getChave());
+        if (registro == null) {
+            registro = repository.findById(requisicao.getChave())
+                    .filter(i -> i.getResposta() != null)
+                    .map(i -> new Registro(i.getChave(), i.getOperacao(), i.getHashRequisicao(), i.getResposta()))
+                    .orElse(null);
+            if (registro == null) {
+                return Optional.empty();
+            }
+            indice.put(registro.getChave(), registro);
+        }
+        if (!registro.getOperacao().equals(requisicao.getOperacao())
+                || !registro.getHashRequisicao().equals(requisicao.getHashRequisicao())) {
+            throw new IllegalArgumentException(HEADER + " já utilizada com outra requisição");
+        }
+        return Optional.of(registro.getResposta());
+    }
+
+    /**
+     * Reserva a chave na transação corrente. Se outra transação já a reservou, aguarda o
+     * commit dela e falha com {@link ChaveIdempotenciaReservadaException}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void reservar(Requisicao requisicao) {
+        if (requisicao == null) {
+            return;
+        }
+        try {
+            repository.saveAndFlush(new Idempotencia(
+                    requisicao.getChave(), requisicao.getOperacao(), requisicao.getHashRequisicao()));
+        } catch (DataIntegrityViolationException e) {
+            throw new ChaveIdempotenciaReservadaException(HEADER + " já reservada: " + requisicao.getChave(), e);
+        }
+    }
+
+    /**
+     * Reserva a chave em uma transação própria, confirmada antes da operação. Se outra
+     * requisição já a reservou, falha com {@link ChaveIdempotenciaReservadaException}.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    void reservarConfirmada(Requisicao requisicao) {
+        reservar(requisicao);
+    }
+
+    /** Desfaz uma reserva confirmada cuja operação falhou, liberando a chave. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    void liberar(Requisicao requisicao) {
+        if (requisicao == null) {
+            return;
+        }
+        repository.deleteById(requisicao.getChave());
+    }
+
+    /** Grava, em uma transação própria, a resposta de uma reserva confirmada. */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    void concluirConfirmada(Requisicao requisicao, Object resposta) {
+        concluir(requisicao, resposta);
+    }
+
+    /** Grava a resposta da operação; o índice em memória é alimentado após o commit. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void concluir(Requisicao requisicao, Object resposta) {
+        if (requisicao == null) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(resposta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a resposta idempotente", e);
+        }
+        Idempotencia idempotencia = repository.getReferenceById(requisicao.getChave());
+        idempotencia.setResposta(json);
+        eventPublisher.publishEvent(new Registro(
+                requisicao.getChave(), requisicao.getOperacao(), requisicao.getHashRequisicao(), json));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onRegistroConcluido(Registro registro) {
+        indice.put(registro.getChave(), registro);
+    }
+
+    /** Remove da tabela as chaves mais antigas que o TTL. */
+    @Scheduled(fixedDelayString = "${beneficio.idempotencia.intervalo-limpeza:3600000}")
+    @Transactional
+    public void removerExpiradas() {
+        repository.deleteByCriadaEmBefore(Instant.now().minus(ttl));
+    }
+
+    private String hash(Object corpo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(corpo)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao calcular o hash da requisição", e);
+        }
+    }
+
+    /** Requisição identificada por chave, operação e hash do corpo. */
+    public static class Requisicao {
+
+        private final String chave;
+        private final String operacao;
+        private final String hashRequisicao;
+
+        public Requisicao(String chave, String operacao, String hashRequisicao) {
+            this.chave = chave;
+            this.operacao = operacao;
+            this.hashRequisicao = hashRequisicao;
+        }
+
+        public String getChave() {
+            return chave;
+        }
+
+        public String getOperacao() {
+            return operacao;
+        }
+
+        public String getHashRequisicao() {
+            return hashRequisicao;
+        }
+    }
+
+    /** Entrada do índice em memória: requisição original e sua resposta. */
+    public static class Registro extends Requisicao {
+
+        private final String resposta;
+
+        public Registro(String chave, String operacao, String hashRequisicao, String resposta) {
+            super(chave, operacao, hashRequisicao);
+            this.resposta = resposta;
+        }
+
+        public String getResposta() {
+            return resposta;
+        }
+    }
+}
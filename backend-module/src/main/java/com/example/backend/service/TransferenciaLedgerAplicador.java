@@ -0,0 +1,26 @@
+package com.example.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drena periodicamente os movimentos pendentes do ledger, um lote por transação.
+ * Sem pendentes, custa uma consulta indexada por execução. Só existe quando há quem grave
+ * pendentes: o ledger assíncrono ou o motor de transferências.
+ */
+@Component
+@ConditionalOnExpression("${beneficio.ledger.assincrono:false} or '${beneficio.transferencia.estrategia:pessimista}' == 'motor'")
+public class TransferenciaLedgerAplicador {
+
+    @Autowired
+    private TransferenciaLedgerService ledgerService;
+
+    @Scheduled(fixedDelayString = "${beneficio.ledger.intervalo-aplicacao:200}")
+    public void aplicar() {
+        while (ledgerService.aplicarPendentes() == TransferenciaLedgerService.TAMANHO_LOTE_APLICACAO) {
+            // Lote cheio: pode haver mais pendentes
+        }
+    }
+}
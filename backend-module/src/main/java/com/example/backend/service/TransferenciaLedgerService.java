@@ -0,0 +1,189 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.Transferencia;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.event.TransferenciasAceitasEvent;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioFatiaRepository;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import com.example.backend.repository.TransferenciaJdbcRepository;
+import com.example.backend.repository.TransferenciaRepository;
+import com.example.ejb.Centavos;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.example.backend.service.BeneficioMapper.toDTO;
+
+/**
+ * Ledger de transferências (tabela TRANSFERENCIA), registro de todas as movimentações.
+ *
+ * <p>No modo síncrono (padrão) cada transferência grava o movimento já aplicado, na
+ * mesma transação que altera os saldos. No modo assíncrono
+ * ({@code beneficio.ledger.assincrono=true}) uma transferência de origem não fatiada
+ * apenas bloqueia a origem, valida o saldo disponível (saldo materializado menos os
+ * débitos pendentes) e grava o movimento pendente; o destino não é bloqueado. O lock da
+ * origem continua serializando as transferências que saem do mesmo benefício. Os
+ * pendentes são aplicados em lote por {@link #aplicarPendentes()}: os saldos são
+ * compensados em memória e cada benefício é atualizado uma única vez por lote.
+ *
+ * <p>No modo assíncrono as leituras de saldo refletem apenas os movimentos já aplicados.
+ * Ao voltar ao modo síncrono, os pendentes devem ser drenados antes, pois o caminho
+ * síncrono não desconta débitos pendentes.
+ *
+ * <p>Cada gravação publica um {@link TransferenciasAceitasEvent} na transação, consumido
+ * pelo diário binário de transferências quando habilitado.
+ */
+@Service
+public class TransferenciaLedgerService {
+
+    /** Quantidade máxima de movimentos aplicados por transação. */
+    public static final int TAMANHO_LOTE_APLICACAO = 1000;
+
+    @Value("${beneficio.ledger.assincrono:false}")
+    private boolean assincrono;
+
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+
+    @Autowired
+    private TransferenciaJdbcRepository transferenciaJdbcRepository;
+
+    @Autowired
+    private BeneficioJdbcRepository beneficioJdbcRepository;
+
+    @Autowired
+    private BeneficioFatiaRepository fatiaRepository;
+
+    @Autowired
+    private BeneficioMetricas metricas;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public boolean isAssincrono() {
+        return assincrono;
+    }
+
+    /**
+     * Grava um movimento; deve ser chamado dentro da transação da transferência. As versões
+     * são as dos benefícios já alterados, ou {@code null} se a linha não mudou.
+     */
+    void registrar(Long fromId, Long toId, BigDecimal amount, boolean aplicada,
+                   Long versaoOrigem, Long versaoDestino) {
+        Transferencia transferencia = transferenciaRepository.save(new Transferencia(fromId, toId, amount, aplicada));
+        eventPublisher.publishEvent(new TransferenciasAceitasEvent(List.of(new TransferenciasAceitasEvent.Item(
+                transferencia.getId(), fromId, toId, Centavos.de(amount), versaoOrigem, versaoDestino))));
+    }
+
+    /**
+     * Grava os movimentos já aplicados de um lote em um único batch JDBC. {@code beneficios}
+     * traz os benefícios do lote com a versão final.
+     */
+    void registrarAplicadas(List<TransferenciaDTO> transferencias, Map<Long, Beneficio> beneficios) {
+        List<Transferencia> movimentos = new ArrayList<>(transferencias.size());
+        for (TransferenciaDTO transferencia : transferencias) {
+            movimentos.add(new Transferencia(transferencia.getFromId(), transferencia.getToId(),
+                    transferencia.getAmount(), true));
+        }
+        List<Long> ids = transferenciaJdbcRepository.insertAll(movimentos);
+        List<TransferenciasAceitasEvent.Item> itens = new ArrayList<>(transferencias.size());
+        for (int i = 0; i < transferencias.size(); i++) {
+            TransferenciaDTO transferencia = transferencias.get(i);
+            itens.add(new TransferenciasAceitasEvent.Item(ids.get(i), transferencia.getFromId(),
+                    transferencia.getToId(), transferencia.getAmountCentavos(),
+                    beneficios.get(transferencia.getFromId()).getVersion(),
+                    beneficios.get(transferencia.getToId()).getVersion()));
+        }
+        eventPublisher.publishEvent(new TransferenciasAceitasEvent(itens));
+    }
+
+    /**
+     * Débitos pendentes de aplicação por benefício de origem. Vazio no modo síncrono.
+     * Só é consistente com a origem já bloqueada.
+     */
+    Map<Long, BigDecimal> debitosPendentes(Collection<Long> ids) {
+        if (!assincrono || ids.isEmpty()) {
+            return Map.of();
+        }
+        return transferenciaJdbcRepository.sumPendentesByOrigemId(ids);
+    }
+
+    BigDecimal debitosPendentes(Long id) {
+        return transferenciaRepository.sumPendentesByOrigemId(id);
+    }
+
+    boolean existsPendentes(Long id) {
+        return transferenciaRepository.existsPendentesByBeneficioId(id);
+    }
+
+    /**
+     * Aplica até {@link #TAMANHO_LOTE_APLICACAO} movimentos pendentes, em ordem de ID.
+     * Os benefícios envolvidos são bloqueados em ordem de ID e atualizados com um batch
+     * JDBC. Créditos para benefícios fatiados vão para a fatia de índice 0; créditos para
+     * benefícios removidos são descartados junto com o saldo removido.
+     *
+     * @return quantidade de movimentos aplicados
+     */
+    @Transactional
+    public int aplicarPendentes() {
+        List<Transferencia> pendentes = transferenciaJdbcRepository.findPendentesWithLock(TAMANHO_LOTE_APLICACAO);
+        if (pendentes.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(pendentes.size());
+        for (Transferencia transferencia : pendentes) {
+            deltas.merge(transferencia.getOrigemId(), transferencia.getValor().negate(), BigDecimal::add);
+            deltas.merge(transferencia.getDestinoId(), transferencia.getValor(), BigDecimal::add);
+            ids.add(transferencia.getId());
+        }
+
+        Map<Long, Beneficio> bloqueados = metricas.medirEsperaLock(BeneficioMetricas.LOCK_LEDGER,
+                () -> beneficioJdbcRepository.findAllByIdWithLock(deltas.keySet()));
+        Map<Long, BigDecimal> novosValores = new TreeMap<>();
+        Map<Long, BigDecimal> creditosFatiados = new TreeMap<>();
+        deltas.forEach((id, delta) -> {
+            Beneficio beneficio = bloqueados.get(id);
+            if (beneficio == null || delta.signum() == 0) {
+                return;
+            }
+            if (beneficio.isFatiado()) {
+                creditosFatiados.put(id, delta);
+            } else {
+                beneficio.setValor(beneficio.getValor().add(delta));
+                novosValores.put(id, beneficio.getValor());
+            }
+        });
+
+        beneficioJdbcRepository.updateValores(novosValores);
+        beneficioJdbcRepository.creditarFatias(creditosFatiados);
+        transferenciaJdbcRepository.marcarAplicadas(ids);
+
+        for (Long id : novosValores.keySet()) {
+            Beneficio beneficio = bloqueados.get(id);
+            beneficio.setVersion(beneficio.getVersion() + 1);
+            eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(toDTO(beneficio, beneficio.getValor())));
+        }
+        for (Long id : creditosFatiados.keySet()) {
+            // A linha do benefício fatiado não muda: versão omitida (alteração não ordenada)
+            BeneficioDTO dto = toDTO(bloqueados.get(id), fatiaRepository.sumValorByBeneficioId(id));
+            dto.setVersion(null);
+            eventPublisher.publishEvent(BeneficioAlteradoEvent.atualizado(dto));
+        }
+        return pendentes.size();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.motor.MotorTransferencias;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estratégia das transferências unitárias ({@code beneficio.transferencia.estrategia}).
+ *
+ * <p>Pessimista (padrão): {@link BeneficioService#transfer}, que bloqueia os dois
+ * benefícios antes de ler os saldos. Atômica: {@link BeneficioService#transferAtomica},
+ * um UPDATE condicional por benefício, sem ler as linhas antes; recorre ao caminho
+ * pessimista na mesma transação quando uma condição falha. Otimista:
+ * {@link BeneficioService#transferOtimista}, sem lock na leitura e com a escrita
+ * condicionada à versão lida. Cada tentativa otimista é uma transação; em conflito, a
+ * próxima espera um backoff exponencial com jitter. Esgotadas as tentativas, a
+ * transferência segue pelo caminho pessimista. Motor: {@link MotorTransferencias}, saldos
+ * em memória e persistência assíncrona; só abre transação para a chave de idempotência.
+ *
+ * <p>A taxa de conflitos é medida em janelas de {@link #JANELA} tentativas. Acima de
+ * {@code beneficio.transferencia.limite-conflitos}, todas as transferências usam o caminho
+ * pessimista durante {@code beneficio.transferencia.pausa-pessimista}: sob disputa alta, as
+ * retentativas custariam mais que os locks. A contagem é aproximada sob concorrência.
+ */
+@Service
+public class TransferenciaService {
+
+    public enum Estrategia {
+        PESSIMISTA,
+        ATOMICA,
+        OTIMISTA,
+        MOTOR
+    }
+
+    /** Tentativas otimistas por janela de medição da taxa de conflitos. */
+    static final int JANELA = 100;
+
+    private final BeneficioService beneficioService;
+
+    private final BeneficioMetricas metricas;
+
+    private final MotorTransferencias motor;
+
+    private final Estrategia estrategia;
+
+    private final int maxTentativas;
+
+    private final long backoffNanos;
+
+    private final double limiteConflitos;
+
+    private final long pausaPessimistaNanos;
+
+    private final AtomicInteger tentativasJanela = new AtomicInteger();
+
+    private final AtomicInteger conflitosJanela = new AtomicInteger();
+
+    /** Instante ({@link System#nanoTime()}) até o qual o caminho otimista fica suspenso. */
+    private volatile long pessimistaAte = System.nanoTime();
+
+    public TransferenciaService(
+            BeneficioService beneficioService,
+            BeneficioMetricas metricas,
+            @Nullable MotorTransferencias motor,
+            @Value("${beneficio.transferencia.estrategia:pessimista}") Estrategia estrategia,
+            @Value("${beneficio.transferencia.max-tentativas:3}") int maxTentativas,
+            @Value("${beneficio.transferencia.backoff:5ms}") Duration backoff,
+            @Value("${beneficio.transferencia.limite-conflitos:0.5}") double limiteConflitos,
+            @Value("${beneficio.transferencia.pausa-pessimista:1s}") Duration pausaPessimista) {
+        if (maxTentativas < 1) {
+            throw new IllegalArgumentException("beneficio.transferencia.max-tentativas deve ser ao menos 1");
+        }
+        if (estrategia == Estrategia.MOTOR && motor == null) {
+            throw new IllegalStateException("Estratégia motor sem o motor de transferências");
+        }
+        this.beneficioService = beneficioService;
+        this.metricas = metricas;
+        this.motor = motor;
+        this.estrategia = estrategia;
+        this.maxTentativas = maxTentativas;
+        this.backoffNanos = backoff.toNanos();
+        this.limiteConflitos = limiteConflitos;
+        this.pausaPessimistaNanos = pausaPessimista.toNanos();
+    }
+
+    /**
+     * Transfere pela estratégia configurada. As exceções de validação e de saldo são as de
+     * {@link BeneficioService#transfer}.
+     *
+     * @param idempotencia requisição identificada, ou {@code null} sem {@code Idempotency-Key}
+     */
+    public void transfer(TransferenciaDTO transferenciaDTO, IdempotenciaService.Requisicao idempotencia) {
+        if (estrategia == Estrategia.PESSIMISTA) {
+            beneficioService.transfer(transferenciaDTO, idempotencia);
+            return;
+        }
+        if (estrategia == Estrategia.ATOMICA) {
+            beneficioService.transferAtomica(transferenciaDTO, idempotencia);
+            return;
+        }
+        if (estrategia == Estrategia.MOTOR) {
+            if (idempotencia == null) {
+                motor.transfer(transferenciaDTO);
+            } else {
+                beneficioService.transferMotor(transferenciaDTO, idempotencia, motor);
+            }
+            return;
+        }
+        if (isPessimistaTemporario()) {
+            metricas.fallbackPessimista(BeneficioMetricas.FALLBACK_CONFLITOS);
+            beneficioService.transfer(transferenciaDTO, idempotencia);
+            return;
+        }
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                beneficioService.transferOtimista(transferenciaDTO, idempotencia);
+                registrarTentativa(false);
+                return;
+            } catch (ConcurrencyFailureException e) {
+                registrarTentativa(true);
+            }
+            if (tentativa == maxTentativas) {
+                metricas.fallbackPessimista(BeneficioMetricas.FALLBACK_TENTATIVAS);
+                break;
+            }
+            if (isPessimistaTemporario()) {
+                metricas.fallbackPessimista(BeneficioMetricas.FALLBACK_CONFLITOS);
+                break;
+            }
+            if (!aguardar(tentativa)) {
+                break;
+            }
+        }
+        beneficioService.transfer(transferenciaDTO, idempotencia);
+    }
+
+    /** Se a taxa de conflitos da última janela suspendeu o caminho otimista. */
+    public boolean isPessimistaTemporario() {
+        return System.nanoTime() - pessimistaAte < 0;
+    }
+
+    private void registrarTentativa(boolean conflito) {
+        if (conflito) {
+            conflitosJanela.incrementAndGet();
+        }
+        if (tentativasJanela.incrementAndGet() == JANELA) {
+            int conflitos = conflitosJanela.getAndSet(0);
+            tentativasJanela.set(0);
+            if (conflitos > limiteConflitos * JANELA) {
+                pessimistaAte = System.nanoTime() + pausaPessimistaNanos;
+            }
+        }
+    }
+
+    /**
+     * Backoff exponencial com jitter: entre metade e o total de {@code backoff * 2^(tentativa - 1)}.
+     *
+     * @return {@code false} se a thread foi interrompida durante a espera
+     */
+    private boolean aguardar(int tentativa) {
+        long atraso = backoffNanos << Math.min(tentativa - 1, 20);
+        if (atraso <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(atraso / 2 + ThreadLocalRandom.current().nextLong(atraso / 2 + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
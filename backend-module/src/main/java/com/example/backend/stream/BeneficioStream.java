@@ -0,0 +1,156 @@
+package com.example.backend.stream;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.BeneficioDeltaDTO;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.event.BeneficiosImportadosEvent;
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Distribui as alterações confirmadas de benefícios aos clientes conectados por SSE,
+ * substituindo o polling da listagem completa.
+ *
+ * <p>A thread que confirmou a transação apenas enfileira o delta no buffer de cada
+ * assinante ({@link BufferDeltas}); a escrita na conexão acontece em outra thread. Um
+ * cliente lento, portanto, não atrasa as transações nem os demais clientes: seus deltas
+ * pendentes são coalescidos por benefício e, se ainda assim excederem o buffer, ele é
+ * instruído a recarregar a lista.
+ */
+@Component
+public class BeneficioStream {
+
+    static final String EVENTO_DELTA = "delta";
+
+    static final String EVENTO_RESSINCRONIZAR = "ressincronizar";
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService envio;
+
+    private final int maxAssinantes;
+
+    private final int tamanhoBuffer;
+
+    public BeneficioStream(
+            @Value("${beneficio.stream.max-assinantes:1000}") int maxAssinantes,
+            @Value("${beneficio.stream.buffer:1000}") int tamanhoBuffer,
+            MeterRegistry meterRegistry) {
+        this.maxAssinantes = maxAssinantes;
+        this.tamanhoBuffer = tamanhoBuffer;
+        AtomicInteger contador = new AtomicInteger();
+        // Uma escrita bloqueada em um cliente lento ocupa uma thread; o limite de
+        // assinantes limita também este pool
+        this.envio = Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "beneficio-stream-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("beneficio.stream.assinantes", assinantes, Set::size)
+                .description("Clientes conectados ao stream de alterações")
+                .register(meterRegistry);
+    }
+
+    public SseEmitter assinar() {
+        if (assinantes.size() >= maxAssinantes) {
+            throw new CapacidadeEsgotadaException("Limite de clientes do stream atingido. Tente novamente.");
+        }
+        // Sem timeout: conexões mortas são detectadas pela falha no envio do heartbeat
+        SseEmitter emitter = new SseEmitter(0L);
+        Assinante assinante = new Assinante(emitter);
+        assinantes.add(assinante);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onError(erro -> assinantes.remove(assinante));
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBeneficioAlterado(BeneficioAlteradoEvent event) {
+        BeneficioDTO beneficio = event.getBeneficio();
+        BeneficioDeltaDTO delta = new BeneficioDeltaDTO(
+                event.getTipo().name(),
+                event.getId(),
+                beneficio != null ? beneficio.getValor() : null,
+                beneficio != null ? beneficio.getVersion() : null);
+        for (Assinante assinante : assinantes) {
+            if (assinante.buffer.adicionar(delta)) {
+                envio.execute(assinante::enviar);
+            }
+        }
+    }
+
+    /** Uma importação em lote altera muitos benefícios de uma vez: os clientes recarregam a lista. */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBeneficiosImportados(BeneficiosImportadosEvent event) {
+        for (Assinante assinante : assinantes) {
+            if (assinante.buffer.adicionarRessincronizacao()) {
+                envio.execute(assinante::enviar);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${beneficio.stream.intervalo-heartbeat:15000}")
+    public void heartbeat() {
+        for (Assinante assinante : assinantes) {
+            if (assinante.buffer.adicionarHeartbeat()) {
+                envio.execute(assinante::enviar);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        assinantes.forEach(assinante -> assinante.emitter.complete());
+        envio.shutdownNow();
+    }
+
+    private final class Assinante {
+
+        private final SseEmitter emitter;
+
+        private final BufferDeltas buffer = new BufferDeltas(tamanhoBuffer);
+
+        private Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /** Envia até esvaziar o buffer; novos deltas chegando no meio entram no mesmo ciclo. */
+        private void enviar() {
+            BufferDeltas.Lote lote;
+            while ((lote = buffer.retirar()) != null) {
+                try {
+                    if (lote.ressincronizar) {
+                        emitter.send(SseEmitter.event().name(EVENTO_RESSINCRONIZAR).data(""));
+                    }
+                    for (BeneficioDeltaDTO delta : lote.deltas) {
+                        emitter.send(SseEmitter.event().name(EVENTO_DELTA).data(delta, MediaType.APPLICATION_JSON));
+                    }
+                    if (lote.heartbeat) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // Cliente desconectado ou emitter já encerrado
+                    assinantes.remove(this);
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.backend.stream;
+
+import com.example.backend.dto.BeneficioDeltaDTO;
+import com.example.backend.event.BeneficioAlteradoEvent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Fila de envio de um assinante do stream. Alterações do mesmo benefício ainda não
+ * enviadas são coalescidas (vale a de maior versão), então o buffer cresce com a
+ * quantidade de benefícios alterados, não de alterações. Ao exceder a capacidade o
+ * buffer é descartado e o assinante recebe um pedido de ressincronização.
+ *
+ * <p>Também controla se há um envio em andamento, para que no máximo uma thread escreva
+ * no emitter de cada assinante.
+ */
+final class BufferDeltas {
+
+    private final int capacidade;
+
+    private final LinkedHashMap<Long, BeneficioDeltaDTO> pendentes = new LinkedHashMap<>();
+
+    private boolean ressincronizar;
+
+    private boolean heartbeat;
+
+    private boolean enviando;
+
+    BufferDeltas(int capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * @return {@code true} se não havia envio em andamento e o chamador deve agendar um
+     */
+    synchronized boolean adicionar(BeneficioDeltaDTO delta) {
+        if (!ressincronizar) {
+            BeneficioDeltaDTO anterior = pendentes.get(delta.getId());
+            if (anterior == null || !maisAntigo(delta, anterior)) {
+                pendentes.put(delta.getId(), delta);
+            }
+            if (pendentes.size() > capacidade) {
+                pendentes.clear();
+                ressincronizar = true;
+            }
+        }
+        return agendar();
+    }
+
+    /**
+     * Descarta os deltas pendentes e pede ao assinante que recarregue a lista.
+     *
+     * @return {@code true} se não havia envio em andamento e o chamador deve agendar um
+     */
+    synchronized boolean adicionarRessincronizacao() {
+        pendentes.clear();
+        ressincronizar = true;
+        return agendar();
+    }
+
+    /**
+     * @return {@code true} se não havia envio em andamento e o chamador deve agendar um
+     */
+    synchronized boolean adicionarHeartbeat() {
+        heartbeat = true;
+        return agendar();
+    }
+
+    /**
+     * Retira tudo o que está pendente. Devolve {@code null}, encerrando o envio em
+     * andamento, quando não há nada a enviar.
+     */
+    synchronized Lote retirar() {
+        if (pendentes.isEmpty() && !ressincronizar && !heartbeat) {
+            enviando = false;
+            return null;
+        }
+        Lote lote = new Lote(ressincronizar, new ArrayList<>(pendentes.values()), heartbeat);
+        pendentes.clear();
+        ressincronizar = false;
+        heartbeat = false;
+        return lote;
+    }
+
+    private boolean agendar() {
+        if (enviando) {
+            return false;
+        }
+        enviando = true;
+        return true;
+    }
+
+    /**
+     * A remoção é definitiva. Fora isso, sem versão (benefício fatiado) a alteração não é
+     * ordenável e prevalece.
+     */
+    private static boolean maisAntigo(BeneficioDeltaDTO delta, BeneficioDeltaDTO anterior) {
+        if (BeneficioAlteradoEvent.Tipo.REMOVIDO.name().equals(anterior.getTipo())) {
+            return true;
+        }
+        return delta.getVersion() != null && anterior.getVersion() != null
+                && delta.getVersion() < anterior.getVersion();
+    }
+
+    static final class Lote {
+
+        final boolean ressincronizar;
+
+        final List<BeneficioDeltaDTO> deltas;
+
+        final boolean heartbeat;
+
+        Lote(boolean ressincronizar, List<BeneficioDeltaDTO> deltas, boolean heartbeat) {
+            this.ressincronizar = ressincronizar;
+            this.deltas = deltas;
+            this.heartbeat = heartbeat;
+        }
+    }
+}
@@ -0,0 +1,4 @@
+-- Dados de exemplo do perfil padrão (banco em memória); executado após as migrações
+INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO, VERSION) VALUES
+(NEXT VALUE FOR BENEFICIO_SEQ, 'Beneficio A', 'Descrição A', 1000.00, TRUE, 0),
+(NEXT VALUE FOR BENEFICIO_SEQ, 'Beneficio B', 'Descrição B', 500.00, TRUE, 0);
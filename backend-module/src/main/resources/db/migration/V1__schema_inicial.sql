@@ -0,0 +1,10 @@
+-- Schema original (db/schema.sql da primeira versão). Bancos já existentes com esta tabela
+-- são registrados nesta versão pelo baseline do Flyway e recebem apenas as migrações seguintes.
+CREATE TABLE BENEFICIO (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  NOME VARCHAR(100) NOT NULL,
+  DESCRICAO VARCHAR(255),
+  VALOR DECIMAL(15,2) NOT NULL,
+  ATIVO BOOLEAN DEFAULT TRUE,
+  VERSION BIGINT DEFAULT 0
+);
@@ -0,0 +1,35 @@
+-- Quantidade de fatias (sub-saldos); acima de zero o saldo fica em BENEFICIO_FATIA
+ALTER TABLE BENEFICIO ADD COLUMN FATIAS INT DEFAULT 0 NOT NULL;
+
+CREATE TABLE BENEFICIO_FATIA (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL REFERENCES BENEFICIO(ID) ON DELETE CASCADE,
+  INDICE INT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  CONSTRAINT UK_FATIA_BENEFICIO_INDICE UNIQUE (BENEFICIO_ID, INDICE)
+);
+CREATE INDEX IDX_FATIA_BENEFICIO ON BENEFICIO_FATIA (BENEFICIO_ID);
+
+-- Ledger append-only de transferências; APLICADA indica se o movimento já foi
+-- refletido em BENEFICIO.VALOR (modo assíncrono)
+CREATE TABLE TRANSFERENCIA (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ORIGEM_ID BIGINT NOT NULL,
+  DESTINO_ID BIGINT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  CRIADA_EM TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  APLICADA BOOLEAN NOT NULL
+);
+CREATE INDEX IDX_TRANSFERENCIA_PENDENTE ON TRANSFERENCIA (APLICADA, ID);
+CREATE INDEX IDX_TRANSFERENCIA_ORIGEM ON TRANSFERENCIA (ORIGEM_ID, APLICADA);
+CREATE INDEX IDX_TRANSFERENCIA_DESTINO ON TRANSFERENCIA (DESTINO_ID);
+
+-- Respostas de requisições com Idempotency-Key (removidas após o TTL)
+CREATE TABLE IDEMPOTENCIA (
+  CHAVE VARCHAR(255) PRIMARY KEY,
+  OPERACAO VARCHAR(30) NOT NULL,
+  HASH_REQUISICAO VARCHAR(64) NOT NULL,
+  RESPOSTA VARCHAR(4000),
+  CRIADA_EM TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+CREATE INDEX IDX_IDEMPOTENCIA_CRIADA_EM ON IDEMPOTENCIA (CRIADA_EM);
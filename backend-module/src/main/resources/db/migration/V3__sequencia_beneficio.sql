@@ -0,0 +1,7 @@
+-- IDs de BENEFICIO passam de IDENTITY para a sequência BENEFICIO_SEQ, permitindo INSERTs em
+-- batch. Os IDs existentes são mantidos; a sequência recomeça após o maior deles.
+ALTER TABLE BENEFICIO ALTER COLUMN ID DROP IDENTITY;
+
+-- Cada valor reserva um bloco de 50 IDs (otimizador pooled-lo do Hibernate)
+CREATE SEQUENCE BENEFICIO_SEQ START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE BENEFICIO_SEQ RESTART WITH (SELECT COALESCE(MAX(ID), 0) + 1 FROM BENEFICIO);
@@ -0,0 +1,6 @@
+-- Listagem de ativos (WHERE ATIVO = TRUE ORDER BY ID), sua paginação por keyset
+-- (AND ID > :after) e a versão da coleção de ativos usada no ETag. O H2 não tem índices
+-- parciais: o prefixo ATIVO faz o papel de "WHERE ATIVO". VERSION e VALOR ficam de fora de
+-- propósito: mudam a cada transferência e tornariam o índice um custo extra no caminho de
+-- escrita mais frequente. A listagem completa e o keyset sem filtro usam a chave primária.
+CREATE INDEX IDX_BENEFICIO_ATIVO_ID ON BENEFICIO (ATIVO, ID);
@@ -0,0 +1,5 @@
+-- Sequência do movimento no diário do motor de transferências em memória; nula para os
+-- movimentos do caminho JPA. A maior sequência gravada é o ponto de retomada do diário
+-- após uma queda (movimentos posteriores ainda não chegaram ao banco)
+ALTER TABLE TRANSFERENCIA ADD COLUMN SEQUENCIA_MOTOR BIGINT;
+CREATE INDEX IDX_TRANSFERENCIA_SEQUENCIA_MOTOR ON TRANSFERENCIA (SEQUENCIA_MOTOR);
@@ -0,0 +1,18 @@
+package com.example.backend;
+
+/**
+ * Bancos H2 em memória por contexto de teste. Contextos em cache que compartilhassem o banco
+ * veriam os dados uns dos outros (contas fatiadas, contagens e versões usadas em ETags).
+ * Classes que usam a mesma configuração devem usar a mesma constante para compartilhar o contexto.
+ */
+public final class BancosTeste {
+
+    public static final String MOCK_MVC = "spring.datasource.url=jdbc:h2:mem:mockmvc_test;LOCK_TIMEOUT=3000";
+
+    public static final String METRICAS = "spring.datasource.url=jdbc:h2:mem:metricas_test;LOCK_TIMEOUT=3000";
+
+    public static final String CRIACAO_LOTE = "spring.datasource.url=jdbc:h2:mem:criacao_lote_test;LOCK_TIMEOUT=3000";
+
+    private BancosTeste() {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.backend.busca;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BuscaBeneficiosTest {
+
+    private final BeneficioJdbcRepository jdbcRepository = mock(BeneficioJdbcRepository.class);
+
+    private final BuscaBeneficios busca = new BuscaBeneficios(jdbcRepository, new SimpleMeterRegistry());
+
+    @Test
+    void testSearchBeforeFirstBuildIsUnavailable() {
+        assertThrows(CapacidadeEsgotadaException.class, () -> busca.buscar("auxilio", 0, 10));
+    }
+
+    @Test
+    void testInvalidQueryOrPageIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> busca.buscar(" - ", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> busca.buscar("auxilio", -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> busca.buscar("auxilio", 995, 10));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRowsReadBeforeConcurrentCommitDoNotOverwriteIt() {
+        doAnswer(invocacao -> {
+            Consumer<BeneficioDTO> consumidor = invocacao.getArgument(1);
+            // Commits concorrentes durante a leitura da tabela
+            busca.onBeneficioAlterado(BeneficioAlteradoEvent.atualizado(beneficio(1L, "Auxílio Educação")));
+            busca.onBeneficioAlterado(BeneficioAlteradoEvent.removido(2L));
+            // Linhas lidas antes dos commits
+            consumidor.accept(beneficio(1L, "Auxílio Creche"));
+            consumidor.accept(beneficio(2L, "Auxílio Creche"));
+            consumidor.accept(beneficio(3L, "Vale Transporte"));
+            return null;
+        }).when(jdbcRepository).forEach(eq(false), any(Consumer.class));
+
+        busca.construir();
+
+        assertArrayEquals(new long[0], busca.buscar("creche", 0, 10).getIds());
+        assertArrayEquals(new long[] {1L}, busca.buscar("educacao", 0, 10).getIds());
+        assertArrayEquals(new long[] {3L}, busca.buscar("vale", 0, 10).getIds());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testChangesAfterBuildAreApplied() {
+        doNothing().when(jdbcRepository).forEach(eq(false), any(Consumer.class));
+        busca.construir();
+
+        busca.onBeneficioAlterado(BeneficioAlteradoEvent.criado(beneficio(1L, "Auxílio Creche")));
+        assertEquals(1, busca.buscar("creche", 0, 10).getTotal());
+
+        busca.onBeneficioAlterado(BeneficioAlteradoEvent.removido(1L));
+        assertEquals(0, busca.buscar("creche", 0, 10).getTotal());
+    }
+
+    private static BeneficioDTO beneficio(Long id, String nome) {
+        return new BeneficioDTO(id, nome, null, new BigDecimal("10.00"), true, 0L);
+    }
+}
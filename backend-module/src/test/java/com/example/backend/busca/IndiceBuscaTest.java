@@ -0,0 +1,164 @@
+package com.example.backend.busca;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceBuscaTest {
+
+    private final IndiceBusca indice = new IndiceBusca();
+
+    @Test
+    void testPrefixMatchIgnoresCaseAndAccents() {
+        indice.indexar(1L, "Auxílio Alimentação", "Vale refeição mensal");
+        indice.indexar(2L, "Auxílio Transporte", null);
+
+        assertArrayEquals(new long[] {1L}, buscar("ALIMENTACAO"));
+        assertArrayEquals(new long[] {1L}, buscar("refei"));
+        assertArrayEquals(new long[] {1L, 2L}, buscar("aux"));
+        assertArrayEquals(new long[0], buscar("saude"));
+    }
+
+    @Test
+    void testAllTermsMustMatch() {
+        indice.indexar(1L, "Auxílio Alimentação", null);
+        indice.indexar(2L, "Auxílio Transporte", "Inclui alimentação no trajeto");
+        indice.indexar(3L, "Vale Transporte", null);
+
+        assertArrayEquals(new long[] {2L}, buscar("auxilio transp"));
+        assertArrayEquals(new long[] {1L, 2L}, buscar("aux alim"));
+    }
+
+    @Test
+    void testRankingPrefersNameAndWholeWord() {
+        indice.indexar(1L, "Plano", "Cobertura odonto");
+        indice.indexar(2L, "Odontológico", null);
+        indice.indexar(3L, "Odonto", null);
+        indice.indexar(4L, "Plano", "Odontológico");
+
+        // Nome inteiro, prefixo no nome, descrição inteira, prefixo na descrição
+        assertArrayEquals(new long[] {3L, 2L, 1L, 4L}, buscar("odonto"));
+    }
+
+    @Test
+    void testPaginationAndTotal() {
+        for (long id = 1; id <= 25; id++) {
+            indice.indexar(id, "Benefício " + id, null);
+        }
+
+        ResultadoBusca pagina = indice.buscar("beneficio", 20, 10);
+
+        assertEquals(25, pagina.getTotal());
+        assertArrayEquals(new long[] {21L, 22L, 23L, 24L, 25L}, pagina.getIds());
+        assertEquals(0, indice.buscar("beneficio", 30, 10).getIds().length);
+    }
+
+    @Test
+    void testBroadQueryStopsCountingAtLimit() {
+        for (long id = 1; id <= IndiceBusca.LIMITE_CONTAGEM + 500; id++) {
+            indice.indexar(id, "Benefício " + id, null);
+        }
+
+        ResultadoBusca pagina = indice.buscar("benef", 0, 10);
+
+        assertEquals(IndiceBusca.LIMITE_CONTAGEM, pagina.getTotal());
+        assertFalse(pagina.isTotalExato());
+        assertArrayEquals(new long[] {1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L}, pagina.getIds());
+        assertTrue(indice.buscar("1499", 0, 10).isTotalExato());
+    }
+
+    @Test
+    void testEarlyTerminationMatchesFullRanking() {
+        String[] vocabulario = {"auxilio", "auxiliar", "vale", "valor", "plano", "planejado", "saude", "sauna"};
+        Random random = new Random(42);
+        String[][] textos = new String[2000][];
+        for (int i = 0; i < textos.length; i++) {
+            textos[i] = new String[] {frase(vocabulario, random), frase(vocabulario, random)};
+            indice.indexar(i, textos[i][0], textos[i][1]);
+        }
+
+        for (String consulta : List.of("aux", "auxilio", "vale pla", "sau", "plano saude", "va au pl")) {
+            String[] termos = IndiceBusca.normalizar(consulta);
+            List<long[]> esperado = new ArrayList<>();
+            for (int i = 0; i < textos.length; i++) {
+                int pontuacao = 0;
+                for (String termo : termos) {
+                    int peso = Math.max(
+                            peso(textos[i][0], termo, IndiceBusca.PESO_NOME_EXATO, IndiceBusca.PESO_NOME_PREFIXO),
+                            peso(textos[i][1], termo, IndiceBusca.PESO_DESCRICAO_EXATO, IndiceBusca.PESO_DESCRICAO_PREFIXO));
+                    pontuacao = peso == 0 || pontuacao < 0 ? -1 : pontuacao + peso;
+                }
+                if (pontuacao > 0) {
+                    esperado.add(new long[] {pontuacao, i});
+                }
+            }
+            esperado.sort(Comparator.<long[]>comparingLong(e -> -e[0]).thenComparingLong(e -> e[1]));
+
+            ResultadoBusca pagina = indice.buscar(consulta, 15, 10);
+
+            long[] ids = esperado.stream().skip(15).limit(10).mapToLong(e -> e[1]).toArray();
+            assertArrayEquals(ids, pagina.getIds(), consulta);
+            assertEquals(Math.min(esperado.size(), IndiceBusca.LIMITE_CONTAGEM), pagina.getTotal(), consulta);
+        }
+    }
+
+    @Test
+    void testReindexAndRemove() {
+        indice.indexar(1L, "Auxílio Creche", null);
+        indice.indexar(2L, "Auxílio Creche", null);
+
+        assertFalse(indice.indexar(1L, "auxilio, creche!", null));
+        assertTrue(indice.indexar(1L, "Auxílio Educação", null));
+        indice.remover(2L);
+
+        assertArrayEquals(new long[0], buscar("creche"));
+        assertArrayEquals(new long[] {1L}, buscar("educa"));
+        assertEquals(1, indice.tamanho());
+    }
+
+    @Test
+    void testCompactionKeepsLiveDocuments() {
+        for (long id = 1; id <= 3000; id++) {
+            indice.indexar(id, "Benefício " + id, id % 2 == 0 ? "par" : "ímpar");
+        }
+        for (long id = 1; id <= 2000; id++) {
+            indice.remover(id);
+        }
+        indice.indexar(3001L, "Benefício novo", "par");
+
+        assertEquals(1001, indice.tamanho());
+        assertEquals(501, indice.buscar("par", 0, 10).getTotal());
+        assertArrayEquals(new long[] {2001L}, buscar("2001"));
+        assertArrayEquals(new long[] {3001L}, buscar("novo"));
+    }
+
+    private static String frase(String[] vocabulario, Random random) {
+        StringBuilder frase = new StringBuilder();
+        for (int i = random.nextInt(3); i >= 0; i--) {
+            frase.append(vocabulario[random.nextInt(vocabulario.length)]).append(' ');
+        }
+        return frase.toString();
+    }
+
+    private static int peso(String texto, String termo, int exato, int prefixo) {
+        int peso = 0;
+        for (String termoTexto : texto.split(" ")) {
+            if (termoTexto.equals(termo)) {
+                return exato;
+            }
+            if (termoTexto.startsWith(termo)) {
+                peso = prefixo;
+            }
+        }
+        return peso;
+    }
+
+    private long[] buscar(String consulta) {
+        return indice.buscar(consulta, 0, 100).getIds();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BeneficioCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new BeneficioCache(100, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @Test
+    void testReadThroughLoadsOnce() {
+        AtomicInteger cargas = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.get(1L, id -> {
+                cargas.incrementAndGet();
+                return Optional.of(beneficio(1L, "1000.00", 0L));
+            });
+        }
+
+        assertEquals(1, cargas.get());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "beneficios").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testCommittedChangeReplacesEntry() {
+        cache.get(1L, id -> Optional.of(beneficio(1L, "1000.00", 0L)));
+
+        cache.onBeneficioAlterado(BeneficioAlteradoEvent.atualizado(beneficio(1L, "900.00", 1L)));
+
+        BeneficioDTO atual = cache.get(1L, id -> fail("Não deveria consultar o banco"));
+        assertEquals(new BigDecimal("900.00"), atual.getValor());
+    }
+
+    @Test
+    void testOlderVersionDoesNotOverwriteNewer() {
+        cache.onBeneficioAlterado(BeneficioAlteradoEvent.atualizado(beneficio(1L, "900.00", 2L)));
+        cache.onBeneficioAlterado(BeneficioAlteradoEvent.atualizado(beneficio(1L, "1000.00", 1L)));
+
+        assertEquals(2L, cache.get(1L, id -> Optional.empty()).getVersion());
+    }
+
+    @Test
+    void testUnversionedChangeInvalidatesEntry() {
+        cache.get(1L, id -> Optional.of(beneficio(1L, "1000.00", 3L)));
+
+        cache.onBeneficioAlterado(BeneficioAlteradoEvent.atualizado(beneficio(1L, "900.00", null)));
+
+        assertEquals(new BigDecimal("800.00"),
+                cache.get(1L, id -> Optional.of(beneficio(1L, "800.00", 3L))).getValor());
+    }
+
+    @Test
+    void testLoadStartedBeforeUnversionedChangeIsNotCached() {
+        BeneficioDTO lido = cache.get(1L, id -> {
+            // Commit concorrente durante a carga
+            cache.onBeneficioAlterado(BeneficioAlteradoEvent.atualizado(beneficio(1L, "900.00", null)));
+            return Optional.of(beneficio(1L, "1000.00", 3L));
+        });
+
+        assertEquals(new BigDecimal("1000.00"), lido.getValor());
+        assertEquals(new BigDecimal("900.00"),
+                cache.get(1L, id -> Optional.of(beneficio(1L, "900.00", 3L))).getValor());
+    }
+
+    @Test
+    void testRemovedBeneficioIsNotServed() {
+        cache.get(1L, id -> Optional.of(beneficio(1L, "1000.00", 0L)));
+
+        cache.onBeneficioAlterado(BeneficioAlteradoEvent.removido(1L));
+
+        assertThrows(EntityNotFoundException.class,
+                () -> cache.get(1L, id -> Optional.of(beneficio(1L, "1000.00", 0L))));
+    }
+
+    @Test
+    void testNotFoundIsNotCached() {
+        assertThrows(EntityNotFoundException.class, () -> cache.get(9L, id -> Optional.empty()));
+
+        assertNotNull(cache.get(9L, id -> Optional.of(beneficio(9L, "10.00", 0L))));
+    }
+
+    @Test
+    void testAtivosInvalidatedOnChange() {
+        AtomicInteger cargas = new AtomicInteger();
+        cache.getAtivos(() -> {
+            cargas.incrementAndGet();
+            return List.of(beneficio(1L, "1000.00", 0L));
+        });
+        cache.getAtivos(() -> fail("Não deveria consultar o banco"));
+
+        cache.onBeneficioAlterado(BeneficioAlteradoEvent.criado(beneficio(2L, "10.00", 0L)));
+        List<BeneficioDTO> ativos = cache.getAtivos(() -> {
+            cargas.incrementAndGet();
+            return List.of(beneficio(1L, "1000.00", 0L), beneficio(2L, "10.00", 0L));
+        });
+
+        assertEquals(2, cargas.get());
+        assertEquals(2, ativos.size());
+    }
+
+    @Test
+    void testAtivosLoadStartedBeforeChangeIsNotCached() {
+        cache.getAtivos(() -> {
+            // Commit concorrente durante a carga
+            cache.onBeneficioAlterado(BeneficioAlteradoEvent.criado(beneficio(2L, "10.00", 0L)));
+            return List.of(beneficio(1L, "1000.00", 0L));
+        });
+
+        List<BeneficioDTO> ativos = cache.getAtivos(() -> List.of(beneficio(1L, "1000.00", 0L), beneficio(2L, "10.00", 0L)));
+
+        assertEquals(2, ativos.size());
+    }
+
+    private BeneficioDTO beneficio(Long id, String valor, Long version) {
+        return new BeneficioDTO(id, "Beneficio " + id, null, new BigDecimal(valor), true, version);
+    }
+}
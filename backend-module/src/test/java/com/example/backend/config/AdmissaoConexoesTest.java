@@ -0,0 +1,74 @@
+package com.example.backend.config;
+
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissaoConexoesTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final HikariDataSource dataSource = pool();
+
+    @AfterEach
+    void fechar() {
+        dataSource.close();
+    }
+
+    @Test
+    void testRejectsWhileThreadsAwaitConnection() throws Exception {
+        AdmissaoConexoes admissao = new AdmissaoConexoes(dataSource, true, 1, new BeneficioMetricas(meterRegistry));
+        admissao.admitir();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (Connection ocupada = dataSource.getConnection()) {
+            Future<?> aguardando = executor.submit(() -> {
+                try (Connection conexao = dataSource.getConnection()) {
+                    return null;
+                }
+            });
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+                assertTrue(System.nanoTime() < limite, "nenhuma thread entrou na fila do pool");
+                Thread.sleep(10);
+            }
+
+            assertThrows(CapacidadeEsgotadaException.class, admissao::admitir);
+            assertEquals(1.0, meterRegistry.get("beneficio.transferencia.rejeicoes")
+                    .tag("motivo", BeneficioMetricas.REJEICAO_POOL_SATURADO).counter().count());
+
+            ocupada.close();
+            aguardando.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        admissao.admitir();
+    }
+
+    @Test
+    void testDisabledNeverRejects() throws Exception {
+        AdmissaoConexoes admissao = new AdmissaoConexoes(dataSource, false, 0, new BeneficioMetricas(meterRegistry));
+
+        assertDoesNotThrow(admissao::admitir);
+    }
+
+    private static HikariDataSource pool() {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:admissao_test");
+        config.setMaximumPoolSize(1);
+        config.setConnectionTimeout(10_000);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.config;
+
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BulkheadBancoAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BulkheadBancoAspect aspect = new BulkheadBancoAspect(1, Duration.ofMillis(100), meterRegistry);
+
+    @Test
+    void testRejectsWhenAllPermitsAreTaken() throws Throwable {
+        CountDownLatch dentro = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        ProceedingJoinPoint lento = mock(ProceedingJoinPoint.class);
+        when(lento.proceed()).then(invocation -> {
+            dentro.countDown();
+            liberar.await();
+            return "lento";
+        });
+        ProceedingJoinPoint rapido = mock(ProceedingJoinPoint.class);
+        when(rapido.proceed()).thenReturn("rapido");
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> ocupado = executor.submit(() -> {
+                try {
+                    return aspect.limitar(lento);
+                } catch (Throwable e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            assertTrue(dentro.await(5, TimeUnit.SECONDS));
+            assertEquals(0.0, meterRegistry.get("beneficio.bulkhead.disponiveis").gauge().value());
+
+            assertThrows(CapacidadeEsgotadaException.class, () -> aspect.limitar(rapido));
+
+            liberar.countDown();
+            assertEquals("lento", ocupado.get(5, TimeUnit.SECONDS));
+            assertEquals("rapido", aspect.limitar(rapido));
+            assertEquals(1.0, meterRegistry.get("beneficio.bulkhead.disponiveis").gauge().value());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNestedCallReusesPermit() throws Throwable {
+        ProceedingJoinPoint interno = mock(ProceedingJoinPoint.class);
+        when(interno.proceed()).thenReturn("interno");
+        ProceedingJoinPoint externo = mock(ProceedingJoinPoint.class);
+        when(externo.proceed()).then(invocation -> aspect.limitar(interno));
+
+        assertEquals("interno", aspect.limitar(externo));
+        assertEquals(1.0, meterRegistry.get("beneficio.bulkhead.disponiveis").gauge().value());
+    }
+}
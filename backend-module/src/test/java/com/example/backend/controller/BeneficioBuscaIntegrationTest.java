@@ -0,0 +1,83 @@
+package com.example.backend.controller;
+
+import com.example.backend.busca.BuscaBeneficios;
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.service.BeneficioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // Banco exclusivo: os totais da busca são os do banco inteiro
+        "spring.datasource.url=jdbc:h2:mem:busca_test;LOCK_TIMEOUT=3000"
+})
+@AutoConfigureMockMvc
+class BeneficioBuscaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BuscaBeneficios busca;
+
+    @Test
+    void testSearchFollowsCommittedChanges() throws Exception {
+        BeneficioDTO creche = service.create(new BeneficioDTO(null, "Auxílio Creche", "Filhos até 5 anos",
+                new BigDecimal("300.00"), true, null));
+        BeneficioDTO saude = service.create(new BeneficioDTO(null, "Plano de Saúde", "Inclui auxílio odontológico",
+                new BigDecimal("500.00"), true, null));
+
+        mockMvc.perform(get("/api/v1/beneficios/search").param("q", "auxilio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.totalExato").value(true))
+                .andExpect(jsonPath("$.itens[0].id").value(creche.getId()))
+                .andExpect(jsonPath("$.itens[0].valor").value(300.00))
+                .andExpect(jsonPath("$.itens[1].id").value(saude.getId()));
+
+        service.update(creche.getId(), new BeneficioDTO(null, "Auxílio Educação", null,
+                new BigDecimal("300.00"), true, null));
+        service.delete(saude.getId());
+
+        assertEquals(0, busca.buscar("creche", 0, 10).getTotal());
+        assertArrayEquals(new long[] {creche.getId()}, busca.buscar("educ", 0, 10).getIds());
+        assertEquals(0, busca.buscar("saude", 0, 10).getTotal());
+    }
+
+    @Test
+    void testImportRebuildsIndex() throws Exception {
+        mockMvc.perform(post("/api/v1/beneficios/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"nome\":\"Vale Cultura Importado\",\"valor\":50,\"ativo\":true}\n"))
+                .andExpect(status().isOk());
+
+        // A reconstrução após a importação roda em segundo plano
+        long limite = System.currentTimeMillis() + 10_000;
+        while (busca.buscar("cultura importado", 0, 10).getTotal() == 0 && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, busca.buscar("cultura importado", 0, 10).getTotal());
+    }
+
+    @Test
+    void testQueryWithoutTermsIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/beneficios/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/beneficios/search").param("q", "auxilio").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+}
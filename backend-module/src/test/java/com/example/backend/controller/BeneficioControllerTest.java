@@ -1,21 +1,42 @@
 package com.example.backend.controller;
 
+import com.example.backend.config.AdmissaoConexoes;
 import com.example.backend.dto.BeneficioDTO;
 import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.exception.CapacidadeEsgotadaException;
+import com.example.backend.exception.ChaveIdempotenciaReservadaException;
+import com.example.backend.service.BeneficioFatiaService;
+import com.example.backend.service.BeneficioImportacaoService;
 import com.example.backend.service.BeneficioService;
+import com.example.backend.service.IdempotenciaService;
+import com.example.backend.service.TransferenciaService;
+import com.example.backend.stream.BeneficioStream;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -29,6 +50,24 @@ class BeneficioControllerTest {
     @MockBean
     private BeneficioService service;
 
+    @MockBean
+    private BeneficioFatiaService fatiaService;
+
+    @MockBean
+    private TransferenciaService transferenciaService;
+
+    @MockBean
+    private BeneficioImportacaoService importacaoService;
+
+    @MockBean
+    private BeneficioStream stream;
+
+    @MockBean
+    private IdempotenciaService idempotenciaService;
+
+    @MockBean
+    private AdmissaoConexoes admissao;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -46,6 +85,80 @@ class BeneficioControllerTest {
                 .andExpect(jsonPath("$[1].nome").value("Beneficio B"));
     }
 
+    @Test
+    void testFindByIdNotModifiedSkipsLoading() throws Exception {
+        when(service.findVersion(1L)).thenReturn(Optional.of(3L));
+
+        mockMvc.perform(get("/api/v1/beneficios/1").header("If-None-Match", "\"v3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v3\""))
+                .andExpect(content().string(""));
+
+        verify(service, never()).findById(any());
+    }
+
+    @Test
+    void testFindByIdReturnsEtagFromVersion() throws Exception {
+        BeneficioDTO dto = new BeneficioDTO(1L, "Beneficio A", "Desc A", new BigDecimal("1000.00"), true, 4L);
+        when(service.findVersion(1L)).thenReturn(Optional.of(4L));
+        when(service.findById(1L)).thenReturn(dto);
+
+        mockMvc.perform(get("/api/v1/beneficios/1").header("If-None-Match", "\"v3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v4\""))
+                .andExpect(jsonPath("$.version").value(4L));
+    }
+
+    @Test
+    void testFindAllKeysetPage() throws Exception {
+        BeneficioDTO dto1 = new BeneficioDTO(11L, "Beneficio K", "Desc K", new BigDecimal("10.00"), true, 0L);
+        BeneficioDTO dto2 = new BeneficioDTO(12L, "Beneficio L", "Desc L", new BigDecimal("20.00"), true, 0L);
+
+        when(service.findPage(10L, 2)).thenReturn(List.of(dto1, dto2));
+
+        mockMvc.perform(get("/api/v1/beneficios").param("after", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-After", "12"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(11L));
+    }
+
+    @Test
+    void testFindAllKeysetLastPageHasNoCursor() throws Exception {
+        BeneficioDTO dto = new BeneficioDTO(12L, "Beneficio L", "Desc L", new BigDecimal("20.00"), true, 0L);
+
+        when(service.findPage(11L, 100)).thenReturn(List.of(dto));
+
+        mockMvc.perform(get("/api/v1/beneficios").param("after", "11"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-After"))
+                .andExpect(jsonPath("$[0].id").value(12L));
+    }
+
+    @Test
+    void testStreamAllNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BeneficioDTO> consumidor = invocation.getArgument(1);
+            consumidor.accept(new BeneficioDTO(1L, "Beneficio A", "Desc A", new BigDecimal("1000.00"), true, 0L));
+            consumidor.accept(new BeneficioDTO(2L, "Beneficio B", "Desc B", new BigDecimal("500.00"), true, 0L));
+            return null;
+        }).when(service).forEach(eq(false), any());
+
+        MvcResult result = mockMvc.perform(get("/api/v1/beneficios").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = body.split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals('{', linhas[1].charAt(0));
+        assertEquals("Beneficio B", objectMapper.readValue(linhas[1], BeneficioDTO.class).getNome());
+    }
+
     @Test
     void testCreate() throws Exception {
         BeneficioDTO dto = new BeneficioDTO();
@@ -54,7 +167,7 @@ class BeneficioControllerTest {
         dto.setAtivo(true);
 
         BeneficioDTO created = new BeneficioDTO(3L, dto.getNome(), null, dto.getValor(), dto.getAtivo(), 0L);
-        when(service.create(any(BeneficioDTO.class))).thenReturn(created);
+        when(service.create(any(BeneficioDTO.class), isNull())).thenReturn(created);
 
         mockMvc.perform(post("/api/v1/beneficios")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -64,6 +177,62 @@ class BeneficioControllerTest {
                 .andExpect(jsonPath("$.nome").value("Novo Beneficio"));
     }
 
+    @Test
+    void testCreateReplaysStoredResponse() throws Exception {
+        BeneficioDTO dto = new BeneficioDTO(null, "Novo Beneficio", null, new BigDecimal("2000.00"), true, null);
+        BeneficioDTO created = new BeneficioDTO(3L, dto.getNome(), null, dto.getValor(), true, 0L);
+        IdempotenciaService.Requisicao requisicao = new IdempotenciaService.Requisicao("chave-1", "CRIAR_BENEFICIO", "hash");
+
+        when(idempotenciaService.requisicao(eq("chave-1"), eq("CRIAR_BENEFICIO"), any())).thenReturn(requisicao);
+        when(idempotenciaService.buscarResposta(requisicao)).thenReturn(Optional.of(objectMapper.writeValueAsString(created)));
+
+        mockMvc.perform(post("/api/v1/beneficios")
+                        .header(IdempotenciaService.HEADER, "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(3L));
+
+        verify(service, never()).create(any(BeneficioDTO.class), any());
+    }
+
+    @Test
+    void testCreateWithReservedKeyWithoutResponseConflicts() throws Exception {
+        BeneficioDTO dto = new BeneficioDTO(null, "Novo Beneficio", null, new BigDecimal("2000.00"), true, null);
+        IdempotenciaService.Requisicao requisicao = new IdempotenciaService.Requisicao("chave-1", "CRIAR_BENEFICIO", "hash");
+
+        when(idempotenciaService.requisicao(eq("chave-1"), eq("CRIAR_BENEFICIO"), any())).thenReturn(requisicao);
+        when(idempotenciaService.buscarResposta(requisicao)).thenReturn(Optional.empty());
+        when(service.create(any(BeneficioDTO.class), eq(requisicao)))
+                .thenThrow(new ChaveIdempotenciaReservadaException("chave-1", null));
+
+        mockMvc.perform(post("/api/v1/beneficios")
+                        .header(IdempotenciaService.HEADER, "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value(IdempotenciaService.HEADER
+                        + " já reservada por uma requisição sem resposta"));
+    }
+
+    @Test
+    void testCreateIntegrityViolationIsNotReportedAsReservedKey() throws Exception {
+        BeneficioDTO dto = new BeneficioDTO(null, "Novo Beneficio", null, new BigDecimal("2000.00"), true, null);
+        IdempotenciaService.Requisicao requisicao = new IdempotenciaService.Requisicao("chave-1", "CRIAR_BENEFICIO", "hash");
+
+        when(idempotenciaService.requisicao(eq("chave-1"), eq("CRIAR_BENEFICIO"), any())).thenReturn(requisicao);
+        when(idempotenciaService.buscarResposta(requisicao)).thenReturn(Optional.empty());
+        when(service.create(any(BeneficioDTO.class), eq(requisicao)))
+                .thenThrow(new DataIntegrityViolationException("NOME nulo"));
+
+        mockMvc.perform(post("/api/v1/beneficios")
+                        .header(IdempotenciaService.HEADER, "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.message").value("NOME nulo"));
+    }
+
     @Test
     void testTransfer() throws Exception {
         TransferenciaDTO transferencia = new TransferenciaDTO(1L, 2L, new BigDecimal("100.00"));
@@ -74,5 +243,40 @@ class BeneficioControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Transferência realizada com sucesso"));
     }
-}
 
+    @Test
+    void testTransferRejectedWhenPoolSaturated() throws Exception {
+        doThrow(new CapacidadeEsgotadaException("Pool de conexões saturado. Tente novamente."))
+                .when(admissao).admitir();
+        TransferenciaDTO transferencia = new TransferenciaDTO(1L, 2L, new BigDecimal("100.00"));
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(transferencia)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+
+        verify(transferenciaService, never()).transfer(any(), any());
+    }
+
+    @Test
+    void testTransferBatch() throws Exception {
+        List<TransferenciaDTO> lote = List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("100.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("9999.00")));
+        List<TransferenciaResultadoDTO> resultados = List.of(
+                new TransferenciaResultadoDTO(0, lote.get(0), true, "Transferência realizada com sucesso"),
+                new TransferenciaResultadoDTO(1, lote.get(1), false, "Saldo insuficiente"));
+
+        when(service.transferBatch(anyList(), eq(false))).thenReturn(resultados);
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer/batch")
+                        .param("atomico", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(lote)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sucesso").value(true))
+                .andExpect(jsonPath("$[1].sucesso").value(false))
+                .andExpect(jsonPath("$[1].indice").value(1));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.service.BeneficioFatiaService;
+import com.example.backend.service.BeneficioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // Banco exclusivo: benefícios fatiados deixados por outros testes removeriam o ETag das listagens
+        "spring.datasource.url=jdbc:h2:mem:etag_test;LOCK_TIMEOUT=3000"
+})
+@AutoConfigureMockMvc
+class BeneficioEtagIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioFatiaService fatiaService;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testConditionalGetByIdFollowsVersion() throws Exception {
+        Long id = repository.save(new Beneficio("ETag", null, new BigDecimal("10.00"), true)).getId();
+
+        String etag = mockMvc.perform(get("/api/v1/beneficios/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/beneficios/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        service.update(id, new BeneficioDTO(null, "ETag alterado", null, new BigDecimal("10.00"), true, null));
+
+        String novo = mockMvc.perform(get("/api/v1/beneficios/{id}", id).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, novo);
+    }
+
+    @Test
+    void testFatiadoHasNoEtag() throws Exception {
+        Long id = repository.save(new Beneficio("ETag fatiado", null, new BigDecimal("10.00"), true)).getId();
+        fatiaService.habilitar(id, 2);
+        try {
+            mockMvc.perform(get("/api/v1/beneficios/{id}", id))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"));
+        } finally {
+            fatiaService.desabilitar(id);
+        }
+    }
+
+    @Test
+    void testConditionalGetOfListChangesOnInsert() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/beneficios/ativos"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/beneficios/ativos").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        repository.save(new Beneficio("ETag lista", null, BigDecimal.ONE, true));
+
+        mockMvc.perform(get("/api/v1/beneficios/ativos").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+
+    /**
+     * Um benefício sai da coleção e outro entra com a mesma quantidade, a mesma soma de versões
+     * e o mesmo maior ID: {id2 v1, id3 v0} passa a {id1 v1, id3 v0}.
+     */
+    @Test
+    void testConditionalGetOfListChangesWhenMembersSwap() throws Exception {
+        Long id1 = repository.save(new Beneficio("ETag troca 1", null, BigDecimal.ONE, false)).getId();
+        Long id2 = repository.save(new Beneficio("ETag troca 2", null, BigDecimal.ONE, true)).getId();
+        Beneficio ativo = repository.findById(id2).orElseThrow();
+        ativo.setDescricao("v1");
+        repository.save(ativo);
+        repository.save(new Beneficio("ETag troca 3", null, BigDecimal.ONE, true));
+
+        String etag = mockMvc.perform(get("/api/v1/beneficios/ativos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+
+        Beneficio desativado = repository.findById(id2).orElseThrow();
+        desativado.setAtivo(false);
+        repository.save(desativado);
+        Beneficio reativado = repository.findById(id1).orElseThrow();
+        reativado.setAtivo(true);
+        repository.save(reativado);
+
+        mockMvc.perform(get("/api/v1/beneficios/ativos").header("If-None-Match", etag))
+                .andExpect(status().isOk());
+    }
+}
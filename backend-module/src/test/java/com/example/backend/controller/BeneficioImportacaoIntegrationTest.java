@@ -0,0 +1,104 @@
+package com.example.backend.controller;
+
+import com.example.backend.BancosTeste;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", BancosTeste.MOCK_MVC})
+@AutoConfigureMockMvc
+class BeneficioImportacaoIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testCsvImportAcrossSeveralBatchesThenExport() throws Exception {
+        int quantidade = 2500;
+        StringBuilder csv = new StringBuilder("nome,descricao,valor,ativo\n");
+        for (int i = 0; i < quantidade; i++) {
+            csv.append("Importado ").append(i).append(",\"Lote, CSV\",").append(i + 1).append(".50,true\n");
+        }
+
+        mockMvc.perform(post("/api/v1/beneficios/import")
+                        .contentType("text/csv")
+                        .content(csv.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(quantidade))
+                .andExpect(jsonPath("$.rejeitados").value(0));
+
+        List<Beneficio> importados = repository.findAll().stream()
+                .filter(b -> b.getNome().startsWith("Importado "))
+                .toList();
+        assertEquals(quantidade, importados.size());
+        Set<Long> ids = new HashSet<>();
+        importados.forEach(b -> ids.add(b.getId()));
+        assertEquals(quantidade, ids.size());
+        assertEquals("Lote, CSV", importados.get(0).getDescricao());
+
+        // IDs distribuídos pelo Hibernate depois da importação não colidem com os reservados por ela
+        Beneficio novo = repository.save(new Beneficio("Depois da importação", null, BigDecimal.ONE, true));
+        assertFalse(ids.contains(novo.getId()));
+
+        MvcResult exportacao = mockMvc.perform(get("/api/v1/beneficios/export").accept("text/csv"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(exportacao)).andExpect(status().isOk());
+        String exportado = exportacao.getResponse().getContentAsString();
+        assertTrue(exportado.startsWith("id,nome,descricao,valor,ativo\n"));
+        assertTrue(exportado.contains(",Importado 10,\"Lote, CSV\",11.50,true\n"));
+    }
+
+    @Test
+    void testAtomicImportRejectsWholeFile() throws Exception {
+        String ndjson = "{\"nome\":\"Atomico 1\",\"valor\":10}\n"
+                + "{\"nome\":\"\",\"valor\":10}\n";
+
+        mockMvc.perform(post("/api/v1/beneficios/import")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isBadRequest());
+
+        assertTrue(repository.findAll().stream().noneMatch(b -> b.getNome().equals("Atomico 1")));
+    }
+
+    @Test
+    void testNonAtomicImportSkipsInvalidLines() throws Exception {
+        String ndjson = "{\"nome\":\"Parcial 1\",\"valor\":10}\n"
+                + "{\"nome\":\"Parcial 2\",\"valor\":-1}\n"
+                + "nao e json\n"
+                + "{\"nome\":\"Parcial 3\",\"valor\":5,\"ativo\":false}\n";
+
+        mockMvc.perform(post("/api/v1/beneficios/import")
+                        .param("atomico", "false")
+                        .contentType("application/x-ndjson")
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(2))
+                .andExpect(jsonPath("$.rejeitados").value(2))
+                .andExpect(jsonPath("$.erros[0]").value("Linha 2: Valor deve ser maior que zero"))
+                .andExpect(jsonPath("$.erros[1]").value("Linha 3: JSON inválido"));
+
+        assertTrue(repository.findAll().stream()
+                .anyMatch(b -> b.getNome().equals("Parcial 3") && !b.getAtivo()));
+    }
+}
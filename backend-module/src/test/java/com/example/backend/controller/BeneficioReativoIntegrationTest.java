@@ -0,0 +1,70 @@
+package com.example.backend.controller;
+
+import com.example.backend.BancosTeste;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", BancosTeste.MOCK_MVC})
+@AutoConfigureMockMvc
+class BeneficioReativoIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testFindByIdReadsRowWrittenByJpa() throws Exception {
+        Long id = repository.save(new Beneficio("Reativo", "Leitura R2DBC", new BigDecimal("42.50"), true)).getId();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/reativo/beneficios/{id}", id))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andExpect(jsonPath("$.nome").value("Reativo"))
+                .andExpect(jsonPath("$.valor").value(42.50));
+    }
+
+    @Test
+    void testFindByIdNotFound() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/v1/reativo/beneficios/{id}", Long.MAX_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testStreamAtivosAsNdjson() throws Exception {
+        Long ativo = repository.save(new Beneficio("Reativo ativo", null, BigDecimal.TEN, true)).getId();
+        Long inativo = repository.save(new Beneficio("Reativo inativo", null, BigDecimal.ONE, false)).getId();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/reativo/beneficios/ativos")
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult();
+
+        String corpo = result.getResponse().getContentAsString();
+        assertTrue(corpo.lines().anyMatch(linha -> linha.contains("\"id\":" + ativo + ",")));
+        assertTrue(corpo.lines().noneMatch(linha -> linha.contains("\"id\":" + inativo + ",")));
+    }
+}
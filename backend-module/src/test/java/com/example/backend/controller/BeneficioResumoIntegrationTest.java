@@ -0,0 +1,82 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.ResumoBeneficiosDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import com.example.backend.resumo.ResumoBeneficios;
+import com.example.backend.service.BeneficioFatiaService;
+import com.example.backend.service.BeneficioService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // Banco exclusivo: os totais conferidos são os do banco inteiro
+        "spring.datasource.url=jdbc:h2:mem:resumo_test;LOCK_TIMEOUT=3000"
+})
+@AutoConfigureMockMvc
+class BeneficioResumoIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioFatiaService fatiaService;
+
+    @Autowired
+    private BeneficioJdbcRepository jdbcRepository;
+
+    @Autowired
+    private ResumoBeneficios resumo;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSummaryFollowsCommittedChangesAndMatchesDatabase() throws Exception {
+        BeneficioDTO a = service.create(new BeneficioDTO(null, "Resumo A", null, new BigDecimal("100.00"), true, null));
+        BeneficioDTO b = service.create(new BeneficioDTO(null, "Resumo B", null, new BigDecimal("40.00"), true, null));
+        BeneficioDTO c = service.create(new BeneficioDTO(null, "Resumo C", null, new BigDecimal("10.00"), true, null));
+        fatiaService.habilitar(b.getId(), 4);
+        mockMvc.perform(post("/api/v1/beneficios/import")
+                        .contentType("application/x-ndjson")
+                        .content("{\"nome\":\"Resumo inativo\",\"valor\":7.5,\"ativo\":false}\n"))
+                .andExpect(status().isOk());
+
+        BigDecimal totalAntes = service.findResumo().getSaldoTotal();
+        service.transfer(new TransferenciaDTO(a.getId(), b.getId(), new BigDecimal("30.00")));
+        assertEquals(0, totalAntes.compareTo(service.findResumo().getSaldoTotal()));
+
+        service.update(a.getId(), new BeneficioDTO(null, "Resumo A", null, new BigDecimal("70.00"), false, null));
+        service.update(b.getId(), new BeneficioDTO(null, "Resumo B", null, new BigDecimal("50.00"), true, null));
+        service.delete(c.getId());
+
+        assertTrue(service.findResumo().mesmosTotais(jdbcRepository.resumo()));
+        resumo.reconciliar();
+        assertNull(meterRegistry.find("beneficio.resumo.reconciliacoes").tag("resultado", "corrigido").counter());
+
+        ResumoBeneficiosDTO banco = jdbcRepository.resumo();
+        mockMvc.perform(get("/api/v1/beneficios/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantidade").value(banco.getQuantidade()))
+                .andExpect(jsonPath("$.quantidadeAtivos").value(banco.getQuantidadeAtivos()))
+                .andExpect(jsonPath("$.saldoInativos").value(banco.getSaldoInativos().doubleValue()))
+                .andExpect(jsonPath("$.reconciliadoEm").exists());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.backend.controller;
+
+import com.example.backend.BancosTeste;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.service.BeneficioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", BancosTeste.MOCK_MVC})
+@AutoConfigureMockMvc
+class BeneficioStreamIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testTransferPushesDeltasAfterCommit() throws Exception {
+        Long origem = repository.save(new Beneficio("Stream origem", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Stream destino", null, BigDecimal.ZERO, true)).getId();
+
+        MvcResult result = mockMvc.perform(get("/api/v1/beneficios/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        service.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("30.00")));
+
+        MockHttpServletResponse response = result.getResponse();
+        String esperadoOrigem = "\"id\":" + origem + ",\"valor\":70.00";
+        String esperadoDestino = "\"id\":" + destino + ",\"valor\":30.00";
+        long limite = System.currentTimeMillis() + 5000;
+        String corpo = response.getContentAsString();
+        while (!(corpo.contains(esperadoOrigem) && corpo.contains(esperadoDestino))
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            corpo = response.getContentAsString();
+        }
+        assertTrue(corpo.contains("event:delta"), corpo);
+        assertTrue(corpo.contains(esperadoOrigem), corpo);
+        assertTrue(corpo.contains(esperadoDestino), corpo);
+    }
+}
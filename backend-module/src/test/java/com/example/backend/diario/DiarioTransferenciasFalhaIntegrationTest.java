@@ -0,0 +1,104 @@
+package com.example.backend.diario;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.TransferenciaJdbcRepository;
+import com.example.backend.service.TransferenciaService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:diario_falha_test;LOCK_TIMEOUT=3000"
+})
+/**
+ * Falha do {@code fsync} do diário: a transferência falha e é desfeita no banco, e o
+ * registro que chegou ao segmento é estornado na subida seguinte.
+ */
+class DiarioTransferenciasFalhaIntegrationTest {
+
+    @TempDir
+    static Path diretorio;
+
+    @TestConfiguration
+    static class DiarioComFalha {
+
+        @Bean
+        DiarioTransferencias diarioTransferencias(BeneficioMetricas metricas,
+                                                  TransferenciaJdbcRepository transferenciaJdbcRepository)
+                throws IOException {
+            return new DiarioTransferencias(diretorio, DataSize.ofMegabytes(1), Duration.ZERO, metricas,
+                    transferenciaJdbcRepository) {
+                @Override
+                void forcar(MappedByteBuffer buffer, int inicio, int tamanho) {
+                    throw new UncheckedIOException(new IOException("Erro de E/S simulado"));
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private TransferenciaJdbcRepository transferenciaJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testFsyncFailureFailsTransferAndIsReversedOnRestart() throws Exception {
+        Long origem = repository.save(new Beneficio("Falha A", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Falha B", null, new BigDecimal("0.00"), true)).getId();
+
+        assertThrows(UncheckedIOException.class, () -> transferenciaService.transfer(
+                new TransferenciaDTO(origem, destino, new BigDecimal("30.00")), null));
+        assertEquals(0, new BigDecimal("100.00").compareTo(repository.findById(origem).orElseThrow().getValor()));
+        assertEquals(0, new BigDecimal("0.00").compareTo(repository.findById(destino).orElseThrow().getValor()));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM TRANSFERENCIA WHERE ORIGEM_ID = ?", Long.class, origem));
+
+        // O registro foi escrito no mapeamento antes do fsync e pode ter chegado ao disco
+        List<RegistroTransferencia> registros = new ArrayList<>();
+        LeitorDiario.reproduzir(diretorio, 0, registros::add);
+        assertEquals(1, registros.size());
+        assertEquals(origem, registros.get(0).getOrigemId());
+
+        // Subida seguinte: o registro sem linha em TRANSFERENCIA é estornado
+        DiarioTransferencias reaberto = new DiarioTransferencias(diretorio, DataSize.ofMegabytes(1), Duration.ZERO,
+                new BeneficioMetricas(new SimpleMeterRegistry()), transferenciaJdbcRepository);
+        reaberto.reconciliar();
+        reaberto.close();
+
+        registros.clear();
+        LeitorDiario.reproduzir(diretorio, 0, registros::add);
+        assertEquals(RegistroTransferencia.Tipo.ESTORNO, registros.get(1).getTipo());
+        assertEquals(registros.get(0).getTransferenciaId(), registros.get(1).getTransferenciaId());
+        assertEquals(Map.of(), LeitorDiario.variacoes(diretorio, Instant.now()));
+    }
+}
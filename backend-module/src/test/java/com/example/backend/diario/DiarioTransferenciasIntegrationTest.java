@@ -0,0 +1,93 @@
+package com.example.backend.diario;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.service.BeneficioService;
+import com.example.backend.service.TransferenciaService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:diario_test;LOCK_TIMEOUT=3000",
+        "beneficio.diario.habilitado=true"
+})
+/**
+ * Diário binário ligado ao ledger: a transferência confirmada já está no diário, com o ID
+ * no ledger e as versões resultantes; transferências rejeitadas não aparecem.
+ */
+class DiarioTransferenciasIntegrationTest {
+
+    @TempDir
+    static Path diretorio;
+
+    @DynamicPropertySource
+    static void diario(DynamicPropertyRegistry registry) {
+        registry.add("beneficio.diario.diretorio", () -> diretorio.toString());
+    }
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private DiarioTransferencias diario;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAcceptedTransfersAreJournaledBeforeReturning() throws Exception {
+        Long origem = repository.save(new Beneficio("Diario A", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Diario B", null, new BigDecimal("0.00"), true)).getId();
+        long inicio = diario.getUltimaSequencia();
+
+        transferenciaService.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("30.00")), null);
+        assertThrows(IllegalStateException.class, () -> transferenciaService.transfer(
+                new TransferenciaDTO(origem, destino, new BigDecimal("70.01")), null));
+        service.transferBatch(List.of(
+                new TransferenciaDTO(destino, origem, new BigDecimal("5.00")),
+                new TransferenciaDTO(origem, destino, new BigDecimal("1.50"))), true);
+
+        List<RegistroTransferencia> registros = new ArrayList<>();
+        assertEquals(inicio + 3, LeitorDiario.reproduzir(diretorio, inicio, registros::add));
+        assertEquals(3, registros.size());
+
+        RegistroTransferencia primeiro = registros.get(0);
+        assertEquals(RegistroTransferencia.Tipo.TRANSFERENCIA, primeiro.getTipo());
+        assertEquals(jdbcTemplate.queryForObject("SELECT MIN(ID) FROM TRANSFERENCIA WHERE ORIGEM_ID = ?",
+                Long.class, origem), primeiro.getTransferenciaId());
+        assertEquals(origem, primeiro.getOrigemId());
+        assertEquals(destino, primeiro.getDestinoId());
+        assertEquals(3000, primeiro.getCentavos());
+        assertEquals(repository.findById(origem).orElseThrow().getVersion() - 1, primeiro.getVersaoOrigem());
+
+        // No lote, todos os itens levam a versão final dos benefícios
+        assertEquals(500, registros.get(1).getCentavos());
+        assertEquals(registros.get(1).getTransferenciaId() + 1, registros.get(2).getTransferenciaId());
+        assertEquals(150, registros.get(2).getCentavos());
+        assertEquals(repository.findById(destino).orElseThrow().getVersion(), registros.get(1).getVersaoOrigem());
+        assertEquals(repository.findById(origem).orElseThrow().getVersion(), registros.get(2).getVersaoOrigem());
+
+        assertEquals(-2650L, LeitorDiario.variacoes(diretorio, Instant.now()).get(origem));
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.backend.diario;
+
+import com.example.backend.event.TransferenciasAceitasEvent;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.TransferenciaJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DiarioTransferenciasTest {
+
+    /** Dez registros por segmento. */
+    private static final DataSize SEGMENTO = DataSize.ofBytes(RegistroTransferencia.TAMANHO * 10L);
+
+    @TempDir
+    Path diretorio;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void testConcurrentAppendsRollSegmentsAndReplayInOrder() throws Exception {
+        DiarioTransferencias diario = abrir(Duration.ofMillis(1));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < 95; i++) {
+            long origem = i % 5;
+            futures.add(executor.submit(() -> diario.registrar(List.of(item(origem, origem + 1, 100))).join()));
+        }
+        for (Future<Long> future : futures) {
+            assertTrue(future.get() >= 1);
+        }
+        executor.shutdown();
+        diario.close();
+
+        // 95 transferências e o fechamento
+        assertEquals(10, SegmentoDiario.listar(diretorio).size());
+        List<RegistroTransferencia> registros = new ArrayList<>();
+        assertEquals(96, LeitorDiario.reproduzir(diretorio, 0, registros::add));
+        for (int i = 0; i < registros.size(); i++) {
+            assertEquals(i + 1, registros.get(i).getSequencia());
+        }
+        assertEquals(RegistroTransferencia.Tipo.FECHAMENTO, registros.get(95).getTipo());
+        // Group commit: menos fsyncs que registros
+        assertTrue(meterRegistry.get("beneficio.diario.lote").summary().count() < 96);
+        assertEquals(96, meterRegistry.get("beneficio.diario.lote").summary().totalAmount());
+
+        List<RegistroTransferencia> aPartirDe = new ArrayList<>();
+        assertEquals(96, LeitorDiario.reproduzir(diretorio, 37, aPartirDe::add));
+        assertEquals(59, aPartirDe.size());
+        assertEquals(38, aPartirDe.get(0).getSequencia());
+    }
+
+    @Test
+    void testReopenDiscardsUnsyncedTailAndContinuesSequence() throws Exception {
+        DiarioTransferencias diario = abrir(Duration.ZERO);
+        diario.registrar(List.of(item(1, 2, 500), item(2, 3, 200))).join();
+        diario.registrar(List.of(new TransferenciasAceitasEvent.Item(3, 3, 1, 50, 7L, null))).join();
+        diario.close();
+
+        // Simula uma queda: o registro 6 chegou ao disco sem o 5 (que ficou pela metade)
+        Path arquivo = SegmentoDiario.arquivo(diretorio, 1);
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RegistroTransferencia.TAMANHO);
+            new RegistroTransferencia(6, 0, RegistroTransferencia.Tipo.TRANSFERENCIA, 9, 9, 8, 999, 0, 0)
+                    .escrever(buffer, 0, new CRC32());
+            canal.write(buffer, 5L * RegistroTransferencia.TAMANHO);
+            canal.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 4L * RegistroTransferencia.TAMANHO);
+        }
+
+        DiarioTransferencias reaberto = abrir(Duration.ZERO);
+        assertEquals(4, reaberto.getUltimaSequencia());
+        assertEquals(5L, reaberto.registrar(List.of(item(1, 3, 10))).join());
+        reaberto.close();
+
+        List<RegistroTransferencia> registros = new ArrayList<>();
+        assertEquals(6, LeitorDiario.reproduzir(diretorio, 0, registros::add));
+        assertEquals(3, registros.get(2).getTransferenciaId());
+        assertEquals(7, registros.get(2).getVersaoOrigem());
+        assertEquals(RegistroTransferencia.SEM_VERSAO, registros.get(2).getVersaoDestino());
+        assertEquals(RegistroTransferencia.Tipo.FECHAMENTO, registros.get(3).getTipo());
+        assertEquals(10, registros.get(4).getCentavos());
+
+        Map<Long, Long> variacoes = LeitorDiario.variacoes(diretorio, Instant.now());
+        assertEquals(Map.of(1L, -460L, 2L, 300L, 3L, 160L), variacoes);
+        assertTrue(LeitorDiario.variacoes(diretorio, Instant.ofEpochMilli(registros.get(0).getInstante() - 1)).isEmpty());
+    }
+
+    @Test
+    void testClosedJournalRejectsAppends() {
+        DiarioTransferencias diario = abrir(Duration.ZERO);
+        diario.close();
+
+        CompletableFuture<Long> confirmacao = diario.registrar(List.of(item(1, 2, 1)));
+        assertTrue(confirmacao.isCompletedExceptionally());
+        assertThrows(UncheckedIOException.class, () -> diario.onTransferenciasAceitas(
+                new TransferenciasAceitasEvent(List.of(item(1, 2, 1)))));
+    }
+
+    @Test
+    void testRolledBackTransfersAreReversed() throws Exception {
+        DiarioTransferencias diario = abrir(Duration.ZERO);
+        TransferenciasAceitasEvent confirmada = new TransferenciasAceitasEvent(List.of(item(1, 2, 100)));
+        TransferenciasAceitasEvent desfeita = new TransferenciasAceitasEvent(List.of(item(2, 3, 40)));
+        diario.onTransferenciasAceitas(confirmada);
+        diario.onTransferenciasConfirmadas(confirmada);
+        diario.onTransferenciasAceitas(desfeita);
+        diario.onTransferenciasDesfeitas(desfeita);
+        // Transação desfeita sem registro no diário: nada a estornar
+        diario.onTransferenciasDesfeitas(new TransferenciasAceitasEvent(List.of(item(9, 8, 1))));
+        diario.close();
+
+        List<RegistroTransferencia> registros = new ArrayList<>();
+        assertEquals(4, LeitorDiario.reproduzir(diretorio, 0, registros::add));
+        assertEquals(RegistroTransferencia.Tipo.ESTORNO, registros.get(2).getTipo());
+        assertEquals(registros.get(1).getTransferenciaId(), registros.get(2).getTransferenciaId());
+        assertEquals(Map.of(1L, -100L, 2L, 100L), LeitorDiario.variacoes(diretorio, Instant.now()));
+    }
+
+    @Test
+    void testStartupAfterCrashReversesRecordsMissingFromLedger() throws Exception {
+        TransferenciaJdbcRepository repositorio = mock(TransferenciaJdbcRepository.class);
+        DiarioTransferencias diario = abrir(Duration.ZERO, repositorio);
+        diario.reconciliar();
+        TransferenciasAceitasEvent confirmada = new TransferenciasAceitasEvent(List.of(
+                new TransferenciasAceitasEvent.Item(10, 1, 2, 100, 1L, 1L)));
+        diario.onTransferenciasAceitas(confirmada);
+        diario.onTransferenciasConfirmadas(confirmada);
+        // Encerrado com a transação da transferência 11 em andamento, como em uma queda
+        // entre o registro e o commit: sem fechamento
+        diario.onTransferenciasAceitas(new TransferenciasAceitasEvent(List.of(
+                new TransferenciasAceitasEvent.Item(11, 2, 3, 40, 1L, 1L))));
+        diario.close();
+
+        when(repositorio.findIdsExistentes(any())).thenReturn(Set.of(10L));
+        DiarioTransferencias reaberto = abrir(Duration.ZERO, repositorio);
+        reaberto.reconciliar();
+        reaberto.close();
+
+        List<RegistroTransferencia> registros = new ArrayList<>();
+        assertEquals(4, LeitorDiario.reproduzir(diretorio, 0, registros::add));
+        assertEquals(RegistroTransferencia.Tipo.ESTORNO, registros.get(2).getTipo());
+        assertEquals(11, registros.get(2).getTransferenciaId());
+        assertEquals(RegistroTransferencia.Tipo.FECHAMENTO, registros.get(3).getTipo());
+        assertEquals(Map.of(1L, -100L, 2L, 100L), LeitorDiario.variacoes(diretorio, Instant.now()));
+
+        // Após o fechamento limpo, a subida não confere nada
+        TransferenciaJdbcRepository outro = mock(TransferenciaJdbcRepository.class);
+        DiarioTransferencias limpo = abrir(Duration.ZERO, outro);
+        limpo.reconciliar();
+        limpo.close();
+        verify(outro, never()).findIdsExistentes(any());
+    }
+
+    private DiarioTransferencias abrir(Duration janela) {
+        return abrir(janela, null);
+    }
+
+    private DiarioTransferencias abrir(Duration janela, TransferenciaJdbcRepository repositorio) {
+        try {
+            return new DiarioTransferencias(diretorio, SEGMENTO, janela, new BeneficioMetricas(meterRegistry),
+                    repositorio);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TransferenciasAceitasEvent.Item item(long origemId, long destinoId, long centavos) {
+        return new TransferenciasAceitasEvent.Item(origemId * 100 + destinoId, origemId, destinoId, centavos, 1L, 1L);
+    }
+}
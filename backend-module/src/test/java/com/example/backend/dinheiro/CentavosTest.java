@@ -0,0 +1,62 @@
+package com.example.backend.dinheiro;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.ejb.Centavos;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CentavosTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testConversionFromBigDecimal() {
+        assertEquals(1050L, Centavos.de(new BigDecimal("10.5")));
+        assertEquals(-1L, Centavos.de(new BigDecimal("-0.010")));
+        assertEquals(Centavos.MAXIMO, Centavos.de(new BigDecimal("9999999999999.99")));
+        assertEquals(new BigDecimal("10.50"), Centavos.paraBigDecimal(1050L));
+
+        assertThrows(IllegalArgumentException.class, () -> Centavos.de(new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class, () -> Centavos.de(new BigDecimal("10000000000000")));
+    }
+
+    @Test
+    void testFormatMatchesPlainString() {
+        for (long centavos : new long[] {0L, 5L, -5L, 100L, 1050L, -123456L, Centavos.MAXIMO}) {
+            assertEquals(Centavos.paraBigDecimal(centavos).toPlainString(), Centavos.formatar(centavos));
+        }
+    }
+
+    @Test
+    void testParseDecimalText() {
+        assertEquals(1000L, ler("10"));
+        assertEquals(-50L, ler("-0.5"));
+        assertEquals(10025L, ler("100.2500"));
+        assertEquals(Centavos.MAXIMO, ler("9999999999999.99"));
+
+        for (String invalido : new String[] {"", "-", ".", "1.", "1.001", "1,5", "1e2", "10000000000000"}) {
+            assertThrows(NumberFormatException.class, () -> ler(invalido), invalido);
+        }
+    }
+
+    @Test
+    void testTransferAmountJsonRoundTrip() throws Exception {
+        TransferenciaDTO dto = objectMapper.readValue("{\"fromId\":1,\"toId\":2,\"amount\":150.5}", TransferenciaDTO.class);
+
+        assertEquals(15050L, dto.getAmountCentavos());
+        assertEquals(new BigDecimal("150.50"), dto.getAmount());
+        assertEquals("{\"fromId\":1,\"toId\":2,\"amount\":150.50}", objectMapper.writeValueAsString(dto));
+        assertEquals(20000L, objectMapper.readValue("{\"amount\":2e2}", TransferenciaDTO.class).getAmountCentavos());
+        assertThrows(JsonMappingException.class,
+                () -> objectMapper.readValue("{\"amount\":0.001}", TransferenciaDTO.class));
+    }
+
+    private static long ler(String texto) {
+        return Centavos.ler(texto.toCharArray(), 0, texto.length());
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.backend.metrics;
+
+import com.example.backend.BancosTeste;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.service.BeneficioService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", BancosTeste.METRICAS})
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricasIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testPrometheusExposesTransferPoolAndRepositoryMetrics() throws Exception {
+        Long origem = repository.save(new Beneficio("Métricas origem", null, new BigDecimal("10.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Métricas destino", null, BigDecimal.ZERO, true)).getId();
+        service.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("5.00")));
+        assertThrows(IllegalStateException.class,
+                () -> service.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("50.00"))));
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("beneficio_transferencia_seconds_bucket{resultado=\"sucesso\"")))
+                .andExpect(content().string(containsString("beneficio_transferencia_rejeicoes_total{motivo=\"saldo_insuficiente\"")))
+                .andExpect(content().string(containsString("beneficio_lock_espera_seconds_count{alvo=\"beneficio\"")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{pool=\"beneficio\"")));
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backend.motor;
+
+import com.example.backend.diario.LeitorDiario;
+import com.example.backend.diario.RegistroTransferencia;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.TransferenciaJdbcRepository;
+import com.example.backend.service.TransferenciaLedgerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:motor_recuperacao_test;LOCK_TIMEOUT=3000"
+})
+/**
+ * Queda do motor após confirmar transferências e antes de gravá-las no banco: na subida
+ * seguinte o diário é reaplicado uma única vez, e um registro final incompleto é ignorado.
+ * Confirmações fora de ordem só chegam ao banco quando a sequência fica contígua.
+ */
+class MotorRecuperacaoIntegrationTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Autowired
+    private TransferenciaJdbcRepository transferenciaJdbcRepository;
+
+    @Autowired
+    private BeneficioJdbcRepository beneficioJdbcRepository;
+
+    @Autowired
+    private TransferenciaLedgerService ledgerService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCrashRecoveryReplaysJournalOnce() throws Exception {
+        Long origem = repository.save(new Beneficio("Origem", null, new BigDecimal("1000.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Destino", null, new BigDecimal("0.00"), true)).getId();
+
+        MotorTransferencias motor = novoMotor();
+        motor.iniciar();
+        for (int i = 0; i < 10; i++) {
+            motor.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("10.00")));
+        }
+        // Queda: nada chegou ao banco; o último registro ficou pela metade
+        motor.parar();
+        assertEquals(0L, transferenciaJdbcRepository.maxSequenciaMotor());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(valor(origem)));
+        List<RegistroTransferencia> registros = new ArrayList<>();
+        LeitorDiario.reproduzir(diretorio, 0, registros::add);
+        assertEquals(10, registros.stream()
+                .filter(registro -> registro.getTipo() == RegistroTransferencia.Tipo.TRANSFERENCIA).count());
+        try (Stream<Path> segmentos = Files.list(diretorio);
+             FileChannel canal = FileChannel.open(segmentos.findFirst().orElseThrow(), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 10L * RegistroTransferencia.TAMANHO);
+        }
+
+        MotorTransferencias recuperado = novoMotor();
+        recuperado.iniciar();
+        assertEquals(0, new BigDecimal("900.00").compareTo(valor(origem)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(valor(destino)));
+        assertEquals(90000L, recuperado.saldo(origem));
+        assertEquals(10000L, recuperado.saldo(destino));
+        assertEquals(10L, transferenciaJdbcRepository.maxSequenciaMotor());
+
+        recuperado.transfer(new TransferenciaDTO(destino, origem, new BigDecimal("25.00")));
+        recuperado.parar();
+        MotorTransferencias novamente = novoMotor();
+        novamente.iniciar();
+        novamente.encerrar();
+
+        assertEquals(0, new BigDecimal("925.00").compareTo(valor(origem)));
+        assertEquals(0, new BigDecimal("75.00").compareTo(valor(destino)));
+        assertEquals(11L, transferenciaJdbcRepository.maxSequenciaMotor());
+        assertEquals(11L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT SEQUENCIA_MOTOR) FROM TRANSFERENCIA WHERE SEQUENCIA_MOTOR IS NOT NULL", Long.class));
+        assertEquals(11L, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM TRANSFERENCIA WHERE SEQUENCIA_MOTOR IS NOT NULL", Long.class));
+    }
+
+    @Test
+    void testPersistsOnlyContiguousSequences() {
+        Long origem = repository.save(new Beneficio("Origem", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Destino", null, new BigDecimal("0.00"), true)).getId();
+        MotorTransferencias motor = novoMotor();
+        motor.iniciar();
+        long persistida = transferenciaJdbcRepository.maxSequenciaMotor();
+        try {
+            // A confirmação da sequência seguinte chega antes: o primeiro lote não grava nada,
+            // senão a recuperação partiria dela e perderia a anterior
+            motor.duravel(new Movimento(persistida + 2, origem, destino, 200, System.currentTimeMillis()));
+            motor.persistir();
+            assertEquals(persistida, transferenciaJdbcRepository.maxSequenciaMotor());
+
+            motor.duravel(new Movimento(persistida + 1, origem, destino, 100, System.currentTimeMillis()));
+            motor.persistir();
+            assertEquals(persistida + 2, transferenciaJdbcRepository.maxSequenciaMotor());
+            assertEquals(List.of(persistida + 1, persistida + 2), jdbcTemplate.queryForList(
+                    "SELECT SEQUENCIA_MOTOR FROM TRANSFERENCIA WHERE SEQUENCIA_MOTOR > ? ORDER BY ID",
+                    Long.class, persistida));
+        } finally {
+            motor.parar();
+            jdbcTemplate.update("DELETE FROM TRANSFERENCIA WHERE SEQUENCIA_MOTOR > ?", persistida);
+        }
+    }
+
+    private MotorTransferencias novoMotor() {
+        return new MotorTransferencias(transferenciaJdbcRepository, beneficioJdbcRepository, ledgerService,
+                transactionManager, eventPublisher, new BeneficioMetricas(new SimpleMeterRegistry()), diretorio,
+                DataSize.ofKilobytes(64), 2, 100);
+    }
+
+    private BigDecimal valor(Long id) {
+        return repository.findById(id).orElseThrow().getValor();
+    }
+}
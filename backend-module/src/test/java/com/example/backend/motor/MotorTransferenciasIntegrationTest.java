@@ -0,0 +1,228 @@
+package com.example.backend.motor;
+
+import com.example.backend.diario.LeitorDiario;
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.exception.ChaveIdempotenciaReservadaException;
+import com.example.backend.service.BeneficioFatiaService;
+import com.example.backend.service.BeneficioService;
+import com.example.backend.service.IdempotenciaService;
+import com.example.backend.service.TransferenciaService;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:motor_test;LOCK_TIMEOUT=3000",
+        "beneficio.transferencia.estrategia=motor",
+        "beneficio.diario.habilitado=true",
+        "beneficio.motor.intervalo-persistencia=3600000",
+        "beneficio.motor.tamanho-segmento=8KB"
+})
+/**
+ * Motor de transferências como estratégia da aplicação: transferências cruzadas entre
+ * partições, rejeições com as mesmas exceções do caminho JPA e gravação no ledger e no
+ * diário de auditoria.
+ */
+class MotorTransferenciasIntegrationTest {
+
+    private static final int THREADS = 4;
+    private static final int TRANSFERENCIAS_POR_THREAD = 250;
+
+    @TempDir
+    static Path diretorio;
+
+    @DynamicPropertySource
+    static void diario(DynamicPropertyRegistry registry) {
+        registry.add("beneficio.motor.diretorio", () -> diretorio.resolve("motor").toString());
+        registry.add("beneficio.diario.diretorio", () -> diretorio.resolve("auditoria").toString());
+    }
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioFatiaService fatiaService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private MotorTransferencias motor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCrossedTransfersPersistedThroughLedger() throws Exception {
+        Long idA = criar("Motor A", "1000.00");
+        Long idB = criar("Motor B", "1000.00");
+        Long idC = criar("Motor C", "0.00");
+        // Movimentos de outros testes ainda em memória entram na contagem inicial
+        persistirEAplicar();
+        long movimentos = contarMovimentosMotor();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean aParaB = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    transferenciaService.transfer(aParaB
+                            ? new TransferenciaDTO(idA, idB, new BigDecimal("1.00"))
+                            : new TransferenciaDTO(idB, idA, new BigDecimal("1.00")), null);
+                    if (i % 50 == 0) {
+                        transferenciaService.transfer(new TransferenciaDTO(idA, idC, new BigDecimal("0.01")), null);
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        int paraC = THREADS * TRANSFERENCIAS_POR_THREAD / 50;
+        assertEquals(100000L - paraC, motor.saldo(idA));
+        assertEquals(100000L, motor.saldo(idB));
+        assertEquals(paraC, motor.saldo(idC));
+
+        persistirEAplicar();
+        assertEquals(movimentos + THREADS * TRANSFERENCIAS_POR_THREAD + paraC, contarMovimentosMotor());
+        // Lidos do banco: o cache só é atualizado após o commit da aplicação
+        assertEquals(0, new BigDecimal("1000.00").subtract(new BigDecimal(paraC).movePointLeft(2))
+                .compareTo(valor(idA)));
+        assertEquals(0, new BigDecimal("1000.00").compareTo(valor(idB)));
+        assertEquals(0, new BigDecimal(paraC).movePointLeft(2).compareTo(valor(idC)));
+        // Os segmentos do diário do motor já gravados no ledger são apagados; o corrente fica
+        try (Stream<Path> segmentos = Files.list(diretorio.resolve("motor"))) {
+            assertEquals(1, segmentos.count());
+        }
+        // Gravados no ledger, os movimentos do motor entram no diário de auditoria com o ID
+        assertEquals(paraC, LeitorDiario.variacoes(diretorio.resolve("auditoria"), Instant.now()).get(idC));
+    }
+
+    @Test
+    void testRejectionsMatchJpaPath() {
+        Long origem = criar("Origem", "10.00");
+        Long destino = criar("Destino", "0.00");
+        Long inativo = service.create(new BeneficioDTO(null, "Inativo", null, new BigDecimal("10.00"), false, null))
+                .getId();
+
+        IllegalStateException saldo = assertThrows(IllegalStateException.class, () -> transferenciaService.transfer(
+                new TransferenciaDTO(origem, destino, new BigDecimal("10.01")), null));
+        assertEquals("Saldo insuficiente. Saldo atual: 10.00, Valor solicitado: 10.01", saldo.getMessage());
+        IllegalStateException status = assertThrows(IllegalStateException.class, () -> transferenciaService.transfer(
+                new TransferenciaDTO(inativo, destino, BigDecimal.ONE), null));
+        assertEquals("Benefício de origem não está ativo", status.getMessage());
+        assertThrows(EntityNotFoundException.class, () -> transferenciaService.transfer(
+                new TransferenciaDTO(origem, Long.MAX_VALUE, BigDecimal.ONE), null));
+        assertThrows(IllegalArgumentException.class, () -> transferenciaService.transfer(
+                new TransferenciaDTO(origem, origem, BigDecimal.ONE), null));
+
+        transferenciaService.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("10.00")), null);
+        assertEquals(0L, motor.saldo(origem));
+        assertEquals(1000L, motor.saldo(destino));
+    }
+
+    @Test
+    void testBalanceWritesOutsideMotorRejected() {
+        Long origem = criar("Único escritor", "10.00");
+        Long destino = criar("Único escritor destino", "0.00");
+
+        assertThrows(IllegalStateException.class, () -> service.update(origem,
+                new BeneficioDTO(origem, "Único escritor", null, new BigDecimal("99.00"), true, null)));
+        assertThrows(IllegalStateException.class, () -> service.transferBatch(
+                List.of(new TransferenciaDTO(origem, destino, BigDecimal.ONE)), true));
+        assertThrows(IllegalStateException.class, () -> fatiaService.habilitar(origem, 4));
+        assertThrows(IllegalStateException.class, () -> fatiaService.desabilitar(origem));
+        assertEquals(0, new BigDecimal("10.00").compareTo(service.findById(origem).getValor()));
+        assertEquals(1000L, motor.saldo(origem));
+
+        // Sem alterar o valor, o PUT continua aceito
+        assertEquals("Renomeado", service.update(origem,
+                new BeneficioDTO(origem, "Renomeado", null, new BigDecimal("10.00"), true, null)).getNome());
+    }
+
+    @Test
+    void testIdempotencyKeyReservedBeforeMotorConfirmation() {
+        Long origem = criar("Idempotente", "10.00");
+        Long destino = criar("Idempotente destino", "0.00");
+        TransferenciaDTO excessiva = new TransferenciaDTO(origem, destino, new BigDecimal("20.00"));
+        TransferenciaDTO dto = new TransferenciaDTO(origem, destino, new BigDecimal("1.00"));
+
+        // Recusada pelo motor: a reserva é desfeita e a chave pode ser reutilizada
+        assertThrows(IllegalStateException.class, () -> transferenciaService.transfer(excessiva,
+                idempotenciaService.requisicao("motor-recusada", "transferir", excessiva)));
+        assertEquals(0, contarChaves("motor-recusada"));
+
+        transferenciaService.transfer(dto, idempotenciaService.requisicao("motor-1", "transferir", dto));
+        assertEquals(900L, motor.saldo(origem));
+        assertTrue(idempotenciaService.buscarResposta(
+                idempotenciaService.requisicao("motor-1", "transferir", dto)).isPresent());
+
+        // Chave reservada cuja resposta não foi gravada após a confirmação do motor: a
+        // repetição falha em vez de transferir de novo
+        IdempotenciaService.Requisicao semResposta = idempotenciaService.requisicao("motor-2", "transferir", dto);
+        jdbcTemplate.update("INSERT INTO IDEMPOTENCIA (CHAVE, OPERACAO, HASH_REQUISICAO, CRIADA_EM) "
+                        + "VALUES (?, ?, ?, CURRENT_TIMESTAMP)",
+                semResposta.getChave(), semResposta.getOperacao(), semResposta.getHashRequisicao());
+        assertThrows(ChaveIdempotenciaReservadaException.class, () -> transferenciaService.transfer(dto, semResposta));
+        assertEquals(900L, motor.saldo(origem));
+    }
+
+    private Long criar(String nome, String valor) {
+        return service.create(new BeneficioDTO(null, nome, null, new BigDecimal(valor), true, null)).getId();
+    }
+
+    private void persistirEAplicar() throws InterruptedException {
+        motor.persistir();
+        // Os movimentos gravados pelo motor são materializados pelo aplicador agendado; aplicar
+        // daqui concorreria com ele pelos mesmos pendentes
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (contarPendentes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(50);
+        }
+    }
+
+    private BigDecimal valor(Long id) {
+        return jdbcTemplate.queryForObject("SELECT VALOR FROM BENEFICIO WHERE ID = ?", BigDecimal.class, id);
+    }
+
+    private long contarChaves(String chave) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM IDEMPOTENCIA WHERE CHAVE = ?", Long.class, chave);
+    }
+
+    private long contarPendentes() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM TRANSFERENCIA WHERE APLICADA = FALSE", Long.class);
+    }
+
+    private long contarMovimentosMotor() {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM TRANSFERENCIA WHERE SEQUENCIA_MOTOR IS NOT NULL AND APLICADA = TRUE", Long.class);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.backend.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class MigracoesIntegrationTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAllMigrationsApplied() {
+        assertEquals(0, flyway.info().pending().length);
+        assertNotNull(flyway.info().current());
+    }
+
+    @Test
+    void testActiveKeysetPageUsesIndex() {
+        String plano = jdbcTemplate.queryForObject(
+                "EXPLAIN SELECT ID FROM BENEFICIO WHERE ATIVO = TRUE AND ID > 0 ORDER BY ID FETCH FIRST 20 ROWS ONLY",
+                String.class);
+        assertTrue(plano.contains("IDX_BENEFICIO_ATIVO_ID"), plano);
+    }
+}
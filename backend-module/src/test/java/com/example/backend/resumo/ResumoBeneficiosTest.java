@@ -0,0 +1,111 @@
+package com.example.backend.resumo;
+
+import com.example.backend.dto.ResumoBeneficiosDTO;
+import com.example.backend.event.ResumoAlteradoEvent;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ResumoBeneficiosTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BeneficioJdbcRepository jdbcRepository = mock(BeneficioJdbcRepository.class);
+
+    private ResumoBeneficios resumo;
+
+    @BeforeEach
+    void setUp() {
+        resumo = new ResumoBeneficios(jdbcRepository, meterRegistry);
+        when(jdbcRepository.resumo()).thenReturn(banco(2, "300.00", 1, "50.00"));
+        resumo.reconciliar();
+    }
+
+    @Test
+    void testCommittedChangesAreAppliedWithoutQuery() {
+        commit(ResumoAlteradoEvent.incluido(true, new BigDecimal("100.00")));
+        commit(ResumoAlteradoEvent.alterado(true, new BigDecimal("100.00"), false, new BigDecimal("100.00")));
+
+        ResumoBeneficiosDTO atual = resumo.get();
+
+        assertEquals(4, atual.getQuantidade());
+        assertEquals(new BigDecimal("450.00"), atual.getSaldoTotal());
+        assertEquals(2, atual.getQuantidadeAtivos());
+        assertEquals(new BigDecimal("300.00"), atual.getSaldoAtivos());
+        assertEquals(2, atual.getQuantidadeInativos());
+        assertEquals(new BigDecimal("150.00"), atual.getSaldoInativos());
+        verify(jdbcRepository, times(1)).resumo();
+    }
+
+    @Test
+    void testRolledBackChangeIsDiscarded() {
+        ResumoAlteradoEvent event = ResumoAlteradoEvent.removido(true, new BigDecimal("100.00"));
+        resumo.onResumoAlteradoAntesDoCommit(event);
+        resumo.onResumoDescartado(event);
+
+        assertEquals(3, resumo.get().getQuantidade());
+        // Nada pendente: a conferência não é adiada (a primeira ocorreu no setUp)
+        resumo.reconciliar();
+        assertEquals(2.0, contagem(ResumoBeneficios.CONFERIDO));
+    }
+
+    @Test
+    void testReconciliationCorrectsDivergence() {
+        when(jdbcRepository.resumo()).thenReturn(banco(2, "250.00", 1, "100.00"));
+
+        resumo.reconciliar();
+
+        assertEquals(new BigDecimal("250.00"), resumo.get().getSaldoAtivos());
+        assertEquals(new BigDecimal("100.00"), resumo.get().getSaldoInativos());
+        assertEquals(1.0, contagem(ResumoBeneficios.CORRIGIDO));
+    }
+
+    @Test
+    void testReconciliationDeferredWhileChangeIsPending() {
+        ResumoAlteradoEvent event = ResumoAlteradoEvent.incluido(true, new BigDecimal("100.00"));
+        resumo.onResumoAlteradoAntesDoCommit(event);
+        // O agregado já veria o commit, que ainda não foi aplicado ao resumo
+        when(jdbcRepository.resumo()).thenReturn(banco(3, "400.00", 1, "50.00"));
+
+        resumo.reconciliar();
+        resumo.onResumoAlterado(event);
+
+        assertEquals(new BigDecimal("400.00"), resumo.get().getSaldoAtivos());
+        assertEquals(1.0, contagem(ResumoBeneficios.ADIADO));
+    }
+
+    @Test
+    void testReconciliationDeferredWhenChangeAppliedDuringQuery() {
+        when(jdbcRepository.resumo()).thenAnswer(invocacao -> {
+            // Commit concorrente durante a consulta
+            commit(ResumoAlteradoEvent.incluido(true, new BigDecimal("100.00")));
+            return banco(2, "300.00", 1, "50.00");
+        });
+
+        resumo.reconciliar();
+
+        assertEquals(new BigDecimal("400.00"), resumo.get().getSaldoAtivos());
+        assertEquals(1.0, contagem(ResumoBeneficios.ADIADO));
+    }
+
+    private void commit(ResumoAlteradoEvent event) {
+        resumo.onResumoAlteradoAntesDoCommit(event);
+        resumo.onResumoAlterado(event);
+    }
+
+    private double contagem(String resultado) {
+        return meterRegistry.get("beneficio.resumo.reconciliacoes").tag("resultado", resultado).counter().count();
+    }
+
+    private static ResumoBeneficiosDTO banco(long ativos, String saldoAtivos, long inativos, String saldoInativos) {
+        return new ResumoBeneficiosDTO(ativos, new BigDecimal(saldoAtivos), inativos, new BigDecimal(saldoInativos),
+                Instant.now());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.backend.service;
+
+import com.example.backend.BancosTeste;
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.repository.BeneficioRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Só a API de Statistics é usada; sem isto cada sessão imprime um bloco "Session Metrics"
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        BancosTeste.CRIACAO_LOTE})
+class BeneficioCriacaoEmLoteIntegrationTest {
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void testCreateAllBatchesInserts() {
+        int quantidade = 520;
+        List<BeneficioDTO> dtos = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            dtos.add(new BeneficioDTO(null, "Em lote " + i, null, new BigDecimal("10.00"), true, null));
+        }
+        long antes = repository.count();
+        Statistics estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+
+        List<BeneficioDTO> criados = service.createAll(dtos);
+
+        assertEquals(quantidade, criados.size());
+        Set<Long> ids = new HashSet<>();
+        criados.forEach(dto -> ids.add(dto.getId()));
+        assertEquals(quantidade, ids.size());
+        assertEquals(antes + quantidade, repository.count());
+        assertEquals(quantidade, estatisticas.getEntityInsertCount());
+        // Um PreparedStatement por batch de 50 INSERTs (mais as chamadas à sequência),
+        // em vez de um por benefício
+        assertTrue(estatisticas.getPrepareStatementCount() < quantidade / 10,
+                "statements preparados: " + estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void testCreateAllRejectsWholeBatchOnInvalidItem() {
+        long antes = repository.count();
+        List<BeneficioDTO> dtos = List.of(
+                new BeneficioDTO(null, "Válido", null, new BigDecimal("10.00"), true, null),
+                new BeneficioDTO(null, "", null, new BigDecimal("10.00"), true, null));
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, () -> service.createAll(dtos));
+
+        assertTrue(erro.getMessage().startsWith("Item 1: "));
+        assertEquals(antes, repository.count());
+    }
+}
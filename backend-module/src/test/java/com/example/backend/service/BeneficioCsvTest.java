@@ -0,0 +1,47 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BeneficioCsvTest {
+
+    @Test
+    void testReadsQuotedFieldsAcrossLines() throws Exception {
+        BeneficioCsv.Leitor leitor = new BeneficioCsv.Leitor(new StringReader(
+                "nome,descricao\r\n"
+                        + "\"Vale, refeição\",\"Linha 1\nLinha \"\"2\"\"\"\r\n"
+                        + "\n"
+                        + "Simples,\n"));
+
+        assertEquals(List.of("nome", "descricao"), leitor.proximo());
+        assertEquals(List.of("Vale, refeição", "Linha 1\nLinha \"2\""), leitor.proximo());
+        assertEquals(2, leitor.getLinha());
+        assertEquals(List.of("Simples", ""), leitor.proximo());
+        assertEquals(5, leitor.getLinha());
+        assertNull(leitor.proximo());
+    }
+
+    @Test
+    void testUnclosedQuoteFails() {
+        BeneficioCsv.Leitor leitor = new BeneficioCsv.Leitor(new StringReader("\"sem fim,10\n"));
+
+        IllegalArgumentException erro = assertThrows(IllegalArgumentException.class, leitor::proximo);
+        assertTrue(erro.getMessage().startsWith("Linha 1"));
+    }
+
+    @Test
+    void testWrittenRecordIsReadBack() throws Exception {
+        StringWriter out = new StringWriter();
+        BeneficioCsv.escrever(out, new BeneficioDTO(7L, "Nome \"x\", y", null, new BigDecimal("12.50"), true, 0L));
+
+        List<String> campos = new BeneficioCsv.Leitor(new StringReader(out.toString())).proximo();
+        assertEquals(List.of("7", "Nome \"x\", y", "", "12.50", "true"), campos);
+    }
+}
@@ -1,23 +1,42 @@
 package com.example.backend.service;
 
+import com.example.backend.cache.BeneficioCache;
 import com.example.backend.dto.BeneficioDTO;
 import com.example.backend.dto.TransferenciaDTO;
 import com.example.backend.entity.Beneficio;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.event.BeneficioAlteradoEvent;
+import com.example.backend.event.ResumoAlteradoEvent;
+import com.example.backend.exception.TransferenciaLoteException;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.repository.BeneficioFatiaRepository;
+import com.example.backend.repository.BeneficioJdbcRepository;
 import com.example.backend.repository.BeneficioRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.OptimisticLockException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +45,32 @@ class BeneficioServiceTest {
     @Mock
     private BeneficioRepository repository;
 
+    @Mock
+    private BeneficioJdbcRepository jdbcRepository;
+
+    @Mock
+    private BeneficioFatiaRepository fatiaRepository;
+
+    @Mock
+    private BeneficioFatiaService fatiaService;
+
+    @Mock
+    private TransferenciaLedgerService ledgerService;
+
+    @Mock
+    private IdempotenciaService idempotenciaService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BeneficioMetricas metricas = new BeneficioMetricas(meterRegistry);
+
+    @Spy
+    private BeneficioCache cache = new BeneficioCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
     @InjectMocks
     private BeneficioService service;
 
@@ -71,9 +116,24 @@ class BeneficioServiceTest {
         verify(repository, times(1)).save(any(Beneficio.class));
     }
 
+    @Test
+    void testUpdateDeactivationMovesBalanceInSummary() {
+        when(repository.findByIdWithLock(1L)).thenReturn(Optional.of(beneficio1));
+        when(repository.saveAndFlush(beneficio1)).thenReturn(beneficio1);
+
+        service.update(1L, new BeneficioDTO(null, "Beneficio A", null, new BigDecimal("800.00"), false, null));
+
+        verify(eventPublisher).publishEvent(argThat((Object evento) -> evento instanceof ResumoAlteradoEvent variacao
+                && variacao.getQuantidadeAtivos() == -1
+                && variacao.getSaldoAtivos().compareTo(new BigDecimal("-1000.00")) == 0
+                && variacao.getQuantidadeInativos() == 1
+                && variacao.getSaldoInativos().compareTo(new BigDecimal("800.00")) == 0));
+    }
+
     @Test
     void testFindById() {
-        when(repository.findById(1L)).thenReturn(Optional.of(beneficio1));
+        when(repository.findDTOById(1L)).thenReturn(Optional.of(
+                new BeneficioDTO(1L, "Beneficio A", null, new BigDecimal("1000.00"), true, 0L)));
 
         BeneficioDTO result = service.findById(1L);
 
@@ -82,35 +142,168 @@ class BeneficioServiceTest {
         assertEquals("Beneficio A", result.getNome());
     }
 
+    @Test
+    void testFindByIdServedFromCache() {
+        when(repository.findDTOById(1L)).thenReturn(Optional.of(
+                new BeneficioDTO(1L, "Beneficio A", null, new BigDecimal("1000.00"), true, 0L)));
+
+        service.findById(1L);
+        service.findById(1L);
+
+        verify(repository, times(1)).findDTOById(1L);
+    }
+
     @Test
     void testFindByIdNotFound() {
-        when(repository.findById(999L)).thenReturn(Optional.empty());
+        when(repository.findDTOById(999L)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> service.findById(999L));
     }
 
+    @Test
+    void testFindAllUsesProjection() {
+        when(repository.findAllDTO()).thenReturn(List.of(
+                new BeneficioDTO(1L, "Beneficio A", null, new BigDecimal("1000.00"), true, 0L)));
+
+        List<BeneficioDTO> result = service.findAll();
+
+        assertEquals(1, result.size());
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void testFindPage() {
+        when(repository.findDTOPage(1L, Limit.of(10))).thenReturn(List.of(
+                new BeneficioDTO(2L, "Beneficio B", null, new BigDecimal("500.00"), true, 0L)));
+
+        List<BeneficioDTO> result = service.findPage(1L, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getId());
+    }
+
+    @Test
+    void testFindPageInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(0L, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.findPage(0L, BeneficioService.MAX_ITENS_PAGINA + 1));
+    }
+
     @Test
     void testTransferSuccess() {
-        when(repository.findByIdWithLock(1L)).thenReturn(Optional.of(beneficio1));
-        when(repository.findByIdWithLock(2L)).thenReturn(Optional.of(beneficio2));
+        when(repository.findAllNaoFatiadosByIdWithLock(anyCollection())).thenReturn(List.of(beneficio1, beneficio2));
 
         TransferenciaDTO transferencia = new TransferenciaDTO(1L, 2L, new BigDecimal("100.00"));
 
         service.transfer(transferencia);
 
         verify(repository, times(2)).save(any(Beneficio.class));
+        verify(ledgerService).registrar(1L, 2L, new BigDecimal("100.00"), true,
+                beneficio1.getVersion(), beneficio2.getVersion());
+        verify(eventPublisher, times(2)).publishEvent(any(BeneficioAlteradoEvent.class));
         assertEquals(new BigDecimal("900.00"), beneficio1.getValor());
         assertEquals(new BigDecimal("600.00"), beneficio2.getValor());
+        assertEquals(1, meterRegistry.get("beneficio.transferencia").tag("resultado", "sucesso").timer().count());
+        assertEquals(1, meterRegistry.get("beneficio.lock.espera").tag("alvo", BeneficioMetricas.LOCK_BENEFICIO).timer().count());
     }
 
     @Test
     void testTransferInsufficientBalance() {
-        when(repository.findByIdWithLock(1L)).thenReturn(Optional.of(beneficio1));
-        when(repository.findByIdWithLock(2L)).thenReturn(Optional.of(beneficio2));
+        when(repository.findAllNaoFatiadosByIdWithLock(anyCollection())).thenReturn(List.of(beneficio1, beneficio2));
 
         TransferenciaDTO transferencia = new TransferenciaDTO(1L, 2L, new BigDecimal("1500.00"));
 
         assertThrows(IllegalStateException.class, () -> service.transfer(transferencia));
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(1.0, meterRegistry.get("beneficio.transferencia.rejeicoes")
+                .tag("motivo", BeneficioMetricas.REJEICAO_SALDO_INSUFICIENTE).counter().count());
+        assertEquals(1, meterRegistry.get("beneficio.transferencia").tag("resultado", "rejeitada").timer().count());
+    }
+
+    @Test
+    void testTransferLocksBothBeneficiosInSingleQuery() {
+        when(repository.findAllNaoFatiadosByIdWithLock(anyCollection())).thenReturn(List.of(beneficio1, beneficio2));
+
+        service.transfer(new TransferenciaDTO(2L, 1L, new BigDecimal("100.00")));
+
+        verify(repository, times(1)).findAllNaoFatiadosByIdWithLock(anyCollection());
+        verify(repository, never()).findByIdWithLock(any());
+        assertEquals(new BigDecimal("1100.00"), beneficio1.getValor());
+        assertEquals(new BigDecimal("400.00"), beneficio2.getValor());
+    }
+
+    @Test
+    void testTransferDelegatesWhenBeneficioNotLocked() {
+        // Destino ausente do lock de linhas: inexistente ou fatiado
+        when(repository.findAllNaoFatiadosByIdWithLock(anyCollection())).thenReturn(List.of(beneficio1));
+
+        TransferenciaDTO transferencia = new TransferenciaDTO(1L, 999L, new BigDecimal("100.00"));
+        service.transfer(transferencia);
+
+        verify(fatiaService).transfer(1L, 999L, new BigDecimal("100.00"), beneficio1, null);
+        verify(repository, never()).save(any(Beneficio.class));
+    }
+
+    @Test
+    void testTransferAsyncLedgerRegistersPending() {
+        when(ledgerService.isAssincrono()).thenReturn(true);
+        when(repository.findAllNaoFatiadosByIdWithLock(List.of(1L))).thenReturn(List.of(beneficio1));
+        when(repository.findById(2L)).thenReturn(Optional.of(beneficio2));
+        when(ledgerService.debitosPendentes(1L)).thenReturn(new BigDecimal("800.00"));
+
+        service.transfer(new TransferenciaDTO(1L, 2L, new BigDecimal("200.00")));
+
+        verify(ledgerService).registrar(1L, 2L, new BigDecimal("200.00"), false, null, null);
+        verify(repository, never()).save(any(Beneficio.class));
+        verify(eventPublisher, never()).publishEvent(any());
+        assertEquals(new BigDecimal("1000.00"), beneficio1.getValor());
+    }
+
+    @Test
+    void testTransferAsyncLedgerDiscountsPendingDebits() {
+        when(ledgerService.isAssincrono()).thenReturn(true);
+        when(repository.findAllNaoFatiadosByIdWithLock(List.of(1L))).thenReturn(List.of(beneficio1));
+        when(repository.findById(2L)).thenReturn(Optional.of(beneficio2));
+        when(ledgerService.debitosPendentes(1L)).thenReturn(new BigDecimal("900.00"));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> service.transfer(new TransferenciaDTO(1L, 2L, new BigDecimal("200.00"))));
+
+        assertTrue(e.getMessage().contains("Saldo atual: 100.00"));
+        verify(ledgerService, never()).registrar(any(), any(), any(), anyBoolean(), any(), any());
+    }
+
+    @Test
+    void testDeleteRejectsPendingTransfers() {
+        when(repository.findByIdWithLock(1L)).thenReturn(Optional.of(beneficio1));
+        when(ledgerService.existsPendentes(1L)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> service.delete(1L));
+        verify(repository, never()).deleteById(any());
+    }
+
+    @Test
+    void testTransferReservesIdempotencyKeyBeforeLocking() {
+        IdempotenciaService.Requisicao requisicao = new IdempotenciaService.Requisicao("chave-1", "TRANSFERIR", "hash");
+        when(repository.findAllNaoFatiadosByIdWithLock(anyCollection())).thenReturn(List.of(beneficio1, beneficio2));
+
+        service.transfer(new TransferenciaDTO(1L, 2L, new BigDecimal("100.00")), requisicao);
+
+        InOrder ordem = inOrder(idempotenciaService, repository);
+        ordem.verify(idempotenciaService).reservar(requisicao);
+        ordem.verify(repository).findAllNaoFatiadosByIdWithLock(anyCollection());
+        ordem.verify(idempotenciaService).concluir(requisicao, null);
+    }
+
+    @Test
+    void testTransferBatchRejectsFatiado() {
+        beneficio2.setFatias(4);
+        when(jdbcRepository.findAllByIdWithLock(anyCollection())).thenReturn(bloqueados());
+
+        List<TransferenciaResultadoDTO> resultados = service.transferBatch(List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("100.00"))), false);
+
+        assertFalse(resultados.get(0).isSucesso());
+        verify(jdbcRepository).updateValores(Map.of());
     }
 
     @Test
@@ -126,5 +319,61 @@ class BeneficioServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> service.transfer(transferencia));
     }
-}
 
+    @Test
+    void testTransferBatchNetsBalances() {
+        when(jdbcRepository.findAllByIdWithLock(anyCollection())).thenReturn(bloqueados());
+
+        List<TransferenciaResultadoDTO> resultados = service.transferBatch(List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("300.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("100.00")),
+                new TransferenciaDTO(1L, 2L, new BigDecimal("50.00"))), true);
+
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.stream().allMatch(TransferenciaResultadoDTO::isSucesso));
+        verify(jdbcRepository, times(1)).updateValores(Map.of(
+                1L, new BigDecimal("750.00"),
+                2L, new BigDecimal("750.00")));
+        verify(ledgerService).registrarAplicadas(argThat(aplicadas -> aplicadas.size() == 3), anyMap());
+    }
+
+    @Test
+    void testTransferBatchBestEffortSkipsInvalidItems() {
+        when(jdbcRepository.findAllByIdWithLock(anyCollection())).thenReturn(bloqueados());
+
+        List<TransferenciaResultadoDTO> resultados = service.transferBatch(List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("5000.00")),
+                new TransferenciaDTO(2L, 999L, new BigDecimal("10.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("100.00"))), false);
+
+        assertFalse(resultados.get(0).isSucesso());
+        assertFalse(resultados.get(1).isSucesso());
+        assertTrue(resultados.get(2).isSucesso());
+        verify(jdbcRepository, times(1)).updateValores(Map.of(
+                1L, new BigDecimal("1100.00"),
+                2L, new BigDecimal("400.00")));
+    }
+
+    @Test
+    void testTransferBatchAtomicRejectsWholeBatch() {
+        when(jdbcRepository.findAllByIdWithLock(anyCollection())).thenReturn(bloqueados());
+
+        List<TransferenciaDTO> lote = List.of(
+                new TransferenciaDTO(1L, 2L, new BigDecimal("100.00")),
+                new TransferenciaDTO(2L, 1L, new BigDecimal("5000.00")));
+
+        TransferenciaLoteException e = assertThrows(TransferenciaLoteException.class,
+                () -> service.transferBatch(lote, true));
+
+        assertEquals(2, e.getResultados().size());
+        assertTrue(e.getResultados().stream().noneMatch(TransferenciaResultadoDTO::isSucesso));
+        verify(jdbcRepository, never()).updateValores(anyMap());
+    }
+
+    private Map<Long, Beneficio> bloqueados() {
+        Map<Long, Beneficio> bloqueados = new HashMap<>();
+        bloqueados.put(1L, beneficio1);
+        bloqueados.put(2L, beneficio2);
+        return bloqueados;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.dto.TransferenciaResultadoDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BeneficioTransferBatchIntegrationTest {
+
+    private static final int CONTAS = 200;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testFullBatchPreservesTotal() {
+        List<Beneficio> contas = new ArrayList<>();
+        for (int i = 0; i < CONTAS; i++) {
+            contas.add(new Beneficio("Lote " + i, null, new BigDecimal("1000.00"), true));
+        }
+        List<Long> ids = repository.saveAll(contas).stream().map(Beneficio::getId).toList();
+
+        List<TransferenciaDTO> lote = new ArrayList<>();
+        for (int i = 0; i < BeneficioService.MAX_ITENS_LOTE; i++) {
+            Long from = ids.get(i % CONTAS);
+            Long to = ids.get((i * 7 + 1) % CONTAS);
+            lote.add(new TransferenciaDTO(from, to, new BigDecimal("1.00")));
+        }
+
+        List<TransferenciaResultadoDTO> resultados = service.transferBatch(lote, false);
+
+        assertEquals(BeneficioService.MAX_ITENS_LOTE, resultados.size());
+        BigDecimal total = repository.findAllById(ids).stream()
+                .map(Beneficio::getValor)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal(CONTAS * 1000).compareTo(total));
+    }
+}
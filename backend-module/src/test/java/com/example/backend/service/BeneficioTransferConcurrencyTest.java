@@ -0,0 +1,136 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de estresse: milhares de transferências cruzadas (A→B e B→A) simultâneas
+ * não podem gerar deadlock, timeout de lock nem alterar o saldo total.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class BeneficioTransferConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int TRANSFERENCIAS_POR_THREAD = 500;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioFatiaService fatiaService;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testCrossedTransfersDoNotDeadlock() throws Exception {
+        Long idA = repository.save(new Beneficio("Estresse A", null, new BigDecimal("100000.00"), true)).getId();
+        Long idB = repository.save(new Beneficio("Estresse B", null, new BigDecimal("100000.00"), true)).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger falhas = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean aParaB = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    TransferenciaDTO dto = aParaB
+                            ? new TransferenciaDTO(idA, idB, BigDecimal.ONE)
+                            : new TransferenciaDTO(idB, idA, BigDecimal.ONE);
+                    try {
+                        service.transfer(dto);
+                    } catch (RuntimeException e) {
+                        falhas.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertEquals(0, falhas.get());
+        BigDecimal saldoA = repository.findById(idA).orElseThrow().getValor();
+        BigDecimal saldoB = repository.findById(idB).orElseThrow().getValor();
+        assertEquals(0, new BigDecimal("200000.00").compareTo(saldoA.add(saldoB)));
+        // Metade das threads em cada direção: os saldos voltam ao valor inicial
+        assertEquals(0, new BigDecimal("100000.00").compareTo(saldoA));
+    }
+
+    @Test
+    void testHotAccountStripedTransfersPreserveTotal() throws Exception {
+        Long central = repository.save(new Beneficio("Central", null, new BigDecimal("80000.00"), true)).getId();
+        List<Long> destinos = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            destinos.add(repository.save(new Beneficio("Destino " + t, null, new BigDecimal("1000.00"), true)).getId());
+        }
+        fatiaService.habilitar(central, THREADS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger falhas = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Long destino = destinos.get(t);
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    // Débitos e créditos alternados no benefício central
+                    TransferenciaDTO dto = i % 2 == 0
+                            ? new TransferenciaDTO(central, destino, new BigDecimal("3.00"))
+                            : new TransferenciaDTO(destino, central, new BigDecimal("1.00"));
+                    try {
+                        service.transfer(dto);
+                    } catch (RuntimeException e) {
+                        falhas.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        assertEquals(0, falhas.get());
+        BigDecimal esperadoCentral = new BigDecimal("80000.00")
+                .subtract(new BigDecimal(THREADS * TRANSFERENCIAS_POR_THREAD));
+        assertEquals(0, esperadoCentral.compareTo(service.findById(central).getValor()));
+
+        BeneficioDTO consolidado = fatiaService.desabilitar(central);
+        assertEquals(0, esperadoCentral.compareTo(consolidado.getValor()));
+        assertEquals(0, esperadoCentral.compareTo(repository.findById(central).orElseThrow().getValor()));
+    }
+
+    @Test
+    void testStripedDebitSpanningSeveralFatias() {
+        Long origem = repository.save(new Beneficio("Fatiado", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Comum", null, new BigDecimal("0.00"), true)).getId();
+        fatiaService.habilitar(origem, 4);
+
+        // Nenhuma fatia isolada (25.00) cobre o valor: debita de várias
+        service.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("60.00")));
+
+        assertEquals(0, new BigDecimal("40.00").compareTo(service.findById(origem).getValor()));
+        assertEquals(0, new BigDecimal("60.00").compareTo(service.findById(destino).getValor()));
+        assertThrows(IllegalStateException.class,
+                () -> service.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("40.01"))));
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.BancosTeste;
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", BancosTeste.MOCK_MVC})
+@AutoConfigureMockMvc
+class IdempotenciaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Test
+    void testRepeatedCreateReturnsSameBeneficio() throws Exception {
+        BeneficioDTO dto = new BeneficioDTO(null, "Idempotente", null, new BigDecimal("10.00"), true, null);
+        String corpo = objectMapper.writeValueAsString(dto);
+
+        String primeira = mockMvc.perform(post("/api/v1/beneficios")
+                        .header(IdempotenciaService.HEADER, "criar-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long id = objectMapper.readValue(primeira, BeneficioDTO.class).getId();
+        long total = repository.count();
+
+        mockMvc.perform(post("/api/v1/beneficios")
+                        .header(IdempotenciaService.HEADER, "criar-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(corpo))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(id));
+
+        assertEquals(total, repository.count());
+    }
+
+    @Test
+    void testConcurrentRepeatedTransferAppliesOnce() throws Exception {
+        Long origem = repository.save(new Beneficio("Idem origem", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Idem destino", null, BigDecimal.ZERO, true)).getId();
+        String corpo = objectMapper.writeValueAsString(new TransferenciaDTO(origem, destino, new BigDecimal("30.00")));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<Integer>> futuros = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futuros.add(executor.submit(() -> mockMvc.perform(post("/api/v1/beneficios/transfer")
+                            .header(IdempotenciaService.HEADER, "transferir-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(corpo))
+                    .andReturn().getResponse().getStatus()));
+        }
+        for (Future<Integer> futuro : futuros) {
+            assertEquals(200, futuro.get());
+        }
+        executor.shutdown();
+
+        assertEquals(0, new BigDecimal("70.00").compareTo(repository.findById(origem).orElseThrow().getValor()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(repository.findById(destino).orElseThrow().getValor()));
+    }
+
+    @Test
+    void testKeyReusedWithDifferentBodyIsRejected() throws Exception {
+        Long origem = repository.save(new Beneficio("Idem reuso", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Idem reuso destino", null, BigDecimal.ZERO, true)).getId();
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .header(IdempotenciaService.HEADER, "transferir-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferenciaDTO(origem, destino, new BigDecimal("1.00")))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/beneficios/transfer")
+                        .header(IdempotenciaService.HEADER, "transferir-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new TransferenciaDTO(origem, destino, new BigDecimal("2.00")))))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.TransferenciaRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:transferencia_atomica_test;LOCK_TIMEOUT=3000",
+        "beneficio.transferencia.estrategia=atomica"
+})
+/**
+ * Caminho atômico (UPDATEs condicionais sem leitura prévia): mesmos saldos, versões e
+ * exceções do caminho pessimista, inclusive quando o primeiro UPDATE precisa ser desfeito.
+ */
+class TransferenciaAtomicaIntegrationTest {
+
+    private static final int THREADS = 4;
+    private static final int TRANSFERENCIAS_POR_THREAD = 100;
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioFatiaService fatiaService;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+
+    @Test
+    void testCrossedTransfersPreserveTotal() throws Exception {
+        Long idA = repository.save(new Beneficio("Atomica A", null, new BigDecimal("100000.00"), true)).getId();
+        Long idB = repository.save(new Beneficio("Atomica B", null, new BigDecimal("100000.00"), true)).getId();
+        long versaoA = repository.findById(idA).orElseThrow().getVersion();
+        long movimentos = transferenciaRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean aParaB = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    transferenciaService.transfer(aParaB
+                            ? new TransferenciaDTO(idA, idB, BigDecimal.ONE)
+                            : new TransferenciaDTO(idB, idA, BigDecimal.ONE), null);
+                }
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        Beneficio a = repository.findById(idA).orElseThrow();
+        assertEquals(0, new BigDecimal("100000.00").compareTo(a.getValor()));
+        assertEquals(0, new BigDecimal("100000.00").compareTo(repository.findById(idB).orElseThrow().getValor()));
+        assertEquals(versaoA + THREADS * TRANSFERENCIAS_POR_THREAD, a.getVersion());
+        assertEquals(movimentos + THREADS * TRANSFERENCIAS_POR_THREAD, transferenciaRepository.count());
+        assertEquals(0, new BigDecimal("100000.00").compareTo(service.findById(idA).getValor()));
+    }
+
+    @Test
+    void testRejectionsMatchPessimisticPath() {
+        Long menor = repository.save(new Beneficio("Menor", null, new BigDecimal("10.00"), true)).getId();
+        Long maior = repository.save(new Beneficio("Maior", null, new BigDecimal("10.00"), true)).getId();
+        Long inativo = repository.save(new Beneficio("Inativo", null, new BigDecimal("10.00"), false)).getId();
+
+        // Saldo insuficiente com o débito primeiro e com o crédito (desfeito) primeiro
+        IllegalStateException saldo = assertThrows(IllegalStateException.class, () -> service.transferAtomica(
+                new TransferenciaDTO(menor, maior, new BigDecimal("10.01")), null));
+        assertEquals("Saldo insuficiente. Saldo atual: 10.00, Valor solicitado: 10.01", saldo.getMessage());
+        assertThrows(IllegalStateException.class, () -> service.transferAtomica(
+                new TransferenciaDTO(maior, menor, new BigDecimal("10.01")), null));
+
+        IllegalStateException destino = assertThrows(IllegalStateException.class, () -> service.transferAtomica(
+                new TransferenciaDTO(menor, inativo, BigDecimal.ONE), null));
+        assertEquals("Benefício de destino não está ativo", destino.getMessage());
+        assertThrows(EntityNotFoundException.class, () -> service.transferAtomica(
+                new TransferenciaDTO(menor, Long.MAX_VALUE, BigDecimal.ONE), null));
+
+        for (Long id : List.of(menor, maior, inativo)) {
+            Beneficio beneficio = repository.findById(id).orElseThrow();
+            assertEquals(0, new BigDecimal("10.00").compareTo(beneficio.getValor()));
+            assertEquals(0L, beneficio.getVersion());
+        }
+    }
+
+    @Test
+    void testFatiadoTargetUndoesDebitAndUsesFatias() {
+        Long origem = repository.save(new Beneficio("Origem", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Fatiado", null, new BigDecimal("0.00"), true)).getId();
+        fatiaService.habilitar(destino, 4);
+        long versao = repository.findById(origem).orElseThrow().getVersion();
+
+        // Origem com ID menor: o débito é aplicado antes do crédito recusado e depois desfeito
+        service.transferAtomica(new TransferenciaDTO(origem, destino, new BigDecimal("30.00")), null);
+
+        Beneficio depois = repository.findById(origem).orElseThrow();
+        assertEquals(0, new BigDecimal("70.00").compareTo(depois.getValor()));
+        // Débito, estorno e débito pelo caminho pessimista: a versão nunca volta
+        assertEquals(versao + 3, depois.getVersion());
+        assertEquals(0, new BigDecimal("30.00").compareTo(service.findById(destino).getValor()));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.entity.Transferencia;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.TransferenciaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // Banco exclusivo: aplicadores de outros contextos de teste não drenam os pendentes
+        "spring.datasource.url=jdbc:h2:mem:ledger_test;LOCK_TIMEOUT=3000",
+        "beneficio.ledger.assincrono=true",
+        // Aplicação disparada manualmente pelo teste
+        "beneficio.ledger.intervalo-aplicacao=3600000"
+})
+class TransferenciaLedgerIntegrationTest {
+
+    private static final int THREADS = 8;
+
+    private static final int TRANSFERENCIAS_POR_THREAD = 50;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private TransferenciaLedgerService ledgerService;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+
+    @Test
+    void testPendingDebitsNeverOverdraw() throws Exception {
+        Long origem = repository.save(new Beneficio("Ledger origem", null, new BigDecimal("100.00"), true)).getId();
+        List<Long> destinos = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            destinos.add(repository.save(new Beneficio("Ledger destino " + i, null, BigDecimal.ZERO, true)).getId());
+        }
+
+        // 400 débitos de 1.00 disputando um saldo de 100.00: exatamente 100 devem passar
+        AtomicInteger aceitas = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futuros = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Long destino = destinos.get(t);
+            futuros.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    try {
+                        service.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("1.00")));
+                        aceitas.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        // Saldo insuficiente
+                    }
+                }
+            }));
+        }
+        for (Future<?> futuro : futuros) {
+            futuro.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertEquals(100, aceitas.get());
+        // Nada materializado ainda
+        assertEquals(0, new BigDecimal("100.00").compareTo(repository.findById(origem).orElseThrow().getValor()));
+
+        while (ledgerService.aplicarPendentes() > 0) {
+            // Drena todos os pendentes
+        }
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(repository.findById(origem).orElseThrow().getValor()));
+        BigDecimal creditado = repository.findAllById(destinos).stream()
+                .map(Beneficio::getValor)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, new BigDecimal("100.00").compareTo(creditado));
+        assertTrue(transferenciaRepository.findAll().stream()
+                .filter(t -> t.getOrigemId().equals(origem))
+                .allMatch(Transferencia::getAplicada));
+    }
+
+    @Test
+    void testUpdateCannotDropBelowPendingDebits() {
+        Long origem = repository.save(new Beneficio("Ledger atualizada", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Ledger credora", null, BigDecimal.ZERO, true)).getId();
+        service.transfer(new TransferenciaDTO(origem, destino, new BigDecimal("60.00")));
+
+        // Reduzir abaixo dos 60.00 pendentes deixaria a origem negativa na aplicação
+        assertThrows(IllegalStateException.class, () -> service.update(origem,
+                new BeneficioDTO(origem, "Ledger atualizada", null, new BigDecimal("50.00"), true, null)));
+        assertEquals(0, new BigDecimal("100.00").compareTo(repository.findById(origem).orElseThrow().getValor()));
+
+        service.update(origem, new BeneficioDTO(origem, "Ledger atualizada", null, new BigDecimal("80.00"), true, null));
+        while (ledgerService.aplicarPendentes() > 0) {
+            // Drena todos os pendentes
+        }
+        assertEquals(0, new BigDecimal("20.00").compareTo(repository.findById(origem).orElseThrow().getValor()));
+    }
+}
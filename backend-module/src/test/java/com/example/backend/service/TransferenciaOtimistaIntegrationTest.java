@@ -0,0 +1,101 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.repository.TransferenciaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:transferencia_otimista_test;LOCK_TIMEOUT=3000",
+        "beneficio.transferencia.estrategia=otimista"
+})
+/**
+ * Caminho otimista sob disputa total (duas contas, transferências cruzadas): conflitos,
+ * retentativas e fallback pessimista não podem perder nem duplicar movimentos.
+ */
+class TransferenciaOtimistaIntegrationTest {
+
+    private static final int THREADS = 4;
+    private static final int TRANSFERENCIAS_POR_THREAD = 100;
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private BeneficioService service;
+
+    @Autowired
+    private BeneficioRepository repository;
+
+    @Autowired
+    private TransferenciaRepository transferenciaRepository;
+
+    @Autowired
+    private BeneficioJdbcRepository jdbcRepository;
+
+    @Test
+    void testCrossedTransfersPreserveTotal() throws Exception {
+        Long idA = repository.save(new Beneficio("Otimista A", null, new BigDecimal("100000.00"), true)).getId();
+        Long idB = repository.save(new Beneficio("Otimista B", null, new BigDecimal("100000.00"), true)).getId();
+        long movimentos = transferenciaRepository.count();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            boolean aParaB = t % 2 == 0;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < TRANSFERENCIAS_POR_THREAD; i++) {
+                    transferenciaService.transfer(aParaB
+                            ? new TransferenciaDTO(idA, idB, BigDecimal.ONE)
+                            : new TransferenciaDTO(idB, idA, BigDecimal.ONE), null);
+                }
+            }));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        // Metade das threads em cada direção: os saldos voltam ao valor inicial
+        assertEquals(0, new BigDecimal("100000.00").compareTo(repository.findById(idA).orElseThrow().getValor()));
+        assertEquals(0, new BigDecimal("100000.00").compareTo(repository.findById(idB).orElseThrow().getValor()));
+        assertEquals(movimentos + THREADS * TRANSFERENCIAS_POR_THREAD, transferenciaRepository.count());
+    }
+
+    @Test
+    void testConditionalUpdateChecksVersionAndBalance() {
+        Long origem = repository.save(new Beneficio("Origem", null, new BigDecimal("100.00"), true)).getId();
+        Long destino = repository.save(new Beneficio("Destino", null, new BigDecimal("0.00"), true)).getId();
+        long versao = repository.findById(origem).orElseThrow().getVersion();
+
+        service.transferOtimista(new TransferenciaDTO(origem, destino, new BigDecimal("30.00")), null);
+
+        Beneficio depois = repository.findById(origem).orElseThrow();
+        assertEquals(versao + 1, depois.getVersion());
+        assertEquals(0, new BigDecimal("70.00").compareTo(depois.getValor()));
+        assertEquals(0, new BigDecimal("30.00").compareTo(service.findById(destino).getValor()));
+        assertThrows(IllegalStateException.class, () -> transferenciaService.transfer(
+                new TransferenciaDTO(origem, destino, new BigDecimal("70.01")), null));
+
+        // Versão já incrementada pela transferência; saldo insuficiente
+        assertFalse(jdbcRepository.debitarSeVersao(origem, versao, new BigDecimal("10.00")));
+        assertFalse(jdbcRepository.debitarSeVersao(origem, versao + 1, new BigDecimal("70.01")));
+        assertTrue(jdbcRepository.debitarSeVersao(origem, versao + 1, new BigDecimal("70.00")));
+    }
+}
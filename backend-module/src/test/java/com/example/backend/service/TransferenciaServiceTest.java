@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.metrics.BeneficioMetricas;
+import com.example.backend.motor.MotorTransferencias;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TransferenciaServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final BeneficioService beneficioService = mock(BeneficioService.class);
+
+    private final MotorTransferencias motor = mock(MotorTransferencias.class);
+
+    private final TransferenciaDTO transferencia = new TransferenciaDTO(1L, 2L, new BigDecimal("10.00"));
+
+    @Test
+    void testPessimisticByDefault() {
+        TransferenciaService service = service(TransferenciaService.Estrategia.PESSIMISTA, 3);
+
+        service.transfer(transferencia, null);
+
+        verify(beneficioService).transfer(transferencia, null);
+        verify(beneficioService, never()).transferOtimista(any(), any());
+    }
+
+    @Test
+    void testAtomicStrategy() {
+        TransferenciaService service = service(TransferenciaService.Estrategia.ATOMICA, 3);
+
+        service.transfer(transferencia, null);
+
+        verify(beneficioService).transferAtomica(transferencia, null);
+        verify(beneficioService, never()).transfer(any(), any());
+    }
+
+    @Test
+    void testEngineOpensTransactionOnlyForIdempotencyKey() {
+        TransferenciaService service = service(TransferenciaService.Estrategia.MOTOR, 3);
+        IdempotenciaService.Requisicao requisicao = new IdempotenciaService.Requisicao("chave", "TRANSFERIR", "hash");
+
+        service.transfer(transferencia, null);
+        service.transfer(transferencia, requisicao);
+
+        verify(motor).transfer(transferencia);
+        verify(beneficioService).transferMotor(transferencia, requisicao, motor);
+        verify(beneficioService, never()).transfer(any(), any());
+    }
+
+    @Test
+    void testOptimisticRetriesConflicts() {
+        TransferenciaService service = service(TransferenciaService.Estrategia.OTIMISTA, 3);
+        doThrow(new OptimisticLockingFailureException("conflito"))
+                .doNothing()
+                .when(beneficioService).transferOtimista(transferencia, null);
+
+        service.transfer(transferencia, null);
+
+        verify(beneficioService, times(2)).transferOtimista(transferencia, null);
+        verify(beneficioService, never()).transfer(any(), any());
+    }
+
+    @Test
+    void testFallsBackToPessimisticAfterMaxAttempts() {
+        TransferenciaService service = service(TransferenciaService.Estrategia.OTIMISTA, 3);
+        doThrow(new OptimisticLockingFailureException("conflito"))
+                .when(beneficioService).transferOtimista(transferencia, null);
+
+        service.transfer(transferencia, null);
+
+        verify(beneficioService, times(3)).transferOtimista(transferencia, null);
+        verify(beneficioService).transfer(transferencia, null);
+        assertEquals(1.0, meterRegistry.get("beneficio.transferencia.fallback")
+                .tag("motivo", BeneficioMetricas.FALLBACK_TENTATIVAS).counter().count());
+    }
+
+    @Test
+    void testConflictRateSuspendsOptimisticPath() {
+        TransferenciaService service = service(TransferenciaService.Estrategia.OTIMISTA, 1);
+        doThrow(new OptimisticLockingFailureException("conflito"))
+                .when(beneficioService).transferOtimista(transferencia, null);
+        for (int i = 0; i < TransferenciaService.JANELA; i++) {
+            service.transfer(transferencia, null);
+        }
+        assertTrue(service.isPessimistaTemporario());
+        clearInvocations(beneficioService);
+
+        service.transfer(transferencia, null);
+
+        verify(beneficioService, never()).transferOtimista(any(), any());
+        verify(beneficioService).transfer(transferencia, null);
+        assertEquals(1.0, meterRegistry.get("beneficio.transferencia.fallback")
+                .tag("motivo", BeneficioMetricas.FALLBACK_CONFLITOS).counter().count());
+    }
+
+    private TransferenciaService service(TransferenciaService.Estrategia estrategia, int maxTentativas) {
+        return new TransferenciaService(beneficioService, new BeneficioMetricas(meterRegistry), motor, estrategia,
+                maxTentativas, Duration.ofMillis(1), 0.5, Duration.ofMinutes(1));
+    }
+}
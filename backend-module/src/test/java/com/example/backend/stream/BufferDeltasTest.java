@@ -0,0 +1,66 @@
+package com.example.backend.stream;
+
+import com.example.backend.dto.BeneficioDeltaDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BufferDeltasTest {
+
+    @Test
+    void testCoalescesByIdKeepingNewestVersion() {
+        BufferDeltas buffer = new BufferDeltas(10);
+
+        assertTrue(buffer.adicionar(delta("ATUALIZADO", 1L, "10.00", 2L)));
+        assertFalse(buffer.adicionar(delta("ATUALIZADO", 1L, "20.00", 4L)));
+        assertFalse(buffer.adicionar(delta("ATUALIZADO", 1L, "15.00", 3L)));
+        buffer.adicionar(delta("ATUALIZADO", 2L, "5.00", 1L));
+
+        BufferDeltas.Lote lote = buffer.retirar();
+        assertFalse(lote.ressincronizar);
+        assertEquals(2, lote.deltas.size());
+        assertEquals(4L, lote.deltas.get(0).getVersion());
+        assertEquals(new BigDecimal("20.00"), lote.deltas.get(0).getValor());
+        assertNull(buffer.retirar());
+    }
+
+    @Test
+    void testRemovalIsNotReplacedByLaterUpdate() {
+        BufferDeltas buffer = new BufferDeltas(10);
+        buffer.adicionar(delta("REMOVIDO", 1L, null, null));
+        buffer.adicionar(delta("ATUALIZADO", 1L, "10.00", 7L));
+
+        BufferDeltas.Lote lote = buffer.retirar();
+        assertEquals("REMOVIDO", lote.deltas.get(0).getTipo());
+    }
+
+    @Test
+    void testOverflowDiscardsDeltasAndRequestsResync() {
+        BufferDeltas buffer = new BufferDeltas(2);
+        for (long id = 1; id <= 5; id++) {
+            buffer.adicionar(delta("ATUALIZADO", id, "1.00", 1L));
+        }
+
+        BufferDeltas.Lote lote = buffer.retirar();
+        assertTrue(lote.ressincronizar);
+        assertTrue(lote.deltas.isEmpty());
+    }
+
+    @Test
+    void testSchedulesAgainOnlyAfterDrained() {
+        BufferDeltas buffer = new BufferDeltas(10);
+        assertTrue(buffer.adicionarHeartbeat());
+        assertFalse(buffer.adicionar(delta("ATUALIZADO", 1L, "1.00", 1L)));
+
+        BufferDeltas.Lote lote = buffer.retirar();
+        assertTrue(lote.heartbeat);
+        assertNull(buffer.retirar());
+        assertTrue(buffer.adicionar(delta("ATUALIZADO", 1L, "2.00", 2L)));
+    }
+
+    private static BeneficioDeltaDTO delta(String tipo, Long id, String valor, Long version) {
+        return new BeneficioDeltaDTO(tipo, id, valor != null ? new BigDecimal(valor) : null, version);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.benchmark;
+
+import com.example.backend.BackendApplication;
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Sobe o contexto da aplicação sem servidor web, sobre um H2 em memória exclusivo, e
+ * popula a tabela BENEFICIO.
+ */
+final class Aplicacao {
+
+    private static final int TAMANHO_BATCH = 1000;
+
+    private Aplicacao() {
+    }
+
+    /** Sobe a aplicação; {@code propriedades} complementa ou substitui a configuração padrão. */
+    static ConfigurableApplicationContext iniciar(String... propriedades) {
+        List<String> todas = new ArrayList<>(List.of("spring.h2.console.enabled=false"));
+        todas.addAll(List.of(propriedades));
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(argumentos(todas));
+    }
+
+    /**
+     * Sobe a aplicação com Tomcat em porta aleatória; {@code propriedades} complementa ou
+     * substitui a configuração padrão (ex.: {@code spring.profiles.active=virtual}).
+     */
+    static ConfigurableApplicationContext iniciarServidor(String... propriedades) {
+        List<String> todas = new ArrayList<>(List.of("server.port=0"));
+        todas.addAll(List.of(propriedades));
+        return new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .run(argumentos(todas));
+    }
+
+    /**
+     * Propriedades como argumentos de linha de comando, que têm precedência sobre o
+     * application.properties (ao contrário de {@code SpringApplicationBuilder.properties}).
+     */
+    private static String[] argumentos(List<String> propriedades) {
+        List<String> todas = new ArrayList<>(List.of(
+                "spring.datasource.url=jdbc:h2:mem:bench_" + UUID.randomUUID() + ";LOCK_TIMEOUT=3000",
+                "spring.jpa.show-sql=false",
+                "spring.main.banner-mode=off",
+                "logging.level.root=WARN"));
+        todas.addAll(propriedades);
+        return todas.stream().map(p -> "--" + p).toArray(String[]::new);
+    }
+
+    /** Insere {@code quantidade} benefícios ativos com o saldo informado e devolve os IDs. */
+    static List<Long> popular(ConfigurableApplicationContext contexto, int quantidade, BigDecimal saldo) {
+        BeneficioJdbcRepository jdbcRepository = contexto.getBean(BeneficioJdbcRepository.class);
+        List<BeneficioDTO> lote = new ArrayList<>(TAMANHO_BATCH);
+        for (int i = 0; i < quantidade; i++) {
+            lote.add(new BeneficioDTO(null, "Benchmark " + i, "Benefício de benchmark " + i, saldo, true, null));
+            if (lote.size() == TAMANHO_BATCH || i == quantidade - 1) {
+                jdbcRepository.insertAll(lote);
+                lote.clear();
+            }
+        }
+        return contexto.getBean(JdbcTemplate.class).queryForList("SELECT ID FROM BENEFICIO ORDER BY ID", Long.class);
+    }
+}
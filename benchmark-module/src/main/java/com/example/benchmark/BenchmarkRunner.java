@@ -0,0 +1,28 @@
+package com.example.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ponto de entrada de {@code benchmarks.jar}: repassa os argumentos ao JMH e, se o formato
+ * do resultado não for informado, grava os resultados em {@code jmh-result.json}.
+ *
+ * <pre>
+ * java -jar benchmark-module/target/benchmarks.jar                 # todos
+ * java -jar benchmark-module/target/benchmarks.jar TransferBenchmark -p distribuicao=CONCENTRADA
+ * </pre>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> argumentos = new ArrayList<>(Arrays.asList(args));
+        if (!argumentos.contains("-rf")) {
+            argumentos.addAll(List.of("-rf", "json", "-rff", "jmh-result.json"));
+        }
+        org.openjdk.jmh.Main.main(argumentos.toArray(new String[0]));
+    }
+}
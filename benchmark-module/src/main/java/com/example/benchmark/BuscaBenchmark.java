@@ -0,0 +1,115 @@
+package com.example.benchmark;
+
+import com.example.backend.busca.BuscaBeneficios;
+import com.example.backend.busca.ResultadoBusca;
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.repository.BeneficioJdbcRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca textual sobre {@link #TOTAL} benefícios: índice em memória ({@link BuscaBeneficios})
+ * contra {@code LIKE '%termo%'} no H2, um predicado por termo. Nomes combinam tipo, tema e
+ * um código de seis dígitos; descrições combinam tema e público. As consultas vão de um
+ * código exato (um resultado) a um prefixo presente em um oitavo das linhas.
+ *
+ * <p>O índice ordena por relevância e conta o total; o {@code LIKE} devolve as primeiras 20
+ * linhas por ID e pode parar assim que as encontra.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class BuscaBenchmark {
+
+    private static final int TOTAL = 1_000_000;
+
+    private static final int LIMITE = 20;
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private static final String[] TIPOS = {"Auxílio", "Vale", "Bolsa", "Plano", "Seguro", "Adicional", "Abono", "Subsídio"};
+
+    private static final String[] TEMAS = {"Alimentação", "Refeição", "Transporte", "Creche", "Educação", "Saúde",
+            "Odontológico", "Moradia", "Cultura", "Academia", "Combustível", "Internet", "Idiomas", "Farmácia",
+            "Natalidade", "Funeral", "Óculos", "Estacionamento", "Pós-graduação", "Previdência"};
+
+    private static final String[] PUBLICOS = {"colaboradores", "dependentes", "estagiários", "aposentados",
+            "terceirizados", "gestores", "aprendizes"};
+
+    /** Código exato; prefixo de códigos; dois termos inteiros; prefixo amplo. */
+    @Param({"421733", "4217", "bolsa idiomas", "aux"})
+    public String consulta;
+
+    private ConfigurableApplicationContext contexto;
+
+    private BuscaBeneficios busca;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private String sqlLike;
+
+    private Object[] parametrosLike;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = Aplicacao.iniciar();
+        busca = contexto.getBean(BuscaBeneficios.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        popular(contexto.getBean(BeneficioJdbcRepository.class));
+        // As linhas foram inseridas direto pelo repositório, sem eventos
+        busca.construir();
+
+        String[] termos = consulta.toLowerCase(Locale.ROOT).split(" ");
+        StringBuilder sql = new StringBuilder("SELECT ID FROM BENEFICIO WHERE 1 = 1");
+        List<Object> parametros = new ArrayList<>();
+        for (String termo : termos) {
+            sql.append(" AND (LOWER(NOME) LIKE ? OR LOWER(DESCRICAO) LIKE ?)");
+            parametros.add("%" + termo + "%");
+            parametros.add("%" + termo + "%");
+        }
+        sqlLike = sql.append(" ORDER BY ID LIMIT ").append(LIMITE).toString();
+        parametrosLike = parametros.toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ResultadoBusca indice() {
+        return busca.buscar(consulta, 0, LIMITE);
+    }
+
+    @Benchmark
+    public List<Long> like() {
+        return jdbcTemplate.queryForList(sqlLike, Long.class, parametrosLike);
+    }
+
+    private static void popular(BeneficioJdbcRepository jdbcRepository) {
+        List<BeneficioDTO> lote = new ArrayList<>(TAMANHO_LOTE);
+        BigDecimal saldo = new BigDecimal("1000.00");
+        for (int i = 0; i < TOTAL; i++) {
+            String nome = TIPOS[i % TIPOS.length] + " " + TEMAS[i / TIPOS.length % TEMAS.length]
+                    + " " + String.format("%06d", i);
+            String descricao = "Benefício de " + TEMAS[i % TEMAS.length].toLowerCase(Locale.ROOT)
+                    + " para " + PUBLICOS[i % PUBLICOS.length];
+            lote.add(new BeneficioDTO(null, nome, descricao, saldo, true, null));
+            if (lote.size() == TAMANHO_LOTE) {
+                jdbcRepository.insertAll(lote);
+                lote.clear();
+            }
+        }
+        jdbcRepository.insertAll(lote);
+    }
+}
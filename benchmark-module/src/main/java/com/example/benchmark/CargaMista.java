@@ -0,0 +1,197 @@
+package com.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Teste de carga HTTP com tráfego misto: leituras por ID (servidas pelo cache) e
+ * transferências entre poucas contas muito disputadas, que bloqueiam esperando locks.
+ * Executa a mesma carga com threads de plataforma (padrão do Tomcat), com threads de
+ * plataforma sem controle de admissão e com o timeout de 30s do Hikari (configuração
+ * anterior, em que a sobrecarga vira fila), e com o perfil {@code virtual} (virtual threads
+ * + bulkhead), e compara vazão e p99 de cada tipo.
+ *
+ * <pre>
+ * java -cp benchmark-module/target/benchmarks.jar -Dclientes=400 -Dduracao=20 \
+ *      com.example.benchmark.CargaMista
+ * </pre>
+ *
+ * O modo virtual exige Java 21; em versões anteriores apenas a linha de base é executada.
+ * O resultado é gravado em {@code carga-result.json}.
+ */
+public final class CargaMista {
+
+    private static final int CLIENTES = Integer.getInteger("clientes", 400);
+    private static final int DURACAO_SEGUNDOS = Integer.getInteger("duracao", 20);
+    private static final int AQUECIMENTO_SEGUNDOS = Integer.getInteger("aquecimento", 5);
+    private static final double PROPORCAO_LEITURA = Double.parseDouble(System.getProperty("leitura", "0.8"));
+    private static final int CONTAS_QUENTES = Integer.getInteger("quentes", 10);
+    private static final int CONTAS_LEITURA = 1000;
+
+    private CargaMista() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("clientes", CLIENTES);
+        resultado.put("duracaoSegundos", DURACAO_SEGUNDOS);
+        resultado.put("proporcaoLeitura", PROPORCAO_LEITURA);
+        // Primeira execução descartada: aquece o JIT para não penalizar o primeiro cenário medido
+        executar();
+        resultado.put("plataforma", executar());
+        resultado.put("semAdmissao", executar(
+                "beneficio.admissao.habilitada=false",
+                "spring.datasource.hikari.connection-timeout=30000"));
+        if (Runtime.version().feature() >= 21) {
+            resultado.put("virtual", executar("spring.profiles.active=virtual"));
+        } else {
+            System.out.println("Java " + Runtime.version().feature() + ": modo virtual ignorado (requer Java 21)");
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        objectMapper.writeValue(new File("carga-result.json"), resultado);
+        System.out.println(objectMapper.writeValueAsString(resultado));
+    }
+
+    private static Map<String, Object> executar(String... propriedades) throws Exception {
+        try (ConfigurableApplicationContext contexto = Aplicacao.iniciarServidor(propriedades)) {
+            List<Long> ids = Aplicacao.popular(contexto, CONTAS_QUENTES + CONTAS_LEITURA, new BigDecimal("1000000000.00"));
+            List<Long> quentes = ids.subList(0, CONTAS_QUENTES);
+            List<Long> leitura = ids.subList(CONTAS_QUENTES, ids.size());
+            String base = "http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                    + "/api/v1/beneficios";
+
+            ExecutorService executorHttp = Executors.newFixedThreadPool(4);
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(executorHttp)
+                    .build();
+            // Leituras medidas são servidas pelo cache, como em regime: cada conta é lida uma vez antes
+            for (Long id : leitura) {
+                http.send(HttpRequest.newBuilder(URI.create(base + "/" + id)).GET().build(),
+                        HttpResponse.BodyHandlers.discarding());
+            }
+            Amostras leituras = new Amostras();
+            Amostras transferencias = new Amostras();
+
+            long inicioMedicao = System.nanoTime() + TimeUnit.SECONDS.toNanos(AQUECIMENTO_SEGUNDOS);
+            long fim = inicioMedicao + TimeUnit.SECONDS.toNanos(DURACAO_SEGUNDOS);
+            ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+            CountDownLatch terminados = new CountDownLatch(CLIENTES);
+            for (int c = 0; c < CLIENTES; c++) {
+                clientes.execute(() -> {
+                    try {
+                        while (System.nanoTime() < fim) {
+                            ThreadLocalRandom random = ThreadLocalRandom.current();
+                            boolean leituraSorteada = random.nextDouble() < PROPORCAO_LEITURA;
+                            HttpRequest requisicao = leituraSorteada
+                                    ? HttpRequest.newBuilder(URI.create(base + "/" + leitura.get(random.nextInt(leitura.size())))).GET().build()
+                                    : transferencia(base, quentes, random);
+                            long inicio = System.nanoTime();
+                            int status;
+                            long esperaMs = 0;
+                            try {
+                                HttpResponse<Void> resposta = http.send(requisicao, HttpResponse.BodyHandlers.discarding());
+                                status = resposta.statusCode();
+                                esperaMs = resposta.headers().firstValueAsLong("Retry-After").orElse(0) * 1000;
+                            } catch (Exception e) {
+                                status = -1;
+                            }
+                            if (inicio >= inicioMedicao) {
+                                (leituraSorteada ? leituras : transferencias).registrar(System.nanoTime() - inicio, status);
+                            }
+                            // Como um cliente bem-comportado, respeita o Retry-After das respostas 503
+                            if (esperaMs > 0) {
+                                Thread.sleep(esperaMs);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        terminados.countDown();
+                    }
+                });
+            }
+            terminados.await();
+            clientes.shutdown();
+            executorHttp.shutdown();
+
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("leituras", leituras.resumo(DURACAO_SEGUNDOS));
+            resumo.put("transferencias", transferencias.resumo(DURACAO_SEGUNDOS));
+            return resumo;
+        }
+    }
+
+    private static HttpRequest transferencia(String base, List<Long> quentes, ThreadLocalRandom random) {
+        int from = random.nextInt(quentes.size());
+        int to = (from + 1 + random.nextInt(quentes.size() - 1)) % quentes.size();
+        String corpo = "{\"fromId\":" + quentes.get(from) + ",\"toId\":" + quentes.get(to) + ",\"amount\":1.00}";
+        return HttpRequest.newBuilder(URI.create(base + "/transfer"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                .build();
+    }
+
+    /** Latências (ns) e contagem de respostas por classe de status. */
+    private static final class Amostras {
+
+        private final List<Long> latencias = new ArrayList<>();
+        private long sucesso;
+        private long rejeitadas;
+        private long erros;
+
+        synchronized void registrar(long nanos, int status) {
+            latencias.add(nanos);
+            if (status >= 200 && status < 300) {
+                sucesso++;
+            } else if (status == 409 || status == 503) {
+                rejeitadas++;
+            } else {
+                erros++;
+            }
+        }
+
+        synchronized Map<String, Object> resumo(int segundos) {
+            long[] ordenadas = latencias.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(ordenadas);
+            Map<String, Object> resumo = new LinkedHashMap<>();
+            resumo.put("requisicoes", ordenadas.length);
+            resumo.put("vazaoPorSegundo", (double) sucesso / segundos);
+            resumo.put("sucesso", sucesso);
+            resumo.put("rejeitadas409ou503", rejeitadas);
+            resumo.put("erros", erros);
+            resumo.put("p50Ms", percentil(ordenadas, 0.50));
+            resumo.put("p99Ms", percentil(ordenadas, 0.99));
+            return resumo;
+        }
+
+        private static double percentil(long[] ordenadas, double p) {
+            if (ordenadas.length == 0) {
+                return 0;
+            }
+            int indice = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+            return ordenadas[Math.max(0, indice)] / 1_000_000.0;
+        }
+    }
+}
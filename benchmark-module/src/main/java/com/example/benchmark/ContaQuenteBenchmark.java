@@ -0,0 +1,95 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.service.BeneficioFatiaService;
+import com.example.backend.service.TransferenciaService;
+import jakarta.persistence.OptimisticLockException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.PessimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transferências em que um dos lados é sempre a mesma conta (ex.: conta central de repasse),
+ * com 1, 4 e 16 threads, com a conta fatiada ({@code -p fatias=16}) ou não ({@code fatias=0}).
+ * Metade das transferências credita a conta quente e metade a debita; o outro lado é sorteado
+ * entre as demais contas. Sem fatias, toda transferência disputa o lock da linha da conta
+ * quente; com fatias, cada uma bloqueia apenas uma fatia ao acaso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ContaQuenteBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("1.00");
+
+    @Param({"1000"})
+    public int contas;
+
+    @Param({"0", "16"})
+    public int fatias;
+
+    private ConfigurableApplicationContext contexto;
+
+    private TransferenciaService service;
+
+    private List<Long> ids;
+
+    private Long quente;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = Aplicacao.iniciar();
+        service = contexto.getBean(TransferenciaService.class);
+        List<Long> todos = Aplicacao.popular(contexto, contas, new BigDecimal("1000000000.00"));
+        // Só as contas inseridas aqui: os benefícios de exemplo têm saldo pequeno
+        ids = todos.subList(todos.size() - contas, todos.size());
+        quente = ids.get(0);
+        if (fatias > 0) {
+            contexto.getBean(BeneficioFatiaService.class).habilitar(quente, fatias);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void transfer1Thread(TransferBenchmark.Falhas falhas) {
+        transferir(falhas);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transfer4Threads(TransferBenchmark.Falhas falhas) {
+        transferir(falhas);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void transfer16Threads(TransferBenchmark.Falhas falhas) {
+        transferir(falhas);
+    }
+
+    private void transferir(TransferBenchmark.Falhas falhas) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long outra = ids.get(1 + random.nextInt(ids.size() - 1));
+        TransferenciaDTO dto = random.nextBoolean()
+                ? new TransferenciaDTO(outra, quente, VALOR)
+                : new TransferenciaDTO(quente, outra, VALOR);
+        try {
+            service.transfer(dto, null);
+        } catch (PessimisticLockingFailureException | OptimisticLockException e) {
+            falhas.falhas++;
+        }
+    }
+}
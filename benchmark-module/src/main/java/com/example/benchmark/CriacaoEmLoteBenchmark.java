@@ -0,0 +1,74 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.service.BeneficioService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Criação de {@link #TOTAL} benefícios pela camada de serviço ({@code createAll}, em lotes de
+ * {@link BeneficioService#MAX_ITENS_LOTE}), com e sem batching JDBC do Hibernate
+ * ({@code hibernate.jdbc.batch_size} igual a 1 desativa o batching). Cada iteração é uma única
+ * execução; os benefícios criados são removidos entre as iterações, fora da medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CriacaoEmLoteBenchmark {
+
+    private static final int TOTAL = 100_000;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext contexto;
+
+    private BeneficioService service;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<List<BeneficioDTO>> lotes = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = Aplicacao.iniciar("spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        service = contexto.getBean(BeneficioService.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        List<BeneficioDTO> lote = new ArrayList<>(BeneficioService.MAX_ITENS_LOTE);
+        for (int i = 0; i < TOTAL; i++) {
+            lote.add(new BeneficioDTO(null, "Criado " + i, "Benefício criado em lote", new BigDecimal(i % 1000 + 1), true, null));
+            if (lote.size() == BeneficioService.MAX_ITENS_LOTE) {
+                lotes.add(lote);
+                lote = new ArrayList<>(BeneficioService.MAX_ITENS_LOTE);
+            }
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpar() {
+        jdbcTemplate.execute("DELETE FROM BENEFICIO");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public long criar() {
+        long criados = 0;
+        for (List<BeneficioDTO> lote : lotes) {
+            criados += service.createAll(lote).size();
+        }
+        return criados;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.benchmark;
+
+import com.example.backend.diario.DiarioTransferencias;
+import com.example.backend.diario.RegistroTransferencia;
+import com.example.backend.event.TransferenciasAceitasEvent;
+import com.example.backend.metrics.BeneficioMetricas;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Registros por segundo no diário binário de transferências, cada um aguardando o
+ * {@code fsync} que o confirma, com 1, 4 e 16 threads e diferentes janelas de group commit.
+ * O diretório vem de {@code -Ddiario.diretorio} (padrão: temporário do sistema), para medir o
+ * disco de destino; o resultado depende muito do {@code fsync} do sistema de arquivos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DiarioBenchmark {
+
+    @Param({"0ms", "100us", "1ms"})
+    public String janela;
+
+    private Path diretorio;
+
+    private DiarioTransferencias diario;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        Path base = Path.of(System.getProperty("diario.diretorio", System.getProperty("java.io.tmpdir")));
+        diretorio = Files.createTempDirectory(base, "diario-bench");
+        diario = new DiarioTransferencias(diretorio, DataSize.ofMegabytes(64), DurationStyle.detectAndParse(janela),
+                new BeneficioMetricas(new SimpleMeterRegistry()));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        diario.close();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(diretorio);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long registrar1Thread() {
+        return registrar();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long registrar4Threads() {
+        return registrar();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long registrar16Threads() {
+        return registrar();
+    }
+
+    private long registrar() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return diario.registrar(List.of(new TransferenciasAceitasEvent.Item(RegistroTransferencia.SEM_TRANSFERENCIA,
+                random.nextLong(1000), random.nextLong(1000), 100, 1L, 1L))).join();
+    }
+}
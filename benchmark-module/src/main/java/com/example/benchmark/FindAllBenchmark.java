@@ -0,0 +1,81 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.repository.BeneficioRepository;
+import com.example.backend.service.BeneficioCsv;
+import com.example.backend.service.BeneficioMapper;
+import com.example.backend.service.BeneficioService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem completa em tamanhos crescentes de tabela: projeção DTO (caminho atual),
+ * carga de entidades seguida de mapeamento (caminho anterior), streaming JDBC e a
+ * exportação CSV sobre o streaming.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FindAllBenchmark {
+
+    @Param({"100", "1000", "10000", "100000"})
+    public int tamanho;
+
+    private ConfigurableApplicationContext contexto;
+
+    private BeneficioService service;
+
+    private BeneficioRepository repository;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = Aplicacao.iniciar();
+        service = contexto.getBean(BeneficioService.class);
+        repository = contexto.getBean(BeneficioRepository.class);
+        Aplicacao.popular(contexto, tamanho, new BigDecimal("1000.00"));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> findAllProjecao() {
+        return service.findAll();
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> findAllEntidades() {
+        return repository.findAll().stream().map(BeneficioMapper::toDTO).toList();
+    }
+
+    @Benchmark
+    public void forEachStreaming(Blackhole blackhole) {
+        service.forEach(false, blackhole::consume);
+    }
+
+    /** Exportação CSV: streaming JDBC mais formatação, descartando a saída. */
+    @Benchmark
+    public void exportarCsv() {
+        Writer writer = Writer.nullWriter();
+        service.forEach(false, dto -> {
+            try {
+                BeneficioCsv.escrever(writer, dto);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.ImportacaoResultadoDTO;
+import com.example.backend.service.BeneficioImportacaoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importação em lote de {@code tamanho} linhas por invocação, em CSV e NDJSON. A vazão em
+ * linhas por segundo é a métrica secundária {@code linhas}; as linhas importadas são
+ * removidas entre as invocações, fora da medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ImportacaoBenchmark {
+
+    @Param({"10000", "100000"})
+    public int tamanho;
+
+    private ConfigurableApplicationContext contexto;
+
+    private BeneficioImportacaoService importacaoService;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private byte[] csv;
+
+    private byte[] ndjson;
+
+    @Setup(Level.Trial)
+    public void iniciar() {
+        contexto = Aplicacao.iniciar();
+        importacaoService = contexto.getBean(BeneficioImportacaoService.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        StringBuilder linhasCsv = new StringBuilder("nome,descricao,valor,ativo\n");
+        StringBuilder linhasNdjson = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            linhasCsv.append("Importado ").append(i).append(",\"Benefício, importado\",").append(i % 1000 + 1).append(".00,true\n");
+            linhasNdjson.append("{\"nome\":\"Importado ").append(i).append("\",\"descricao\":\"Benefício importado\",\"valor\":")
+                    .append(i % 1000 + 1).append(".00,\"ativo\":true}\n");
+        }
+        csv = linhasCsv.toString().getBytes(StandardCharsets.UTF_8);
+        ndjson = linhasNdjson.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Invocation)
+    public void limpar() {
+        jdbcTemplate.execute("DELETE FROM BENEFICIO");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public ImportacaoResultadoDTO importarCsv(Linhas linhas) {
+        ImportacaoResultadoDTO resultado = importacaoService.importarCsv(new ByteArrayInputStream(csv), true);
+        linhas.linhas += resultado.getImportados();
+        return resultado;
+    }
+
+    @Benchmark
+    public ImportacaoResultadoDTO importarNdjson(Linhas linhas) {
+        ImportacaoResultadoDTO resultado = importacaoService.importarNdjson(new ByteArrayInputStream(ndjson), true);
+        linhas.linhas += resultado.getImportados();
+        return resultado;
+    }
+
+    /** Linhas importadas, normalizadas por segundo como a métrica principal. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Linhas {
+        public long linhas;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.example.backend.entity.Beneficio;
+import com.example.backend.service.BeneficioMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Custo de {@link BeneficioMapper#toDTO(Beneficio)}, sem banco. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeamentoBenchmark {
+
+    @Param({"1", "1000"})
+    public int tamanho;
+
+    private List<Beneficio> beneficios;
+
+    @Setup
+    public void iniciar() {
+        beneficios = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            Beneficio beneficio = new Beneficio("Benchmark " + i, "Benefício de benchmark " + i,
+                    new BigDecimal("1000.00"), true);
+            beneficio.setId((long) i + 1);
+            beneficio.setVersion(0L);
+            beneficios.add(beneficio);
+        }
+    }
+
+    @Benchmark
+    public void toDTO(Blackhole blackhole) {
+        for (Beneficio beneficio : beneficios) {
+            blackhole.consume(BeneficioMapper.toDTO(beneficio));
+        }
+    }
+
+    @Benchmark
+    public List<BeneficioDTO> toDTOStream() {
+        return beneficios.stream().map(BeneficioMapper::toDTO).toList();
+    }
+}
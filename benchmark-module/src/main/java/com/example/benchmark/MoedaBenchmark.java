@@ -0,0 +1,101 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.ejb.Centavos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trabalho monetário de uma transferência, com {@link BigDecimal} e com centavos em
+ * {@code long}: leitura do corpo JSON e validação, débito e crédito dos saldos. Rodar
+ * com {@code -prof gc} para ver os bytes alocados por operação ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoedaBenchmark {
+
+    private static final byte[] CORPO = "{\"fromId\":1,\"toId\":2,\"amount\":150.25}".getBytes(StandardCharsets.UTF_8);
+
+    private ObjectReader leitorBigDecimal;
+
+    private ObjectReader leitorCentavos;
+
+    private BigDecimal origemBigDecimal;
+
+    private BigDecimal destinoBigDecimal;
+
+    private BigDecimal valorBigDecimal;
+
+    private long origemCentavos;
+
+    private long destinoCentavos;
+
+    private long valorCentavos;
+
+    @Setup
+    public void iniciar() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        leitorBigDecimal = objectMapper.readerFor(TransferenciaBigDecimal.class);
+        leitorCentavos = objectMapper.readerFor(TransferenciaDTO.class);
+        origemBigDecimal = new BigDecimal("1000000000.00");
+        destinoBigDecimal = new BigDecimal("1000000000.00");
+        valorBigDecimal = new BigDecimal("1.25");
+        origemCentavos = Centavos.de(origemBigDecimal);
+        destinoCentavos = Centavos.de(destinoBigDecimal);
+        valorCentavos = Centavos.de(valorBigDecimal);
+    }
+
+    @Benchmark
+    public BigDecimal lerBigDecimal() throws IOException {
+        return leitorBigDecimal.<TransferenciaBigDecimal>readValue(CORPO).amount;
+    }
+
+    @Benchmark
+    public Long lerCentavos() throws IOException {
+        return leitorCentavos.<TransferenciaDTO>readValue(CORPO).getAmountCentavos();
+    }
+
+    /** Como a transferência síncrona antes dos centavos: compara, subtrai e soma. */
+    @Benchmark
+    public BigDecimal transferirBigDecimal() {
+        if (valorBigDecimal.compareTo(BigDecimal.ZERO) <= 0 || origemBigDecimal.compareTo(valorBigDecimal) < 0) {
+            throw new IllegalStateException("Saldo insuficiente");
+        }
+        origemBigDecimal = origemBigDecimal.subtract(valorBigDecimal);
+        destinoBigDecimal = destinoBigDecimal.add(valorBigDecimal);
+        // Devolve o saldo ao estado inicial: a escala e o tamanho dos números não variam
+        origemBigDecimal = origemBigDecimal.add(valorBigDecimal);
+        destinoBigDecimal = destinoBigDecimal.subtract(valorBigDecimal);
+        return destinoBigDecimal;
+    }
+
+    @Benchmark
+    public long transferirCentavos() {
+        if (valorCentavos <= 0 || origemCentavos < valorCentavos) {
+            throw new IllegalStateException("Saldo insuficiente");
+        }
+        origemCentavos -= valorCentavos;
+        destinoCentavos += valorCentavos;
+        origemCentavos += valorCentavos;
+        destinoCentavos -= valorCentavos;
+        return destinoCentavos;
+    }
+
+    /** O corpo de transferência com o valor em {@link BigDecimal}, como era o {@link TransferenciaDTO}. */
+    public static class TransferenciaBigDecimal {
+        public Long fromId;
+        public Long toId;
+        public BigDecimal amount;
+    }
+}
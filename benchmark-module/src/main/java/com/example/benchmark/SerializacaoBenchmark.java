@@ -0,0 +1,57 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.BeneficioDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Jackson de listas de {@link BeneficioDTO}, com a mesma configuração
+ * padrão usada pelo Spring MVC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacaoBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int tamanho;
+
+    private List<BeneficioDTO> beneficios;
+
+    private ObjectMapper objectMapper;
+
+    private ObjectWriter writer;
+
+    @Setup
+    public void iniciar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, BeneficioDTO.class));
+        beneficios = new ArrayList<>(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            beneficios.add(new BeneficioDTO((long) i + 1, "Benchmark " + i, "Benefício de benchmark " + i,
+                    new BigDecimal("1000.00"), true, 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(beneficios);
+    }
+
+    /** Writer com tipo pré-resolvido, sem a resolução do serializador por chamada. */
+    @Benchmark
+    public byte[] writerPreResolvido() throws JsonProcessingException {
+        return writer.writeValueAsBytes(beneficios);
+    }
+}
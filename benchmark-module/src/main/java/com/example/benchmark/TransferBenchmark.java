@@ -0,0 +1,134 @@
+package com.example.benchmark;
+
+import com.example.backend.dto.TransferenciaDTO;
+import com.example.backend.event.BeneficiosImportadosEvent;
+import com.example.backend.service.BeneficioService;
+import com.example.backend.service.TransferenciaService;
+import jakarta.persistence.OptimisticLockException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * {@link TransferenciaService#transfer} sob disputa de locks, com 1, 4 e o máximo de threads,
+ * nas estratégias pessimista ({@link BeneficioService#transfer}), atômica
+ * ({@link BeneficioService#transferAtomica}: um UPDATE condicional por benefício), otimista
+ * (UPDATE condicionado à versão, retentativas e fallback pessimista) e motor (saldos em
+ * memória, confirmação após o {@code fsync} do diário, gravação no banco em segundo plano).
+ *
+ * <p>UNIFORME sorteia origem e destino entre todas as contas; CONCENTRADA direciona 90%
+ * das escolhas para 1% das contas (mínimo de 2), simulando contas muito disputadas.
+ * Falhas de lock após as retentativas são contadas em {@code falhas}, não abortam a medição.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final BigDecimal VALOR = new BigDecimal("1.00");
+
+    public enum Distribuicao { UNIFORME, CONCENTRADA }
+
+    @Param({"1000"})
+    public int contas;
+
+    @Param({"UNIFORME", "CONCENTRADA"})
+    public Distribuicao distribuicao;
+
+    @Param({"PESSIMISTA", "ATOMICA", "OTIMISTA", "MOTOR"})
+    public TransferenciaService.Estrategia estrategia;
+
+    private ConfigurableApplicationContext contexto;
+
+    private TransferenciaService service;
+
+    private List<Long> ids;
+
+    private int quentes;
+
+    private Path diretorio;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        diretorio = Files.createTempDirectory("motor-bench");
+        contexto = Aplicacao.iniciar("beneficio.transferencia.estrategia=" + estrategia,
+                "beneficio.motor.diretorio=" + diretorio);
+        service = contexto.getBean(TransferenciaService.class);
+        ids = Aplicacao.popular(contexto, contas, new BigDecimal("1000000000.00"));
+        // A carga via JDBC não publica eventos; o motor só conhece contas anunciadas
+        new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class)).executeWithoutResult(
+                status -> contexto.publishEvent(new BeneficiosImportadosEvent(ids.size())));
+        quentes = Math.max(2, contas / 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(diretorio);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void transfer1Thread(Falhas falhas) {
+        transferir(falhas);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void transfer4Threads(Falhas falhas) {
+        transferir(falhas);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void transferMaxThreads(Falhas falhas) {
+        transferir(falhas);
+    }
+
+    private void transferir(Falhas falhas) {
+        int from = sortear();
+        int to = sortear();
+        while (to == from) {
+            to = sortear();
+        }
+        try {
+            service.transfer(new TransferenciaDTO(ids.get(from), ids.get(to), VALOR), null);
+        } catch (PessimisticLockingFailureException | OptimisticLockException e) {
+            falhas.falhas++;
+        }
+    }
+
+    private int sortear() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (distribuicao == Distribuicao.CONCENTRADA && random.nextInt(10) < 9) {
+            return random.nextInt(quentes);
+        }
+        return random.nextInt(ids.size());
+    }
+
+    /** Transferências que falharam por lock, reportadas como métrica secundária. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Falhas {
+        public long falhas;
+    }
+}
@@ -1,8 +1,54 @@
+-- Schema consolidado, para referência. O schema da aplicação é criado e evoluído pelas
+-- migrações do Flyway em backend-module/src/main/resources/db/migration.
+
+-- Cada valor reserva um bloco de 50 IDs (otimizador pooled-lo do Hibernate)
+CREATE SEQUENCE BENEFICIO_SEQ START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE BENEFICIO (
-  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ID BIGINT PRIMARY KEY,
   NOME VARCHAR(100) NOT NULL,
   DESCRICAO VARCHAR(255),
   VALOR DECIMAL(15,2) NOT NULL,
   ATIVO BOOLEAN DEFAULT TRUE,
-  VERSION BIGINT DEFAULT 0
+  VERSION BIGINT DEFAULT 0,
+  FATIAS INT DEFAULT 0 NOT NULL
+);
+-- Listagem e paginação por keyset de ativos (H2 não tem índices parciais)
+CREATE INDEX IDX_BENEFICIO_ATIVO_ID ON BENEFICIO (ATIVO, ID);
+
+-- Sub-saldos de benefícios em modo fatiado (BENEFICIO.FATIAS > 0)
+CREATE TABLE BENEFICIO_FATIA (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  BENEFICIO_ID BIGINT NOT NULL REFERENCES BENEFICIO(ID) ON DELETE CASCADE,
+  INDICE INT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  CONSTRAINT UK_FATIA_BENEFICIO_INDICE UNIQUE (BENEFICIO_ID, INDICE)
+);
+CREATE INDEX IDX_FATIA_BENEFICIO ON BENEFICIO_FATIA (BENEFICIO_ID);
+
+-- Ledger append-only de transferências; APLICADA indica se o movimento já foi
+-- refletido em BENEFICIO.VALOR (modo assíncrono); SEQUENCIA_MOTOR é a sequência do
+-- movimento no diário do motor de transferências (nula no caminho JPA)
+CREATE TABLE TRANSFERENCIA (
+  ID BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  ORIGEM_ID BIGINT NOT NULL,
+  DESTINO_ID BIGINT NOT NULL,
+  VALOR DECIMAL(15,2) NOT NULL,
+  CRIADA_EM TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+  APLICADA BOOLEAN NOT NULL,
+  SEQUENCIA_MOTOR BIGINT
+);
+CREATE INDEX IDX_TRANSFERENCIA_PENDENTE ON TRANSFERENCIA (APLICADA, ID);
+CREATE INDEX IDX_TRANSFERENCIA_ORIGEM ON TRANSFERENCIA (ORIGEM_ID, APLICADA);
+CREATE INDEX IDX_TRANSFERENCIA_DESTINO ON TRANSFERENCIA (DESTINO_ID);
+CREATE INDEX IDX_TRANSFERENCIA_SEQUENCIA_MOTOR ON TRANSFERENCIA (SEQUENCIA_MOTOR);
+
+-- Respostas de requisições com Idempotency-Key (removidas após o TTL)
+CREATE TABLE IDEMPOTENCIA (
+  CHAVE VARCHAR(255) PRIMARY KEY,
+  OPERACAO VARCHAR(30) NOT NULL,
+  HASH_REQUISICAO VARCHAR(64) NOT NULL,
+  RESPOSTA VARCHAR(4000),
+  CRIADA_EM TIMESTAMP(6) WITH TIME ZONE NOT NULL
 );
+CREATE INDEX IDX_IDEMPOTENCIA_CRIADA_EM ON IDEMPOTENCIA (CRIADA_EM);
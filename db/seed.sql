@@ -1,3 +1,3 @@
-INSERT INTO BENEFICIO (NOME, DESCRICAO, VALOR, ATIVO) VALUES
-('Beneficio A', 'Descrição A', 1000.00, TRUE),
-('Beneficio B', 'Descrição B', 500.00, TRUE);
+INSERT INTO BENEFICIO (ID, NOME, DESCRICAO, VALOR, ATIVO) VALUES
+(NEXT VALUE FOR BENEFICIO_SEQ, 'Beneficio A', 'Descrição A', 1000.00, TRUE),
+(NEXT VALUE FOR BENEFICIO_SEQ, 'Beneficio B', 'Descrição B', 500.00, TRUE);
@@ -1,14 +1,27 @@
 package com.example.ejb;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "BENEFICIO")
 public class Beneficio {
 
+    /**
+     * Mesma sequência e otimizador (pooled-lo, blocos de 50) do backend: os dois módulos
+     * podem gravar na mesma tabela sem colisão de IDs.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "beneficio_seq")
+    @GenericGenerator(name = "beneficio_seq", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "BENEFICIO_SEQ"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long id;
 
     @Column(name = "NOME", nullable = false, length = 100)
@@ -17,8 +30,10 @@ public class Beneficio {
     @Column(name = "DESCRICAO", length = 255)
     private String descricao;
 
+    /** Saldo em centavos (ver {@link CentavosConverter}). */
+    @Convert(converter = CentavosConverter.class)
     @Column(name = "VALOR", nullable = false, precision = 15, scale = 2)
-    private BigDecimal valor;
+    private long valor;
 
     @Column(name = "ATIVO")
     private Boolean ativo = true;
@@ -27,6 +42,10 @@ public class Beneficio {
     @Column(name = "VERSION")
     private Long version;
 
+    /** Quantidade de fatias (sub-saldos); acima de zero o saldo fica em BENEFICIO_FATIA. */
+    @Column(name = "FATIAS")
+    private Integer fatias = 0;
+
     // Construtores
     public Beneficio() {
     }
@@ -34,7 +53,7 @@ public class Beneficio {
     public Beneficio(String nome, String descricao, BigDecimal valor, Boolean ativo) {
         this.nome = nome;
         this.descricao = descricao;
-        this.valor = valor;
+        setValor(valor);
         this.ativo = ativo;
     }
 
@@ -64,10 +83,18 @@ public class Beneficio {
     }
 
     public BigDecimal getValor() {
-        return valor;
+        return Centavos.paraBigDecimal(valor);
     }
 
     public void setValor(BigDecimal valor) {
+        this.valor = Centavos.de(valor);
+    }
+
+    public long getValorCentavos() {
+        return valor;
+    }
+
+    public void setValorCentavos(long valor) {
         this.valor = valor;
     }
 
@@ -86,5 +113,12 @@ public class Beneficio {
     public void setVersion(Long version) {
         this.version = version;
     }
-}
 
+    public Integer getFatias() {
+        return fatias;
+    }
+
+    public void setFatias(Integer fatias) {
+        this.fatias = fatias;
+    }
+}
@@ -8,10 +8,14 @@ import jakarta.persistence.LockModeType;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.PersistenceContext;
 import java.math.BigDecimal;
+import java.util.List;
 
 @Stateless
 public class BeneficioEjbService {
 
+    /** Tempo máximo (ms) de espera pelos locks pessimistas da transferência. */
+    private static final int LOCK_TIMEOUT_MS = 3000;
+
     @PersistenceContext
     private EntityManager em;
 
@@ -30,9 +34,28 @@ public class BeneficioEjbService {
             throw new IllegalArgumentException("Não é possível transferir para o mesmo benefício");
         }
 
-        // Busca com locking pessimista para evitar condições de corrida
-        Beneficio from = em.find(Beneficio.class, fromId, LockModeType.PESSIMISTIC_WRITE);
-        Beneficio to = em.find(Beneficio.class, toId, LockModeType.PESSIMISTIC_WRITE);
+        long centavos = Centavos.de(amount);
+
+        // Locking pessimista em uma única consulta ordenada por ID: todas as transações
+        // bloqueiam as linhas na mesma ordem, evitando deadlock em transferências cruzadas.
+        // O timeout limita a espera; LockTimeoutException faz rollback e pode ser retentada
+        // pelo chamador em uma nova transação.
+        List<Beneficio> bloqueados = em.createQuery(
+                        "SELECT b FROM Beneficio b WHERE b.id IN :ids ORDER BY b.id", Beneficio.class)
+                .setParameter("ids", List.of(fromId, toId))
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setHint("jakarta.persistence.lock.timeout", LOCK_TIMEOUT_MS)
+                .getResultList();
+
+        Beneficio from = null;
+        Beneficio to = null;
+        for (Beneficio b : bloqueados) {
+            if (b.getId().equals(fromId)) {
+                from = b;
+            } else if (b.getId().equals(toId)) {
+                to = b;
+            }
+        }
 
         if (from == null) {
             throw new IllegalArgumentException("Benefício de origem não encontrado: " + fromId);
@@ -50,18 +73,22 @@ public class BeneficioEjbService {
             throw new IllegalStateException("Benefício de destino não está ativo");
         }
 
-        // Validação de saldo suficiente
-        BigDecimal novoSaldo = from.getValor().subtract(amount);
-        if (novoSaldo.compareTo(BigDecimal.ZERO) < 0) {
-            throw new IllegalStateException(
-                String.format("Saldo insuficiente. Saldo atual: %s, Valor solicitado: %s", 
-                    from.getValor(), amount)
-            );
+        // Benefícios fatiados mantêm o saldo em BENEFICIO_FATIA e só são movimentados pelo backend
+        if (isFatiado(from) || isFatiado(to)) {
+            throw new IllegalStateException("Benefícios com saldo fatiado não são suportados por este serviço");
+        }
+
+        // Validação de saldo suficiente, em centavos
+        long novoSaldo = from.getValorCentavos() - centavos;
+        if (novoSaldo < 0) {
+            throw new IllegalStateException("Saldo insuficiente. Saldo atual: "
+                    + Centavos.formatar(from.getValorCentavos())
+                    + ", Valor solicitado: " + Centavos.formatar(centavos));
         }
 
         // Realiza a transferência
-        from.setValor(novoSaldo);
-        to.setValor(to.getValor().add(amount));
+        from.setValorCentavos(novoSaldo);
+        to.setValorCentavos(to.getValorCentavos() + centavos);
 
         // Atualiza as entidades (o lock garante consistência)
         em.merge(from);
@@ -69,4 +96,8 @@ public class BeneficioEjbService {
         
         // Se houver OptimisticLockException, será propagada para fazer rollback
     }
+
+    private boolean isFatiado(Beneficio beneficio) {
+        return beneficio.getFatias() != null && beneficio.getFatias() > 0;
+    }
 }
@@ -0,0 +1,103 @@
+package com.example.ejb;
+
+import java.math.BigDecimal;
+
+/**
+ * Valores monetários em ponto fixo: um {@code long} de centavos, a mesma escala da coluna
+ * VALOR ({@code DECIMAL(15,2)}). Soma, subtração e comparação de saldos viram aritmética de
+ * primitivos, sem alocar um {@link BigDecimal} por operação; a conversão para
+ * {@link BigDecimal} fica nas bordas (JDBC, APIs que ainda o recebem). Compartilhado pelo
+ * EJB e pelo backend, que depende deste módulo.
+ */
+public final class Centavos {
+
+    /** Maior valor da coluna {@code DECIMAL(15,2)}: 13 dígitos inteiros e 2 decimais. */
+    public static final long MAXIMO = 999_999_999_999_999L;
+
+    private Centavos() {
+    }
+
+    /**
+     * @throws IllegalArgumentException se o valor tem mais de duas casas decimais ou não cabe
+     *                                  em {@code DECIMAL(15,2)}
+     */
+    public static long de(BigDecimal valor) {
+        try {
+            return validar(valor.movePointRight(2).longValueExact());
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Valor deve ter no máximo duas casas decimais: " + valor);
+        }
+    }
+
+    public static BigDecimal paraBigDecimal(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    /** Representação decimal com duas casas (ex.: {@code -12.05}), como {@code BigDecimal.toPlainString}. */
+    public static String formatar(long centavos) {
+        long absoluto = Math.abs(centavos);
+        long fracao = absoluto % 100;
+        return (centavos < 0 ? "-" : "") + absoluto / 100 + (fracao < 10 ? ".0" : ".") + fracao;
+    }
+
+    /**
+     * Lê um número decimal sem expoente (ex.: {@code 10}, {@code -0.5}, {@code 100.00}) direto
+     * dos caracteres, sem criar {@link BigDecimal}. Zeros além da segunda casa são aceitos.
+     *
+     * @throws NumberFormatException se o texto não é um decimal simples, tem casas além da
+     *                               segunda diferentes de zero ou não cabe em {@code DECIMAL(15,2)}
+     */
+    public static long ler(char[] texto, int inicio, int tamanho) {
+        int fim = inicio + tamanho;
+        int i = inicio;
+        boolean negativo = i < fim && texto[i] == '-';
+        if (negativo) {
+            i++;
+        }
+        long inteiro = 0;
+        int digitosInteiros = 0;
+        for (; i < fim && texto[i] != '.'; i++, digitosInteiros++) {
+            inteiro = inteiro * 10 + digito(texto, i, inicio, tamanho);
+            if (inteiro > MAXIMO / 100) {
+                throw new NumberFormatException("Valor fora do limite: " + new String(texto, inicio, tamanho));
+            }
+        }
+        long centavos = inteiro * 100;
+        int casas = 0;
+        if (i < fim) {
+            for (i++; i < fim; i++, casas++) {
+                int digito = digito(texto, i, inicio, tamanho);
+                if (casas == 0) {
+                    centavos += digito * 10L;
+                } else if (casas == 1) {
+                    centavos += digito;
+                } else if (digito != 0) {
+                    throw new NumberFormatException(
+                            "Valor deve ter no máximo duas casas decimais: " + new String(texto, inicio, tamanho));
+                }
+            }
+            if (casas == 0) {
+                throw new NumberFormatException("Valor inválido: " + new String(texto, inicio, tamanho));
+            }
+        }
+        if (digitosInteiros == 0 && casas == 0) {
+            throw new NumberFormatException("Valor inválido: " + new String(texto, inicio, tamanho));
+        }
+        return negativo ? -centavos : centavos;
+    }
+
+    private static int digito(char[] texto, int posicao, int inicio, int tamanho) {
+        char c = texto[posicao];
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Valor inválido: " + new String(texto, inicio, tamanho));
+        }
+        return c - '0';
+    }
+
+    private static long validar(long centavos) {
+        if (Math.abs(centavos) > MAXIMO) {
+            throw new ArithmeticException();
+        }
+        return centavos;
+    }
+}
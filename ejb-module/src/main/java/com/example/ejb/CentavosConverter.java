@@ -0,0 +1,25 @@
+package com.example.ejb;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Mapeia um atributo em centavos para a coluna {@code DECIMAL(15,2)}. O {@link BigDecimal}
+ * existe apenas na fronteira com o JDBC; a entidade guarda o {@code long}. Usado pelas
+ * entidades do EJB e do backend.
+ */
+@Converter
+public class CentavosConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long centavos) {
+        return centavos != null ? Centavos.paraBigDecimal(centavos) : null;
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal valor) {
+        return valor != null ? Centavos.de(valor) : null;
+    }
+}
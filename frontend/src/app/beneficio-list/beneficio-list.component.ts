@@ -1,8 +1,9 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { FormsModule } from '@angular/forms';
 import { BeneficioService } from '../services/beneficio.service';
-import { Beneficio, Transferencia } from '../models/beneficio.model';
+import { Subscription } from 'rxjs';
+import { Beneficio, BeneficioDelta, Transferencia } from '../models/beneficio.model';
 
 @Component({
   selector: 'app-beneficio-list',
@@ -11,7 +12,7 @@ import { Beneficio, Transferencia } from '../models/beneficio.model';
   templateUrl: './beneficio-list.component.html',
   styleUrl: './beneficio-list.component.css'
 })
-export class BeneficioListComponent implements OnInit {
+export class BeneficioListComponent implements OnInit, OnDestroy {
   beneficios: Beneficio[] = [];
   selectedBeneficio: Beneficio | null = null;
   showModal = false;
@@ -20,6 +21,8 @@ export class BeneficioListComponent implements OnInit {
   errorMessage = '';
   successMessage = '';
 
+  private streamSubscription?: Subscription;
+
   transferencia: Transferencia = {
     fromId: 0,
     toId: 0,
@@ -37,6 +40,11 @@ export class BeneficioListComponent implements OnInit {
 
   ngOnInit() {
     this.loadBeneficios();
+    this.streamSubscription = this.beneficioService.stream().subscribe(delta => this.aplicarDelta(delta));
+  }
+
+  ngOnDestroy() {
+    this.streamSubscription?.unsubscribe();
   }
 
   loadBeneficios() {
@@ -91,9 +99,9 @@ export class BeneficioListComponent implements OnInit {
   saveBeneficio() {
     if (this.isEditMode && this.selectedBeneficio?.id) {
       this.beneficioService.update(this.selectedBeneficio.id, this.beneficioForm).subscribe({
-        next: () => {
+        next: (atualizado) => {
           this.successMessage = 'Benefício atualizado com sucesso!';
-          this.loadBeneficios();
+          this.aplicarBeneficio(atualizado);
           this.closeModal();
         },
         error: (error) => {
@@ -102,9 +110,9 @@ export class BeneficioListComponent implements OnInit {
       });
     } else {
       this.beneficioService.create(this.beneficioForm).subscribe({
-        next: () => {
+        next: (criado) => {
           this.successMessage = 'Benefício criado com sucesso!';
-          this.loadBeneficios();
+          this.aplicarBeneficio(criado);
           this.closeModal();
         },
         error: (error) => {
@@ -119,7 +127,7 @@ export class BeneficioListComponent implements OnInit {
       this.beneficioService.delete(id).subscribe({
         next: () => {
           this.successMessage = 'Benefício excluído com sucesso!';
-          this.loadBeneficios();
+          this.beneficios = this.beneficios.filter(b => b.id !== id);
         },
         error: (error) => {
           this.errorMessage = 'Erro ao excluir benefício: ' + error.message;
@@ -132,7 +140,6 @@ export class BeneficioListComponent implements OnInit {
     this.beneficioService.transfer(this.transferencia).subscribe({
       next: () => {
         this.successMessage = 'Transferência realizada com sucesso!';
-        this.loadBeneficios();
         this.closeModal();
       },
       error: (error) => {
@@ -141,6 +148,46 @@ export class BeneficioListComponent implements OnInit {
     });
   }
 
+  /**
+   * Aplica uma alteração recebida pelo stream. Versões mais antigas que a exibida são
+   * ignoradas; benefícios ainda desconhecidos são buscados individualmente.
+   */
+  private aplicarDelta(delta: BeneficioDelta) {
+    if (delta.tipo === 'RESSINCRONIZAR') {
+      this.loadBeneficios();
+      return;
+    }
+    if (delta.tipo === 'REMOVIDO') {
+      this.beneficios = this.beneficios.filter(b => b.id !== delta.id);
+      return;
+    }
+    const atual = this.beneficios.find(b => b.id === delta.id);
+    if (!atual) {
+      this.beneficioService.getById(delta.id!).subscribe({
+        next: (beneficio) => this.aplicarBeneficio(beneficio),
+        error: () => {}
+      });
+      return;
+    }
+    if (!this.maisAntigo(delta.version, atual.version)) {
+      atual.valor = delta.valor!;
+      atual.version = delta.version ?? atual.version;
+    }
+  }
+
+  private aplicarBeneficio(beneficio: Beneficio) {
+    const indice = this.beneficios.findIndex(b => b.id === beneficio.id);
+    if (indice < 0) {
+      this.beneficios = [...this.beneficios, beneficio].sort((a, b) => a.id! - b.id!);
+    } else if (!this.maisAntigo(beneficio.version, this.beneficios[indice].version)) {
+      this.beneficios[indice] = beneficio;
+    }
+  }
+
+  private maisAntigo(version?: number | null, atual?: number | null): boolean {
+    return version != null && atual != null && version < atual;
+  }
+
   clearMessages() {
     this.errorMessage = '';
     this.successMessage = '';
@@ -13,3 +13,10 @@ export interface Transferencia {
   amount: number;
 }
 
+
+export interface BeneficioDelta {
+  tipo: 'CRIADO' | 'ATUALIZADO' | 'REMOVIDO' | 'RESSINCRONIZAR';
+  id?: number;
+  valor?: number;
+  version?: number | null;
+}
@@ -2,7 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpErrorResponse } from '@angular/common/http';
 import { Observable, throwError } from 'rxjs';
 import { catchError } from 'rxjs/operators';
-import { Beneficio, Transferencia } from '../models/beneficio.model';
+import { Beneficio, BeneficioDelta, Transferencia } from '../models/beneficio.model';
 
 @Injectable({
   providedIn: 'root'
@@ -48,6 +48,26 @@ export class BeneficioService {
     );
   }
 
+  /**
+   * Alterações confirmadas no servidor (SSE). Após uma reconexão, e quando o servidor
+   * descarta deltas de um cliente lento, emite RESSINCRONIZAR: a lista deve ser recarregada.
+   */
+  stream(): Observable<BeneficioDelta> {
+    return new Observable<BeneficioDelta>(subscriber => {
+      const source = new EventSource(`${this.apiUrl}/stream`);
+      let conectado = false;
+      source.onopen = () => {
+        if (conectado) {
+          subscriber.next({ tipo: 'RESSINCRONIZAR' });
+        }
+        conectado = true;
+      };
+      source.addEventListener('delta', event => subscriber.next(JSON.parse((event as MessageEvent).data)));
+      source.addEventListener('ressincronizar', () => subscriber.next({ tipo: 'RESSINCRONIZAR' }));
+      return () => source.close();
+    });
+  }
+
   private handleError(error: HttpErrorResponse) {
     let errorMessage = 'Ocorreu um erro desconhecido';
     